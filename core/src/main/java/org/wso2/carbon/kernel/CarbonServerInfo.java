@@ -15,11 +15,58 @@
  */
 package org.wso2.carbon.kernel;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * CarbonServerInfo register as an OSGi service when the server startup finalization completed. This can be used to
  * identify the completion of server start up.
+ * <p>
+ * It also carries the startup phase timeline recorded from the launcher up to the completion of the startup order
+ * resolver.
  *
  * @since 5.0.0
  */
 public class CarbonServerInfo {
+
+    private final Map<String, Long> startupPhaseDurations;
+    private final long startupDuration;
+
+    public CarbonServerInfo() {
+        this(Collections.emptyMap(), -1);
+    }
+
+    /**
+     * Creates a CarbonServerInfo with the given startup timeline.
+     *
+     * @param startupPhaseDurations duration of each startup phase in nanoseconds, in the order of execution
+     * @param startupDuration       total startup duration in nanoseconds, or -1 if it is not known
+     * @since 5.3.1
+     */
+    public CarbonServerInfo(Map<String, Long> startupPhaseDurations, long startupDuration) {
+        this.startupPhaseDurations = Collections.unmodifiableMap(new LinkedHashMap<>(startupPhaseDurations));
+        this.startupDuration = startupDuration;
+    }
+
+    /**
+     * Returns the duration of each startup phase, in the order of execution.
+     *
+     * @return an unmodifiable map of phase names to durations in nanoseconds
+     * @since 5.3.1
+     */
+    public Map<String, Long> getStartupPhaseDurations() {
+        return startupPhaseDurations;
+    }
+
+    /**
+     * Returns the total startup duration, measured from the launcher start to the completion of the startup order
+     * resolver.
+     *
+     * @return startup duration in nanoseconds, or -1 if the server was not started by the Carbon launcher
+     * @since 5.3.1
+     */
+    public long getStartupDuration() {
+        return startupDuration;
+    }
 }
@@ -32,6 +32,11 @@ public final class Constants {
     public static final String MAVEN_PROJECT_VERSION = "MAVEN_PROJECT_VERSION";
 
     public static final String START_TIME = "carbon.start.time";
+    public static final String STARTUP_TIMELINE = "carbon.startup.timeline";
+    public static final String STARTUP_REPORT_FILE = "startup-report.json";
+    public static final String COUNTERS_FILE = "carbon.counters";
+    public static final String SHUTDOWN_DEADLINE = "carbon.shutdown.deadline";
+    public static final String RUNTIME_PATH = "wso2.runtime.path";
     public static final String LOGIN_MODULE_ENTRY = "CarbonSecurityConfig";
     public static final String DEFAULT_TENANT = "default";
     public static final String TENANT_NAME = "tenant.name";
@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.cache;
+
+import java.util.function.Function;
+
+/**
+ * Named cache obtained from the {@link CacheService}.
+ * <p>
+ * Every operation works on the partition of the tenant of the current carbon context, so entries of one tenant are
+ * never visible to another. Each partition is bounded by the maximum size of the cache, evicting the least recently
+ * used entries, and entries expire once the expiry time of the cache has passed since they were written.
+ * <p>
+ * Caches are thread safe. Keys and values must not be null.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ * @since 5.3.1
+ */
+public interface Cache<K, V> {
+
+    /**
+     * @return name of the cache
+     */
+    String getName();
+
+    /**
+     * Returns the value cached for the given key.
+     *
+     * @param key the key
+     * @return the cached value, or null if there is none
+     */
+    V get(K key);
+
+    /**
+     * Returns the value cached for the given key, loading and caching it if there is none. The loader runs without
+     * holding any lock of the cache, so concurrent misses of the same key may load the value more than once.
+     *
+     * @param key    the key
+     * @param loader function which loads the value of a key; a null result is not cached
+     * @return the cached or loaded value
+     */
+    V get(K key, Function<? super K, ? extends V> loader);
+
+    /**
+     * Caches the given value, replacing any value cached for the key.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    void put(K key, V value);
+
+    /**
+     * Removes the value cached for the given key.
+     *
+     * @param key the key
+     */
+    void remove(K key);
+
+    /**
+     * Removes all the values cached for the current tenant.
+     */
+    void clear();
+
+    /**
+     * @return number of values cached for the current tenant
+     */
+    int size();
+}
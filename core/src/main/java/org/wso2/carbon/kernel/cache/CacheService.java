@@ -0,0 +1,68 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.cache;
+
+import org.wso2.carbon.kernel.context.CarbonContext;
+
+/**
+ * OSGi service providing named, bounded caches shared by the components of the server.
+ * <p>
+ * Caches are partitioned by tenant. The tenant of an operation is the {@link CarbonContext#TENANT} property of the
+ * current carbon context, or the tenant of the server configuration if the property is not set. The hit, miss and
+ * eviction counts of the caches are published over JMX.
+ *
+ * @since 5.3.1
+ */
+public interface CacheService {
+
+    /**
+     * Returns the cache with the given name, creating it with the default size and expiry time of the server
+     * configuration if it does not exist.
+     *
+     * @param name name of the cache
+     * @param <K>  type of the keys
+     * @param <V>  type of the values
+     * @return the cache
+     */
+    <K, V> Cache<K, V> getCache(String name);
+
+    /**
+     * Returns the cache with the given name, creating it with the given settings if it does not exist. The settings
+     * of an existing cache are not changed.
+     *
+     * @param name        name of the cache
+     * @param maximumSize maximum number of entries of each tenant
+     * @param expiryTime  time in milliseconds after which an entry expires once written, or 0 if entries do not expire
+     * @param <K>         type of the keys
+     * @param <V>         type of the values
+     * @return the cache
+     */
+    <K, V> Cache<K, V> getCache(String name, int maximumSize, long expiryTime);
+
+    /**
+     * Removes the cache with the given name, with the entries of all the tenants.
+     *
+     * @param name name of the cache
+     */
+    void removeCache(String name);
+
+    /**
+     * Removes the entries of the given tenant from all the caches, for example when the tenant is unloaded.
+     *
+     * @param tenant the tenant
+     */
+    void clearTenant(String tenant);
+}
@@ -0,0 +1,80 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.config;
+
+import org.wso2.carbon.kernel.config.model.CarbonConfiguration;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes a change of the {@link CarbonConfiguration}, which is published to the
+ * {@link ConfigurationChangeListener} services.
+ * <p>
+ * A changed element is identified by the dotted path of the element in the deployment.yaml, relative to the
+ * {@code wso2.carbon} namespace. e.g. {@code jmx.rmiRegistryPort} or {@code startupResolver.capabilityListenerTimer}.
+ *
+ * @since 5.3.1
+ */
+public class ConfigurationChangeEvent {
+    private final CarbonConfiguration previousConfiguration;
+    private final CarbonConfiguration configuration;
+    private final List<String> changedElements;
+
+    public ConfigurationChangeEvent(CarbonConfiguration previousConfiguration, CarbonConfiguration configuration,
+                                    List<String> changedElements) {
+        this.previousConfiguration = previousConfiguration;
+        this.configuration = configuration;
+        this.changedElements = Collections.unmodifiableList(changedElements);
+    }
+
+    /**
+     * @return the configuration before the change
+     */
+    public CarbonConfiguration getPreviousConfiguration() {
+        return previousConfiguration;
+    }
+
+    /**
+     * @return the configuration after the change
+     */
+    public CarbonConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * @return dotted paths of the changed elements
+     */
+    public List<String> getChangedElements() {
+        return changedElements;
+    }
+
+    /**
+     * Checks whether the given element, or any element nested in it, is changed.
+     *
+     * @param element dotted path of the element. e.g. {@code jmx}
+     * @return true if the element or one of its nested elements is changed
+     */
+    public boolean isChanged(String element) {
+        for (String changedElement : changedElements) {
+            if (changedElement.equals(element) || (changedElement.startsWith(element)
+                    && changedElement.charAt(element.length()) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
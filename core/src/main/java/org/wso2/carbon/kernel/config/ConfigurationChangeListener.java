@@ -0,0 +1,39 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.config;
+
+/**
+ * Listens to the changes of the {@link org.wso2.carbon.kernel.config.model.CarbonConfiguration}.
+ * <p>
+ * When the reload of the deployment.yaml is enabled, the kernel watches the file and notifies all the listeners
+ * registered as OSGi services whenever a change to the file changes a value of the configuration. The new
+ * configuration is already set to the {@link org.wso2.carbon.kernel.CarbonRuntime} by the time a listener is notified.
+ * <p>
+ * Listeners are notified one after the other, on the thread which watches the file, so a listener should apply the
+ * change it is interested in and return.
+ *
+ * @since 5.3.1
+ */
+@FunctionalInterface
+public interface ConfigurationChangeListener {
+
+    /**
+     * Called after the configuration is reloaded with one or more changed values.
+     *
+     * @param event the previous and the new configuration, and the changed elements
+     */
+    void configurationChanged(ConfigurationChangeEvent event);
+}
@@ -0,0 +1,51 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.config.model;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+
+/**
+ * Config bean for the kernel cache service.
+ *
+ * @since 5.3.1
+ */
+@Configuration(description = "Kernel cache service configurations")
+public class CacheConfig {
+
+    @Element(description = "default maximum number of entries of each tenant in a cache")
+    private int maximumSize = 10000;
+
+    @Element(description = "default time in milliseconds after which a cache entry expires once written, "
+            + "0 for no expiry")
+    private long expiryTime = 900000;
+
+    @Element(description = "maximum number of tenants with entries in a cache, beyond which the entries of the least "
+            + "recently used tenant are evicted")
+    private int maximumTenants = 100;
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getExpiryTime() {
+        return expiryTime;
+    }
+
+    public int getMaximumTenants() {
+        return maximumTenants;
+    }
+}
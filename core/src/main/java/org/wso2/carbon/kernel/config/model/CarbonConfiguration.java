@@ -64,6 +64,24 @@ public class CarbonConfiguration {
     @Element(description = "JMX Configuration")
     private JMXConfiguration jmx = new JMXConfiguration();
 
+    @Element(description = "Server startup configuration")
+    private StartupConfig startup = new StartupConfig();
+
+    @Element(description = "Server shutdown configuration")
+    private ShutdownConfig shutdown = new ShutdownConfig();
+
+    @Element(description = "Kernel cache service configuration")
+    private CacheConfig cache = new CacheConfig();
+
+    @Element(description = "Prometheus metrics endpoint configuration")
+    private MetricsConfig metrics = new MetricsConfig();
+
+    @Element(description = "Memory mapped kernel counters configuration")
+    private CountersConfig counters = new CountersConfig();
+
+    @Element(description = "Configuration reload configuration")
+    private ReloadConfig reload = new ReloadConfig();
+
     public String getId() {
         return id;
     }
@@ -103,4 +121,28 @@ public class CarbonConfiguration {
     public JMXConfiguration getJmxConfiguration() {
         return jmx;
     }
+
+    public StartupConfig getStartupConfig() {
+        return startup;
+    }
+
+    public CacheConfig getCacheConfig() {
+        return cache;
+    }
+
+    public MetricsConfig getMetricsConfig() {
+        return metrics;
+    }
+
+    public CountersConfig getCountersConfig() {
+        return counters;
+    }
+
+    public ReloadConfig getReloadConfig() {
+        return reload;
+    }
+
+    public ShutdownConfig getShutdownConfig() {
+        return shutdown;
+    }
 }
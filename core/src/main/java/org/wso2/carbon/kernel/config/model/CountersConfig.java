@@ -0,0 +1,43 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.config.model;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+
+/**
+ * Config bean for the memory mapped kernel counters.
+ *
+ * @since 5.3.1
+ */
+@Configuration(description = "Memory mapped kernel counters configurations")
+public class CountersConfig {
+
+    @Element(description = "To stop publishing the kernel counters to the runtime directory, change this value to "
+            + "false")
+    private boolean enabled = true;
+
+    @Element(description = "interval in milliseconds at which the kernel counters are updated")
+    private long updateInterval = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getUpdateInterval() {
+        return updateInterval;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.config.model;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+
+/**
+ * Config bean for the Prometheus metrics endpoint.
+ *
+ * @since 5.3.1
+ */
+@Configuration(description = "Prometheus metrics endpoint configurations")
+public class MetricsConfig {
+
+    @Element(description = "To serve the kernel and JVM metrics in the Prometheus text format, change this value to "
+            + "true")
+    private boolean enabled = false;
+
+    @Element(description = "host name or address the metrics endpoint binds to")
+    private String hostName = "127.0.0.1";
+
+    @Element(description = "port of the metrics endpoint, the port offset is added to it")
+    private int port = 9797;
+
+    @Element(description = "context path of the metrics endpoint")
+    private String path = "/metrics";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getHostName() {
+        return hostName;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.config.model;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+
+/**
+ * Config bean for reloading the deployment.yaml while the server is running.
+ *
+ * @since 5.3.1
+ */
+@Configuration(description = "Configuration reload related configurations")
+public class ReloadConfig {
+
+    @Element(description = "To watch the deployment.yaml and apply the changed values without a restart, change this "
+            + "value to true")
+    private boolean enabled = false;
+
+    @Element(description = "quiet period in milliseconds to wait after a change, before the file is read")
+    private long delay = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getDelay() {
+        return delay;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.config.model;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+
+/**
+ * Config bean for the server shutdown.
+ *
+ * @since 5.3.1
+ */
+@Configuration(description = "Server shutdown related configurations. The overall shutdown timeout is set with the "
+        + "carbon.shutdown.timeout property in the launch.properties file")
+public class ShutdownConfig {
+
+    @Element(description = "maximum time in milliseconds to wait for the runtimes to stop")
+    private long runtimeStopTimeout = 10000;
+
+    public long getRuntimeStopTimeout() {
+        return runtimeStopTimeout;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.config.model;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Config bean for the server startup.
+ *
+ * @since 5.3.1
+ */
+@Configuration(description = "Server startup related configurations")
+public class StartupConfig {
+
+    @Element(description = "maximum time in milliseconds to wait for a runtime to start")
+    private long runtimeStartTimeout = 300000;
+
+    @Element(description = "names of the runtimes which are initialized and warmed up, but kept in standby instead "
+            + "of being started, until they are promoted through the RuntimeService")
+    private List<String> standbyRuntimes = new ArrayList<>();
+
+    public long getRuntimeStartTimeout() {
+        return runtimeStartTimeout;
+    }
+
+    public List<String> getStandbyRuntimes() {
+        return standbyRuntimes;
+    }
+}
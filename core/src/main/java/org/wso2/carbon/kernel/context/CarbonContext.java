@@ -27,6 +27,14 @@ import java.security.Principal;
  * @since 5.1.0
  */
 public class CarbonContext {
+    /**
+     * Property holding the tenant the current thread is working for. Tenant aware kernel services, such as the
+     * cache service, fall back to the tenant of the server configuration if it is not set.
+     *
+     * @since 5.3.1
+     */
+    public static final ContextKey<String> TENANT = ContextKey.of("carbon.tenant", String.class);
+
     private CarbonContextHolder carbonContextHolder = null;
 
     /**
@@ -55,12 +63,19 @@ public class CarbonContext {
     }
 
     /**
-     * Returns the carbon context instance which is stored at current thread local space.
+     * Returns the carbon context instance which is stored at current thread local space. The instance is created once
+     * per thread local carbon context holder and reused afterwards.
      *
      * @return the carbon context instance.
      */
     public static CarbonContext getCurrentContext() {
-        return new CarbonContext(CarbonContextHolder.getCurrentContextHolder());
+        CarbonContextHolder carbonContextHolder = CarbonContextHolder.getCurrentContextHolder();
+        CarbonContext carbonContext = carbonContextHolder.getCarbonContext(false);
+        if (carbonContext == null) {
+            carbonContext = new CarbonContext(carbonContextHolder);
+            carbonContextHolder.setCarbonContext(carbonContext, false);
+        }
+        return carbonContext;
     }
 
     /**
@@ -82,4 +97,17 @@ public class CarbonContext {
     public Object getProperty(String name) {
         return getCarbonContextHolder().getProperty(name);
     }
+
+    /**
+     * Method the lookup currently stored property with the carbon context instance using the given typed key. This
+     * avoids the hash lookup of {@link #getProperty(String)}.
+     *
+     * @param key property key to lookup.
+     * @param <T> type of the property value.
+     * @return the value stored using the given key, or null if no value is already set.
+     * @since 5.3.1
+     */
+    public <T> T getProperty(ContextKey<T> key) {
+        return getCarbonContextHolder().getProperty(key);
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.context;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Executors and asynchronous tasks which run with the carbon context of the thread submitting them.
+ * <p>
+ * The carbon context is captured as a {@link CarbonContextSnapshot} when a task is submitted, and restored on the
+ * thread running the task for the duration of the task. For stages of a {@link CompletableFuture} which run after
+ * the submitting thread moved on, wrap the stage function with a snapshot captured when building the pipeline:
+ * <pre>
+ * CarbonContextSnapshot snapshot = CarbonContextSnapshot.capture();
+ * CarbonContextExecutors.supplyAsync(this::load, executor)
+ *         .thenApplyAsync(snapshot.wrap(this::transform), executor);
+ * </pre>
+ *
+ * @since 5.3.1
+ */
+public final class CarbonContextExecutors {
+
+    private CarbonContextExecutors() {
+    }
+
+    /**
+     * Wraps the given executor so that its tasks run with the carbon context of the submitting thread.
+     *
+     * @param executor the executor to wrap.
+     * @return the wrapped executor.
+     */
+    public static Executor wrap(Executor executor) {
+        return task -> executor.execute(CarbonContextSnapshot.capture().wrap(task));
+    }
+
+    /**
+     * Wraps the given executor service so that its tasks run with the carbon context of the submitting thread.
+     *
+     * @param executorService the executor service to wrap.
+     * @return the wrapped executor service.
+     */
+    public static ExecutorService wrap(ExecutorService executorService) {
+        return new CarbonContextExecutorService(executorService);
+    }
+
+    /**
+     * Runs the given supplier asynchronously on the given executor, with the carbon context of the calling thread.
+     *
+     * @param supplier the supplier to run.
+     * @param executor the executor to run the supplier on.
+     * @param <U>      the result type of the supplier.
+     * @return the future completed with the result of the supplier.
+     */
+    public static <U> CompletableFuture<U> supplyAsync(Supplier<U> supplier, Executor executor) {
+        return CompletableFuture.supplyAsync(CarbonContextSnapshot.capture().wrap(supplier), executor);
+    }
+
+    /**
+     * Runs the given task asynchronously on the given executor, with the carbon context of the calling thread.
+     *
+     * @param task     the task to run.
+     * @param executor the executor to run the task on.
+     * @return the future completed when the task completes.
+     */
+    public static CompletableFuture<Void> runAsync(Runnable task, Executor executor) {
+        return CompletableFuture.runAsync(CarbonContextSnapshot.capture().wrap(task), executor);
+    }
+
+    /**
+     * Executor service which captures the carbon context when a task is submitted. The submit and invoke methods of
+     * {@link AbstractExecutorService} all go through {@link #execute(Runnable)}.
+     */
+    private static final class CarbonContextExecutorService extends AbstractExecutorService {
+        private final ExecutorService executorService;
+
+        private CarbonContextExecutorService(ExecutorService executorService) {
+            this.executorService = executorService;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            executorService.execute(CarbonContextSnapshot.capture().wrap(command));
+        }
+
+        @Override
+        public void shutdown() {
+            executorService.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return executorService.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return executorService.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return executorService.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return executorService.awaitTermination(timeout, unit);
+        }
+    }
+}
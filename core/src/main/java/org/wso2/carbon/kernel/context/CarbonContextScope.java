@@ -0,0 +1,83 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.context;
+
+import org.wso2.carbon.kernel.internal.context.CarbonContextHolder;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Bounded carbon context for a single request. Within the scope, {@link CarbonContext} and
+ * {@link PrivilegedCarbonContext} work on a new, empty context; when the scope ends the context is discarded and the
+ * context of the enclosing scope is back in place. A thread which only handles requests in scopes does not keep any
+ * carbon context after the request, so there is no need to call {@link PrivilegedCarbonContext#destroyCurrentContext()}.
+ * This suits large numbers of short lived request threads.
+ * <pre>
+ * CarbonContextScope.run(() -&gt; {
+ *     PrivilegedCarbonContext.getCurrentContext().setUserPrincipal(principal);
+ *     ...
+ * });
+ * </pre>
+ * Scopes nest, and must be closed on the thread which opened them, in reverse order.
+ *
+ * @since 5.3.1
+ */
+public final class CarbonContextScope implements AutoCloseable {
+    private final CarbonContextHolder previous;
+
+    private CarbonContextScope(CarbonContextHolder previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Opens a new carbon context scope on the current thread.
+     *
+     * @return the scope, to be closed when the request completes.
+     */
+    public static CarbonContextScope open() {
+        return new CarbonContextScope(CarbonContextHolder.openScope());
+    }
+
+    /**
+     * Runs the given task in a new carbon context scope.
+     *
+     * @param task the task to run.
+     */
+    public static void run(Runnable task) {
+        try (CarbonContextScope ignored = open()) {
+            task.run();
+        }
+    }
+
+    /**
+     * Calls the given task in a new carbon context scope.
+     *
+     * @param task the task to call.
+     * @param <V>  the result type of the task.
+     * @return the result of the task.
+     * @throws Exception if the task fails.
+     */
+    public static <V> V call(Callable<V> task) throws Exception {
+        try (CarbonContextScope ignored = open()) {
+            return task.call();
+        }
+    }
+
+    @Override
+    public void close() {
+        CarbonContextHolder.closeScope(previous);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.context;
+
+import org.slf4j.MDC;
+import org.wso2.carbon.kernel.internal.context.CarbonContextHolder;
+import org.wso2.carbon.utils.Utils;
+
+import java.security.Principal;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Immutable snapshot of the carbon context of a thread, which can be restored on other threads to carry the user
+ * principal and the properties across thread pools and asynchronous stages.
+ * <p>
+ * Capturing does not copy the properties. The snapshot shares them with the captured context, which copies them
+ * only if it is modified afterwards.
+ * <pre>
+ * CarbonContextSnapshot snapshot = CarbonContextSnapshot.capture();
+ * executor.execute(() -&gt; {
+ *     try (CarbonContextSnapshot.Scope scope = snapshot.restore()) {
+ *         ...
+ *     }
+ * });
+ * </pre>
+ * {@link CarbonContextExecutors} wraps executors and asynchronous tasks in this way.
+ *
+ * @since 5.3.1
+ */
+public final class CarbonContextSnapshot {
+    private static final String USER_NAME = "user-name";
+
+    private final CarbonContextHolder.State state;
+
+    private CarbonContextSnapshot(CarbonContextHolder.State state) {
+        this.state = state;
+    }
+
+    /**
+     * Captures the carbon context of the current thread. Since the snapshot allows acting as the current user on
+     * another thread, capturing is a privileged action.
+     *
+     * @return the snapshot of the current carbon context.
+     */
+    public static CarbonContextSnapshot capture() {
+        Utils.checkSecurity();
+        return new CarbonContextSnapshot(CarbonContextHolder.getCurrentContextHolder().capture());
+    }
+
+    /**
+     * Makes this snapshot the carbon context of the current thread, until the returned scope is closed.
+     *
+     * @return the scope which restores the previous carbon context when closed.
+     */
+    public Scope restore() {
+        CarbonContextHolder.State previous = CarbonContextHolder.getCurrentContextHolder().restore(state);
+        String previousUserName = MDC.get(USER_NAME);
+        Principal userPrincipal = state.getUserPrincipal();
+        putUserName(userPrincipal == null ? null : userPrincipal.getName());
+        return new Scope(previous, previousUserName);
+    }
+
+    /**
+     * Runs the given task with this snapshot as the carbon context.
+     *
+     * @param task the task to run.
+     */
+    public void run(Runnable task) {
+        try (Scope ignored = restore()) {
+            task.run();
+        }
+    }
+
+    /**
+     * Calls the given task with this snapshot as the carbon context.
+     *
+     * @param task the task to call.
+     * @param <V>  the result type of the task.
+     * @return the result of the task.
+     * @throws Exception if the task fails.
+     */
+    public <V> V call(Callable<V> task) throws Exception {
+        try (Scope ignored = restore()) {
+            return task.call();
+        }
+    }
+
+    public Runnable wrap(Runnable task) {
+        return () -> run(task);
+    }
+
+    public <V> Callable<V> wrap(Callable<V> task) {
+        return () -> call(task);
+    }
+
+    public <V> Supplier<V> wrap(Supplier<V> task) {
+        return () -> {
+            try (Scope ignored = restore()) {
+                return task.get();
+            }
+        };
+    }
+
+    public <T, R> Function<T, R> wrap(Function<T, R> task) {
+        return value -> {
+            try (Scope ignored = restore()) {
+                return task.apply(value);
+            }
+        };
+    }
+
+    /**
+     * @return the user principal captured in this snapshot, or null if no principal was set.
+     */
+    public Principal getUserPrincipal() {
+        return state.getUserPrincipal();
+    }
+
+    private static void putUserName(String userName) {
+        if (userName == null) {
+            MDC.remove(USER_NAME);
+        } else {
+            MDC.put(USER_NAME, userName);
+        }
+    }
+
+    /**
+     * Scope in which a {@link CarbonContextSnapshot} is the carbon context of the thread. Closing it restores the
+     * carbon context which was replaced. Scopes must be closed on the thread which opened them, in reverse order.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final CarbonContextHolder.State previous;
+        private final String previousUserName;
+
+        private Scope(CarbonContextHolder.State previous, String previousUserName) {
+            this.previous = previous;
+            this.previousUserName = previousUserName;
+        }
+
+        @Override
+        public void close() {
+            CarbonContextHolder.getCurrentContextHolder().restore(previous);
+            putUserName(previousUserName);
+        }
+    }
+}
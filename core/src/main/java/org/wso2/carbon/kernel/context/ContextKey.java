@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Typed key of a {@link CarbonContext} property.
+ * <p>
+ * Each key owns a slot in the per thread property array of the carbon context, so that reading or writing a property
+ * through its key is an array access instead of a hash map lookup. Keys are meant to be created once and kept in
+ * static final fields:
+ * <pre>
+ * public static final ContextKey&lt;String&gt; MESSAGE_ID = ContextKey.of("messageId", String.class);
+ * </pre>
+ * The property is also visible through the string based API under the name of the key. Since slots are never
+ * released, keys should not be created for dynamic names.
+ *
+ * @param <T> type of the property value
+ * @since 5.3.1
+ */
+public final class ContextKey<T> {
+    private static final Map<String, ContextKey<?>> keys = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextSlot = new AtomicInteger();
+
+    private final String name;
+    private final Class<T> type;
+    private final int slot;
+
+    private ContextKey(String name, Class<T> type, int slot) {
+        this.name = name;
+        this.type = type;
+        this.slot = slot;
+    }
+
+    /**
+     * Returns the key of the given property, creating it if it does not exist yet.
+     *
+     * @param name property name
+     * @param type type of the property value
+     * @param <T>  type of the property value
+     * @return the property key
+     * @throws IllegalArgumentException if a key with the same name but a different type exists
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ContextKey<T> of(String name, Class<T> type) {
+        ContextKey<?> key = keys.computeIfAbsent(name, keyName ->
+                new ContextKey<>(keyName, type, nextSlot.getAndIncrement()));
+        if (key.type != type) {
+            throw new IllegalArgumentException("Context key " + name + " already exists with the type "
+                    + key.type.getName());
+        }
+        return (ContextKey<T>) key;
+    }
+
+    /**
+     * Returns the key of the given property, if one was created.
+     *
+     * @param name property name
+     * @return the property key, or null if no key was created with the given name
+     */
+    public static ContextKey<?> lookup(String name) {
+        return keys.get(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @return index of the slot holding the property value
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    @Override
+    public String toString() {
+        return "ContextKey{" + name + ": " + type.getName() + "}";
+    }
+}
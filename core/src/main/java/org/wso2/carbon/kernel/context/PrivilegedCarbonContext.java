@@ -20,6 +20,7 @@ import org.wso2.carbon.kernel.internal.context.CarbonContextHolder;
 import org.wso2.carbon.utils.Utils;
 
 import java.security.Principal;
+import java.util.Map;
 
 
 /**
@@ -43,7 +44,13 @@ public final class PrivilegedCarbonContext extends CarbonContext {
      */
     public static PrivilegedCarbonContext getCurrentContext() {
         Utils.checkSecurity();
-        return new PrivilegedCarbonContext(CarbonContextHolder.getCurrentContextHolder());
+        CarbonContextHolder carbonContextHolder = CarbonContextHolder.getCurrentContextHolder();
+        CarbonContext carbonContext = carbonContextHolder.getCarbonContext(true);
+        if (carbonContext == null) {
+            carbonContext = new PrivilegedCarbonContext(carbonContextHolder);
+            carbonContextHolder.setCarbonContext(carbonContext, true);
+        }
+        return (PrivilegedCarbonContext) carbonContext;
     }
 
     /**
@@ -80,4 +87,30 @@ public final class PrivilegedCarbonContext extends CarbonContext {
         Utils.checkSecurity();
         getCarbonContextHolder().setProperty(name, value);
     }
+
+    /**
+     * Method to set a property with carbon context instance using its typed key. The stored property can be
+     * replaced with a new value by using the same key.
+     *
+     * @param key   the key of the property to be set.
+     * @param value the value of the property to be set.
+     * @param <T>   the type of the property value.
+     * @since 5.3.1
+     */
+    public <T> void setProperty(ContextKey<T> key, T value) {
+        Utils.checkSecurity();
+        getCarbonContextHolder().setProperty(key, value);
+    }
+
+    /**
+     * Method to set several properties with carbon context instance at once, with a single security check.
+     *
+     * @param properties the properties to be set, by name.
+     * @since 5.3.1
+     */
+    public void setProperties(Map<String, Object> properties) {
+        Utils.checkSecurity();
+        CarbonContextHolder carbonContextHolder = getCarbonContextHolder();
+        properties.forEach(carbonContextHolder::setProperty);
+    }
 }
@@ -17,6 +17,8 @@ package org.wso2.carbon.kernel.internal;
 
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.SynchronousBundleListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.kernel.jmx.MBeanRegistrator;
@@ -29,15 +31,35 @@ import org.wso2.carbon.kernel.jmx.MBeanRegistrator;
 public class CarbonCoreBundleActivator implements BundleActivator {
     private static final Logger logger = LoggerFactory.getLogger(CarbonCoreBundleActivator.class);
 
+    // Unregisters the MBeans left behind by a bundle once it is stopped.
+    private final SynchronousBundleListener mBeanCleaner = event -> {
+        if (event.getType() == BundleEvent.STOPPED) {
+            MBeanRegistrator.unregisterMBeans(event.getBundle());
+        }
+    };
+
     @Override
     public void start(BundleContext bundleContext) throws Exception {
         DataHolder.getInstance().setBundleContext(bundleContext);
+        bundleContext.addBundleListener(mBeanCleaner);
+        DataHolder.getInstance().setClassPreloader(ClassPreloader.start(bundleContext));
+        try {
+            MBeanRegistrator.registerMBean(new CarbonKernelMetrics());
+        } catch (RuntimeException e) {
+            logger.error("Error while registering the kernel metrics MBean", e);
+        }
         logger.debug("Carbon core bundle is started successfully");
     }
 
     @Override
     public void stop(BundleContext bundleContext) throws Exception {
+        bundleContext.removeBundleListener(mBeanCleaner);
         MBeanRegistrator.unregisterAllMBeans();
+        ClassPreloader classPreloader = DataHolder.getInstance().getClassPreloader();
+        if (classPreloader != null) {
+            classPreloader.stop();
+            DataHolder.getInstance().setClassPreloader(null);
+        }
         logger.debug("Carbon core bundle is stopped successfully");
     }
 }
@@ -1,16 +1,33 @@
 package org.wso2.carbon.kernel.internal;
 
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.util.tracker.ServiceTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.config.provider.ConfigProvider;
 import org.wso2.carbon.kernel.CarbonRuntime;
+import org.wso2.carbon.kernel.PrivilegedCarbonRuntime;
+import org.wso2.carbon.kernel.cache.CacheService;
+import org.wso2.carbon.kernel.config.ConfigurationChangeListener;
+import org.wso2.carbon.kernel.config.model.CarbonConfiguration;
+import org.wso2.carbon.kernel.config.model.ReloadConfig;
+import org.wso2.carbon.kernel.internal.cache.CarbonCacheService;
+import org.wso2.carbon.kernel.internal.config.CarbonConfigurationReloader;
 import org.wso2.carbon.kernel.internal.context.CarbonRuntimeFactory;
+import org.wso2.carbon.kernel.internal.utils.Utils;
+import org.wso2.carbon.kernel.jmx.MBeanRegistrator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 
 /**
@@ -25,6 +42,10 @@ import org.wso2.carbon.kernel.internal.context.CarbonRuntimeFactory;
 )
 public class CarbonCoreComponent {
     private static final Logger logger = LoggerFactory.getLogger(CarbonCoreComponent.class);
+    private ServiceTracker<ConfigurationChangeListener, ConfigurationChangeListener> listenerTracker;
+    private CarbonConfigurationReloader configurationReloader;
+    private CarbonCacheService cacheService;
+    private ServiceRegistration<CacheService> cacheServiceRegistration;
 
     @Activate
     public void activate() {
@@ -41,6 +62,24 @@ public class CarbonCoreComponent {
             DataHolder.getInstance().getBundleContext()
                     .registerService(CarbonRuntime.class.getName(), carbonRuntime, null);
 
+            // 4) Register the kernel cache service, and publish its statistics over JMX.
+            CarbonConfiguration carbonConfiguration = carbonRuntime.getConfiguration();
+            cacheService = new CarbonCacheService(carbonConfiguration.getTenant(),
+                    carbonConfiguration.getCacheConfig());
+            cacheServiceRegistration = DataHolder.getInstance().getBundleContext()
+                    .registerService(CacheService.class, cacheService, null);
+            try {
+                MBeanRegistrator.registerMBean(cacheService);
+            } catch (RuntimeException e) {
+                logger.error("Error while registering the cache service MBean", e);
+            }
+
+            // 5) Watch the deployment.yaml and publish the configuration changes, if enabled.
+            ReloadConfig reloadConfig = carbonConfiguration.getReloadConfig();
+            if (reloadConfig.isEnabled()) {
+                startConfigurationReloader((PrivilegedCarbonRuntime) carbonRuntime, reloadConfig.getDelay());
+            }
+
         } catch (Throwable throwable) {
             logger.error("Error while activating CarbonCoreComponent");
         }
@@ -49,6 +88,47 @@ public class CarbonCoreComponent {
     @Deactivate
     public void deactivate() {
         logger.debug("Deactivating CarbonCoreComponent");
+        if (configurationReloader != null) {
+            configurationReloader.stop();
+            configurationReloader = null;
+        }
+        if (listenerTracker != null) {
+            listenerTracker.close();
+            listenerTracker = null;
+        }
+        if (cacheServiceRegistration != null) {
+            cacheServiceRegistration.unregister();
+            cacheServiceRegistration = null;
+        }
+        if (cacheService != null) {
+            MBeanRegistrator.unregisterMBean(cacheService);
+            cacheService = null;
+        }
+    }
+
+    private void startConfigurationReloader(PrivilegedCarbonRuntime carbonRuntime, long delay) {
+        BundleContext bundleContext = DataHolder.getInstance().getBundleContext();
+        listenerTracker = new ServiceTracker<>(bundleContext, ConfigurationChangeListener.class, null);
+        listenerTracker.open();
+        configurationReloader = new CarbonConfigurationReloader(carbonRuntime, Utils.getCarbonYAMLLocation(), delay,
+                this::getConfigurationChangeListeners);
+        try {
+            configurationReloader.start();
+        } catch (Exception e) {
+            logger.error("Error while watching the configuration file, changes will be applied on restart", e);
+        }
+    }
+
+    private Collection<ConfigurationChangeListener> getConfigurationChangeListeners() {
+        Object[] services = listenerTracker.getServices();
+        if (services == null) {
+            return Collections.emptyList();
+        }
+        List<ConfigurationChangeListener> listeners = new ArrayList<>(services.length);
+        for (Object service : services) {
+            listeners.add((ConfigurationChangeListener) service);
+        }
+        return listeners;
     }
 
     @Reference(
@@ -0,0 +1,96 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.wso2.carbon.kernel.CarbonServerInfo;
+import org.wso2.carbon.kernel.internal.runtime.RuntimeManager;
+import org.wso2.carbon.kernel.jmx.MBeanRegistrator;
+import org.wso2.carbon.kernel.runtime.RuntimeState;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Collects the state of the Carbon kernel, from the {@link DataHolder}, into the {@link CarbonKernelMetricsMXBean}.
+ *
+ * @since 5.3.1
+ */
+public class CarbonKernelMetrics implements CarbonKernelMetricsMXBean {
+    private static final String CLASS_PRELOADER = "class-preloader";
+
+    @Override
+    public KernelMetricsSnapshot getSnapshot() {
+        DataHolder dataHolder = DataHolder.getInstance();
+
+        CarbonServerInfo carbonServerInfo = dataHolder.getCarbonServerInfo();
+        Supplier<Map<String, Integer>> startupResolverStates = dataHolder.getStartupResolverStates();
+        ClassPreloader classPreloader = dataHolder.getClassPreloader();
+
+        return new KernelMetricsSnapshot(System.currentTimeMillis(),
+                carbonServerInfo == null ? -1 : carbonServerInfo.getStartupDuration(),
+                carbonServerInfo == null ? null : carbonServerInfo.getStartupPhaseDurations(),
+                startupResolverStates == null ? null : startupResolverStates.get(),
+                getBundleStates(dataHolder.getBundleContext()),
+                getRuntimeStates(dataHolder.getRuntimeManager()),
+                Collections.singletonMap(CLASS_PRELOADER, classPreloader == null ? 0 : classPreloader.getQueueDepth()),
+                MBeanRegistrator.getMBeanCount());
+    }
+
+    private static Map<String, Integer> getBundleStates(BundleContext bundleContext) {
+        Map<String, Integer> bundleStates = new LinkedHashMap<>();
+        if (bundleContext == null) {
+            return bundleStates;
+        }
+        for (Bundle bundle : bundleContext.getBundles()) {
+            bundleStates.merge(getStateName(bundle.getState()), 1, Integer::sum);
+        }
+        return bundleStates;
+    }
+
+    private static Map<String, Integer> getRuntimeStates(RuntimeManager runtimeManager) {
+        Map<String, Integer> runtimeStates = new LinkedHashMap<>();
+        if (runtimeManager == null) {
+            return runtimeStates;
+        }
+        for (RuntimeState state : RuntimeState.values()) {
+            runtimeStates.put(state.name(), runtimeManager.getRuntimes(state).size());
+        }
+        return runtimeStates;
+    }
+
+    private static String getStateName(int state) {
+        switch (state) {
+            case Bundle.UNINSTALLED:
+                return "UNINSTALLED";
+            case Bundle.INSTALLED:
+                return "INSTALLED";
+            case Bundle.RESOLVED:
+                return "RESOLVED";
+            case Bundle.STARTING:
+                return "STARTING";
+            case Bundle.STOPPING:
+                return "STOPPING";
+            case Bundle.ACTIVE:
+                return "ACTIVE";
+            default:
+                return "UNKNOWN";
+        }
+    }
+}
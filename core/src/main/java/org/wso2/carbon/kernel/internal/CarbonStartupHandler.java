@@ -20,6 +20,9 @@ import org.slf4j.LoggerFactory;
 import org.wso2.carbon.kernel.CarbonServerInfo;
 import org.wso2.carbon.kernel.Constants;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.DecimalFormat;
 
 /**
@@ -50,9 +53,40 @@ public class CarbonStartupHandler {
     /**
      * Register the the CarbonServerInfo as an OSGi service. Other components can identify the server startup completion
      * by listening to the CarbonServerInfo Service registration.
+     * <p>
+     * The startup timeline recorded by the launcher is completed with the startup order resolver phase, published
+     * through the registered CarbonServerInfo and written to the startup report file. The classes loaded during the
+     * startup are no longer recorded for class preloading from this point on.
+     *
+     * @param serverName Server name to be in the startup report
      */
-    public static void registerCarbonServerInfoService() {
-        DataHolder.getInstance().getBundleContext().registerService(CarbonServerInfo.class,
-                new CarbonServerInfo(), null);
+    public static void registerCarbonServerInfoService(String serverName) {
+        StartupReport startupReport = StartupReport.fromSystemProperties();
+        startupReport.checkpoint(StartupReport.RESOLVER);
+        writeStartupReport(startupReport, serverName);
+
+        ClassPreloader classPreloader = DataHolder.getInstance().getClassPreloader();
+        if (classPreloader != null) {
+            classPreloader.stopRecording();
+        }
+
+        CarbonServerInfo carbonServerInfo = startupReport.toCarbonServerInfo();
+        DataHolder.getInstance().setCarbonServerInfo(carbonServerInfo);
+        DataHolder.getInstance().getBundleContext().registerService(CarbonServerInfo.class, carbonServerInfo, null);
+    }
+
+    private static void writeStartupReport(StartupReport startupReport, String serverName) {
+        String runtimePath = System.getProperty(Constants.RUNTIME_PATH);
+        if (runtimePath == null) {
+            logger.debug("Runtime path is not set, skipping the startup report");
+            return;
+        }
+
+        Path reportFile = Paths.get(runtimePath, "logs", Constants.STARTUP_REPORT_FILE);
+        try {
+            startupReport.write(serverName, reportFile);
+        } catch (IOException e) {
+            logger.warn("Failed to write the startup report to " + reportFile, e);
+        }
     }
 }
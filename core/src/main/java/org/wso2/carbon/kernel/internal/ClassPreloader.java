@@ -0,0 +1,270 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.framework.hooks.weaving.WeavingHook;
+import org.osgi.framework.hooks.weaving.WovenClass;
+import org.osgi.framework.wiring.BundleWiring;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records the classes loaded by each bundle during the server startup, and preloads the classes recorded by the
+ * previous startup in the background.
+ * <p>
+ * The classes are recorded with a {@link WeavingHook}, which the framework calls whenever it defines a class of a
+ * bundle. Recording starts when the Carbon core bundle starts and ends when the server startup completes. The trace
+ * is then written to the {@value #TRACE_FILE} file in the OSGi configuration area, one
+ * {@code <bundle symbolic name>\t<bundle version>\t<class name>} entry per line, in the order the classes were
+ * loaded.
+ * <p>
+ * At the next startup, the classes in the trace are loaded by a pool of low priority threads, one bundle per task,
+ * while the bundles are being activated. The classes are loaded without being initialized, so that no static
+ * initializer runs earlier than it would otherwise. Bundles with the lazy activation policy are not preloaded, since
+ * loading one of their classes may activate them.
+ *
+ * @since 5.3.1
+ */
+public class ClassPreloader implements WeavingHook {
+    private static final Logger logger = LoggerFactory.getLogger(ClassPreloader.class);
+
+    public static final String CLASS_PRELOAD_PROPERTY = "carbon.class.preload";
+    static final String TRACE_FILE = "carbon-class-preload.trace";
+    private static final String OSGI_CONFIG_AREA = "osgi.configuration.area";
+    private static final String SEPARATOR = "\t";
+
+    private final BundleContext bundleContext;
+    private final Path traceFile;
+    private final Queue<String> trace = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger preloadedClasses = new AtomicInteger();
+    private volatile boolean recording = true;
+    private ServiceRegistration<WeavingHook> registration;
+    private volatile ExecutorService executor;
+
+    ClassPreloader(BundleContext bundleContext, Path traceFile) {
+        this.bundleContext = bundleContext;
+        this.traceFile = traceFile;
+    }
+
+    /**
+     * Starts preloading the classes recorded by the previous startup and recording the classes loaded by this
+     * startup, if enabled by the {@value #CLASS_PRELOAD_PROPERTY} framework or system property.
+     *
+     * @param bundleContext bundle context of the Carbon core bundle
+     * @return the class preloader, or null if class preloading is not enabled
+     */
+    public static ClassPreloader start(BundleContext bundleContext) {
+        if (!Boolean.parseBoolean(bundleContext.getProperty(CLASS_PRELOAD_PROPERTY))) {
+            return null;
+        }
+
+        String configurationArea = bundleContext.getProperty(OSGI_CONFIG_AREA);
+        if (configurationArea == null) {
+            logger.warn("OSGi configuration area is not set, class preloading is disabled");
+            return null;
+        }
+
+        Path traceFile;
+        try {
+            traceFile = Paths.get(new URL(configurationArea).getPath(), TRACE_FILE);
+        } catch (MalformedURLException e) {
+            traceFile = Paths.get(configurationArea, TRACE_FILE);
+        }
+
+        ClassPreloader classPreloader = new ClassPreloader(bundleContext, traceFile);
+        classPreloader.preload(classPreloader.readTrace());
+        classPreloader.registration = bundleContext.registerService(WeavingHook.class, classPreloader, null);
+        return classPreloader;
+    }
+
+    @Override
+    public void weave(WovenClass wovenClass) {
+        if (!recording) {
+            return;
+        }
+        Bundle bundle = wovenClass.getBundleWiring().getBundle();
+        trace.add(bundle.getSymbolicName() + SEPARATOR + bundle.getVersion() + SEPARATOR + wovenClass.getClassName());
+    }
+
+    /**
+     * Stops recording the loaded classes and writes the trace used by the next startup.
+     */
+    public synchronized void stopRecording() {
+        if (!recording) {
+            return;
+        }
+        recording = false;
+        unregister();
+
+        try {
+            Files.createDirectories(traceFile.getParent());
+            Files.write(traceFile, new ArrayList<>(trace), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Failed to write the class preload trace to " + traceFile, e);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Recorded " + trace.size() + " classes loaded during the startup, preloaded "
+                    + preloadedClasses.get() + " classes");
+        }
+        trace.clear();
+    }
+
+    /**
+     * Stops recording without writing the trace, and stops preloading classes.
+     */
+    public synchronized void stop() {
+        recording = false;
+        unregister();
+        trace.clear();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the trace written by the previous startup.
+     *
+     * @return class names to preload, grouped by bundle symbolic name and version in the order of the first class
+     * load of each bundle
+     */
+    Map<String, List<String>> readTrace() {
+        Map<String, List<String>> classesByBundle = new LinkedHashMap<>();
+        if (!Files.exists(traceFile)) {
+            return classesByBundle;
+        }
+
+        try {
+            for (String line : Files.readAllLines(traceFile, StandardCharsets.UTF_8)) {
+                int classIndex = line.lastIndexOf(SEPARATOR);
+                if (classIndex <= 0) {
+                    continue;
+                }
+                classesByBundle.computeIfAbsent(line.substring(0, classIndex), key -> new ArrayList<>())
+                        .add(line.substring(classIndex + 1));
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read the class preload trace from " + traceFile, e);
+        }
+        return classesByBundle;
+    }
+
+    /**
+     * Preloads the given classes in the background.
+     *
+     * @param classesByBundle class names grouped by bundle symbolic name and version
+     */
+    void preload(Map<String, List<String>> classesByBundle) {
+        if (classesByBundle.isEmpty()) {
+            return;
+        }
+
+        Map<String, Bundle> bundles = new HashMap<>();
+        for (Bundle bundle : bundleContext.getBundles()) {
+            bundles.put(bundle.getSymbolicName() + SEPARATOR + bundle.getVersion(), bundle);
+        }
+
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "carbon-class-preloader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        threadPool.allowCoreThreadTimeOut(true);
+        executor = threadPool;
+
+        classesByBundle.forEach((bundleKey, classNames) -> {
+            Bundle bundle = bundles.get(bundleKey);
+            if (bundle != null) {
+                executor.execute(() -> preload(bundle, classNames));
+            }
+        });
+        executor.shutdown();
+    }
+
+    /**
+     * @return number of bundles waiting to be preloaded
+     */
+    int getQueueDepth() {
+        ExecutorService executorService = executor;
+        return executorService instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executorService).getQueue().size()
+                : 0;
+    }
+
+    private void preload(Bundle bundle, Collection<String> classNames) {
+        if (Constants.ACTIVATION_LAZY.equals(bundle.getHeaders("").get(Constants.BUNDLE_ACTIVATIONPOLICY))) {
+            return;
+        }
+        if ((bundle.getState() & (Bundle.RESOLVED | Bundle.ACTIVE)) == 0) {
+            return;
+        }
+        BundleWiring bundleWiring = bundle.adapt(BundleWiring.class);
+        ClassLoader classLoader = bundleWiring == null ? null : bundleWiring.getClassLoader();
+        if (classLoader == null) {
+            return;
+        }
+
+        for (String className : classNames) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            try {
+                Class.forName(className, false, classLoader);
+                preloadedClasses.incrementAndGet();
+            } catch (ClassNotFoundException | LinkageError e) {
+                // The class is no longer available. It is left out of the trace of this startup.
+            }
+        }
+    }
+
+    private void unregister() {
+        if (registration != null) {
+            try {
+                registration.unregister();
+            } catch (IllegalStateException e) {
+                // Already unregistered when the core bundle stopped.
+            }
+            registration = null;
+        }
+    }
+}
@@ -17,8 +17,12 @@ package org.wso2.carbon.kernel.internal;
 
 import org.osgi.framework.BundleContext;
 import org.wso2.carbon.config.provider.ConfigProvider;
+import org.wso2.carbon.kernel.CarbonServerInfo;
 import org.wso2.carbon.kernel.internal.runtime.RuntimeManager;
 
+import java.util.Map;
+import java.util.function.Supplier;
+
 /**
  * Carbon kernel DataHolder.
  *
@@ -32,6 +36,12 @@ public class DataHolder {
 
     private ConfigProvider configProvider;
 
+    private volatile ClassPreloader classPreloader;
+
+    private volatile CarbonServerInfo carbonServerInfo;
+
+    private volatile Supplier<Map<String, Integer>> startupResolverStates;
+
     public static DataHolder getInstance() {
         return instance;
     }
@@ -79,4 +89,58 @@ public class DataHolder {
     public void setConfigProvider(ConfigProvider configProvider) {
         this.configProvider = configProvider;
     }
+
+    /**
+     * Getter method of {@link ClassPreloader}.
+     *
+     * @return classPreloader, or null if class preloading is not enabled
+     */
+    public ClassPreloader getClassPreloader() {
+        return classPreloader;
+    }
+
+    /**
+     * Setter method of {@link ClassPreloader}.
+     *
+     * @param classPreloader class preloader of this startup
+     */
+    public void setClassPreloader(ClassPreloader classPreloader) {
+        this.classPreloader = classPreloader;
+    }
+
+    /**
+     * Getter method of the {@link CarbonServerInfo} registered on the server startup completion.
+     *
+     * @return carbonServerInfo, or null if the server startup is not completed yet
+     */
+    public CarbonServerInfo getCarbonServerInfo() {
+        return carbonServerInfo;
+    }
+
+    /**
+     * Setter method of {@link CarbonServerInfo}.
+     *
+     * @param carbonServerInfo server information registered on the server startup completion
+     */
+    public void setCarbonServerInfo(CarbonServerInfo carbonServerInfo) {
+        this.carbonServerInfo = carbonServerInfo;
+    }
+
+    /**
+     * Getter method of the startup order resolver component state counts.
+     *
+     * @return supplier of the number of startup components in each state, or null if the resolver is not active
+     */
+    public Supplier<Map<String, Integer>> getStartupResolverStates() {
+        return startupResolverStates;
+    }
+
+    /**
+     * Setter method of the startup order resolver component state counts.
+     *
+     * @param startupResolverStates supplier of the number of startup components in each state
+     */
+    public void setStartupResolverStates(Supplier<Map<String, Integer>> startupResolverStates) {
+        this.startupResolverStates = startupResolverStates;
+    }
 }
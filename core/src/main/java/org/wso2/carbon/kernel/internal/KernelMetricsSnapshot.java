@@ -0,0 +1,114 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal;
+
+import java.beans.ConstructorProperties;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * State of the Carbon kernel at a point of time, as published by the {@link CarbonKernelMetricsMXBean}. JMX clients
+ * see it as composite data, with the maps as tabular data.
+ *
+ * @since 5.3.1
+ */
+public class KernelMetricsSnapshot {
+    private final long timestamp;
+    private final long startupDuration;
+    private final Map<String, Long> startupPhaseDurations;
+    private final Map<String, Integer> startupComponentStates;
+    private final Map<String, Integer> bundleStates;
+    private final Map<String, Integer> runtimeStates;
+    private final Map<String, Integer> schedulerQueueDepths;
+    private final int registeredMBeans;
+
+    @ConstructorProperties({"timestamp", "startupDuration", "startupPhaseDurations", "startupComponentStates",
+            "bundleStates", "runtimeStates", "schedulerQueueDepths", "registeredMBeans"})
+    public KernelMetricsSnapshot(long timestamp, long startupDuration, Map<String, Long> startupPhaseDurations,
+                                 Map<String, Integer> startupComponentStates, Map<String, Integer> bundleStates,
+                                 Map<String, Integer> runtimeStates, Map<String, Integer> schedulerQueueDepths,
+                                 int registeredMBeans) {
+        this.timestamp = timestamp;
+        this.startupDuration = startupDuration;
+        this.startupPhaseDurations = copy(startupPhaseDurations);
+        this.startupComponentStates = copy(startupComponentStates);
+        this.bundleStates = copy(bundleStates);
+        this.runtimeStates = copy(runtimeStates);
+        this.schedulerQueueDepths = copy(schedulerQueueDepths);
+        this.registeredMBeans = registeredMBeans;
+    }
+
+    /**
+     * @return time the snapshot was taken at, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return total startup duration in nanoseconds, or -1 if the startup is not completed or not known
+     */
+    public long getStartupDuration() {
+        return startupDuration;
+    }
+
+    /**
+     * @return duration of each startup phase in nanoseconds
+     */
+    public Map<String, Long> getStartupPhaseDurations() {
+        return startupPhaseDurations;
+    }
+
+    /**
+     * @return number of startup order resolver components in each state
+     */
+    public Map<String, Integer> getStartupComponentStates() {
+        return startupComponentStates;
+    }
+
+    /**
+     * @return number of bundles in each state
+     */
+    public Map<String, Integer> getBundleStates() {
+        return bundleStates;
+    }
+
+    /**
+     * @return number of runtimes in each state
+     */
+    public Map<String, Integer> getRuntimeStates() {
+        return runtimeStates;
+    }
+
+    /**
+     * @return number of tasks waiting in each kernel scheduler
+     */
+    public Map<String, Integer> getSchedulerQueueDepths() {
+        return schedulerQueueDepths;
+    }
+
+    /**
+     * @return number of MBeans registered through the kernel
+     */
+    public int getRegisteredMBeans() {
+        return registeredMBeans;
+    }
+
+    private static <V> Map<String, V> copy(Map<String, V> map) {
+        return map == null ? Collections.emptyMap() : Collections.unmodifiableMap(new LinkedHashMap<>(map));
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal;
+
+import org.wso2.carbon.kernel.CarbonServerInfo;
+import org.wso2.carbon.kernel.Constants;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Startup phase timeline of the Carbon server.
+ * <p>
+ * The launcher publishes its checkpoints to the {@value Constants#STARTUP_TIMELINE} system property in the format
+ * {@code origin=<nanos>,<phase>=<nanos>,...}. This class reads them, appends the kernel phases and renders the
+ * machine readable startup report. Phases are ordered by the time they completed rather than by the order they were
+ * published, since some of them are recorded by other threads.
+ *
+ * @since 5.3.1
+ */
+class StartupReport {
+    static final String ORIGIN = "origin";
+    static final String RESOLVER = "resolver";
+
+    private final Map<String, Long> checkpoints = new LinkedHashMap<>();
+
+    /**
+     * Reads the startup timeline published by the launcher.
+     *
+     * @return the startup timeline, which is empty if the server was not started by the Carbon launcher
+     */
+    static StartupReport fromSystemProperties() {
+        StartupReport report = new StartupReport();
+        String timeline = System.getProperty(Constants.STARTUP_TIMELINE);
+        if (timeline == null || timeline.isEmpty()) {
+            return report;
+        }
+
+        Map<String, Long> checkpoints = new LinkedHashMap<>();
+        for (String checkpoint : timeline.split(",")) {
+            int indexOfEq = checkpoint.indexOf('=');
+            if (indexOfEq == -1) {
+                continue;
+            }
+            try {
+                checkpoints.put(checkpoint.substring(0, indexOfEq).trim(),
+                        Long.parseLong(checkpoint.substring(indexOfEq + 1).trim()));
+            } catch (NumberFormatException e) {
+                // Ignore malformed entries, the remaining phases are still useful.
+            }
+        }
+
+        // The sort is stable, so phases completed at the same time keep their published order.
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(checkpoints.entrySet());
+        entries.sort(Map.Entry.comparingByValue());
+        entries.forEach(entry -> report.checkpoints.put(entry.getKey(), entry.getValue()));
+        return report;
+    }
+
+    /**
+     * Records the end of the given phase and publishes the updated timeline.
+     *
+     * @param phase name of the completed phase
+     */
+    synchronized void checkpoint(String phase) {
+        checkpoints.remove(phase);
+        checkpoints.put(phase, System.nanoTime());
+
+        StringBuilder timeline = new StringBuilder();
+        checkpoints.forEach((name, nanos) -> {
+            if (timeline.length() > 0) {
+                timeline.append(',');
+            }
+            timeline.append(name).append('=').append(nanos);
+        });
+        System.setProperty(Constants.STARTUP_TIMELINE, timeline.toString());
+    }
+
+    /**
+     * Returns the duration of each recorded phase, in the order of execution.
+     *
+     * @return phase names to durations in nanoseconds
+     */
+    synchronized Map<String, Long> getPhaseDurations() {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        if (!checkpoints.containsKey(ORIGIN)) {
+            return durations;
+        }
+
+        Long previous = null;
+        for (Map.Entry<String, Long> checkpoint : checkpoints.entrySet()) {
+            if (previous != null) {
+                durations.put(checkpoint.getKey(), checkpoint.getValue() - previous);
+            }
+            previous = checkpoint.getValue();
+        }
+        return durations;
+    }
+
+    /**
+     * Returns the time elapsed from the origin to the last recorded checkpoint.
+     *
+     * @return total duration in nanoseconds, or -1 if the origin is not known
+     */
+    synchronized long getTotalDuration() {
+        Long origin = checkpoints.get(ORIGIN);
+        if (origin == null) {
+            return -1;
+        }
+        long last = origin;
+        for (Long nanos : checkpoints.values()) {
+            last = nanos;
+        }
+        return last - origin;
+    }
+
+    /**
+     * Creates the {@link CarbonServerInfo} which publishes this timeline.
+     *
+     * @return CarbonServerInfo instance
+     */
+    CarbonServerInfo toCarbonServerInfo() {
+        return new CarbonServerInfo(getPhaseDurations(), getTotalDuration());
+    }
+
+    /**
+     * Renders this timeline as a JSON document.
+     *
+     * @param serverName name of the server
+     * @return JSON startup report
+     */
+    synchronized String toJson(String serverName) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"server\": \"").append(escape(serverName)).append("\",\n");
+        json.append("  \"startTime\": ").append(System.getProperty(Constants.START_TIME, "-1")).append(",\n");
+        json.append("  \"totalNanos\": ").append(getTotalDuration()).append(",\n");
+        json.append("  \"phases\": [");
+
+        Long origin = checkpoints.get(ORIGIN);
+        boolean first = true;
+        for (Map.Entry<String, Long> phase : getPhaseDurations().entrySet()) {
+            json.append(first ? "\n" : ",\n");
+            json.append("    {\"name\": \"").append(escape(phase.getKey())).append("\", ")
+                    .append("\"offsetNanos\": ").append(checkpoints.get(phase.getKey()) - origin).append(", ")
+                    .append("\"durationNanos\": ").append(phase.getValue()).append("}");
+            first = false;
+        }
+        json.append(first ? "]\n" : "\n  ]\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    /**
+     * Writes the JSON startup report to the given file.
+     *
+     * @param serverName name of the server
+     * @param reportFile report file path
+     * @throws IOException if the report cannot be written
+     */
+    void write(String serverName, Path reportFile) throws IOException {
+        Path parent = reportFile.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(reportFile, toJson(serverName).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.cache;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Statistics of a single cache across all the tenants, as published by the {@link CacheServiceMXBean}. JMX clients
+ * see it as composite data.
+ *
+ * @since 5.3.1
+ */
+public class CacheStatistics {
+    private final String name;
+    private final int maximumSize;
+    private final int maximumTenants;
+    private final long expiryTime;
+    private final int tenants;
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    @ConstructorProperties({"name", "maximumSize", "maximumTenants", "expiryTime", "tenants", "size", "hits", "misses",
+            "evictions"})
+    public CacheStatistics(String name, int maximumSize, int maximumTenants, long expiryTime, int tenants, long size,
+                           long hits, long misses, long evictions) {
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.maximumTenants = maximumTenants;
+        this.expiryTime = expiryTime;
+        this.tenants = tenants;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return maximum number of entries of each tenant
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return maximum number of tenants with entries in the cache
+     */
+    public int getMaximumTenants() {
+        return maximumTenants;
+    }
+
+    /**
+     * @return expiry time of the entries in milliseconds, or 0 if entries do not expire
+     */
+    public long getExpiryTime() {
+        return expiryTime;
+    }
+
+    /**
+     * @return number of tenants with entries in the cache
+     */
+    public int getTenants() {
+        return tenants;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return number of entries evicted for exceeding the maximum size or the maximum number of tenants, or for
+     * expiring
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+}
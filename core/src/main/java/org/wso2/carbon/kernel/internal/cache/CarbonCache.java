@@ -0,0 +1,288 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.cache;
+
+import org.wso2.carbon.kernel.cache.Cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * {@link Cache} implementation with a partition per tenant. Each partition is a least recently used map guarded by
+ * its own lock, so tenants do not contend with each other. Expired entries are removed when they are read, or evicted
+ * as the least recently used entries. The number of partitions is bounded as well, by evicting the partition of the
+ * least recently used tenant, so the cache holds at most the maximum number of tenants times the maximum size entries.
+ * <p>
+ * A partition which is cleared or evicted is detached from the cache under its lock, so that a concurrent write to it
+ * is retried in a new partition instead of being lost.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ * @since 5.3.1
+ */
+class CarbonCache<K, V> implements Cache<K, V> {
+    private final String name;
+    private final int maximumSize;
+    private final int maximumTenants;
+    private final long expiryTime;
+    private final long expiryNanos;
+    private final Supplier<String> tenantResolver;
+    private final LongSupplier ticker;
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    CarbonCache(String name, int maximumSize, long expiryTime, int maximumTenants, Supplier<String> tenantResolver,
+                LongSupplier ticker) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size of cache " + name + " should be positive");
+        }
+        if (maximumTenants <= 0) {
+            throw new IllegalArgumentException("Maximum number of tenants of cache " + name + " should be positive");
+        }
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.maximumTenants = maximumTenants;
+        this.expiryTime = expiryTime;
+        this.expiryNanos = TimeUnit.MILLISECONDS.toNanos(expiryTime);
+        this.tenantResolver = tenantResolver;
+        this.ticker = ticker;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public V get(K key) {
+        Objects.requireNonNull(key, "key");
+        Partition partition = partitions.get(tenantResolver.get());
+        V value = null;
+        if (partition != null) {
+            synchronized (partition) {
+                CacheEntry<V> entry = partition.get(key);
+                if (entry != null) {
+                    if (isExpired(entry)) {
+                        partition.remove(key);
+                        evictions.increment();
+                    } else {
+                        value = entry.value;
+                        partition.lastAccess = ticker.getAsLong();
+                    }
+                }
+            }
+        }
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    @Override
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        String tenant = tenantResolver.get();
+        long now = ticker.getAsLong();
+        CacheEntry<V> entry = new CacheEntry<>(value, expiryNanos == 0 ? 0 : now + expiryNanos);
+        while (true) {
+            Partition partition = getOrCreatePartition(tenant, now);
+            synchronized (partition) {
+                if (!partition.detached) {
+                    partition.put(key, entry);
+                    partition.lastAccess = now;
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        Partition partition = partitions.get(tenantResolver.get());
+        if (partition != null) {
+            synchronized (partition) {
+                partition.remove(key);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        clearTenant(tenantResolver.get());
+    }
+
+    @Override
+    public int size() {
+        Partition partition = partitions.get(tenantResolver.get());
+        if (partition == null) {
+            return 0;
+        }
+        synchronized (partition) {
+            return partition.size();
+        }
+    }
+
+    /**
+     * Removes the entries of the given tenant.
+     *
+     * @param tenant the tenant
+     */
+    void clearTenant(String tenant) {
+        Partition partition = partitions.remove(tenant);
+        if (partition != null) {
+            detach(partition);
+        }
+    }
+
+    /**
+     * Removes the entries of all the tenants.
+     */
+    void clearAll() {
+        partitions.keySet().forEach(this::clearTenant);
+    }
+
+    /**
+     * @return statistics of the cache, across all the tenants
+     */
+    CacheStatistics getStatistics() {
+        long size = 0;
+        for (Partition partition : partitions.values()) {
+            synchronized (partition) {
+                size += partition.size();
+            }
+        }
+        return new CacheStatistics(name, maximumSize, maximumTenants, expiryTime, partitions.size(), size, hits.sum(),
+                misses.sum(), evictions.sum());
+    }
+
+    private Partition getOrCreatePartition(String tenant, long now) {
+        Partition partition = partitions.get(tenant);
+        if (partition != null) {
+            return partition;
+        }
+
+        Partition created = new Partition(now);
+        partition = partitions.putIfAbsent(tenant, created);
+        if (partition != null) {
+            return partition;
+        }
+        if (partitions.size() > maximumTenants) {
+            evictPartitions(tenant);
+        }
+        return created;
+    }
+
+    /**
+     * Evicts the partitions of the least recently used tenants, other than the given one, until the number of
+     * partitions is within the bound.
+     *
+     * @param tenant the tenant whose partition was just created
+     */
+    private void evictPartitions(String tenant) {
+        synchronized (partitions) {
+            while (partitions.size() > maximumTenants) {
+                Map.Entry<String, Partition> eldest = null;
+                for (Map.Entry<String, Partition> candidate : partitions.entrySet()) {
+                    if (!candidate.getKey().equals(tenant) && (eldest == null
+                            || candidate.getValue().lastAccess - eldest.getValue().lastAccess < 0)) {
+                        eldest = candidate;
+                    }
+                }
+                if (eldest == null) {
+                    return;
+                }
+                if (partitions.remove(eldest.getKey(), eldest.getValue())) {
+                    evictions.add(detach(eldest.getValue()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Detaches a partition removed from the cache, so that writes to it are no longer accepted.
+     *
+     * @param partition the partition
+     * @return number of entries of the partition
+     */
+    private int detach(Partition partition) {
+        synchronized (partition) {
+            partition.detached = true;
+            return partition.size();
+        }
+    }
+
+    private boolean isExpired(CacheEntry<V> entry) {
+        return expiryNanos != 0 && ticker.getAsLong() - entry.expiresAt >= 0;
+    }
+
+    /**
+     * Entries of a single tenant, in least recently used order.
+     */
+    private final class Partition extends LinkedHashMap<K, CacheEntry<V>> {
+        private static final long serialVersionUID = 1L;
+
+        private volatile long lastAccess;
+        private boolean detached;
+
+        private Partition(long lastAccess) {
+            super(16, 0.75f, true);
+            this.lastAccess = lastAccess;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+            if (size() > maximumSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class CacheEntry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
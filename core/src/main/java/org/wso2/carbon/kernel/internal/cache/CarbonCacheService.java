@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.cache;
+
+import org.wso2.carbon.kernel.cache.Cache;
+import org.wso2.carbon.kernel.cache.CacheService;
+import org.wso2.carbon.kernel.config.model.CacheConfig;
+import org.wso2.carbon.kernel.context.CarbonContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Default {@link CacheService} implementation, which also publishes the cache statistics as the
+ * {@link CacheServiceMXBean}.
+ *
+ * @since 5.3.1
+ */
+public class CarbonCacheService implements CacheService, CacheServiceMXBean {
+    private final String defaultTenant;
+    private final CacheConfig cacheConfig;
+    private final LongSupplier ticker;
+    private final Map<String, CarbonCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    public CarbonCacheService(String defaultTenant, CacheConfig cacheConfig) {
+        this(defaultTenant, cacheConfig, System::nanoTime);
+    }
+
+    CarbonCacheService(String defaultTenant, CacheConfig cacheConfig, LongSupplier ticker) {
+        this.defaultTenant = defaultTenant;
+        this.cacheConfig = cacheConfig;
+        this.ticker = ticker;
+    }
+
+    @Override
+    public <K, V> Cache<K, V> getCache(String name) {
+        return getCache(name, cacheConfig.getMaximumSize(), cacheConfig.getExpiryTime());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> Cache<K, V> getCache(String name, int maximumSize, long expiryTime) {
+        return (Cache<K, V>) caches.computeIfAbsent(name, cacheName ->
+                new CarbonCache<>(cacheName, maximumSize, expiryTime, cacheConfig.getMaximumTenants(),
+                        this::getCurrentTenant, ticker));
+    }
+
+    @Override
+    public void removeCache(String name) {
+        caches.remove(name);
+    }
+
+    @Override
+    public void clearTenant(String tenant) {
+        caches.values().forEach(cache -> cache.clearTenant(tenant));
+    }
+
+    @Override
+    public List<CacheStatistics> getCacheStatistics() {
+        List<CacheStatistics> statistics = new ArrayList<>();
+        caches.values().forEach(cache -> statistics.add(cache.getStatistics()));
+        return statistics;
+    }
+
+    @Override
+    public void clearCache(String name) {
+        CarbonCache<?, ?> cache = caches.get(name);
+        if (cache != null) {
+            cache.clearAll();
+        }
+    }
+
+    private String getCurrentTenant() {
+        String tenant = CarbonContext.getCurrentContext().getProperty(CarbonContext.TENANT);
+        return tenant == null ? defaultTenant : tenant;
+    }
+}
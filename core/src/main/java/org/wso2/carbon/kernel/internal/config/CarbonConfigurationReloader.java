@@ -0,0 +1,204 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.config.provider.ConfigProviderFactory;
+import org.wso2.carbon.kernel.PrivilegedCarbonRuntime;
+import org.wso2.carbon.kernel.config.ConfigurationChangeEvent;
+import org.wso2.carbon.kernel.config.ConfigurationChangeListener;
+import org.wso2.carbon.kernel.config.model.CarbonConfiguration;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Watches the deployment.yaml and reloads the {@link CarbonConfiguration} of the {@link PrivilegedCarbonRuntime}
+ * when the file changes.
+ * <p>
+ * The file is read only after it has been quiet for the configured delay, and only if its content differs from the
+ * content which was last loaded. The new configuration is compared with the current one and, if any value is changed,
+ * it is set to the runtime and a {@link ConfigurationChangeEvent} is published to the
+ * {@link ConfigurationChangeListener}s. If the file cannot be read or parsed, the current configuration is kept.
+ *
+ * @since 5.3.1
+ */
+public class CarbonConfigurationReloader {
+    private static final Logger logger = LoggerFactory.getLogger(CarbonConfigurationReloader.class);
+
+    private final PrivilegedCarbonRuntime carbonRuntime;
+    private final Path configFile;
+    private final long delay;
+    private final Callable<CarbonConfiguration> configurationLoader;
+    private final Supplier<Collection<ConfigurationChangeListener>> listeners;
+    private byte[] digest;
+    private WatchService watchService;
+    private Thread watcher;
+
+    public CarbonConfigurationReloader(PrivilegedCarbonRuntime carbonRuntime, Path configFile, long delay,
+                                       Supplier<Collection<ConfigurationChangeListener>> listeners) {
+        this(carbonRuntime, configFile, delay, () -> ConfigProviderFactory.getConfigProvider(configFile)
+                .getConfigurationObject(CarbonConfiguration.class), listeners);
+    }
+
+    CarbonConfigurationReloader(PrivilegedCarbonRuntime carbonRuntime, Path configFile, long delay,
+                                Callable<CarbonConfiguration> configurationLoader,
+                                Supplier<Collection<ConfigurationChangeListener>> listeners) {
+        this.carbonRuntime = carbonRuntime;
+        this.configFile = configFile.toAbsolutePath();
+        this.delay = delay;
+        this.configurationLoader = configurationLoader;
+        this.listeners = listeners;
+    }
+
+    /**
+     * Starts watching the configuration file. The content of the file at this point is taken as the content of the
+     * current configuration. The file need not exist yet, in which case the server runs with the default values.
+     *
+     * @throws IOException if the directory of the configuration file cannot be watched
+     */
+    public synchronized void start() throws IOException {
+        if (watcher != null) {
+            return;
+        }
+        digest = Files.exists(configFile) ? digest() : null;
+        watchService = FileSystems.getDefault().newWatchService();
+        configFile.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        watcher = new Thread(this::watch, "carbon-config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Watching " + configFile + " for configuration changes");
+    }
+
+    /**
+     * Stops watching the configuration file.
+     */
+    public synchronized void stop() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("Error while closing the configuration file watcher", e);
+        }
+        watcher.interrupt();
+        watcher = null;
+        watchService = null;
+    }
+
+    private void watch() {
+        WatchService watchService = this.watchService;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = isConfigFileChanged(key);
+                key.reset();
+                if (!changed) {
+                    continue;
+                }
+                // Editors write a file in several steps, so wait until the directory is quiet before reading it.
+                while ((key = watchService.poll(delay, TimeUnit.MILLISECONDS)) != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Stopped watching " + configFile);
+            }
+        }
+    }
+
+    private boolean isConfigFileChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || configFile.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Reloads the configuration if the content of the configuration file is changed since it was last loaded.
+     *
+     * @return true if the reloaded configuration changed one or more values and was applied
+     */
+    synchronized boolean reload() {
+        CarbonConfiguration previousConfiguration = carbonRuntime.getConfiguration();
+        CarbonConfiguration configuration;
+        List<String> changedElements;
+        try {
+            byte[] newDigest = digest();
+            if (Arrays.equals(digest, newDigest)) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Content of " + configFile + " is not changed, hence not reloaded");
+                }
+                return false;
+            }
+            configuration = configurationLoader.call();
+            changedElements = ConfigurationDiff.diff(previousConfiguration, configuration);
+            digest = newDigest;
+        } catch (Exception e) {
+            logger.error("Error while reloading " + configFile + ", hence the current configuration is kept", e);
+            return false;
+        }
+        if (changedElements.isEmpty()) {
+            return false;
+        }
+
+        carbonRuntime.setCarbonConfiguration(configuration);
+        logger.info("Reloaded " + configFile + ", changed elements : " + changedElements);
+
+        ConfigurationChangeEvent event = new ConfigurationChangeEvent(previousConfiguration, configuration,
+                changedElements);
+        for (ConfigurationChangeListener listener : listeners.get()) {
+            try {
+                listener.configurationChanged(event);
+            } catch (RuntimeException e) {
+                logger.error("Error while notifying the configuration change to " + listener, e);
+            }
+        }
+        return true;
+    }
+
+    private byte[] digest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(configFile));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.config;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Ignore;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compares two instances of a config bean, field by field.
+ * <p>
+ * Nested config beans, the types annotated with {@link Configuration}, are compared recursively. Any other value,
+ * including lists, maps and arrays, is compared as a whole and reported as a single changed element.
+ *
+ * @since 5.3.1
+ */
+public class ConfigurationDiff {
+
+    private ConfigurationDiff() {
+    }
+
+    /**
+     * Returns the dotted paths of the elements which differ in the two config beans.
+     *
+     * @param previous the config bean before the change
+     * @param current  the config bean after the change, of the same type as the previous one
+     * @return dotted paths of the changed elements, in the declaration order of the fields
+     */
+    public static List<String> diff(Object previous, Object current) {
+        List<String> changedElements = new ArrayList<>();
+        diff("", previous, current, changedElements);
+        return changedElements;
+    }
+
+    private static void diff(String path, Object previous, Object current, List<String> changedElements) {
+        for (Class<?> type = current.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()
+                        || field.isAnnotationPresent(Ignore.class)) {
+                    continue;
+                }
+                field.setAccessible(true);
+                Object previousValue;
+                Object currentValue;
+                try {
+                    previousValue = field.get(previous);
+                    currentValue = field.get(current);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Cannot read the config element " + field.getName(), e);
+                }
+
+                String element = path.isEmpty() ? field.getName() : path + "." + field.getName();
+                if (previousValue != null && currentValue != null && previousValue.getClass() == currentValue.getClass()
+                        && previousValue.getClass().isAnnotationPresent(Configuration.class)) {
+                    diff(element, previousValue, currentValue, changedElements);
+                } else if (!Objects.deepEquals(previousValue, currentValue)) {
+                    changedElements.add(element);
+                }
+            }
+        }
+    }
+}
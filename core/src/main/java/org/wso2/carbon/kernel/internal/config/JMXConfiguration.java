@@ -34,6 +34,15 @@ public class JMXConfiguration {
     private int rmiServerPort = 11111;
     @Element(description = "The port RMI registry is exposed")
     private int rmiRegistryPort = 9999;
+    @Element(description = "To bind only the RMI registry port at startup, and start the JMX connector when the first "
+            + "client connects, change this value to true")
+    private boolean lazyStart = false;
+    @Element(description = "Maximum number of users whose successful JMX authentication is cached")
+    private int authenticationCacheSize = 100;
+    @Element(description = "Time in milliseconds after which a cached JMX authentication expires, 0 to disable the "
+            + "cache. Until it expires, a changed or revoked password is still accepted, unless the user store "
+            + "invalidates the cached authentication")
+    private long authenticationCacheExpiry = 30000;
 
     public boolean isEnabled() {
         return enabled;
@@ -66,4 +75,53 @@ public class JMXConfiguration {
     public void setRmiRegistryPort(int rmiRegistryPort) {
         this.rmiRegistryPort = rmiRegistryPort;
     }
+
+    /**
+     * @return true if the JMX connector is started when the first client connects
+     * @since 5.3.1
+     */
+    public boolean isLazyStart() {
+        return lazyStart;
+    }
+
+    /**
+     * @param lazyStart true to start the JMX connector when the first client connects
+     * @since 5.3.1
+     */
+    public void setLazyStart(boolean lazyStart) {
+        this.lazyStart = lazyStart;
+    }
+
+    /**
+     * @return maximum number of users whose successful JMX authentication is cached
+     * @since 5.3.1
+     */
+    public int getAuthenticationCacheSize() {
+        return authenticationCacheSize;
+    }
+
+    /**
+     * @param authenticationCacheSize maximum number of users whose successful JMX authentication is cached
+     * @since 5.3.1
+     */
+    public void setAuthenticationCacheSize(int authenticationCacheSize) {
+        this.authenticationCacheSize = authenticationCacheSize;
+    }
+
+    /**
+     * @return time in milliseconds after which a cached JMX authentication expires, 0 if the cache is disabled
+     * @since 5.3.1
+     */
+    public long getAuthenticationCacheExpiry() {
+        return authenticationCacheExpiry;
+    }
+
+    /**
+     * @param authenticationCacheExpiry time in milliseconds after which a cached JMX authentication expires, 0 to
+     *                                  disable the cache
+     * @since 5.3.1
+     */
+    public void setAuthenticationCacheExpiry(long authenticationCacheExpiry) {
+        this.authenticationCacheExpiry = authenticationCacheExpiry;
+    }
 }
@@ -15,7 +15,11 @@
  */
 package org.wso2.carbon.kernel.internal.context;
 
+import org.wso2.carbon.kernel.context.CarbonContext;
+import org.wso2.carbon.kernel.context.ContextKey;
+
 import java.security.Principal;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -24,23 +28,32 @@ import java.util.Optional;
  * This class will preserve an instance the current CarbonContextHolder as a thread local variable.
  * If a CarbonContextHolder is available on a thread-local-scope this class will do the required lookup and obtain
  * the corresponding instance.
+ * <p>
+ * Properties with a {@link ContextKey} are kept in an array indexed by the key slot, and the other properties in a
+ * hash map which is only created when the first such property is set. The holder also caches the carbon context views
+ * created on it, so that looking up the current context does not allocate.
+ * <p>
+ * The state of a holder can be captured as an immutable {@link State} and restored on another thread. Capturing does
+ * not copy the properties; the holder copies them on its next write instead.
  *
  * @since 5.0.0
  */
 
 public final class CarbonContextHolder {
 
+    private static final Object[] NO_SLOTS = new Object[0];
+
     private Principal userPrincipal;
-    private Map<String, Object> properties = new HashMap<>();
+    private Map<String, Object> properties;
+    private Object[] slots = NO_SLOTS;
+    private CarbonContext carbonContext;
+    private CarbonContext privilegedCarbonContext;
+    private boolean shared;
 
-    private static ThreadLocal<CarbonContextHolder> currentContextHolder = new ThreadLocal<CarbonContextHolder>() {
-        protected CarbonContextHolder initialValue() {
-            return new CarbonContextHolder();
-        }
-    };
+    private static ThreadLocal<CarbonContextHolder> currentContextHolder = new ThreadLocal<>();
 
     /**
-     * Private Constructor which gets invoked via the static variable above. This gets invoked only once.
+     * Private Constructor which gets invoked on the first lookup of the holder in a thread or a scope.
      */
     private CarbonContextHolder() {
     }
@@ -51,7 +64,37 @@ public final class CarbonContextHolder {
      * @return the thread local CarbonContextHolder instance.
      */
     public static CarbonContextHolder getCurrentContextHolder() {
-        return currentContextHolder.get();
+        CarbonContextHolder carbonContextHolder = currentContextHolder.get();
+        if (carbonContextHolder == null) {
+            carbonContextHolder = new CarbonContextHolder();
+            currentContextHolder.set(carbonContextHolder);
+        }
+        return carbonContextHolder;
+    }
+
+    /**
+     * Binds a new, empty CarbonContextHolder to the current thread until {@link #closeScope(CarbonContextHolder)}.
+     *
+     * @return the CarbonContextHolder which was bound to the current thread, or null if none was bound.
+     */
+    public static CarbonContextHolder openScope() {
+        CarbonContextHolder previous = currentContextHolder.get();
+        currentContextHolder.set(new CarbonContextHolder());
+        return previous;
+    }
+
+    /**
+     * Discards the CarbonContextHolder bound by {@link #openScope()} and binds the previous one again. If there was
+     * none, the thread local entry is removed so that the thread does not keep a holder.
+     *
+     * @param previous the CarbonContextHolder returned by {@link #openScope()}.
+     */
+    public static void closeScope(CarbonContextHolder previous) {
+        if (previous == null) {
+            currentContextHolder.remove();
+        } else {
+            currentContextHolder.set(previous);
+        }
     }
 
     /**
@@ -68,7 +111,11 @@ public final class CarbonContextHolder {
      * @return the value of the property by the given name.
      */
     public Object getProperty(String name) {
-        return properties.get(name);
+        ContextKey<?> key = ContextKey.lookup(name);
+        if (key != null) {
+            return getProperty(key);
+        }
+        return properties == null ? null : properties.get(name);
     }
 
     /**
@@ -78,9 +125,116 @@ public final class CarbonContextHolder {
      * @param value the value to be set to the property by the given name.
      */
     public void setProperty(String name, Object value) {
+        ContextKey<?> key = ContextKey.lookup(name);
+        if (key != null) {
+            setSlot(key, key.getType().cast(value));
+            return;
+        }
+        if (shared) {
+            unshare();
+        }
+        if (properties == null) {
+            properties = new HashMap<>();
+        }
         properties.put(name, value);
     }
 
+    /**
+     * Method to obtain a property on this CarbonContext instance using its typed key.
+     *
+     * @param key the property key.
+     * @param <T> the type of the property value.
+     * @return the value of the property, or null if it is not set.
+     */
+    public <T> T getProperty(ContextKey<T> key) {
+        int slot = key.getSlot();
+        return slot < slots.length ? key.getType().cast(slots[slot]) : null;
+    }
+
+    /**
+     * Method to set a property on this CarbonContext instance using its typed key.
+     *
+     * @param key   the property key.
+     * @param value the value to be set to the property.
+     * @param <T>   the type of the property value.
+     */
+    public <T> void setProperty(ContextKey<T> key, T value) {
+        setSlot(key, value);
+    }
+
+    private void setSlot(ContextKey<?> key, Object value) {
+        int slot = key.getSlot();
+        if (slot >= slots.length && value == null) {
+            return;
+        }
+        if (shared) {
+            unshare();
+        }
+        if (slot >= slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(slot + 1, slots.length * 2));
+        }
+        slots[slot] = value;
+    }
+
+    private void unshare() {
+        if (slots.length > 0) {
+            slots = slots.clone();
+        }
+        if (properties != null) {
+            properties = new HashMap<>(properties);
+        }
+        shared = false;
+    }
+
+    /**
+     * Captures the user principal and the properties of this holder. The captured state shares the property storage
+     * with the holder until either is modified.
+     *
+     * @return the captured state.
+     */
+    public State capture() {
+        shared = true;
+        return new State(userPrincipal, slots, properties);
+    }
+
+    /**
+     * Replaces the user principal and the properties of this holder with the given state.
+     *
+     * @param state the state to be restored.
+     * @return the state which was replaced, to be restored afterwards.
+     */
+    public State restore(State state) {
+        State previous = capture();
+        userPrincipal = state.userPrincipal;
+        slots = state.slots;
+        properties = state.properties;
+        return previous;
+    }
+
+    /**
+     * Returns the cached carbon context view of this holder.
+     *
+     * @param privileged whether the privileged view is requested.
+     * @return the cached view, or null if it was not created yet.
+     */
+    public CarbonContext getCarbonContext(boolean privileged) {
+        return privileged ? privilegedCarbonContext : carbonContext;
+    }
+
+    /**
+     * Caches a carbon context view of this holder. The view is discarded with the holder.
+     *
+     * @param carbonContext the view to cache.
+     * @param privileged    whether the view is the privileged view.
+     */
+    public void setCarbonContext(CarbonContext carbonContext, boolean privileged) {
+        if (privileged) {
+            this.privilegedCarbonContext = carbonContext;
+        } else {
+            this.carbonContext = carbonContext;
+        }
+    }
+
     /**
      * Method to obtain the currently set user principal from the CarbonContext instance.
      *
@@ -106,4 +260,23 @@ public final class CarbonContextHolder {
                             userPrincipal.toString()));
         }
     }
+
+    /**
+     * Immutable state of a {@link CarbonContextHolder}.
+     */
+    public static final class State {
+        private final Principal userPrincipal;
+        private final Object[] slots;
+        private final Map<String, Object> properties;
+
+        private State(Principal userPrincipal, Object[] slots, Map<String, Object> properties) {
+            this.userPrincipal = userPrincipal;
+            this.slots = slots;
+            this.properties = properties;
+        }
+
+        public Principal getUserPrincipal() {
+            return userPrincipal;
+        }
+    }
 }
@@ -16,6 +16,7 @@
 package org.wso2.carbon.kernel.internal.jmx;
 
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -25,22 +26,12 @@ import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.kernel.CarbonRuntime;
-import org.wso2.carbon.kernel.config.model.CarbonConfiguration;
+import org.wso2.carbon.kernel.config.ConfigurationChangeEvent;
+import org.wso2.carbon.kernel.config.ConfigurationChangeListener;
 import org.wso2.carbon.kernel.internal.config.JMXConfiguration;
-import org.wso2.carbon.kernel.jmx.connection.SingleAddressRMIServerSocketFactory;
+import org.wso2.carbon.kernel.jmx.MBeanRegistrator;
 import org.wso2.carbon.kernel.jmx.security.CarbonJMXAuthenticator;
 
-import java.lang.management.ManagementFactory;
-import java.net.InetAddress;
-import java.rmi.registry.LocateRegistry;
-import java.rmi.registry.Registry;
-import java.rmi.server.UnicastRemoteObject;
-import java.util.HashMap;
-import javax.management.remote.JMXConnectorServer;
-import javax.management.remote.JMXConnectorServerFactory;
-import javax.management.remote.JMXServiceURL;
-import javax.management.remote.rmi.RMIConnectorServer;
-
 /**
  * This service component is responsible for initializing and starting the JMXConnectorServer which enables remote
  * JMX monitors to connect to the Platform JMX Server.
@@ -54,60 +45,29 @@ import javax.management.remote.rmi.RMIConnectorServer;
 public class CarbonJMXComponent {
     private static final Logger logger = LoggerFactory.getLogger(CarbonJMXComponent.class);
     private static final String JAVA_RMI_SERVER_HOSTNAME = "java.rmi.server.hostname";
-    private JMXConnectorServer jmxConnectorServer;
-    private Registry rmiRegistry;
+    private static final String JMX_ELEMENT = "jmx";
+    private CarbonJMXConnector jmxConnector;
+    private CarbonJMXAuthenticator jmxAuthenticator;
     private CarbonRuntime carbonRuntime;
+    private ServiceRegistration<ConfigurationChangeListener> configurationListener;
+    private boolean hostnameConfigured;
 
     /**
      * This is the activation method of CarbonJMXComponent. This will be called when all the references are
      * satisfied.
+     * <p>
+     * The host name is resolved and the ports are bound on a background thread, so that a slow name resolution or a
+     * port conflict does not delay the server startup. When the JMX configuration is changed in the deployment.yaml,
+     * the JMXConnectorServer is restarted with the new values.
      *
      * @param bundleContext the bundle context instance of this bundle.
      */
     @Activate
     protected void start(BundleContext bundleContext) {
         try {
-            CarbonConfiguration carbonConfiguration = carbonRuntime.getConfiguration();
-            JMXConfiguration jmxConfiguration = carbonConfiguration.getJmxConfiguration();
-            if (!jmxConfiguration.isEnabled()) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("Remote JMX is disabled.");
-                }
-                return;
-            }
-
-            String hostname = System.getProperty(JAVA_RMI_SERVER_HOSTNAME);
-            if (hostname == null || hostname.isEmpty()) {
-                hostname = jmxConfiguration.getHostName();
-                System.setProperty(JAVA_RMI_SERVER_HOSTNAME, hostname);
-            }
-
-            InetAddress[] inetAddresses = InetAddress.getAllByName(hostname);
-            if (inetAddresses.length == 0) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("No network interface available for '{}' to start JMXConnectorServer", hostname);
-                }
-                return;
-            }
-
-            SingleAddressRMIServerSocketFactory singleAddressRMIServerSocketFactory =
-                    new SingleAddressRMIServerSocketFactory(inetAddresses[0]);
-            rmiRegistry = LocateRegistry.createRegistry(jmxConfiguration.getRmiRegistryPort(), null,
-                    singleAddressRMIServerSocketFactory);
-
-            String jmxURL = "service:jmx:rmi://" + hostname + ":" + jmxConfiguration.getRmiServerPort()
-                    + "/jndi/rmi://" + hostname + ":" + jmxConfiguration.getRmiRegistryPort() + "/jmxrmi";
-            JMXServiceURL jmxServiceURL = new JMXServiceURL(jmxURL);
-
-            HashMap<String, Object> environment = new HashMap<>();
-            environment.put(JMXConnectorServer.AUTHENTICATOR, new CarbonJMXAuthenticator());
-            environment.put(RMIConnectorServer.RMI_SERVER_SOCKET_FACTORY_ATTRIBUTE,
-                    singleAddressRMIServerSocketFactory);
-
-            jmxConnectorServer = JMXConnectorServerFactory.newJMXConnectorServer(jmxServiceURL, environment,
-                    ManagementFactory.getPlatformMBeanServer());
-            jmxConnectorServer.start();
-            logger.info("JMXServerManager JMX Service URL : " + jmxServiceURL.toString());
+            startJMXServer(carbonRuntime.getConfiguration().getJmxConfiguration());
+            configurationListener = bundleContext.registerService(ConfigurationChangeListener.class,
+                    this::configurationChanged, null);
         } catch (Throwable throwable) {
             logger.error("Failed to start CarbonJMXComponent.", throwable);
         }
@@ -121,10 +81,90 @@ public class CarbonJMXComponent {
      */
     @Deactivate
     protected void stop() throws Exception {
+        if (configurationListener != null) {
+            configurationListener.unregister();
+            configurationListener = null;
+        }
+        stopJMXServer();
+    }
+
+    private synchronized void startJMXServer(JMXConfiguration jmxConfiguration) {
+        if (!jmxConfiguration.isEnabled()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Remote JMX is disabled.");
+            }
+            return;
+        }
+
+        String hostname = System.getProperty(JAVA_RMI_SERVER_HOSTNAME);
+        if (hostname == null || hostname.isEmpty() || hostnameConfigured) {
+            hostname = jmxConfiguration.getHostName();
+            System.setProperty(JAVA_RMI_SERVER_HOSTNAME, hostname);
+            hostnameConfigured = true;
+        }
 
-        if (jmxConnectorServer != null) {
-            jmxConnectorServer.stop();
-            UnicastRemoteObject.unexportObject(rmiRegistry, true); // Stop the RMI registry
+        CarbonJMXAuthenticator authenticator = new CarbonJMXAuthenticator(
+                jmxConfiguration.getAuthenticationCacheSize(), jmxConfiguration.getAuthenticationCacheExpiry());
+        CarbonJMXConnector connector = new CarbonJMXConnector(hostname, jmxConfiguration.getRmiRegistryPort(),
+                jmxConfiguration.getRmiServerPort(), authenticator);
+        boolean lazyStart = jmxConfiguration.isLazyStart();
+        Thread starter = new Thread(() -> startConnector(connector, lazyStart), "carbon-jmx-connector");
+        starter.setDaemon(true);
+        starter.start();
+        jmxConnector = connector;
+        jmxAuthenticator = authenticator;
+        try {
+            MBeanRegistrator.registerMBean(authenticator);
+        } catch (RuntimeException e) {
+            logger.error("Error while registering the JMX authenticator MBean", e);
+        }
+    }
+
+    private synchronized void stopJMXServer() throws Exception {
+        if (jmxAuthenticator != null) {
+            MBeanRegistrator.unregisterMBean(jmxAuthenticator);
+            jmxAuthenticator = null;
+        }
+        if (jmxConnector != null) {
+            jmxConnector.stop();
+            jmxConnector = null;
+        }
+    }
+
+    private synchronized void configurationChanged(ConfigurationChangeEvent event) {
+        if (!event.isChanged(JMX_ELEMENT)) {
+            return;
+        }
+        logger.info("JMX configuration is changed, hence restarting the JMXConnectorServer");
+        try {
+            stopJMXServer();
+            startJMXServer(event.getConfiguration().getJmxConfiguration());
+        } catch (Exception e) {
+            logger.error("Failed to restart the JMXConnectorServer.", e);
+        }
+    }
+
+    private static void startConnector(CarbonJMXConnector jmxConnector, boolean lazyStart) {
+        try {
+            if (lazyStart) {
+                logger.info("JMXServerManager waits for the first JMX connection on port "
+                        + jmxConnector.getRmiRegistryPort());
+                if (!jmxConnector.startOnFirstConnection()) {
+                    return;
+                }
+            } else {
+                jmxConnector.start();
+            }
+            if (jmxConnector.getServiceURL() != null) {
+                logger.info("JMXServerManager JMX Service URL : " + jmxConnector.getServiceURL().toString());
+            }
+        } catch (Throwable throwable) {
+            logger.error("Failed to start the JMXConnectorServer.", throwable);
+            try {
+                jmxConnector.stop();
+            } catch (Exception e) {
+                logger.warn("Failed to clean up the JMXConnectorServer.", e);
+            }
         }
     }
 
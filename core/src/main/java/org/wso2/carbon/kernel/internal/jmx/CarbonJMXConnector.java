@@ -0,0 +1,279 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.jmx;
+
+import org.wso2.carbon.kernel.jmx.connection.SingleAddressRMIServerSocketFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.rmi.AlreadyBoundException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.RMIServerSocketFactory;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import javax.management.remote.JMXAuthenticator;
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXServiceURL;
+import javax.management.remote.rmi.RMIConnectorServer;
+import javax.management.remote.rmi.RMIJRMPServerImpl;
+
+/**
+ * The RMI registry and the JMXConnectorServer which enable remote JMX monitors to connect to the Platform JMX Server.
+ * <p>
+ * The connector is bound to the registry directly rather than through JNDI, so that starting it does not make an RMI
+ * call to the registry. When started on the first connection, only the registry port is bound up front. The bound
+ * socket is handed over to the registry once a client connects, and the registry accepts the pending connection after
+ * the connector is bound to it.
+ *
+ * @since 5.3.1
+ */
+class CarbonJMXConnector {
+    private static final String CONNECTOR_NAME = "jmxrmi";
+
+    private final String hostname;
+    private final int rmiRegistryPort;
+    private final int rmiServerPort;
+    private final JMXAuthenticator authenticator;
+    private volatile Selector selector;
+    private volatile boolean stopped;
+    private ServerSocketChannel pendingChannel;
+    private Registry rmiRegistry;
+    private JMXConnectorServer jmxConnectorServer;
+    private JMXServiceURL jmxServiceURL;
+
+    CarbonJMXConnector(String hostname, int rmiRegistryPort, int rmiServerPort, JMXAuthenticator authenticator) {
+        this.hostname = hostname;
+        this.rmiRegistryPort = rmiRegistryPort;
+        this.rmiServerPort = rmiServerPort;
+        this.authenticator = authenticator;
+    }
+
+    /**
+     * Creates the RMI registry and starts the JMXConnectorServer.
+     *
+     * @throws IOException if the host name cannot be resolved or a port cannot be bound
+     */
+    void start() throws IOException {
+        InetAddress inetAddress = resolve();
+        start(inetAddress, rmiRegistryPort, new SingleAddressRMIServerSocketFactory(inetAddress));
+    }
+
+    /**
+     * Binds the registry port, and creates the RMI registry and starts the JMXConnectorServer when the first client
+     * connects. This method blocks until a client connects or the connector is stopped.
+     *
+     * @return true if the connector was started, false if it was stopped before a client connected
+     * @throws IOException if the host name cannot be resolved or a port cannot be bound
+     */
+    boolean startOnFirstConnection() throws IOException {
+        InetAddress inetAddress = resolve();
+        ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
+        synchronized (this) {
+            if (stopped) {
+                serverSocketChannel.close();
+                return false;
+            }
+            pendingChannel = serverSocketChannel;
+            selector = Selector.open();
+        }
+        try {
+            serverSocketChannel.bind(new InetSocketAddress(inetAddress, rmiRegistryPort));
+            serverSocketChannel.configureBlocking(false);
+            SelectionKey selectionKey = serverSocketChannel.register(selector, SelectionKey.OP_ACCEPT);
+            int ready = 0;
+            while (!stopped && ready == 0) {
+                ready = selector.select();
+            }
+            if (stopped) {
+                return false;
+            }
+            selectionKey.cancel();
+            selector.selectNow();
+            serverSocketChannel.configureBlocking(true);
+        } catch (IOException e) {
+            if (stopped) {
+                return false;
+            }
+            throw e;
+        } finally {
+            synchronized (this) {
+                selector.close();
+                selector = null;
+            }
+        }
+
+        CountDownLatch bound = new CountDownLatch(1);
+        HandOverServerSocket serverSocket = new HandOverServerSocket(serverSocketChannel.socket(), bound);
+        try {
+            start(inetAddress, serverSocket.getLocalPort(), port -> serverSocket);
+        } finally {
+            bound.countDown();
+        }
+        return !stopped;
+    }
+
+    /**
+     * @return the actual port of the registry once it is bound, or the configured port
+     */
+    synchronized int getRmiRegistryPort() {
+        if (pendingChannel != null && pendingChannel.socket().isBound()) {
+            return pendingChannel.socket().getLocalPort();
+        }
+        return rmiRegistryPort;
+    }
+
+    /**
+     * @return the URL of the connector, or null if it is not started
+     */
+    JMXServiceURL getServiceURL() {
+        return jmxServiceURL;
+    }
+
+    /**
+     * Stops the connector and the registry, or stops waiting for the first connection.
+     *
+     * @throws IOException if the connector cannot be stopped
+     */
+    synchronized void stop() throws IOException {
+        stopped = true;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        try {
+            if (jmxConnectorServer != null) {
+                jmxConnectorServer.stop();
+            }
+        } finally {
+            if (rmiRegistry != null) {
+                UnicastRemoteObject.unexportObject(rmiRegistry, true);
+            }
+            if (pendingChannel != null) {
+                pendingChannel.close();
+            }
+        }
+    }
+
+    private InetAddress resolve() throws UnknownHostException {
+        InetAddress[] inetAddresses = InetAddress.getAllByName(hostname);
+        if (inetAddresses.length == 0) {
+            throw new UnknownHostException("No network interface available for '" + hostname + "'");
+        }
+        return inetAddresses[0];
+    }
+
+    private synchronized void start(InetAddress inetAddress, int registryPort,
+                                    RMIServerSocketFactory registrySocketFactory) throws IOException {
+        if (stopped) {
+            return;
+        }
+        SingleAddressRMIServerSocketFactory serverSocketFactory = new SingleAddressRMIServerSocketFactory(inetAddress);
+        Map<String, Object> environment = new HashMap<>();
+        environment.put(JMXConnectorServer.AUTHENTICATOR, authenticator);
+        environment.put(RMIConnectorServer.RMI_SERVER_SOCKET_FACTORY_ATTRIBUTE, serverSocketFactory);
+
+        rmiRegistry = LocateRegistry.createRegistry(registryPort, null, registrySocketFactory);
+        RMIJRMPServerImpl rmiServer = new RMIJRMPServerImpl(rmiServerPort, null, serverSocketFactory, environment);
+        jmxConnectorServer = new RMIConnectorServer(new JMXServiceURL("rmi", hostname, rmiServerPort), environment,
+                rmiServer, ManagementFactory.getPlatformMBeanServer());
+        jmxConnectorServer.start();
+        try {
+            rmiRegistry.bind(CONNECTOR_NAME, rmiServer.toStub());
+        } catch (AlreadyBoundException e) {
+            throw new IOException("JMX connector is already bound to the RMI registry", e);
+        }
+        jmxServiceURL = new JMXServiceURL("service:jmx:rmi://" + hostname + ":" + rmiServerPort + "/jndi/rmi://"
+                + hostname + ":" + registryPort + "/" + CONNECTOR_NAME);
+    }
+
+    /**
+     * Server socket of the registry which hands over an already bound socket, and accepts connections only once the
+     * connector is bound to the registry.
+     */
+    private static class HandOverServerSocket extends ServerSocket {
+        private final ServerSocket serverSocket;
+        private final CountDownLatch bound;
+
+        HandOverServerSocket(ServerSocket serverSocket, CountDownLatch bound) throws IOException {
+            this.serverSocket = serverSocket;
+            this.bound = bound;
+        }
+
+        @Override
+        public Socket accept() throws IOException {
+            try {
+                bound.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the JMX connector");
+            }
+            return serverSocket.accept();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+
+        @Override
+        public boolean isBound() {
+            return serverSocket.isBound();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return serverSocket.isClosed();
+        }
+
+        @Override
+        public InetAddress getInetAddress() {
+            return serverSocket.getInetAddress();
+        }
+
+        @Override
+        public int getLocalPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        @Override
+        public SocketAddress getLocalSocketAddress() {
+            return serverSocket.getLocalSocketAddress();
+        }
+
+        @Override
+        public synchronized void setSoTimeout(int timeout) throws SocketException {
+            serverSocket.setSoTimeout(timeout);
+        }
+
+        @Override
+        public synchronized int getSoTimeout() throws IOException {
+            return serverSocket.getSoTimeout();
+        }
+    }
+}
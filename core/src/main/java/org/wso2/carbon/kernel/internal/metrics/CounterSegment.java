@@ -0,0 +1,161 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A memory mapped file holding named long counters, which other processes can read without attaching to the JVM.
+ * <p>
+ * The file has a fixed, big endian layout. A 32 byte header holds the magic number, the layout version, the number of
+ * counters, the size of a counter entry, the JVM start time and the time of the last update in epoch milliseconds.
+ * The counter entries follow the header. Each entry holds the counter name in UTF-8, padded with zeros to
+ * {@link #NAME_LENGTH} bytes, followed by the value. New counters are appended, and the counter count is updated only
+ * after the entry is written.
+ * <p>
+ * Counter values are plain stores into the mapped memory, so an update does not make a system call. A segment has
+ * to be updated by a single thread at a time.
+ *
+ * @since 5.3.1
+ */
+class CounterSegment implements Closeable {
+    static final int MAGIC = 0x43524E43;
+    static final int VERSION = 1;
+    static final int HEADER_LENGTH = 32;
+    static final int NAME_LENGTH = 56;
+    static final int ENTRY_LENGTH = NAME_LENGTH + 8;
+    static final int COUNT_OFFSET = 8;
+    static final int START_TIME_OFFSET = 16;
+    static final int UPDATE_TIME_OFFSET = 24;
+
+    private final FileChannel fileChannel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final Map<String, Integer> offsets = new HashMap<>();
+
+    private CounterSegment(FileChannel fileChannel, MappedByteBuffer buffer, int capacity) {
+        this.fileChannel = fileChannel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Creates the segment file, replacing any file left behind by a previous run.
+     * <p>
+     * The segment is created under a temporary name and moved over the existing file, instead of deleting the
+     * existing file first. A file which is still mapped, by an earlier segment of this JVM or by a reader, cannot be
+     * deleted on Windows. Readers also never see a file without its header.
+     *
+     * @param file      segment file
+     * @param capacity  maximum number of counters
+     * @param startTime JVM start time in epoch milliseconds
+     * @return the segment
+     * @throws IOException if the file cannot be created or mapped
+     */
+    static CounterSegment create(Path file, int capacity, long startTime) throws IOException {
+        Path temporaryFile = Files.createTempFile(file.toAbsolutePath().getParent(), String.valueOf(file.getFileName()),
+                ".tmp");
+        FileChannel fileChannel = null;
+        try {
+            fileChannel = FileChannel.open(temporaryFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_LENGTH + (long) capacity * ENTRY_LENGTH);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(COUNT_OFFSET, 0);
+            buffer.putInt(12, ENTRY_LENGTH);
+            buffer.putLong(START_TIME_OFFSET, startTime);
+            buffer.putLong(UPDATE_TIME_OFFSET, startTime);
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new CounterSegment(fileChannel, buffer, capacity);
+        } catch (IOException | RuntimeException e) {
+            if (fileChannel != null) {
+                fileChannel.close();
+            }
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sets the value of a counter, adding the counter if it is not in the segment yet.
+     *
+     * @param name  counter name, at most {@link #NAME_LENGTH} bytes in UTF-8
+     * @param value counter value
+     * @return false if the counter is not in the segment and the segment is full
+     */
+    boolean set(String name, long value) {
+        Integer offset = offsets.get(name);
+        if (offset == null) {
+            offset = add(name);
+            if (offset == null) {
+                return false;
+            }
+        }
+        buffer.putLong(offset, value);
+        return true;
+    }
+
+    /**
+     * Marks the segment as updated at the given time.
+     *
+     * @param updateTime update time in epoch milliseconds
+     */
+    void updated(long updateTime) {
+        buffer.putLong(UPDATE_TIME_OFFSET, updateTime);
+    }
+
+    private Integer add(String name) {
+        int count = offsets.size();
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (count == capacity || nameBytes.length > NAME_LENGTH) {
+            return null;
+        }
+        int entryOffset = HEADER_LENGTH + count * ENTRY_LENGTH;
+        for (int i = 0; i < NAME_LENGTH; i++) {
+            buffer.put(entryOffset + i, i < nameBytes.length ? nameBytes[i] : 0);
+        }
+        int valueOffset = entryOffset + NAME_LENGTH;
+        buffer.putLong(valueOffset, 0);
+        buffer.putInt(COUNT_OFFSET, count + 1);
+        offsets.put(name, valueOffset);
+        return valueOffset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+}
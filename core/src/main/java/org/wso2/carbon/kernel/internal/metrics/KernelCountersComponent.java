@@ -0,0 +1,191 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.metrics;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.kernel.CarbonRuntime;
+import org.wso2.carbon.kernel.CarbonServerInfo;
+import org.wso2.carbon.kernel.Constants;
+import org.wso2.carbon.kernel.config.model.CountersConfig;
+import org.wso2.carbon.kernel.internal.DataHolder;
+import org.wso2.carbon.kernel.internal.runtime.RuntimeManager;
+import org.wso2.carbon.kernel.runtime.RuntimeState;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * This service component publishes the kernel counters to a memory mapped {@link CounterSegment} in the runtime
+ * directory, so that health probes and tools can read them without JMX. The counters are
+ * <ul>
+ * <li>carbon.uptime - JVM uptime in milliseconds</li>
+ * <li>carbon.startup.duration and carbon.startup.phase.&lt;phase&gt; - startup timeline in nanoseconds</li>
+ * <li>carbon.resolver.&lt;state&gt; - number of startup order resolver components in each state</li>
+ * <li>carbon.runtime.&lt;state&gt; - number of runtimes in each state</li>
+ * </ul>
+ *
+ * @since 5.3.1
+ */
+@Component(
+        name = "org.wso2.carbon.kernel.internal.metrics.KernelCountersComponent",
+        immediate = true
+)
+public class KernelCountersComponent {
+    private static final Logger logger = LoggerFactory.getLogger(KernelCountersComponent.class);
+    private static final int CAPACITY = 256;
+
+    private final RuntimeMXBean runtimeMXBean = ManagementFactory.getRuntimeMXBean();
+    private CarbonRuntime carbonRuntime;
+    private ScheduledExecutorService executorService;
+    private CounterSegment counterSegment;
+    private Path counterFile;
+
+    /**
+     * This is the activation method of KernelCountersComponent. This will be called when all the references are
+     * satisfied.
+     */
+    @Activate
+    protected void start() {
+        try {
+            CountersConfig countersConfig = carbonRuntime.getConfiguration().getCountersConfig();
+            if (!countersConfig.isEnabled()) {
+                return;
+            }
+            BundleContext bundleContext = DataHolder.getInstance().getBundleContext();
+            String runtimePath = bundleContext == null ? null : bundleContext.getProperty(Constants.RUNTIME_PATH);
+            if (runtimePath == null) {
+                logger.debug("Runtime path is not set, skipping the kernel counters");
+                return;
+            }
+            startPublishing(Paths.get(runtimePath, Constants.COUNTERS_FILE), countersConfig.getUpdateInterval());
+        } catch (Throwable throwable) {
+            logger.error("Failed to start KernelCountersComponent.", throwable);
+        }
+    }
+
+    /**
+     * This is the deactivation method of KernelCountersComponent. This will be called when this component
+     * is being stopped or references are un-satisfied during runtime.
+     */
+    @Deactivate
+    protected void stop() {
+        stopPublishing();
+    }
+
+    void startPublishing(Path file, long updateInterval) throws IOException {
+        counterFile = file;
+        counterSegment = CounterSegment.create(file, CAPACITY, runtimeMXBean.getStartTime());
+        executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "carbon-kernel-counters");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executorService.scheduleAtFixedRate(this::update, 0, updateInterval, TimeUnit.MILLISECONDS);
+    }
+
+    void stopPublishing() {
+        if (executorService == null) {
+            return;
+        }
+        executorService.shutdownNow();
+        try {
+            executorService.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            counterSegment.close();
+            Files.deleteIfExists(counterFile);
+        } catch (IOException e) {
+            logger.warn("Failed to remove the kernel counters file " + counterFile, e);
+        }
+        executorService = null;
+        counterSegment = null;
+    }
+
+    private void update() {
+        // A failed update must not cancel the later updates.
+        try {
+            DataHolder dataHolder = DataHolder.getInstance();
+            set("carbon.uptime", runtimeMXBean.getUptime());
+
+            CarbonServerInfo carbonServerInfo = dataHolder.getCarbonServerInfo();
+            if (carbonServerInfo != null) {
+                set("carbon.startup.duration", carbonServerInfo.getStartupDuration());
+                for (Map.Entry<String, Long> phase : carbonServerInfo.getStartupPhaseDurations().entrySet()) {
+                    set("carbon.startup.phase." + phase.getKey(), phase.getValue());
+                }
+            }
+
+            Supplier<Map<String, Integer>> startupResolverStates = dataHolder.getStartupResolverStates();
+            if (startupResolverStates != null) {
+                for (Map.Entry<String, Integer> state : startupResolverStates.get().entrySet()) {
+                    set("carbon.resolver." + state.getKey(), state.getValue());
+                }
+            }
+
+            RuntimeManager runtimeManager = dataHolder.getRuntimeManager();
+            if (runtimeManager != null) {
+                for (RuntimeState state : RuntimeState.values()) {
+                    set("carbon.runtime." + state.name().toLowerCase(Locale.ENGLISH),
+                            runtimeManager.getRuntimes(state).size());
+                }
+            }
+            counterSegment.updated(System.currentTimeMillis());
+        } catch (Throwable throwable) {
+            logger.warn("Failed to update the kernel counters", throwable);
+        }
+    }
+
+    private void set(String name, long value) {
+        if (!counterSegment.set(name, value) && logger.isDebugEnabled()) {
+            logger.debug("No room for the kernel counter " + name);
+        }
+    }
+
+    @Reference(
+            name = "carbon.counters.carbon.runtime",
+            service = CarbonRuntime.class,
+            cardinality = ReferenceCardinality.AT_LEAST_ONE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unregisterCarbonRuntime"
+    )
+    protected void registerCarbonRuntime(CarbonRuntime carbonRuntime) {
+        this.carbonRuntime = carbonRuntime;
+    }
+
+    protected void unregisterCarbonRuntime(CarbonRuntime carbonRuntime) {
+        this.carbonRuntime = null;
+    }
+}
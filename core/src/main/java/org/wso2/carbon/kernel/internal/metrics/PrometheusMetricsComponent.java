@@ -0,0 +1,125 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.kernel.CarbonRuntime;
+import org.wso2.carbon.kernel.config.model.CarbonConfiguration;
+import org.wso2.carbon.kernel.config.model.MetricsConfig;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This service component serves the kernel and JVM metrics in the Prometheus text format, over the HTTP server of the
+ * JDK. Scrapes are served by a single thread, one at a time.
+ *
+ * @since 5.3.1
+ */
+@Component(
+        name = "org.wso2.carbon.kernel.internal.metrics.PrometheusMetricsComponent",
+        immediate = true
+)
+public class PrometheusMetricsComponent {
+    private static final Logger logger = LoggerFactory.getLogger(PrometheusMetricsComponent.class);
+    private HttpServer httpServer;
+    private ExecutorService executorService;
+    private CarbonRuntime carbonRuntime;
+
+    /**
+     * This is the activation method of PrometheusMetricsComponent. This will be called when all the references are
+     * satisfied.
+     */
+    @Activate
+    protected void start() {
+        try {
+            CarbonConfiguration carbonConfiguration = carbonRuntime.getConfiguration();
+            MetricsConfig metricsConfig = carbonConfiguration.getMetricsConfig();
+            if (!metricsConfig.isEnabled()) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Prometheus metrics endpoint is disabled.");
+                }
+                return;
+            }
+
+            int port = metricsConfig.getPort() + carbonConfiguration.getPortsConfig().getOffset();
+            startServer(metricsConfig.getHostName(), port, metricsConfig.getPath());
+            logger.info("Prometheus metrics endpoint : http://" + metricsConfig.getHostName() + ":"
+                    + httpServer.getAddress().getPort() + metricsConfig.getPath());
+        } catch (Throwable throwable) {
+            logger.error("Failed to start PrometheusMetricsComponent.", throwable);
+        }
+    }
+
+    /**
+     * This is the deactivation method of PrometheusMetricsComponent. This will be called when this component
+     * is being stopped or references are un-satisfied during runtime.
+     */
+    @Deactivate
+    protected void stop() {
+        stopServer();
+    }
+
+    void startServer(String hostName, int port, String path) throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress(hostName, port), 0);
+        httpServer.createContext(path, new PrometheusMetricsHandler());
+        executorService = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "carbon-metrics-endpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(executorService);
+        httpServer.start();
+    }
+
+    void stopServer() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            executorService.shutdownNow();
+            httpServer = null;
+            executorService = null;
+        }
+    }
+
+    HttpServer getHttpServer() {
+        return httpServer;
+    }
+
+    @Reference(
+            name = "carbon.metrics.carbon.runtime",
+            service = CarbonRuntime.class,
+            cardinality = ReferenceCardinality.AT_LEAST_ONE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unregisterCarbonRuntime"
+    )
+    protected void registerCarbonRuntime(CarbonRuntime carbonRuntime) {
+        this.carbonRuntime = carbonRuntime;
+    }
+
+    protected void unregisterCarbonRuntime(CarbonRuntime carbonRuntime) {
+        this.carbonRuntime = null;
+    }
+}
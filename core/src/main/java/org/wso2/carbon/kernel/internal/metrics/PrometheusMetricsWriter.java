@@ -0,0 +1,244 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.metrics;
+
+import org.wso2.carbon.kernel.internal.CarbonKernelMetrics;
+import org.wso2.carbon.kernel.internal.DataHolder;
+import org.wso2.carbon.kernel.internal.KernelMetricsSnapshot;
+import org.wso2.carbon.kernel.internal.runtime.RuntimeManager;
+import org.wso2.carbon.kernel.runtime.LatencyHistogram;
+import org.wso2.carbon.kernel.runtime.Runtime;
+import org.wso2.carbon.kernel.runtime.RuntimeMetrics;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the kernel and JVM metrics in the Prometheus text exposition format.
+ * <p>
+ * The metrics are read directly from the platform MXBean objects and the kernel data structures, without going through
+ * the MBean server.
+ *
+ * @since 5.3.1
+ */
+class PrometheusMetricsWriter {
+    private static final double NANOS_PER_SECOND = 1000000000.0;
+    private static final double MILLIS_PER_SECOND = 1000.0;
+
+    private final CarbonKernelMetrics kernelMetrics = new CarbonKernelMetrics();
+    private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final ClassLoadingMXBean classLoadingMXBean = ManagementFactory.getClassLoadingMXBean();
+    private final RuntimeMXBean runtimeMXBean = ManagementFactory.getRuntimeMXBean();
+    private final List<GarbageCollectorMXBean> garbageCollectorMXBeans =
+            ManagementFactory.getGarbageCollectorMXBeans();
+
+    /**
+     * Writes all the metrics to the given buffer.
+     *
+     * @param out buffer to write to
+     */
+    void write(StringBuilder out) {
+        writeJvmMetrics(out);
+        writeKernelMetrics(out);
+        writeRuntimeMetrics(out);
+    }
+
+    private void writeJvmMetrics(StringBuilder out) {
+        MemoryUsage heap = memoryMXBean.getHeapMemoryUsage();
+        MemoryUsage nonHeap = memoryMXBean.getNonHeapMemoryUsage();
+        header(out, "jvm_memory_bytes_used", "gauge", "Used bytes of a memory area");
+        sample(out, "jvm_memory_bytes_used", "area", "heap", heap.getUsed());
+        sample(out, "jvm_memory_bytes_used", "area", "nonheap", nonHeap.getUsed());
+        header(out, "jvm_memory_bytes_committed", "gauge", "Committed bytes of a memory area");
+        sample(out, "jvm_memory_bytes_committed", "area", "heap", heap.getCommitted());
+        sample(out, "jvm_memory_bytes_committed", "area", "nonheap", nonHeap.getCommitted());
+        header(out, "jvm_memory_bytes_max", "gauge", "Max bytes of a memory area, -1 if undefined");
+        sample(out, "jvm_memory_bytes_max", "area", "heap", heap.getMax());
+        sample(out, "jvm_memory_bytes_max", "area", "nonheap", nonHeap.getMax());
+
+        header(out, "jvm_threads_current", "gauge", "Current thread count");
+        sample(out, "jvm_threads_current", threadMXBean.getThreadCount());
+        header(out, "jvm_threads_daemon", "gauge", "Daemon thread count");
+        sample(out, "jvm_threads_daemon", threadMXBean.getDaemonThreadCount());
+        header(out, "jvm_threads_peak", "gauge", "Peak thread count");
+        sample(out, "jvm_threads_peak", threadMXBean.getPeakThreadCount());
+
+        header(out, "jvm_gc_collection_seconds_count", "counter", "Number of garbage collections");
+        for (GarbageCollectorMXBean garbageCollector : garbageCollectorMXBeans) {
+            sample(out, "jvm_gc_collection_seconds_count", "gc", garbageCollector.getName(),
+                    garbageCollector.getCollectionCount());
+        }
+        header(out, "jvm_gc_collection_seconds_sum", "counter", "Time spent in garbage collections");
+        for (GarbageCollectorMXBean garbageCollector : garbageCollectorMXBeans) {
+            sample(out, "jvm_gc_collection_seconds_sum", "gc", garbageCollector.getName(),
+                    garbageCollector.getCollectionTime() / MILLIS_PER_SECOND);
+        }
+
+        header(out, "jvm_classes_loaded", "gauge", "Number of classes currently loaded");
+        sample(out, "jvm_classes_loaded", classLoadingMXBean.getLoadedClassCount());
+        header(out, "jvm_classes_unloaded_total", "counter", "Number of classes unloaded since the JVM start");
+        sample(out, "jvm_classes_unloaded_total", classLoadingMXBean.getUnloadedClassCount());
+        header(out, "jvm_uptime_seconds", "gauge", "Uptime of the JVM");
+        sample(out, "jvm_uptime_seconds", runtimeMXBean.getUptime() / MILLIS_PER_SECOND);
+    }
+
+    private void writeKernelMetrics(StringBuilder out) {
+        KernelMetricsSnapshot snapshot = kernelMetrics.getSnapshot();
+        if (snapshot.getStartupDuration() >= 0) {
+            header(out, "carbon_startup_duration_seconds", "gauge", "Duration of the server startup");
+            sample(out, "carbon_startup_duration_seconds", snapshot.getStartupDuration() / NANOS_PER_SECOND);
+        }
+        if (!snapshot.getStartupPhaseDurations().isEmpty()) {
+            header(out, "carbon_startup_phase_duration_seconds", "gauge", "Duration of each server startup phase");
+            for (Map.Entry<String, Long> phase : snapshot.getStartupPhaseDurations().entrySet()) {
+                sample(out, "carbon_startup_phase_duration_seconds", "phase", phase.getKey(),
+                        phase.getValue() / NANOS_PER_SECOND);
+            }
+        }
+        gauges(out, "carbon_startup_components", "Number of startup order resolver components in each state",
+                "state", snapshot.getStartupComponentStates());
+        gauges(out, "carbon_bundles", "Number of bundles in each state", "state", snapshot.getBundleStates());
+        gauges(out, "carbon_runtimes", "Number of runtimes in each state", "state", snapshot.getRuntimeStates());
+        gauges(out, "carbon_scheduler_queue_depth", "Number of tasks waiting in each kernel scheduler",
+                "scheduler", snapshot.getSchedulerQueueDepths());
+        header(out, "carbon_mbeans_registered", "gauge", "Number of MBeans registered through the kernel");
+        sample(out, "carbon_mbeans_registered", snapshot.getRegisteredMBeans());
+    }
+
+    private void writeRuntimeMetrics(StringBuilder out) {
+        RuntimeManager runtimeManager = DataHolder.getInstance().getRuntimeManager();
+        if (runtimeManager == null) {
+            return;
+        }
+        // Samples of a metric family have to be consecutive, so the metrics are read once and written per family.
+        List<String> names = new ArrayList<>();
+        List<RuntimeMetrics> runtimeMetrics = new ArrayList<>();
+        for (Runtime runtime : runtimeManager.getRuntimeList()) {
+            RuntimeMetrics metrics = runtime.getMetrics();
+            if (metrics != null) {
+                names.add(runtime.getName());
+                runtimeMetrics.add(metrics);
+            }
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+
+        header(out, "carbon_runtime_requests_completed_total", "counter",
+                "Number of requests completed successfully by each runtime");
+        for (int i = 0; i < names.size(); i++) {
+            sample(out, "carbon_runtime_requests_completed_total", "runtime", names.get(i),
+                    runtimeMetrics.get(i).getCompletedRequests());
+        }
+        header(out, "carbon_runtime_requests_failed_total", "counter", "Number of requests failed in each runtime");
+        for (int i = 0; i < names.size(); i++) {
+            sample(out, "carbon_runtime_requests_failed_total", "runtime", names.get(i),
+                    runtimeMetrics.get(i).getFailedRequests());
+        }
+        header(out, "carbon_runtime_requests_in_flight", "gauge", "Number of requests being processed by each runtime");
+        for (int i = 0; i < names.size(); i++) {
+            sample(out, "carbon_runtime_requests_in_flight", "runtime", names.get(i),
+                    runtimeMetrics.get(i).getInFlightRequests());
+        }
+
+        header(out, "carbon_runtime_request_duration_seconds", "histogram", "Latency of the requests of each runtime");
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            LatencyHistogram histogram = runtimeMetrics.get(i).getLatencyHistogram();
+            long[] upperBounds = histogram.getBucketUpperBounds();
+            long[] counts = histogram.getBucketCounts();
+            long cumulativeCount = 0;
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                cumulativeCount += counts[bucket];
+                String bound = upperBounds[bucket] == Long.MAX_VALUE ? "+Inf"
+                        : Double.toString(upperBounds[bucket] / NANOS_PER_SECOND);
+                sample(out, "carbon_runtime_request_duration_seconds_bucket", "runtime", name, "le", bound,
+                        cumulativeCount);
+            }
+            sample(out, "carbon_runtime_request_duration_seconds_sum", "runtime", name,
+                    histogram.getTotalNanos() / NANOS_PER_SECOND);
+            sample(out, "carbon_runtime_request_duration_seconds_count", "runtime", name, histogram.getCount());
+        }
+    }
+
+    private static void gauges(StringBuilder out, String name, String help, String label,
+                               Map<String, Integer> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        header(out, name, "gauge", help);
+        for (Map.Entry<String, Integer> value : values.entrySet()) {
+            sample(out, name, label, value.getKey(), value.getValue());
+        }
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, long value) {
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, double value) {
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String label, String labelValue, long value) {
+        labels(out.append(name).append('{'), label, labelValue).append("} ").append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String label, String labelValue, double value) {
+        labels(out.append(name).append('{'), label, labelValue).append("} ").append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String label1, String labelValue1, String label2,
+                               String labelValue2, long value) {
+        labels(labels(out.append(name).append('{'), label1, labelValue1).append(','), label2, labelValue2)
+                .append("} ").append(value).append('\n');
+    }
+
+    private static StringBuilder labels(StringBuilder out, String label, String value) {
+        out.append(label).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+        return out.append('"');
+    }
+}
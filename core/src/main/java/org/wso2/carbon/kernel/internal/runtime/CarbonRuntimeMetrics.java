@@ -0,0 +1,74 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.runtime;
+
+import org.wso2.carbon.kernel.runtime.Runtime;
+import org.wso2.carbon.kernel.runtime.RuntimeMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Aggregates the metrics exposed by the registered runtimes into the {@link RuntimeMetricsMXBean}.
+ *
+ * @since 5.3.1
+ */
+public class CarbonRuntimeMetrics implements RuntimeMetricsMXBean {
+    private final RuntimeManager runtimeManager;
+
+    public CarbonRuntimeMetrics(RuntimeManager runtimeManager) {
+        this.runtimeManager = runtimeManager;
+    }
+
+    @Override
+    public List<RuntimeMetricsSnapshot> getRuntimeMetrics() {
+        List<RuntimeMetricsSnapshot> snapshots = new ArrayList<>();
+        for (Runtime runtime : runtimeManager.getRuntimeList()) {
+            RuntimeMetrics metrics = runtime.getMetrics();
+            if (metrics != null) {
+                snapshots.add(RuntimeMetricsSnapshot.of(runtime.getName(), runtime.getState(), metrics));
+            }
+        }
+        return snapshots;
+    }
+
+    @Override
+    public long getTotalInFlightRequests() {
+        return sum(RuntimeMetrics::getInFlightRequests);
+    }
+
+    @Override
+    public long getTotalCompletedRequests() {
+        return sum(RuntimeMetrics::getCompletedRequests);
+    }
+
+    @Override
+    public long getTotalFailedRequests() {
+        return sum(RuntimeMetrics::getFailedRequests);
+    }
+
+    private long sum(ToLongFunction<RuntimeMetrics> counter) {
+        long total = 0;
+        for (Runtime runtime : runtimeManager.getRuntimeList()) {
+            RuntimeMetrics metrics = runtime.getMetrics();
+            if (metrics != null) {
+                total += counter.applyAsLong(metrics);
+            }
+        }
+        return total;
+    }
+}
@@ -17,13 +17,22 @@ package org.wso2.carbon.kernel.internal.runtime;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.kernel.internal.runtime.RuntimeLifecycleExecutor.RuntimeAction;
 import org.wso2.carbon.kernel.runtime.Runtime;
+import org.wso2.carbon.kernel.runtime.RuntimeLifecycleResult;
+import org.wso2.carbon.kernel.runtime.RuntimeMetrics;
 import org.wso2.carbon.kernel.runtime.RuntimeService;
 import org.wso2.carbon.kernel.runtime.RuntimeState;
+import org.wso2.carbon.kernel.runtime.exception.RuntimeLifecycleException;
 import org.wso2.carbon.kernel.runtime.exception.RuntimeServiceException;
 import org.wso2.carbon.utils.Utils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation class for the RuntimeService interface.
@@ -33,6 +42,7 @@ import java.util.List;
 
 public class CarbonRuntimeService implements RuntimeService, CarbonRuntimeServiceMBean {
     private static Logger logger = LoggerFactory.getLogger(CarbonRuntimeService.class);
+    private static final long IN_FLIGHT_REQUESTS_POLL_INTERVAL = 10;
     RuntimeManager runtimeManager;
 
     public CarbonRuntimeService(RuntimeManager runtimeManager) {
@@ -40,80 +50,274 @@ public class CarbonRuntimeService implements RuntimeService, CarbonRuntimeServic
     }
 
     /**
-     * Starts registered runtime.
+     * Starts registered runtime. Runtimes are initialized and started in parallel, each after the runtimes it depends
+     * on.
      *
      * @throws RuntimeServiceException - thrown if any issues occur during the process
      */
     @Override
     public void startRuntimes() throws RuntimeServiceException {
-        Utils.checkSecurity();
-        List<Runtime> runtimeMap = runtimeManager.getRuntimeList();
-        for (Runtime runtime : runtimeMap) {
+        startRuntimes(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Starts registered runtime in parallel, each after the runtimes it depends on, waiting at most the given time
+     * for each runtime to start. Runtimes in STANDBY state are left in standby until they are promoted.
+     *
+     * @param timeout maximum time to wait for a runtime to start
+     * @param unit    time unit of the timeout
+     * @return outcome of the start of each runtime
+     * @throws RuntimeServiceException - thrown if a runtime failed or did not start within the given time
+     */
+    @Override
+    public RuntimeLifecycleResult startRuntimes(long timeout, TimeUnit unit) throws RuntimeServiceException {
+        return execute(new RuntimeLifecycleExecutor("start", false), runtime -> {
             if (runtime.getState() == RuntimeState.INACTIVE) {
                 runtime.init();
                 runtime.start();
+                return true;
             } else if (runtime.getState() == RuntimeState.PENDING) {
                 throw new RuntimeServiceException("Runtime not initialized." + runtime.getClass().getName());
             } else if (runtime.getState() == RuntimeState.MAINTENANCE) {
                 throw new RuntimeServiceException("Runtime is in maintenance mode." + runtime.getClass().getName());
+            } else if (runtime.getState() == RuntimeState.STANDBY) {
+                logger.debug("Runtime is kept in standby until it is promoted : " + runtime.getClass().getName());
+                return false;
             } else {
                 logger.error("Runtime already started : " + runtime.getClass().getName());
+                return false;
             }
-        }
+        }, timeout, unit);
     }
 
     /**
-     * Stops registered runtime.
+     * Stops registered runtime. Runtimes are stopped in parallel, each before the runtimes it depends on.
      *
      * @throws RuntimeServiceException - thrown if any issues occur during the process
      */
     @Override
     public void stopRuntimes() throws RuntimeServiceException {
-        Utils.checkSecurity();
-        List<Runtime> runtimeMap = runtimeManager.getRuntimeList();
-        for (Runtime runtime : runtimeMap) {
+        execute(new RuntimeLifecycleExecutor("stop", true), runtime -> {
             if (runtime.getState() == RuntimeState.PENDING) {
                 throw new RuntimeServiceException("Runtime not initialized." + runtime.getClass().getName());
-            } else {
-                runtime.stop();
             }
-        }
+            runtime.stop();
+            return true;
+        }, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
     }
 
     /**
-     * Puts registered runtime into MAINTENANCE state.
+     * Stops registered runtime in parallel, each before the runtimes it depends on, waiting at most the given time
+     * for each runtime to stop. Runtimes which are not initialized are skipped, since there is nothing to stop.
+     * Runtimes which do not stop in time are interrupted and left behind, so that the rest of the shutdown can
+     * proceed.
+     *
+     * @param timeout maximum time to wait for a runtime to stop
+     * @param unit    time unit of the timeout
+     * @return outcome of the stop of each runtime
+     * @throws RuntimeServiceException - thrown if a runtime failed or did not stop within the given time
+     */
+    @Override
+    public RuntimeLifecycleResult stopRuntimes(long timeout, TimeUnit unit) throws RuntimeServiceException {
+        return execute(new RuntimeLifecycleExecutor("stop", true), runtime -> {
+            if (runtime.getState() == RuntimeState.PENDING) {
+                logger.debug("Skipping the runtime which is not initialized : " + runtime.getClass().getName());
+                return false;
+            }
+            runtime.stop();
+            return true;
+        }, timeout, unit);
+    }
+
+    /**
+     * Puts registered runtime into MAINTENANCE state. Runtimes enter maintenance in parallel, each before the
+     * runtimes it depends on.
      *
      * @throws RuntimeServiceException - thrown if any issues occur during the process
      */
     @Override
     public void beginMaintenance() throws RuntimeServiceException {
-        Utils.checkSecurity();
-        List<Runtime> runtimeMap = runtimeManager.getRuntimeList();
-        for (Runtime runtime : runtimeMap) {
+        beginMaintenance(Long.MAX_VALUE, TimeUnit.NANOSECONDS, false);
+    }
+
+    /**
+     * Puts registered runtime into MAINTENANCE state in parallel, each before the runtimes it depends on, waiting at
+     * most the given time for each runtime. A runtime which exposes {@link RuntimeMetrics} is considered to be in
+     * maintenance only once its in flight requests have completed, so that the caller does not need to guess how
+     * long the requests take.
+     *
+     * @param timeout maximum time to wait for a runtime to enter maintenance and complete its in flight requests
+     * @param unit    time unit of the timeout
+     * @return outcome of the operation on each runtime
+     * @throws RuntimeServiceException - thrown if a runtime failed or did not enter maintenance within the given time
+     */
+    @Override
+    public RuntimeLifecycleResult beginMaintenance(long timeout, TimeUnit unit) throws RuntimeServiceException {
+        return beginMaintenance(timeout, unit, true);
+    }
+
+    private RuntimeLifecycleResult beginMaintenance(long timeout, TimeUnit unit, boolean awaitInFlightRequests)
+            throws RuntimeServiceException {
+        return execute(new RuntimeLifecycleExecutor("begin-maintenance", true), runtime -> {
             if (runtime.getState() == RuntimeState.PENDING) {
                 throw new RuntimeServiceException("Runtime not initialized." + runtime.getClass().getName());
-            } else {
-                runtime.beginMaintenance();
             }
+            runtime.beginMaintenance();
+            RuntimeMetrics metrics = runtime.getMetrics();
+            if (awaitInFlightRequests && metrics != null) {
+                awaitInFlightRequests(runtime, metrics);
+            }
+            return true;
+        }, timeout, unit);
+    }
+
+    /**
+     * Waits until the given runtime has no requests in flight. The wait is interrupted by the lifecycle executor when
+     * the runtime timeout elapses.
+     */
+    private static void awaitInFlightRequests(Runtime runtime, RuntimeMetrics metrics) throws RuntimeServiceException {
+        long inFlightRequests = metrics.getInFlightRequests();
+        if (inFlightRequests > 0 && logger.isDebugEnabled()) {
+            logger.debug("Waiting for " + inFlightRequests + " in flight requests of runtime " + runtime.getName());
+        }
+        try {
+            while (metrics.getInFlightRequests() > 0) {
+                Thread.sleep(IN_FLIGHT_REQUESTS_POLL_INTERVAL);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeServiceException("Interrupted while waiting for the in flight requests of runtime "
+                    + runtime.getName(), e);
         }
     }
 
     /**
-     * Puts registered runtime into MAINTENANCE state.
+     * Puts registered runtime back into INACTIVE state from MAINTENANCE state. Runtimes leave maintenance in parallel,
+     * each after the runtimes it depends on.
      *
      * @throws RuntimeServiceException - thrown if any issues occur during the process
      */
     @Override
     public void endMaintenance() throws RuntimeServiceException {
-        Utils.checkSecurity();
-        List<Runtime> runtimeMap = runtimeManager.getRuntimeList();
-        for (Runtime runtime : runtimeMap) {
+        endMaintenance(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Puts registered runtime back into INACTIVE state from MAINTENANCE state in parallel, each after the runtimes it
+     * depends on, waiting at most the given time for each runtime.
+     *
+     * @param timeout maximum time to wait for a runtime to leave maintenance
+     * @param unit    time unit of the timeout
+     * @return outcome of the operation on each runtime
+     * @throws RuntimeServiceException - thrown if a runtime failed or did not leave maintenance within the given time
+     */
+    @Override
+    public RuntimeLifecycleResult endMaintenance(long timeout, TimeUnit unit) throws RuntimeServiceException {
+        return execute(new RuntimeLifecycleExecutor("end-maintenance", false), runtime -> {
             if (runtime.getState() == RuntimeState.PENDING) {
                 throw new RuntimeServiceException("Runtime not initialized." + runtime.getClass().getName());
-            } else {
-                runtime.endMaintenance();
+            }
+            runtime.endMaintenance();
+            return true;
+        }, timeout, unit);
+    }
+
+    /**
+     * Initializes and warms up the given runtimes in parallel, each after the runtimes it depends on, and keeps them
+     * in STANDBY state instead of starting them. Runtimes which are already in standby are skipped.
+     *
+     * @param runtimeNames names of the runtimes to keep in standby
+     * @param timeout      maximum time to wait for a runtime to enter standby
+     * @param unit         time unit of the timeout
+     * @return outcome of the operation on each runtime
+     * @throws RuntimeServiceException - thrown if a runtime is not registered, is not INACTIVE, failed or did not
+     *                                 enter standby within the given time
+     */
+    @Override
+    public RuntimeLifecycleResult enterStandby(Collection<String> runtimeNames, long timeout, TimeUnit unit)
+            throws RuntimeServiceException {
+        return execute(new RuntimeLifecycleExecutor("enter-standby", false), getRuntimes(runtimeNames), runtime -> {
+            if (runtime.getState() == RuntimeState.STANDBY) {
+                return false;
+            } else if (runtime.getState() != RuntimeState.INACTIVE) {
+                throw new RuntimeServiceException("Runtime cannot enter standby from " + runtime.getState()
+                        + " state : " + runtime.getName());
+            }
+            runtime.init();
+            runtime.warmUp();
+            runtime.setState(RuntimeState.STANDBY);
+            return true;
+        }, timeout, unit);
+    }
+
+    /**
+     * Starts the given runtimes, which are in STANDBY state, in parallel, each after the runtimes it depends on. Since
+     * the runtimes are already initialized and warmed up, only {@link Runtime#start()} is called. Runtimes which are
+     * already active are skipped.
+     *
+     * @param runtimeNames names of the runtimes to promote
+     * @param timeout      maximum time to wait for a runtime to start
+     * @param unit         time unit of the timeout
+     * @return outcome of the operation on each runtime
+     * @throws RuntimeServiceException - thrown if a runtime is not registered, is not in standby, failed or did not
+     *                                 start within the given time
+     */
+    @Override
+    public RuntimeLifecycleResult promoteRuntimes(Collection<String> runtimeNames, long timeout, TimeUnit unit)
+            throws RuntimeServiceException {
+        return execute(new RuntimeLifecycleExecutor("promote", false), getRuntimes(runtimeNames), runtime -> {
+            if (runtime.getState() == RuntimeState.ACTIVE) {
+                return false;
+            } else if (runtime.getState() != RuntimeState.STANDBY) {
+                throw new RuntimeServiceException("Runtime is not in standby : " + runtime.getName());
+            }
+            runtime.start();
+            return true;
+        }, timeout, unit);
+    }
+
+    private List<Runtime> getRuntimes(Collection<String> runtimeNames) throws RuntimeServiceException {
+        Utils.checkSecurity();
+        Set<String> unknownNames = new LinkedHashSet<>(runtimeNames);
+        List<Runtime> runtimes = new ArrayList<>();
+        for (Runtime runtime : runtimeManager.getRuntimeList()) {
+            if (runtimeNames.contains(runtime.getName())) {
+                runtimes.add(runtime);
+                unknownNames.remove(runtime.getName());
             }
         }
+        if (!unknownNames.isEmpty()) {
+            throw new RuntimeServiceException("Runtimes are not registered : " + unknownNames);
+        }
+        return runtimes;
+    }
+
+    private RuntimeLifecycleResult execute(RuntimeLifecycleExecutor executor, RuntimeAction action, long timeout,
+                                           TimeUnit unit) throws RuntimeServiceException {
+        Utils.checkSecurity();
+        return execute(executor, runtimeManager.getRuntimeList(), action, timeout, unit);
     }
 
+    private RuntimeLifecycleResult execute(RuntimeLifecycleExecutor executor, List<Runtime> runtimes,
+                                           RuntimeAction action, long timeout, TimeUnit unit)
+            throws RuntimeServiceException {
+        RuntimeLifecycleResult result;
+        try {
+            result = executor.execute(runtimes, runtime -> {
+                try {
+                    return action.perform(runtime);
+                } finally {
+                    runtimeManager.refreshState(runtime);
+                }
+            }, timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeServiceException("Interrupted while waiting for the runtimes", e);
+        }
+
+        if (!result.isSuccessful()) {
+            throw new RuntimeLifecycleException(result);
+        }
+        return result;
+    }
 }
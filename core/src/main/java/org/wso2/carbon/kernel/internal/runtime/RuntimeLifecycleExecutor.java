@@ -0,0 +1,277 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.runtime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.kernel.runtime.Runtime;
+import org.wso2.carbon.kernel.runtime.RuntimeLifecycleResult;
+import org.wso2.carbon.kernel.runtime.RuntimeLifecycleResult.Outcome;
+import org.wso2.carbon.kernel.runtime.exception.RuntimeServiceException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Performs a lifecycle operation on a set of runtimes in parallel, honouring the dependencies declared by the
+ * runtimes.
+ * <p>
+ * The operation is performed on a runtime as soon as it has completed on all the runtimes which have to go first:
+ * the dependencies of the runtime for the operations which bring runtimes up, and the dependents of the runtime for
+ * the operations which bring them down. Each runtime is given the timeout from the moment its operation starts. A
+ * runtime which does not complete in time is interrupted and left behind, and a runtime which fails does not stop the
+ * operation on the other runtimes. The operations which bring runtimes up skip the dependents of a failed runtime.
+ *
+ * @since 5.3.1
+ */
+class RuntimeLifecycleExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(RuntimeLifecycleExecutor.class);
+
+    /**
+     * Lifecycle operation on a single runtime.
+     */
+    @FunctionalInterface
+    interface RuntimeAction {
+        /**
+         * Performs the operation on the given runtime.
+         *
+         * @param runtime runtime to operate on
+         * @return true if the operation was performed, false if there was nothing to do
+         * @throws RuntimeServiceException if the operation failed
+         */
+        boolean perform(Runtime runtime) throws RuntimeServiceException;
+    }
+
+    private final String operation;
+    private final boolean reverse;
+
+    /**
+     * Constructor.
+     *
+     * @param operation name of the operation, used in the thread names, the logs and the result
+     * @param reverse   true if the operation brings runtimes down, so that dependents go before their dependencies
+     */
+    RuntimeLifecycleExecutor(String operation, boolean reverse) {
+        this.operation = operation;
+        this.reverse = reverse;
+    }
+
+    /**
+     * Performs the operation on the given runtimes.
+     *
+     * @param runtimes runtimes to operate on
+     * @param action   operation on a single runtime
+     * @param timeout  maximum time for the operation on each runtime, or {@link Long#MAX_VALUE} for no limit
+     * @param unit     time unit of the timeout
+     * @return outcome of the operation on each runtime
+     * @throws InterruptedException if interrupted while waiting for the runtimes
+     */
+    RuntimeLifecycleResult execute(List<Runtime> runtimes, RuntimeAction action, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        RuntimeLifecycleResult result = new RuntimeLifecycleResult(operation);
+        if (runtimes.isEmpty()) {
+            return result;
+        }
+
+        long timeoutNanos = timeout == Long.MAX_VALUE ? Long.MAX_VALUE : unit.toNanos(timeout);
+        Map<Runtime, List<Runtime>> prerequisites = getPrerequisites(runtimes);
+        Map<Runtime, Outcome> outcomes = new IdentityHashMap<>();
+        Map<Runtime, Long> durations = new IdentityHashMap<>();
+        Map<Runtime, Throwable> failures = new IdentityHashMap<>();
+        List<Runtime> waiting = new ArrayList<>(runtimes);
+        Map<Future<Boolean>, Runtime> running = new LinkedHashMap<>();
+        Map<Runtime, Long> startTimes = new IdentityHashMap<>();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(runtimes.size(), runnable -> {
+            Thread thread = new Thread(runnable, "carbon-runtime-" + operation + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<Boolean> completionService = new ExecutorCompletionService<>(executor);
+
+        try {
+            while (true) {
+                boolean scheduled = true;
+                while (scheduled) {
+                    scheduled = false;
+                    for (Iterator<Runtime> iterator = waiting.iterator(); iterator.hasNext(); ) {
+                        Runtime runtime = iterator.next();
+                        Runtime failedPrerequisite = null;
+                        boolean ready = true;
+                        for (Runtime prerequisite : prerequisites.get(runtime)) {
+                            Outcome outcome = outcomes.get(prerequisite);
+                            if (outcome == null) {
+                                ready = false;
+                                break;
+                            }
+                            if (outcome != Outcome.COMPLETED && failures.containsKey(prerequisite)) {
+                                failedPrerequisite = prerequisite;
+                            }
+                        }
+                        if (!ready) {
+                            continue;
+                        }
+
+                        iterator.remove();
+                        scheduled = true;
+                        if (failedPrerequisite != null && !reverse) {
+                            outcomes.put(runtime, Outcome.SKIPPED);
+                            durations.put(runtime, 0L);
+                            failures.put(runtime, new RuntimeServiceException("Dependency "
+                                    + failedPrerequisite.getName() + " failed to " + operation));
+                            continue;
+                        }
+                        startTimes.put(runtime, System.nanoTime());
+                        running.put(completionService.submit(() -> action.perform(runtime)), runtime);
+                    }
+                }
+
+                if (running.isEmpty()) {
+                    break;
+                }
+                awaitNext(completionService, running, startTimes, timeoutNanos, outcomes, durations, failures);
+            }
+
+            // Whatever is still waiting depends on itself through a dependency cycle.
+            for (Runtime runtime : waiting) {
+                outcomes.put(runtime, Outcome.FAILED);
+                durations.put(runtime, 0L);
+                failures.put(runtime, new RuntimeServiceException("Dependency cycle detected for runtime "
+                        + runtime.getName()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<String, AtomicInteger> nameCounts = new HashMap<>();
+        for (Runtime runtime : runtimes) {
+            // Runtimes sharing a name, such as several instances of a runtime class, are numbered in the result.
+            int count = nameCounts.computeIfAbsent(runtime.getName(), name -> new AtomicInteger()).incrementAndGet();
+            String name = count == 1 ? runtime.getName() : runtime.getName() + "#" + count;
+            Throwable cause = failures.get(runtime);
+            if (outcomes.get(runtime) == Outcome.FAILED || outcomes.get(runtime) == Outcome.TIMED_OUT) {
+                logger.error("Failed to " + operation + " runtime : " + name, cause);
+            }
+            result.add(name, outcomes.get(runtime), durations.get(runtime), cause);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(result.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Waits until one of the running operations completes, or the earliest of their deadlines passes.
+     */
+    private void awaitNext(CompletionService<Boolean> completionService, Map<Future<Boolean>, Runtime> running,
+                           Map<Runtime, Long> startTimes, long timeoutNanos, Map<Runtime, Outcome> outcomes,
+                           Map<Runtime, Long> durations, Map<Runtime, Throwable> failures)
+            throws InterruptedException {
+        Future<Boolean> completed;
+        if (timeoutNanos == Long.MAX_VALUE) {
+            completed = completionService.take();
+        } else {
+            long now = System.nanoTime();
+            long longestElapsed = 0;
+            for (Runtime runtime : running.values()) {
+                longestElapsed = Math.max(longestElapsed, now - startTimes.get(runtime));
+            }
+            completed = completionService.poll(Math.max(0, timeoutNanos - longestElapsed), TimeUnit.NANOSECONDS);
+        }
+
+        if (completed != null) {
+            Runtime runtime = running.remove(completed);
+            if (runtime == null) {
+                // The operation was cancelled after it had timed out.
+                return;
+            }
+            durations.put(runtime, System.nanoTime() - startTimes.get(runtime));
+            try {
+                outcomes.put(runtime, completed.get() ? Outcome.COMPLETED : Outcome.SKIPPED);
+            } catch (ExecutionException e) {
+                outcomes.put(runtime, Outcome.FAILED);
+                failures.put(runtime, e.getCause());
+            }
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (Iterator<Map.Entry<Future<Boolean>, Runtime>> iterator = running.entrySet().iterator();
+             iterator.hasNext(); ) {
+            Map.Entry<Future<Boolean>, Runtime> task = iterator.next();
+            Runtime runtime = task.getValue();
+            long elapsed = now - startTimes.get(runtime);
+            if (elapsed >= timeoutNanos && !task.getKey().isDone()) {
+                task.getKey().cancel(true);
+                iterator.remove();
+                outcomes.put(runtime, Outcome.TIMED_OUT);
+                durations.put(runtime, elapsed);
+                failures.put(runtime, new RuntimeServiceException("Runtime " + runtime.getName() + " did not "
+                        + operation + " within " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms"));
+            }
+        }
+    }
+
+    /**
+     * Returns the runtimes which have to complete the operation before each runtime.
+     */
+    private Map<Runtime, List<Runtime>> getPrerequisites(List<Runtime> runtimes) {
+        Map<String, List<Runtime>> runtimesByName = new HashMap<>();
+        Map<Runtime, List<Runtime>> prerequisites = new IdentityHashMap<>();
+        for (Runtime runtime : runtimes) {
+            runtimesByName.computeIfAbsent(runtime.getName(), name -> new ArrayList<>()).add(runtime);
+            prerequisites.put(runtime, new ArrayList<>());
+        }
+
+        for (Runtime runtime : runtimes) {
+            Set<String> dependencies = runtime.getDependencies();
+            for (String dependencyName : dependencies) {
+                List<Runtime> dependencyRuntimes = runtimesByName.get(dependencyName);
+                if (dependencyRuntimes == null) {
+                    logger.debug("Ignoring the dependency of runtime " + runtime.getName() + " on " + dependencyName
+                            + ", which is not part of the operation");
+                    continue;
+                }
+                for (Runtime dependency : dependencyRuntimes) {
+                    if (dependency == runtime) {
+                        continue;
+                    }
+                    if (reverse) {
+                        prerequisites.get(dependency).add(runtime);
+                    } else {
+                        prerequisites.get(runtime).add(dependency);
+                    }
+                }
+            }
+        }
+        return prerequisites;
+    }
+}
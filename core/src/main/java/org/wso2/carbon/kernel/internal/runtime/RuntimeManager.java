@@ -18,20 +18,43 @@ package org.wso2.carbon.kernel.internal.runtime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.kernel.runtime.Runtime;
+import org.wso2.carbon.kernel.runtime.RuntimeState;
+import org.wso2.carbon.kernel.runtime.RuntimeStateListener;
 import org.wso2.carbon.utils.Utils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Runtime Manager class.
+ * <p>
+ * The registry is safe for concurrent use. Runtimes are registered and unregistered by the declarative services
+ * threads while the lifecycle operations and the monitoring read it, and every read returns a snapshot which is not
+ * affected by later registrations. The manager also indexes the runtimes by their last known {@link RuntimeState}
+ * and notifies {@link RuntimeStateListener}s of the transitions it observes. Since the runtimes change their own
+ * state, the state of a runtime is observed when it is registered and after each lifecycle operation on it.
  *
  * @since 5.0.0
  */
 public class RuntimeManager {
     private static Logger logger = LoggerFactory.getLogger(RuntimeManager.class);
-    private List<Runtime> runtimeList = new ArrayList<Runtime>();
+    private final CopyOnWriteArrayList<Runtime> runtimeList = new CopyOnWriteArrayList<>();
+    private final Map<Runtime, RuntimeState> runtimeStates = new ConcurrentHashMap<>();
+    private final Map<RuntimeState, Set<Runtime>> runtimesByState = new EnumMap<>(RuntimeState.class);
+    private final List<RuntimeStateListener> stateListeners = new CopyOnWriteArrayList<>();
 
+    public RuntimeManager() {
+        for (RuntimeState runtimeState : RuntimeState.values()) {
+            runtimesByState.put(runtimeState, ConcurrentHashMap.newKeySet());
+        }
+    }
 
     /**
      * Register runtime instance on RuntimeManager.
@@ -40,7 +63,9 @@ public class RuntimeManager {
      */
     public void registerRuntime(Runtime runtime) {
         Utils.checkSecurity();
-        runtimeList.add(runtime);
+        if (runtimeList.addIfAbsent(runtime)) {
+            refreshState(runtime);
+        }
     }
 
     /**
@@ -50,16 +75,151 @@ public class RuntimeManager {
      */
     public void unRegisterRuntime(Runtime runtime) {
         Utils.checkSecurity();
-        runtimeList.remove(runtime);
+        if (runtimeList.remove(runtime)) {
+            removeState(runtime);
+        }
     }
 
     /**
      * Return registered runtime list.
      *
-     * @return List of rumtimes
+     * @return List of rumtimes, which is an unmodifiable snapshot of the registered runtimes
      */
     public List<Runtime> getRuntimeList() {
         Utils.checkSecurity();
-        return runtimeList;
+        return Collections.unmodifiableList(Arrays.asList(runtimeList.toArray(new Runtime[0])));
+    }
+
+    /**
+     * Return the registered runtimes of the given type.
+     *
+     * @param runtimeType runtime class or interface
+     * @param <T>         runtime type
+     * @return unmodifiable snapshot of the registered runtimes which are instances of the given type
+     * @since 5.3.1
+     */
+    public <T extends Runtime> List<T> getRuntimes(Class<T> runtimeType) {
+        Utils.checkSecurity();
+        List<T> runtimes = new ArrayList<>();
+        for (Runtime runtime : runtimeList) {
+            if (runtimeType.isInstance(runtime)) {
+                runtimes.add(runtimeType.cast(runtime));
+            }
+        }
+        return Collections.unmodifiableList(runtimes);
+    }
+
+    /**
+     * Return the registered runtimes which were last observed in the given state.
+     *
+     * @param runtimeState runtime state
+     * @return unmodifiable snapshot of the registered runtimes in the given state
+     * @since 5.3.1
+     */
+    public List<Runtime> getRuntimes(RuntimeState runtimeState) {
+        Utils.checkSecurity();
+        return Collections.unmodifiableList(new ArrayList<>(runtimesByState.get(runtimeState)));
+    }
+
+    /**
+     * Return the last observed state of a registered runtime.
+     *
+     * @param runtime registered runtime
+     * @return last observed state, or null if the runtime is not registered or does not report a state
+     * @since 5.3.1
+     */
+    public RuntimeState getRuntimeState(Runtime runtime) {
+        return runtimeStates.get(runtime);
+    }
+
+    /**
+     * Observes the current state of a registered runtime, updates the state index and notifies the state listeners
+     * if the state has changed. This is called after each lifecycle operation on the runtime.
+     *
+     * @param runtime registered runtime
+     * @since 5.3.1
+     */
+    public void refreshState(Runtime runtime) {
+        RuntimeState newState = (RuntimeState) runtime.getState();
+        RuntimeState[] previousState = new RuntimeState[1];
+        boolean[] registered = new boolean[1];
+        // The registration is checked within the atomic update, since un-registering a runtime removes it from the
+        // list before its state entry. Otherwise a refresh racing with the un-registration could put the state back.
+        runtimeStates.compute(runtime, (key, currentState) -> {
+            previousState[0] = currentState;
+            registered[0] = runtimeList.contains(runtime);
+            if (!registered[0]) {
+                return currentState;
+            }
+            if (currentState != newState) {
+                if (currentState != null) {
+                    runtimesByState.get(currentState).remove(runtime);
+                }
+                if (newState != null) {
+                    runtimesByState.get(newState).add(runtime);
+                }
+            }
+            return newState;
+        });
+
+        if (!registered[0]) {
+            return;
+        }
+        if (previousState[0] != newState) {
+            for (RuntimeStateListener stateListener : stateListeners) {
+                try {
+                    stateListener.stateChanged(runtime, previousState[0], newState);
+                } catch (RuntimeException e) {
+                    logger.error("Error while notifying the state change of runtime " + runtime.getName(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a listener notified of the state transitions of the registered runtimes.
+     *
+     * @param stateListener state listener
+     * @since 5.3.1
+     */
+    public void addStateListener(RuntimeStateListener stateListener) {
+        Utils.checkSecurity();
+        stateListeners.add(stateListener);
+    }
+
+    /**
+     * Removes a state listener.
+     *
+     * @param stateListener state listener
+     * @since 5.3.1
+     */
+    public void removeStateListener(RuntimeStateListener stateListener) {
+        Utils.checkSecurity();
+        stateListeners.remove(stateListener);
+    }
+
+    /**
+     * Removes all the registered runtimes. This is used during the server shutdown, after the runtimes are stopped.
+     *
+     * @return List of the removed runtimes
+     * @since 5.3.1
+     */
+    public List<Runtime> drainRuntimes() {
+        Utils.checkSecurity();
+        List<Runtime> drained = new ArrayList<>();
+        for (Runtime runtime : runtimeList) {
+            if (runtimeList.remove(runtime)) {
+                removeState(runtime);
+                drained.add(runtime);
+            }
+        }
+        return drained;
+    }
+
+    private void removeState(Runtime runtime) {
+        runtimeStates.computeIfPresent(runtime, (key, currentState) -> {
+            runtimesByState.get(currentState).remove(runtime);
+            return null;
+        });
     }
 }
@@ -0,0 +1,48 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.runtime;
+
+import java.util.List;
+
+/**
+ * MXBean interface for exposing the load metrics of the registered runtimes.
+ *
+ * @since 5.3.1
+ */
+public interface RuntimeMetricsMXBean {
+
+    /**
+     * Reads the metrics of all the registered runtimes which expose metrics, in one call.
+     *
+     * @return metrics of each runtime
+     */
+    List<RuntimeMetricsSnapshot> getRuntimeMetrics();
+
+    /**
+     * @return number of requests being processed by all the runtimes
+     */
+    long getTotalInFlightRequests();
+
+    /**
+     * @return number of requests completed successfully by all the runtimes
+     */
+    long getTotalCompletedRequests();
+
+    /**
+     * @return number of requests which failed in all the runtimes
+     */
+    long getTotalFailedRequests();
+}
@@ -0,0 +1,134 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.runtime;
+
+import org.wso2.carbon.kernel.runtime.LatencyHistogram;
+import org.wso2.carbon.kernel.runtime.RuntimeMetrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Metrics of a single runtime, as published by the {@link RuntimeMetricsMXBean}. JMX clients see it as composite
+ * data. Latencies are in milliseconds.
+ *
+ * @since 5.3.1
+ */
+public class RuntimeMetricsSnapshot {
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    private final String name;
+    private final String state;
+    private final long completedRequests;
+    private final long failedRequests;
+    private final long inFlightRequests;
+    private final double meanLatency;
+    private final double p50Latency;
+    private final double p90Latency;
+    private final double p99Latency;
+    private final double maxLatency;
+    private final long[] latencyBucketUpperBounds;
+    private final long[] latencyBucketCounts;
+
+    @ConstructorProperties({"name", "state", "completedRequests", "failedRequests", "inFlightRequests",
+            "meanLatency", "p50Latency", "p90Latency", "p99Latency", "maxLatency", "latencyBucketUpperBounds",
+            "latencyBucketCounts"})
+    public RuntimeMetricsSnapshot(String name, String state, long completedRequests, long failedRequests,
+                                  long inFlightRequests, double meanLatency, double p50Latency, double p90Latency,
+                                  double p99Latency, double maxLatency, long[] latencyBucketUpperBounds,
+                                  long[] latencyBucketCounts) {
+        this.name = name;
+        this.state = state;
+        this.completedRequests = completedRequests;
+        this.failedRequests = failedRequests;
+        this.inFlightRequests = inFlightRequests;
+        this.meanLatency = meanLatency;
+        this.p50Latency = p50Latency;
+        this.p90Latency = p90Latency;
+        this.p99Latency = p99Latency;
+        this.maxLatency = maxLatency;
+        this.latencyBucketUpperBounds = latencyBucketUpperBounds;
+        this.latencyBucketCounts = latencyBucketCounts;
+    }
+
+    /**
+     * Takes a snapshot of the given runtime metrics.
+     *
+     * @param name    runtime name
+     * @param state   runtime state, or null if not known
+     * @param metrics runtime metrics
+     * @return snapshot of the metrics
+     */
+    static RuntimeMetricsSnapshot of(String name, Enum<?> state, RuntimeMetrics metrics) {
+        LatencyHistogram histogram = metrics.getLatencyHistogram();
+        return new RuntimeMetricsSnapshot(name, state == null ? null : state.name(), metrics.getCompletedRequests(),
+                metrics.getFailedRequests(), metrics.getInFlightRequests(),
+                histogram.getMeanNanos() / NANOS_PER_MILLI, histogram.getPercentileNanos(50) / NANOS_PER_MILLI,
+                histogram.getPercentileNanos(90) / NANOS_PER_MILLI, histogram.getPercentileNanos(99) / NANOS_PER_MILLI,
+                histogram.getMaxNanos() / NANOS_PER_MILLI, histogram.getBucketUpperBounds(),
+                histogram.getBucketCounts());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public long getCompletedRequests() {
+        return completedRequests;
+    }
+
+    public long getFailedRequests() {
+        return failedRequests;
+    }
+
+    public long getInFlightRequests() {
+        return inFlightRequests;
+    }
+
+    public double getMeanLatency() {
+        return meanLatency;
+    }
+
+    public double getP50Latency() {
+        return p50Latency;
+    }
+
+    public double getP90Latency() {
+        return p90Latency;
+    }
+
+    public double getP99Latency() {
+        return p99Latency;
+    }
+
+    public double getMaxLatency() {
+        return maxLatency;
+    }
+
+    /**
+     * @return upper bound of each latency bucket in nanoseconds
+     */
+    public long[] getLatencyBucketUpperBounds() {
+        return latencyBucketUpperBounds.clone();
+    }
+
+    public long[] getLatencyBucketCounts() {
+        return latencyBucketCounts.clone();
+    }
+}
@@ -16,24 +16,43 @@
 package org.wso2.carbon.kernel.internal.runtime;
 
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.SynchronousBundleListener;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.config.ConfigurationException;
+import org.wso2.carbon.config.provider.ConfigProvider;
+import org.wso2.carbon.kernel.Constants;
+import org.wso2.carbon.kernel.config.model.CarbonConfiguration;
+import org.wso2.carbon.kernel.config.model.ShutdownConfig;
+import org.wso2.carbon.kernel.config.model.StartupConfig;
 import org.wso2.carbon.kernel.internal.DataHolder;
 import org.wso2.carbon.kernel.jmx.MBeanRegistrator;
 import org.wso2.carbon.kernel.runtime.Runtime;
+import org.wso2.carbon.kernel.runtime.RuntimeLifecycleResult;
 import org.wso2.carbon.kernel.runtime.RuntimeService;
+import org.wso2.carbon.kernel.runtime.exception.RuntimeLifecycleException;
+import org.wso2.carbon.kernel.runtime.exception.RuntimeServiceException;
 import org.wso2.carbon.kernel.startupresolver.RequiredCapabilityListener;
 import org.wso2.carbon.kernel.startupresolver.StartupServiceUtils;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * This service  component is responsible for retrieving the Runtime OSGi service and register each runtime
  * with runtime manager. It also acts as a RequiredCapabilityListener for all the Runtime capabilities, and
- * once they are available, it registers the RuntimeService as an OSGi service.
+ * once they are available, it starts the runtimes in parallel and registers the RuntimeService as an OSGi service.
+ * <p>
+ * When the OSGi framework starts shutting down, the registered runtimes are stopped in parallel before any bundle is
+ * stopped, bounded by the configured runtime stop timeout and the shutdown deadline published by the launcher.
  *
  * @since 5.0.0
  */
@@ -46,14 +65,30 @@ import org.wso2.carbon.kernel.startupresolver.StartupServiceUtils;
 )
 public class RuntimeServiceListenerComponent implements RequiredCapabilityListener {
     public static final String COMPONENT_NAME = "carbon-runtime-mgt";
+    private static final long SYSTEM_BUNDLE_ID = 0;
     private static final Logger logger = LoggerFactory.getLogger(RuntimeServiceListenerComponent.class);
     private RuntimeManager runtimeManager = new RuntimeManager();
     private BundleContext bundleContext;
+    private volatile RuntimeService runtimeService;
+    private final AtomicBoolean runtimesStopped = new AtomicBoolean();
+    private final SynchronousBundleListener shutdownListener = event -> {
+        if (event.getType() == BundleEvent.STOPPING
+                && event.getBundle().getBundleId() == SYSTEM_BUNDLE_ID) {
+            stopRuntimes();
+        }
+    };
 
     @Activate
     protected void start(BundleContext bundleContext) {
         this.bundleContext = bundleContext;
         DataHolder.getInstance().setRuntimeManager(runtimeManager);
+        bundleContext.addBundleListener(shutdownListener);
+    }
+
+    @Deactivate
+    protected void stop(BundleContext bundleContext) {
+        bundleContext.removeBundleListener(shutdownListener);
+        stopRuntimes();
     }
 
     /**
@@ -97,12 +132,97 @@ public class RuntimeServiceListenerComponent implements RequiredCapabilityListen
             logger.debug("Registering RuntimeService as an OSGi service");
         }
         RuntimeService runtimeService = new CarbonRuntimeService(runtimeManager);
+        this.runtimeService = runtimeService;
+        StartupConfig startupConfig = getStartupConfig();
+        if (!startupConfig.getStandbyRuntimes().isEmpty()) {
+            try {
+                runtimeService.enterStandby(startupConfig.getStandbyRuntimes(),
+                        startupConfig.getRuntimeStartTimeout(), TimeUnit.MILLISECONDS);
+            } catch (RuntimeServiceException e) {
+                // The runtimes which could not enter standby are started with the others.
+                logger.error("Error while putting runtimes into standby", e);
+            }
+        }
+
+        try {
+            RuntimeLifecycleResult result = runtimeService.startRuntimes(startupConfig.getRuntimeStartTimeout(),
+                    TimeUnit.MILLISECONDS);
+            if (logger.isDebugEnabled()) {
+                logger.debug(result.toString());
+            }
+        } catch (RuntimeLifecycleException e) {
+            // The failures are logged for each runtime. The runtimes which started are still made available.
+            logger.error(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error while starting runtime from Runtime manager", e);
+            return;
+        }
+
         try {
-            runtimeService.startRuntimes();
             bundleContext.registerService(RuntimeService.class, runtimeService, null);
             MBeanRegistrator.registerMBean(runtimeService);
+            MBeanRegistrator.registerMBean(new CarbonRuntimeMetrics(runtimeManager));
         } catch (Exception e) {
-            logger.error("Error while starting runtime from Runtime manager", e);
+            logger.error("Error while registering the RuntimeService", e);
+        }
+    }
+
+    /**
+     * Stops the registered runtimes and removes them from the runtime manager. This is done only once, either when
+     * the OSGi framework starts shutting down or when this component is deactivated.
+     */
+    private void stopRuntimes() {
+        if (runtimeService == null || !runtimesStopped.compareAndSet(false, true)) {
+            return;
+        }
+
+        long timeout = getRuntimeStopTimeout();
+        String deadline = System.getProperty(Constants.SHUTDOWN_DEADLINE);
+        if (deadline != null) {
+            try {
+                timeout = Math.min(timeout, Math.max(0, Long.parseLong(deadline) - System.currentTimeMillis()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid shutdown deadline : " + deadline);
+            }
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            runtimeService.stopRuntimes(timeout, TimeUnit.MILLISECONDS);
+        } catch (RuntimeServiceException e) {
+            logger.error("Error while stopping runtimes from Runtime manager", e);
+        } finally {
+            List<Runtime> runtimes = runtimeManager.drainRuntimes();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Stopped " + runtimes.size() + " runtimes in "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+            }
+        }
+    }
+
+    private StartupConfig getStartupConfig() {
+        ConfigProvider configProvider = DataHolder.getInstance().getConfigProvider();
+        if (configProvider != null) {
+            try {
+                return configProvider.getConfigurationObject(CarbonConfiguration.class).getStartupConfig();
+            } catch (ConfigurationException e) {
+                logger.warn("Error while reading the startup configuration, using the default configuration", e);
+            }
+        }
+        return new StartupConfig();
+    }
+
+    private long getRuntimeStopTimeout() {
+        ConfigProvider configProvider = DataHolder.getInstance().getConfigProvider();
+        if (configProvider != null) {
+            try {
+                return configProvider.getConfigurationObject(CarbonConfiguration.class).getShutdownConfig()
+                        .getRuntimeStopTimeout();
+            } catch (ConfigurationException e) {
+                logger.warn("Error while reading the shutdown configuration, using the default runtime stop timeout",
+                        e);
+            }
         }
+        return new ShutdownConfig().getRuntimeStopTimeout();
     }
 }
@@ -26,6 +26,7 @@ import org.wso2.carbon.kernel.internal.startupresolver.beans.StartupComponent;
 import org.wso2.carbon.kernel.startupresolver.RequiredCapabilityListener;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
@@ -247,6 +248,36 @@ class StartupComponentManager {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Counts the startup components in each state.
+     * <p>
+     * This is called by the monitoring threads, so the components are read under the same lock the
+     * StartupOrderResolver takes to update them.
+     *
+     * @return number of satisfied, satisfiable and pending components, by state
+     */
+    Map<String, Integer> getComponentStateCounts() {
+        int satisfied = 0;
+        int satisfiable = 0;
+        int pending = 0;
+        synchronized (StartupComponentManager.class) {
+            for (StartupComponent startupComponent : startupComponentMap.values()) {
+                if (startupComponent.isSatisfied()) {
+                    satisfied++;
+                } else if (startupComponent.isSatisfiable()) {
+                    satisfiable++;
+                } else {
+                    pending++;
+                }
+            }
+        }
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("satisfied", satisfied);
+        counts.put("satisfiable", satisfiable);
+        counts.put("pending", pending);
+        return counts;
+    }
+
     void notifySatisfiableComponents() {
         getComponents(StartupComponent::isSatisfiable)
                 .forEach(startupComponent -> {
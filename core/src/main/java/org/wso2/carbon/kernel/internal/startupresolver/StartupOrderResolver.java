@@ -17,6 +17,7 @@ package org.wso2.carbon.kernel.internal.startupresolver;
 
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -26,8 +27,11 @@ import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.kernel.CarbonRuntime;
+import org.wso2.carbon.kernel.config.ConfigurationChangeEvent;
+import org.wso2.carbon.kernel.config.ConfigurationChangeListener;
 import org.wso2.carbon.kernel.config.model.CarbonConfiguration;
 import org.wso2.carbon.kernel.internal.CarbonStartupHandler;
+import org.wso2.carbon.kernel.internal.DataHolder;
 import org.wso2.carbon.kernel.internal.startupresolver.beans.StartupComponent;
 import org.wso2.carbon.kernel.startupresolver.manifest.ManifestElement;
 
@@ -69,6 +73,7 @@ import static org.wso2.carbon.kernel.internal.startupresolver.StartupResolverCon
 )
 public class StartupOrderResolver {
     private static final Logger logger = LoggerFactory.getLogger(StartupOrderResolver.class);
+    private static final String STARTUP_RESOLVER_ELEMENT = "startupResolver";
 
     private StartupComponentManager startupComponentManager = new StartupComponentManager();
 
@@ -78,6 +83,12 @@ public class StartupOrderResolver {
 
     private Timer pendingCapabilityTimer = new Timer();
 
+    private TimerTask capabilityListenerTask;
+
+    private TimerTask pendingCapabilityTask;
+
+    private ServiceRegistration<ConfigurationChangeListener> configurationListener;
+
     private CarbonRuntime carbonRuntime;
 
     /**
@@ -93,6 +104,7 @@ public class StartupOrderResolver {
     public void start(BundleContext bundleContext) throws Exception {
         try {
             logger.debug("Initialize - Startup Order Resolver.");
+            DataHolder.getInstance().setStartupResolverStates(startupComponentManager::getComponentStateCounts);
 
             // 1) Process OSGi manifest headers to calculate the expected list required capabilities.
             processManifestHeaders(Arrays.asList(bundleContext.getBundles()));
@@ -100,12 +112,19 @@ public class StartupOrderResolver {
             // 2) Register capability trackers to get notified when required capabilities are available.
             startCapabilityTrackers();
 
-            // 3) Schedule a time task to check for startup components with zero pending required capabilities.
-            scheduleCapabilityListenerTimer();
+            CarbonConfiguration carbonConfiguration = carbonRuntime.getConfiguration();
+            synchronized (StartupComponentManager.class) {
+                // 3) Schedule a time task to check for startup components with zero pending required capabilities.
+                scheduleCapabilityListenerTimer(carbonConfiguration);
+
+                // 4) Start a timer task to track pending capabilities, pending CapabilityProvider services,
+                // pending RequiredCapabilityLister services.
+                schedulePendingCapabilityTimerTask(carbonConfiguration);
+            }
 
-            // 4) Start a timer task to track pending capabilities, pending CapabilityProvider services,
-            // pending RequiredCapabilityLister services.
-            schedulePendingCapabilityTimerTask();
+            // 5) Apply the timer configuration changes to the timers which are still running.
+            configurationListener = bundleContext.registerService(ConfigurationChangeListener.class,
+                    this::configurationChanged, null);
         } catch (Throwable e) {
             logger.error("Error occurred in Startup Order Resolver.", e);
         }
@@ -115,6 +134,10 @@ public class StartupOrderResolver {
     public void stop(BundleContext bundleContext) throws Exception {
         logger.debug("Deactivating startup resolver component available in bundle {}",
                 bundleContext.getBundle().getSymbolicName());
+        if (configurationListener != null) {
+            configurationListener.unregister();
+            configurationListener = null;
+        }
     }
 
     @Reference(
@@ -168,17 +191,42 @@ public class StartupOrderResolver {
         // e.g. custom manifest headers, config files etc.
     }
 
+    /**
+     * Reschedules the timers which are still running, with the delays and the periods of the changed configuration.
+     *
+     * @param event the configuration change
+     */
+    private void configurationChanged(ConfigurationChangeEvent event) {
+        if (!event.isChanged(STARTUP_RESOLVER_ELEMENT)) {
+            return;
+        }
+        CarbonConfiguration carbonConfiguration = event.getConfiguration();
+        synchronized (StartupComponentManager.class) {
+            if (capabilityListenerTimer != null) {
+                capabilityListenerTask.cancel();
+                scheduleCapabilityListenerTimer(carbonConfiguration);
+                logger.debug("Rescheduled the capabilityListenerTimer with the changed configuration");
+            }
+            if (pendingCapabilityTimer != null) {
+                pendingCapabilityTask.cancel();
+                schedulePendingCapabilityTimerTask(carbonConfiguration);
+                logger.debug("Rescheduled the pendingCapabilityTimer with the changed configuration");
+            }
+        }
+    }
+
     /**
      * Schedule a timer task to monitor satisfiable CapabilityListeners.
+     *
+     * @param carbonConfiguration the configuration to read the delay and the period of the timer from
      */
-    private void scheduleCapabilityListenerTimer() {
-        CarbonConfiguration carbonConfiguration = carbonRuntime.getConfiguration();
+    private void scheduleCapabilityListenerTimer(CarbonConfiguration carbonConfiguration) {
         long capabilityListenerTimerDelay = carbonConfiguration.getStartupResolverConfig().
                 getCapabilityListenerTimer().getDelay();
         long capabilityListenerTimerPeriod = carbonConfiguration.getStartupResolverConfig().
                 getCapabilityListenerTimer().getPeriod();
 
-        capabilityListenerTimer.scheduleAtFixedRate(new TimerTask() {
+        capabilityListenerTask = new TimerTask() {
 
             @Override
             public void run() {
@@ -189,7 +237,7 @@ public class StartupOrderResolver {
                         logger.debug("All the StartupComponents are satisfied. Cancelling the capabilityListenerTimer");
 
                         CarbonStartupHandler.logServerStartupTime(carbonConfiguration.getName());
-                        CarbonStartupHandler.registerCarbonServerInfoService();
+                        CarbonStartupHandler.registerCarbonServerInfoService(carbonConfiguration.getName());
 
                         capabilityListenerTimer.cancel();
                         capabilityListenerTimer = null;
@@ -203,17 +251,18 @@ public class StartupOrderResolver {
 
                 startupComponentManager.notifySatisfiableComponents();
             }
-        }, capabilityListenerTimerDelay, capabilityListenerTimerPeriod);
+        };
+        capabilityListenerTimer.scheduleAtFixedRate(capabilityListenerTask, capabilityListenerTimerDelay,
+                capabilityListenerTimerPeriod);
     }
 
-    private void schedulePendingCapabilityTimerTask() {
-        CarbonConfiguration carbonConfiguration = carbonRuntime.getConfiguration();
+    private void schedulePendingCapabilityTimerTask(CarbonConfiguration carbonConfiguration) {
         long pendingCapabilityTimerDelay = carbonConfiguration.getStartupResolverConfig().
                 getPendingCapabilityTimer().getDelay();
         long pendingCapabilityTimerPeriod = carbonConfiguration.getStartupResolverConfig().
                 getPendingCapabilityTimer().getPeriod();
 
-        pendingCapabilityTimer.scheduleAtFixedRate(new TimerTask() {
+        pendingCapabilityTask = new TimerTask() {
 
             @Override
             public void run() {
@@ -251,7 +300,9 @@ public class StartupOrderResolver {
                             startupComponentManager.getPendingCapabilityProviders());
                 }
             }
-        }, pendingCapabilityTimerDelay, pendingCapabilityTimerPeriod);
+        };
+        pendingCapabilityTimer.scheduleAtFixedRate(pendingCapabilityTask, pendingCapabilityTimerDelay,
+                pendingCapabilityTimerPeriod);
     }
 
     private void processServiceComponents(Map<String, List<ManifestElement>> groupedManifestElements) {
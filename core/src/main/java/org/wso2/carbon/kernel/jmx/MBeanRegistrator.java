@@ -15,13 +15,17 @@
  */
 package org.wso2.carbon.kernel.jmx;
 
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.kernel.Constants;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.management.InstanceAlreadyExistsException;
 import javax.management.InstanceNotFoundException;
 import javax.management.MBeanRegistrationException;
@@ -32,23 +36,156 @@ import javax.management.ObjectName;
 
 /**
  * The class which is responsible for registering MBeans.
+ * <p>
+ * Each registered MBean is tracked together with the bundle which registered it, so that the MBeans of a bundle can be
+ * unregistered when the bundle stops. The carbon core bundle does this for all the bundles. Registration is thread
+ * safe.
  *
  * @since 5.1.0
  */
 public class MBeanRegistrator {
     private static final Logger logger = LoggerFactory.getLogger(MBeanRegistrator.class);
-    private static List<ObjectName> mBeans = new ArrayList<>();
+    private static final long NO_BUNDLE = -1;
+    private static final Map<ObjectName, Long> mBeans = new ConcurrentHashMap<>();
+    private static final CallerContext callerContext = CallerContext.create();
 
     private MBeanRegistrator() {
     }
 
     /**
-     * Registers an object as an MBean with the MBean server.
+     * Registers an object as an MBean with the MBean server. The MBean is owned by the bundle of the calling class.
      *
      * @param mBeanInstance - The MBean to be registered as an MBean.
      */
     public static void registerMBean(Object mBeanInstance) throws RuntimeException {
+        registerMBean(getCallerBundle(), mBeanInstance);
+    }
+
+    /**
+     * Registers an object as an MBean with the MBean server, on behalf of the given bundle. The MBean is unregistered
+     * when the bundle stops.
+     *
+     * @param bundle        the bundle which owns the MBean, or null if the MBean is not owned by a bundle.
+     * @param mBeanInstance the object to be registered as an MBean.
+     * @since 5.3.1
+     */
+    public static void registerMBean(Bundle bundle, Object mBeanInstance) throws RuntimeException {
+        ObjectName name = getObjectName(mBeanInstance);
+        try {
+            MBeanManagementFactory.getMBeanServer().registerMBean(mBeanInstance, name);
+            mBeans.put(name, bundle == null ? NO_BUNDLE : bundle.getBundleId());
+        } catch (InstanceAlreadyExistsException e) {
+            String msg = "MBean " + name + " already exists";
+            logger.error(msg, e);
+            throw new RuntimeException(msg, e);
+        } catch (MBeanRegistrationException | NotCompliantMBeanException e) {
+            String msg = "Execption when registering MBean";
+            logger.error(msg, e);
+            throw new RuntimeException(msg, e);
+        }
+    }
+
+    /**
+     * Registers the given objects as MBeans with the MBean server. Either all of them are registered, or, if one of
+     * them cannot be registered, none of them. The MBeans are owned by the bundle of the calling class.
+     *
+     * @param mBeanInstances the objects to be registered as MBeans.
+     * @since 5.3.1
+     */
+    public static void registerMBeans(Collection<?> mBeanInstances) throws RuntimeException {
+        registerMBeans(getCallerBundle(), mBeanInstances);
+    }
+
+    /**
+     * Registers the given objects as MBeans with the MBean server, on behalf of the given bundle. Either all of them
+     * are registered, or, if one of them cannot be registered, none of them.
+     *
+     * @param bundle         the bundle which owns the MBeans, or null if the MBeans are not owned by a bundle.
+     * @param mBeanInstances the objects to be registered as MBeans.
+     * @since 5.3.1
+     */
+    public static void registerMBeans(Bundle bundle, Collection<?> mBeanInstances) throws RuntimeException {
+        List<Object> registered = new ArrayList<>(mBeanInstances.size());
+        try {
+            for (Object mBeanInstance : mBeanInstances) {
+                registerMBean(bundle, mBeanInstance);
+                registered.add(mBeanInstance);
+            }
+        } catch (RuntimeException e) {
+            unregisterMBeans(registered);
+            throw e;
+        }
+    }
+
+    /**
+     * Unregisters an MBean registered through this class.
+     *
+     * @param mBeanInstance the MBean to be unregistered.
+     * @since 5.3.1
+     */
+    public static void unregisterMBean(Object mBeanInstance) {
+        ObjectName name = getObjectName(mBeanInstance);
+        if (mBeans.remove(name) != null) {
+            unregister(MBeanManagementFactory.getMBeanServer(), name);
+        }
+    }
 
+    /**
+     * Unregisters the given MBeans registered through this class.
+     *
+     * @param mBeanInstances the MBeans to be unregistered.
+     * @since 5.3.1
+     */
+    public static void unregisterMBeans(Collection<?> mBeanInstances) {
+        mBeanInstances.forEach(MBeanRegistrator::unregisterMBean);
+    }
+
+    /**
+     * Unregisters the MBeans registered by the given bundle.
+     *
+     * @param bundle the bundle.
+     * @since 5.3.1
+     */
+    public static void unregisterMBeans(Bundle bundle) {
+        long bundleId = bundle.getBundleId();
+        MBeanServer mBeanServer = MBeanManagementFactory.getMBeanServer();
+        mBeans.forEach((name, owner) -> {
+            if (owner == bundleId && mBeans.remove(name, owner)) {
+                unregister(mBeanServer, name);
+            }
+        });
+    }
+
+    /**
+     * Unregisters all MBeans from the MBean server.
+     *
+     */
+    public static void unregisterAllMBeans() {
+        MBeanServer mBeanServer = MBeanManagementFactory.getMBeanServer();
+        mBeans.keySet().forEach(name -> {
+            if (mBeans.remove(name) != null) {
+                unregister(mBeanServer, name);
+            }
+        });
+    }
+
+    /**
+     * @return number of MBeans registered through this class
+     * @since 5.3.1
+     */
+    public static int getMBeanCount() {
+        return mBeans.size();
+    }
+
+    private static void unregister(MBeanServer mBeanServer, ObjectName name) {
+        try {
+            mBeanServer.unregisterMBean(name);
+        } catch (InstanceNotFoundException | MBeanRegistrationException e) {
+            logger.error("Cannot unregister MBean " + name.getCanonicalName(), e);
+        }
+    }
+
+    private static ObjectName getObjectName(Object mBeanInstance) {
         String className = mBeanInstance.getClass().getName();
         if (className.indexOf('.') != -1) {
             className = className.substring(className.lastIndexOf('.') + 1);
@@ -56,27 +193,7 @@ public class MBeanRegistrator {
 
         String objectName = Constants.SERVER_PACKAGE + ":type=" + className;
         try {
-            MBeanServer mBeanServer = MBeanManagementFactory.getMBeanServer();
-            Set set = mBeanServer.queryNames(new ObjectName(objectName), null);
-            if (set.isEmpty()) {
-                try {
-                    ObjectName name = new ObjectName(objectName);
-                    mBeanServer.registerMBean(mBeanInstance, name);
-                    mBeans.add(name);
-                } catch (InstanceAlreadyExistsException e) {
-                    String msg = "MBean " + objectName + " already exists";
-                    logger.error(msg, e);
-                    throw new RuntimeException(msg, e);
-                } catch (MBeanRegistrationException | NotCompliantMBeanException e) {
-                    String msg = "Execption when registering MBean";
-                    logger.error(msg, e);
-                    throw new RuntimeException(msg, e);
-                }
-            } else {
-                String msg = "MBean " + objectName + " already exists";
-                logger.error(msg);
-                throw new RuntimeException(msg);
-            }
+            return new ObjectName(objectName);
         } catch (MalformedObjectNameException e) {
             String msg = "Could not register " + mBeanInstance.getClass() + " MBean";
             logger.error(msg);
@@ -84,18 +201,32 @@ public class MBeanRegistrator {
         }
     }
 
+    private static Bundle getCallerBundle() {
+        Class<?> caller = callerContext == null ? null : callerContext.getCaller();
+        return caller == null ? null : FrameworkUtil.getBundle(caller);
+    }
+
     /**
-     * Unregisters all MBeans from the MBean server.
-     *
+     * Finds the class which called this class, from the classes of the methods on the call stack.
      */
-    public static void unregisterAllMBeans() {
-        MBeanServer mBeanServer = MBeanManagementFactory.getMBeanServer();
-        mBeans.forEach(mBean -> {
+    private static class CallerContext extends SecurityManager {
+
+        private static CallerContext create() {
             try {
-                mBeanServer.unregisterMBean(mBean);
-            } catch (InstanceNotFoundException | MBeanRegistrationException e) {
-                logger.error("Cannot unregister MBean " + mBean.getCanonicalName(), e);
+                return new CallerContext();
+            } catch (SecurityException e) {
+                logger.warn("Cannot find the callers of MBeanRegistrator, MBeans are not owned by bundles", e);
+                return null;
             }
-        });
+        }
+
+        private Class<?> getCaller() {
+            for (Class<?> type : getClassContext()) {
+                if (type != CallerContext.class && type != MBeanRegistrator.class) {
+                    return type;
+                }
+            }
+            return null;
+        }
     }
 }
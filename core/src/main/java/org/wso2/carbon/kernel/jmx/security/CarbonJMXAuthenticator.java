@@ -15,23 +15,122 @@
  */
 package org.wso2.carbon.kernel.jmx.security;
 
-
 import org.wso2.carbon.kernel.Constants;
+import org.wso2.carbon.kernel.runtime.RuntimeMetricsRecorder;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 import javax.management.remote.JMXAuthenticator;
 import javax.management.remote.JMXPrincipal;
 import javax.security.auth.Subject;
 import javax.security.auth.callback.CallbackHandler;
+import javax.security.auth.login.Configuration;
 import javax.security.auth.login.LoginContext;
 import javax.security.auth.login.LoginException;
 
 /**
  * Implementation class for JMXAuthenticator.
+ * <p>
+ * Successful authentications are cached for each user, so that clients which reconnect often do not run a JAAS login
+ * against the user store each time. Only a salted SHA-256 hash of the credentials is cached. A cached authentication
+ * is used only when the hash of the presented credentials matches it, and a successful login with other credentials
+ * replaces it. The cache holds a bounded number of users, evicting the least recently used, and an entry expires a
+ * fixed time after the login.
+ * <p>
+ * Until a cached authentication expires, it is accepted even if the password of the user was changed or revoked in
+ * the user store in the meantime. User stores and login modules should therefore call
+ * {@link #invalidateCachedAuthentication(String)} when the credentials of a user change.
  *
  * @since 5.1.0
  */
-public class CarbonJMXAuthenticator implements JMXAuthenticator {
+public class CarbonJMXAuthenticator implements JMXAuthenticator, CarbonJMXAuthenticatorMXBean {
+    private static final int DEFAULT_CACHE_SIZE = 100;
+    private static final long DEFAULT_CACHE_EXPIRY = TimeUnit.SECONDS.toMillis(30);
+    private static final int SALT_LENGTH = 32;
+    private static final double NANOS_PER_MILLI = 1000000.0;
+    private static final Set<CarbonJMXAuthenticator> authenticators =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final int cacheSize;
+    private final long cacheExpiryNanos;
+    private final Configuration loginConfiguration;
+    private final LongSupplier ticker;
+    private final byte[] salt = new byte[SALT_LENGTH];
+    private final Map<String, CachedLogin> cachedLogins;
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final RuntimeMetricsRecorder loginMetrics = new RuntimeMetricsRecorder();
+
+    public CarbonJMXAuthenticator() {
+        this(DEFAULT_CACHE_SIZE, DEFAULT_CACHE_EXPIRY);
+    }
+
+    /**
+     * Creates an authenticator with the given cache limits.
+     *
+     * @param cacheSize   maximum number of users with a cached authentication
+     * @param cacheExpiry time in milliseconds after which a cached authentication expires, 0 to disable the cache
+     * @since 5.3.1
+     */
+    public CarbonJMXAuthenticator(int cacheSize, long cacheExpiry) {
+        this(cacheSize, cacheExpiry, null, System::nanoTime);
+    }
+
+    CarbonJMXAuthenticator(int cacheSize, long cacheExpiry, Configuration loginConfiguration, LongSupplier ticker) {
+        this.cacheSize = cacheSize;
+        this.cacheExpiryNanos = TimeUnit.MILLISECONDS.toNanos(cacheExpiry);
+        this.loginConfiguration = loginConfiguration;
+        this.ticker = ticker;
+        new SecureRandom().nextBytes(salt);
+        cachedLogins = new LinkedHashMap<String, CachedLogin>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedLogin> eldest) {
+                return size() > CarbonJMXAuthenticator.this.cacheSize;
+            }
+        };
+        authenticators.add(this);
+    }
+
+    /**
+     * Removes the cached authentication of a user from all the JMX authenticators, so that the next connection of the
+     * user needs a JAAS login. This is to be called by user stores and login modules when the password of the user is
+     * changed or revoked.
+     *
+     * @param username name of the user
+     * @since 5.3.1
+     */
+    public static void invalidateCachedAuthentication(String username) {
+        getAuthenticators().forEach(authenticator -> authenticator.invalidate(username));
+    }
+
+    /**
+     * Removes the cached authentications of all the users from all the JMX authenticators.
+     *
+     * @since 5.3.1
+     */
+    public static void invalidateCachedAuthentications() {
+        getAuthenticators().forEach(CarbonJMXAuthenticator::invalidateAll);
+    }
+
+    private static List<CarbonJMXAuthenticator> getAuthenticators() {
+        synchronized (authenticators) {
+            return new ArrayList<>(authenticators);
+        }
+    }
 
     @Override
     public Subject authenticate(Object credentials) {
@@ -43,14 +142,142 @@ public class CarbonJMXAuthenticator implements JMXAuthenticator {
             throw new SecurityException("Credentials should be String[]");
         }
 
+        String[] userCredentials = (String[]) credentials;
+        boolean cacheEnabled = cacheSize > 0 && cacheExpiryNanos > 0 && userCredentials.length == 2
+                && userCredentials[0] != null && userCredentials[1] != null;
+        byte[] hash = null;
+        if (cacheEnabled) {
+            hash = hash(userCredentials[0], userCredentials[1]);
+            Subject subject = getCachedSubject(userCredentials[0], hash);
+            if (subject != null) {
+                cacheHits.increment();
+                return subject;
+            }
+            cacheMisses.increment();
+        }
+
+        Subject subject = login(credentials);
+        if (cacheEnabled) {
+            synchronized (cachedLogins) {
+                cachedLogins.put(userCredentials[0], new CachedLogin(hash, subject, ticker.getAsLong()));
+            }
+        }
+        return subject;
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    @Override
+    public int getCachedLogins() {
+        synchronized (cachedLogins) {
+            return cachedLogins.size();
+        }
+    }
+
+    @Override
+    public long getLogins() {
+        return loginMetrics.getCompletedRequests();
+    }
+
+    @Override
+    public long getFailedLogins() {
+        return loginMetrics.getFailedRequests();
+    }
+
+    @Override
+    public double getMeanLoginLatency() {
+        return loginMetrics.getLatencyHistogram().getMeanNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99LoginLatency() {
+        return loginMetrics.getLatencyHistogram().getPercentileNanos(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxLoginLatency() {
+        return loginMetrics.getLatencyHistogram().getMaxNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public void invalidate(String username) {
+        synchronized (cachedLogins) {
+            cachedLogins.remove(username);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        synchronized (cachedLogins) {
+            cachedLogins.clear();
+        }
+    }
+
+    private Subject getCachedSubject(String username, byte[] hash) {
+        synchronized (cachedLogins) {
+            CachedLogin cachedLogin = cachedLogins.get(username);
+            if (cachedLogin == null) {
+                return null;
+            }
+            if (ticker.getAsLong() - cachedLogin.loginTime >= cacheExpiryNanos) {
+                cachedLogins.remove(username);
+                return null;
+            }
+            return MessageDigest.isEqual(cachedLogin.hash, hash) ? cachedLogin.subject : null;
+        }
+    }
+
+    private Subject login(Object credentials) {
         CallbackHandler callbackHandler = new CarbonJMXCallbackHandler(credentials);
+        long startTime = loginMetrics.requestStarted();
+        boolean successful = false;
         try {
-            LoginContext loginContext = new LoginContext(Constants.LOGIN_MODULE_ENTRY, callbackHandler);
+            LoginContext loginContext = loginConfiguration == null
+                    ? new LoginContext(Constants.LOGIN_MODULE_ENTRY, callbackHandler)
+                    : new LoginContext(Constants.LOGIN_MODULE_ENTRY, null, callbackHandler, loginConfiguration);
             loginContext.login();
+            successful = true;
             return new Subject(true, Collections.singleton(new JMXPrincipal(((String[]) credentials)[0])),
                     Collections.EMPTY_SET, Collections.EMPTY_SET);
         } catch (LoginException e) {
             throw new SecurityException("Invalid credentials", e);
+        } finally {
+            loginMetrics.requestCompleted(startTime, successful);
+        }
+    }
+
+    private byte[] hash(String username, String password) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            messageDigest.update(salt);
+            messageDigest.update(username.getBytes(StandardCharsets.UTF_8));
+            messageDigest.update((byte) 0);
+            return messageDigest.digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Successful authentication of a user.
+     */
+    private static class CachedLogin {
+        private final byte[] hash;
+        private final Subject subject;
+        private final long loginTime;
+
+        CachedLogin(byte[] hash, Subject subject, long loginTime) {
+            this.hash = hash;
+            this.subject = subject;
+            this.loginTime = loginTime;
         }
     }
 }
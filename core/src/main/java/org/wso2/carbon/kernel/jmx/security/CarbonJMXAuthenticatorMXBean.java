@@ -0,0 +1,68 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.jmx.security;
+
+/**
+ * Management interface of the {@link CarbonJMXAuthenticator}, exposing its JAAS login and cache statistics.
+ * Latencies are in milliseconds.
+ *
+ * @since 5.3.1
+ */
+public interface CarbonJMXAuthenticatorMXBean {
+
+    /**
+     * @return number of authentications served from the cache
+     */
+    long getCacheHits();
+
+    /**
+     * @return number of authentications which needed a JAAS login
+     */
+    long getCacheMisses();
+
+    /**
+     * @return number of users with a cached authentication
+     */
+    int getCachedLogins();
+
+    /**
+     * @return number of successful JAAS logins
+     */
+    long getLogins();
+
+    /**
+     * @return number of failed JAAS logins
+     */
+    long getFailedLogins();
+
+    double getMeanLoginLatency();
+
+    double getP99LoginLatency();
+
+    double getMaxLoginLatency();
+
+    /**
+     * Removes the cached authentication of a user, so that the next connection of the user needs a JAAS login.
+     *
+     * @param username name of the user
+     */
+    void invalidate(String username);
+
+    /**
+     * Removes all the cached authentications.
+     */
+    void invalidateAll();
+}
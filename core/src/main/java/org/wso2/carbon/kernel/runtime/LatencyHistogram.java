@@ -0,0 +1,114 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.runtime;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of a request latency histogram.
+ * <p>
+ * The histogram counts the requests in buckets of increasing latency. Bucket {@code i} counts the requests which took
+ * more than the upper bound of bucket {@code i - 1} and at most the upper bound of bucket {@code i}, in nanoseconds.
+ * The upper bound of the last bucket is {@link Long#MAX_VALUE}.
+ *
+ * @since 5.3.1
+ */
+public final class LatencyHistogram {
+
+    private final long[] bucketUpperBounds;
+    private final long[] bucketCounts;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long count;
+
+    /**
+     * Constructor.
+     *
+     * @param bucketUpperBounds upper bound of each bucket in nanoseconds, in increasing order
+     * @param bucketCounts      number of requests in each bucket
+     * @param totalNanos        sum of the latencies of all the requests in nanoseconds
+     * @param maxNanos          highest latency in nanoseconds
+     */
+    public LatencyHistogram(long[] bucketUpperBounds, long[] bucketCounts, long totalNanos, long maxNanos) {
+        if (bucketUpperBounds.length != bucketCounts.length) {
+            throw new IllegalArgumentException("Expected " + bucketUpperBounds.length + " bucket counts, but got "
+                    + bucketCounts.length);
+        }
+        this.bucketUpperBounds = bucketUpperBounds.clone();
+        this.bucketCounts = bucketCounts.clone();
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.count = Arrays.stream(bucketCounts).sum();
+    }
+
+    public long[] getBucketUpperBounds() {
+        return bucketUpperBounds.clone();
+    }
+
+    public long[] getBucketCounts() {
+        return bucketCounts.clone();
+    }
+
+    /**
+     * @return number of requests in the histogram
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return sum of the latencies of all the requests in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return highest latency in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @return mean latency in nanoseconds, or 0 if the histogram is empty
+     */
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    /**
+     * Returns an upper bound of the latency below which the given fraction of the requests fall. The bound is the
+     * upper bound of the bucket holding the percentile, capped at the highest latency.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return percentile latency in nanoseconds, or 0 if the histogram is empty
+     */
+    public long getPercentileNanos(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100);
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank && seen > 0) {
+                return Math.min(bucketUpperBounds[i], maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+}
@@ -17,6 +17,9 @@ package org.wso2.carbon.kernel.runtime;
 
 import org.wso2.carbon.kernel.runtime.exception.RuntimeServiceException;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * <p>
  * This interface is used to register/integrate custom runtime into Carbon server, by extending this
@@ -29,6 +32,10 @@ import org.wso2.carbon.kernel.runtime.exception.RuntimeServiceException;
  * </p>
  * The implementation of this interface can be different from one Runtime to another depending on its
  * requirements and behaviour.
+ * <p>
+ * The registered runtimes are started, stopped and put into maintenance in parallel. A runtime which needs other
+ * runtimes to be started before it declares them through {@link #getDependencies()}. It is then started after them,
+ * and stopped before them.
  *
  * @since 5.0.0
  */
@@ -57,6 +64,20 @@ public interface Runtime {
      */
     void start() throws RuntimeServiceException;
 
+    /**
+     * <p>
+     * Warm up the Runtime after it has been initialized, without starting it.
+     * </p>
+     * This is called when the runtime is put into {@link RuntimeState#STANDBY} state, and should do the work which
+     * makes {@link #start()} fast, such as creating pools, loading classes and priming caches. The runtime does not
+     * serve requests until it is started.
+     *
+     * @throws RuntimeServiceException - on error while trying to warm up the Runtime
+     * @since 5.3.1
+     */
+    default void warmUp() throws RuntimeServiceException {
+    }
+
     /**
      * <p>
      * Stop the Runtime.
@@ -103,4 +124,35 @@ public interface Runtime {
      */
     void setState(RuntimeState runtimeState);
 
+    /**
+     * Return the name of the runtime, which other runtimes use to declare a dependency on it.
+     *
+     * @return name of the runtime, the runtime class name by default
+     * @since 5.3.1
+     */
+    default String getName() {
+        return getClass().getName();
+    }
+
+    /**
+     * Return the names of the runtimes which have to be started before this runtime, and stopped after it. Names of
+     * runtimes which are not registered are ignored.
+     *
+     * @return names of the runtimes this runtime depends on, none by default
+     * @since 5.3.1
+     */
+    default Set<String> getDependencies() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Return the load metrics of the runtime, if it exposes any.
+     *
+     * @return metrics of the runtime, or null if the runtime does not expose metrics, which is the default
+     * @see RuntimeMetricsRecorder
+     * @since 5.3.1
+     */
+    default RuntimeMetrics getMetrics() {
+        return null;
+    }
 }
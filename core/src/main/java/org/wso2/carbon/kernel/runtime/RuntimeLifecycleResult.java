@@ -0,0 +1,140 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.runtime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated result of a lifecycle operation, such as start or stop, performed on all the registered runtimes.
+ * <p>
+ * The result holds the outcome and duration of the operation for each runtime, keyed by the runtime name, in the
+ * order in which the runtimes were registered.
+ *
+ * @since 5.3.1
+ */
+public class RuntimeLifecycleResult {
+
+    /**
+     * Outcome of a lifecycle operation on a single runtime.
+     */
+    public enum Outcome {
+        /**
+         * The operation completed successfully.
+         */
+        COMPLETED,
+        /**
+         * The operation was not performed, since the runtime was already in the target state or one of its
+         * dependencies failed.
+         */
+        SKIPPED,
+        /**
+         * The operation threw an exception.
+         */
+        FAILED,
+        /**
+         * The operation did not complete within the timeout, and was interrupted.
+         */
+        TIMED_OUT
+    }
+
+    private final String operation;
+    private final Map<String, Outcome> outcomes = new LinkedHashMap<>();
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+    private final Map<String, Throwable> failures = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param operation name of the lifecycle operation
+     */
+    public RuntimeLifecycleResult(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Records the outcome of the operation on a runtime.
+     *
+     * @param runtimeName   name of the runtime
+     * @param outcome       outcome of the operation
+     * @param durationNanos time taken by the operation in nanoseconds
+     * @param cause         cause of the failure, or null
+     */
+    public void add(String runtimeName, Outcome outcome, long durationNanos, Throwable cause) {
+        outcomes.put(runtimeName, outcome);
+        durations.put(runtimeName, durationNanos);
+        if (cause != null) {
+            failures.put(runtimeName, cause);
+        }
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return runtime names to the outcome of the operation
+     */
+    public Map<String, Outcome> getOutcomes() {
+        return Collections.unmodifiableMap(outcomes);
+    }
+
+    /**
+     * @return runtime names to the time taken by the operation in nanoseconds
+     */
+    public Map<String, Long> getDurations() {
+        return Collections.unmodifiableMap(durations);
+    }
+
+    /**
+     * @return runtime names to the cause of the failure, for the runtimes which failed, timed out or were skipped
+     * because a dependency failed
+     */
+    public Map<String, Throwable> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return names of the runtimes on which the operation failed or timed out
+     */
+    public List<String> getFailedRuntimes() {
+        List<String> failedRuntimes = new ArrayList<>();
+        outcomes.forEach((runtimeName, outcome) -> {
+            if (outcome == Outcome.FAILED || outcome == Outcome.TIMED_OUT) {
+                failedRuntimes.add(runtimeName);
+            }
+        });
+        return failedRuntimes;
+    }
+
+    /**
+     * @return true if the operation did not fail or time out on any runtime
+     */
+    public boolean isSuccessful() {
+        return getFailedRuntimes().isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(operation).append(" runtimes :");
+        outcomes.forEach((runtimeName, outcome) -> builder.append(' ').append(runtimeName).append('=').append(outcome)
+                .append(" (").append(durations.get(runtimeName) / 1000000).append(" ms)"));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.runtime;
+
+/**
+ * Load metrics of a {@link Runtime}.
+ * <p>
+ * A runtime which handles requests can expose its metrics through {@link Runtime#getMetrics()}. The kernel publishes
+ * the metrics of all the runtimes through a single MXBean, and waits for the in flight requests of a runtime to
+ * complete when the runtime is put into maintenance. {@link RuntimeMetricsRecorder} is a ready made implementation.
+ * <p>
+ * The metrics are read concurrently with the request processing, so implementations must be thread safe and should
+ * not block.
+ *
+ * @since 5.3.1
+ */
+public interface RuntimeMetrics {
+
+    /**
+     * @return number of requests completed successfully since the runtime was created
+     */
+    long getCompletedRequests();
+
+    /**
+     * @return number of requests which failed since the runtime was created
+     */
+    long getFailedRequests();
+
+    /**
+     * @return number of requests being processed
+     */
+    long getInFlightRequests();
+
+    /**
+     * @return snapshot of the latencies of the completed and failed requests
+     */
+    LatencyHistogram getLatencyHistogram();
+}
@@ -0,0 +1,123 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.runtime;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe {@link RuntimeMetrics} implementation which runtimes update as they process requests.
+ * <p>
+ * The counters are striped {@link LongAdder}s, so that recording a request does not contend with the other request
+ * threads. Latencies are counted in buckets with power of two upper bounds, from about a microsecond to about a minute.
+ * <pre>
+ * long startTime = metrics.requestStarted();
+ * boolean successful = false;
+ * try {
+ *     ...
+ *     successful = true;
+ * } finally {
+ *     metrics.requestCompleted(startTime, successful);
+ * }
+ * </pre>
+ *
+ * @since 5.3.1
+ */
+public class RuntimeMetricsRecorder implements RuntimeMetrics {
+
+    private static final int FIRST_BUCKET_SHIFT = 10;
+    private static final int LAST_BUCKET_SHIFT = 36;
+    private static final long[] BUCKET_UPPER_BOUNDS = new long[LAST_BUCKET_SHIFT - FIRST_BUCKET_SHIFT + 2];
+
+    static {
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS.length - 1; i++) {
+            BUCKET_UPPER_BOUNDS[i] = 1L << (FIRST_BUCKET_SHIFT + i);
+        }
+        BUCKET_UPPER_BOUNDS[BUCKET_UPPER_BOUNDS.length - 1] = Long.MAX_VALUE;
+    }
+
+    private final LongAdder completedRequests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+    private final LongAdder inFlightRequests = new LongAdder();
+    private final LongAdder[] bucketCounts = new LongAdder[BUCKET_UPPER_BOUNDS.length];
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public RuntimeMetricsRecorder() {
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the start of a request.
+     *
+     * @return start time of the request, to be passed to {@link #requestCompleted(long, boolean)}
+     */
+    public long requestStarted() {
+        inFlightRequests.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the completion of a request.
+     *
+     * @param startTime  start time returned by {@link #requestStarted()}
+     * @param successful whether the request completed successfully
+     */
+    public void requestCompleted(long startTime, boolean successful) {
+        long latency = Math.max(0, System.nanoTime() - startTime);
+        inFlightRequests.decrement();
+        if (successful) {
+            completedRequests.increment();
+        } else {
+            failedRequests.increment();
+        }
+        bucketCounts[getBucket(latency)].increment();
+        totalNanos.add(latency);
+        maxNanos.accumulate(latency);
+    }
+
+    @Override
+    public long getCompletedRequests() {
+        return completedRequests.sum();
+    }
+
+    @Override
+    public long getFailedRequests() {
+        return failedRequests.sum();
+    }
+
+    @Override
+    public long getInFlightRequests() {
+        return inFlightRequests.sum();
+    }
+
+    @Override
+    public LatencyHistogram getLatencyHistogram() {
+        long[] counts = new long[bucketCounts.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = bucketCounts[i].sum();
+        }
+        return new LatencyHistogram(BUCKET_UPPER_BOUNDS, counts, totalNanos.sum(), maxNanos.get());
+    }
+
+    private static int getBucket(long latency) {
+        // Index of the smallest power of two which is not below the latency, relative to the first bucket.
+        int shift = latency <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(latency - 1);
+        return Math.min(Math.max(0, shift - FIRST_BUCKET_SHIFT), BUCKET_UPPER_BOUNDS.length - 1);
+    }
+}
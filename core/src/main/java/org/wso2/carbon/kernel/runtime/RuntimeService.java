@@ -17,6 +17,9 @@ package org.wso2.carbon.kernel.runtime;
 
 import org.wso2.carbon.kernel.runtime.exception.RuntimeServiceException;
 
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
 /**
  * User level APIs for consuming RuntimeManager functionality.
  * This will be registered as an OSGi service so that users can reference this in their component.
@@ -37,6 +40,23 @@ public interface RuntimeService {
      */
     void startRuntimes() throws RuntimeServiceException;
 
+    /**
+     * Users can call this method to start all registered runtime on the Runtime Manager, waiting at most the given
+     * time for each of them to start. Implementations may start independent runtimes in parallel, in which case a
+     * runtime is started only after the runtimes it {@link Runtime#getDependencies() depends} on.
+     *
+     * @param timeout maximum time to wait for a runtime to start
+     * @param unit    time unit of the timeout
+     * @return outcome of the start of each runtime, which is empty if the implementation does not track it
+     * @throws RuntimeServiceException - on error while trying to starting registered runtimes, or if a runtime did
+     *                                 not start within the given time
+     * @since 5.3.1
+     */
+    default RuntimeLifecycleResult startRuntimes(long timeout, TimeUnit unit) throws RuntimeServiceException {
+        startRuntimes();
+        return new RuntimeLifecycleResult("start");
+    }
+
     /**
      * Users can call this method to stop all registered runtime on the Runtime Manager.
      *
@@ -44,6 +64,23 @@ public interface RuntimeService {
      */
     void stopRuntimes() throws RuntimeServiceException;
 
+    /**
+     * Users can call this method to stop all registered runtime on the Runtime Manager, waiting at most the given
+     * time for each of them to stop. Implementations may stop the runtimes in parallel, in which case a runtime is
+     * stopped only after the runtimes which depend on it.
+     *
+     * @param timeout maximum time to wait for a runtime to stop
+     * @param unit    time unit of the timeout
+     * @return outcome of the stop of each runtime, which is empty if the implementation does not track it
+     * @throws RuntimeServiceException - on error while trying to stop registered runtimes, or if a runtime did not
+     *                                 stop within the given time
+     * @since 5.3.1
+     */
+    default RuntimeLifecycleResult stopRuntimes(long timeout, TimeUnit unit) throws RuntimeServiceException {
+        stopRuntimes();
+        return new RuntimeLifecycleResult("stop");
+    }
+
     /**
      * Users can call this method to put the Carbon server on Maintenance Mode and this will affect
      * all registered runtime into MAINTENANCE state.
@@ -52,6 +89,21 @@ public interface RuntimeService {
      */
     void beginMaintenance() throws RuntimeServiceException;
 
+    /**
+     * Users can call this method to put all registered runtime into MAINTENANCE state, waiting at most the given
+     * time for each of them. Implementations may put the runtimes into maintenance in parallel.
+     *
+     * @param timeout maximum time to wait for a runtime to enter maintenance
+     * @param unit    time unit of the timeout
+     * @return outcome of the operation on each runtime, which is empty if the implementation does not track it
+     * @throws RuntimeServiceException - on error while trying to start server Maintenance mode
+     * @since 5.3.1
+     */
+    default RuntimeLifecycleResult beginMaintenance(long timeout, TimeUnit unit) throws RuntimeServiceException {
+        beginMaintenance();
+        return new RuntimeLifecycleResult("begin-maintenance");
+    }
+
     /**
      * Users can call this method to put the Carbon server back in normal state and this will affect
      * all registered runtime into INACTIVE state.
@@ -60,4 +112,52 @@ public interface RuntimeService {
      */
     void endMaintenance() throws RuntimeServiceException;
 
+    /**
+     * Users can call this method to put all registered runtime back into INACTIVE state, waiting at most the given
+     * time for each of them. Implementations may take the runtimes out of maintenance in parallel.
+     *
+     * @param timeout maximum time to wait for a runtime to leave maintenance
+     * @param unit    time unit of the timeout
+     * @return outcome of the operation on each runtime, which is empty if the implementation does not track it
+     * @throws RuntimeServiceException - on error while trying to end server Maintenance mode
+     * @since 5.3.1
+     */
+    default RuntimeLifecycleResult endMaintenance(long timeout, TimeUnit unit) throws RuntimeServiceException {
+        endMaintenance();
+        return new RuntimeLifecycleResult("end-maintenance");
+    }
+
+    /**
+     * Users can call this method to keep the given runtimes in {@link RuntimeState#STANDBY} state. The runtimes are
+     * initialized and {@link Runtime#warmUp() warmed up}, but not started, and are left out of
+     * {@link #startRuntimes()}, so that they can be {@link #promoteRuntimes promoted} without delay, for example on a
+     * failover.
+     *
+     * @param runtimeNames names of the runtimes to keep in standby
+     * @param timeout      maximum time to wait for a runtime to enter standby
+     * @param unit         time unit of the timeout
+     * @return outcome of the operation on each runtime
+     * @throws RuntimeServiceException - on error while trying to put the runtimes into standby, or if standby is not
+     *                                 supported
+     * @since 5.3.1
+     */
+    default RuntimeLifecycleResult enterStandby(Collection<String> runtimeNames, long timeout, TimeUnit unit)
+            throws RuntimeServiceException {
+        throw new RuntimeServiceException("Standby runtimes are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Users can call this method to start the given runtimes, which are in {@link RuntimeState#STANDBY} state.
+     *
+     * @param runtimeNames names of the runtimes to promote
+     * @param timeout      maximum time to wait for a runtime to start
+     * @param unit         time unit of the timeout
+     * @return outcome of the operation on each runtime
+     * @throws RuntimeServiceException - on error while trying to start the runtimes, or if standby is not supported
+     * @since 5.3.1
+     */
+    default RuntimeLifecycleResult promoteRuntimes(Collection<String> runtimeNames, long timeout, TimeUnit unit)
+            throws RuntimeServiceException {
+        throw new RuntimeServiceException("Standby runtimes are not supported by " + getClass().getName());
+    }
 }
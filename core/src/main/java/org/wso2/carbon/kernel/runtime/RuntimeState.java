@@ -22,7 +22,14 @@ package org.wso2.carbon.kernel.runtime;
  */
 public enum RuntimeState {
 
-    PENDING("PENDING"), ACTIVE("ACTIVE"), INACTIVE("INACTIVE"), MAINTENANCE("MAINTENANCE");
+    PENDING("PENDING"), ACTIVE("ACTIVE"), INACTIVE("INACTIVE"), MAINTENANCE("MAINTENANCE"),
+
+    /**
+     * The runtime is initialized and warmed up, but not started, so that it can be started without delay.
+     *
+     * @since 5.3.1
+     */
+    STANDBY("STANDBY");
 
     private String runtimeState;
 
@@ -0,0 +1,37 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.runtime;
+
+/**
+ * Listener notified when a registered runtime moves from one {@link RuntimeState} to another.
+ * <p>
+ * Listeners are called on the thread which performed the lifecycle operation, after the operation has completed, and
+ * must not block.
+ *
+ * @since 5.3.1
+ */
+@FunctionalInterface
+public interface RuntimeStateListener {
+
+    /**
+     * Called when the state of a runtime has changed.
+     *
+     * @param runtime       the runtime
+     * @param previousState state before the change, or null if it was not known
+     * @param newState      state after the change, or null if the runtime does not report a state
+     */
+    void stateChanged(Runtime runtime, RuntimeState previousState, RuntimeState newState);
+}
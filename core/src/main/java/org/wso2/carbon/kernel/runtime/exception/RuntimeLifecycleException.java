@@ -0,0 +1,39 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.runtime.exception;
+
+import org.wso2.carbon.kernel.runtime.RuntimeLifecycleResult;
+
+/**
+ * Thrown when a lifecycle operation failed or timed out on one or more runtimes. The operation is still performed on
+ * all the other runtimes, and the outcome for each runtime is available through {@link #getResult()}.
+ *
+ * @since 5.3.1
+ */
+public class RuntimeLifecycleException extends RuntimeServiceException {
+
+    private final transient RuntimeLifecycleResult result;
+
+    public RuntimeLifecycleException(RuntimeLifecycleResult result) {
+        super("Failed to " + result.getOperation() + " runtimes : " + result.getFailedRuntimes());
+        this.result = result;
+        result.getFailures().values().forEach(this::addSuppressed);
+    }
+
+    public RuntimeLifecycleResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.context;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.utils.Utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Compares the cost of the carbon context API on a request thread with the implementation it replaced, which created
+ * a new context wrapper on every lookup, checked the security on every privileged call and kept all the properties in
+ * a hash map.
+ * <p>
+ * Each operation sets the properties of a message through the privileged context and reads them several times, as
+ * the handlers of a message would. The time and the heap allocated per operation are reported for the replaced
+ * implementation, for the string based API, for the bulk setter and for the typed keys.
+ * <p>
+ * This benchmark is not part of the default test suite. Run it with
+ * {@code mvn test -Dtest=CarbonContextBenchmark -Dcarbon.benchmark.operations=10000000}.
+ *
+ * @since 5.3.1
+ */
+public class CarbonContextBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(CarbonContextBenchmark.class);
+
+    private static final int OPERATIONS = Integer.getInteger("carbon.benchmark.operations", 2000000);
+    private static final int ITERATIONS = Integer.getInteger("carbon.benchmark.iterations", 5);
+    private static final int READS = 10;
+
+    private static final String MESSAGE_ID = "benchmark.messageId";
+    private static final String CORRELATION_ID = "benchmark.correlationId";
+    private static final String CHANNEL = "benchmark.channel";
+    private static final String MESSAGE_ID_VALUE = "urn:uuid:5b0e7c2e-6a4f-4d1b-9f62-0c8e2a7d3f11";
+    private static final String CORRELATION_ID_VALUE = "8f14e45f-ceea-467f-a0e6-4d2b1c9a7e30";
+    private static final String CHANNEL_VALUE = "http";
+
+    // Typed keys have their own names, so that the string based API still measures the hash map path.
+    private static final ContextKey<String> MESSAGE_ID_KEY = ContextKey.of("benchmark.typed.messageId", String.class);
+    private static final ContextKey<String> CORRELATION_ID_KEY =
+            ContextKey.of("benchmark.typed.correlationId", String.class);
+    private static final ContextKey<String> CHANNEL_KEY = ContextKey.of("benchmark.typed.channel", String.class);
+
+    private final Map<String, Object> messageProperties = new HashMap<>();
+    private long consumed;
+
+    @AfterClass
+    public void cleanup() {
+        PrivilegedCarbonContext.destroyCurrentContext();
+        LegacyCarbonContextHolder.currentContextHolder.remove();
+    }
+
+    @Test
+    public void compareWithReplacedImplementation() {
+        messageProperties.put(MESSAGE_ID, MESSAGE_ID_VALUE);
+        messageProperties.put(CORRELATION_ID, CORRELATION_ID_VALUE);
+        messageProperties.put(CHANNEL, CHANNEL_VALUE);
+
+        Map<String, IntConsumer> modes = new LinkedHashMap<>();
+        modes.put("replaced implementation", this::runReplaced);
+        modes.put("string properties", this::runStringProperties);
+        modes.put("bulk setter", this::runBulkSetter);
+        modes.put("typed keys", this::runTypedKeys);
+
+        // The first rounds warm up the JVM.
+        modes.values().forEach(CarbonContextBenchmark::measure);
+        Assert.assertEquals(LegacyCarbonContext.getCurrentContext().getProperty(MESSAGE_ID), MESSAGE_ID_VALUE);
+        Assert.assertEquals(CarbonContext.getCurrentContext().getProperty(CHANNEL), CHANNEL_VALUE);
+        Assert.assertEquals(CarbonContext.getCurrentContext().getProperty(CORRELATION_ID_KEY), CORRELATION_ID_VALUE);
+
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            modes.forEach((name, mode) -> {
+                long[] result = measure(mode);
+                long[] total = totals.computeIfAbsent(name, key -> new long[2]);
+                total[0] += result[0];
+                total[1] += result[1];
+            });
+        }
+
+        long operations = (long) OPERATIONS * ITERATIONS;
+        totals.forEach((name, total) -> logger.info(String.format("Carbon context access with %s: %.1f ns/op, %s",
+                name, (double) total[0] / operations,
+                total[1] < 0 ? "allocation not measurable" : String.format("%.1f bytes/op",
+                        (double) total[1] / operations))));
+        Assert.assertEquals(consumed, (long) (ITERATIONS + 1) * modes.size() * OPERATIONS * READS * 3);
+    }
+
+    /**
+     * @return time taken in nanoseconds and bytes allocated by the current thread, or -1 if the JVM cannot measure
+     * allocations
+     */
+    private static long[] measure(IntConsumer mode) {
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        mode.accept(OPERATIONS);
+        long elapsed = System.nanoTime() - start;
+        return new long[]{elapsed, allocated < 0 ? -1 : allocatedBytes() - allocated};
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private void runReplaced(int operations) {
+        for (int i = 0; i < operations; i++) {
+            LegacyPrivilegedCarbonContext.getCurrentContext().setProperty(MESSAGE_ID, MESSAGE_ID_VALUE);
+            LegacyPrivilegedCarbonContext.getCurrentContext().setProperty(CORRELATION_ID, CORRELATION_ID_VALUE);
+            LegacyPrivilegedCarbonContext.getCurrentContext().setProperty(CHANNEL, CHANNEL_VALUE);
+            for (int j = 0; j < READS; j++) {
+                consume(LegacyCarbonContext.getCurrentContext().getProperty(MESSAGE_ID));
+                consume(LegacyCarbonContext.getCurrentContext().getProperty(CORRELATION_ID));
+                consume(LegacyCarbonContext.getCurrentContext().getProperty(CHANNEL));
+            }
+        }
+    }
+
+    private void runStringProperties(int operations) {
+        for (int i = 0; i < operations; i++) {
+            PrivilegedCarbonContext.getCurrentContext().setProperty(MESSAGE_ID, MESSAGE_ID_VALUE);
+            PrivilegedCarbonContext.getCurrentContext().setProperty(CORRELATION_ID, CORRELATION_ID_VALUE);
+            PrivilegedCarbonContext.getCurrentContext().setProperty(CHANNEL, CHANNEL_VALUE);
+            readStringProperties();
+        }
+    }
+
+    private void runBulkSetter(int operations) {
+        for (int i = 0; i < operations; i++) {
+            PrivilegedCarbonContext.getCurrentContext().setProperties(messageProperties);
+            readStringProperties();
+        }
+    }
+
+    private void readStringProperties() {
+        for (int j = 0; j < READS; j++) {
+            consume(CarbonContext.getCurrentContext().getProperty(MESSAGE_ID));
+            consume(CarbonContext.getCurrentContext().getProperty(CORRELATION_ID));
+            consume(CarbonContext.getCurrentContext().getProperty(CHANNEL));
+        }
+    }
+
+    private void runTypedKeys(int operations) {
+        for (int i = 0; i < operations; i++) {
+            PrivilegedCarbonContext.getCurrentContext().setProperty(MESSAGE_ID_KEY, MESSAGE_ID_VALUE);
+            PrivilegedCarbonContext.getCurrentContext().setProperty(CORRELATION_ID_KEY, CORRELATION_ID_VALUE);
+            PrivilegedCarbonContext.getCurrentContext().setProperty(CHANNEL_KEY, CHANNEL_VALUE);
+            for (int j = 0; j < READS; j++) {
+                consume(CarbonContext.getCurrentContext().getProperty(MESSAGE_ID_KEY));
+                consume(CarbonContext.getCurrentContext().getProperty(CORRELATION_ID_KEY));
+                consume(CarbonContext.getCurrentContext().getProperty(CHANNEL_KEY));
+            }
+        }
+    }
+
+    private void consume(Object value) {
+        if (value != null) {
+            consumed++;
+        }
+    }
+
+    /**
+     * The carbon context holder as it was before the typed keys, with all the properties in a hash map.
+     */
+    private static final class LegacyCarbonContextHolder {
+        private static final ThreadLocal<LegacyCarbonContextHolder> currentContextHolder =
+                ThreadLocal.withInitial(LegacyCarbonContextHolder::new);
+
+        private final Map<String, Object> properties = new HashMap<>();
+    }
+
+    /**
+     * The carbon context as it was before the cached views, creating a new wrapper on every lookup.
+     */
+    private static class LegacyCarbonContext {
+        final LegacyCarbonContextHolder carbonContextHolder;
+
+        LegacyCarbonContext(LegacyCarbonContextHolder carbonContextHolder) {
+            this.carbonContextHolder = carbonContextHolder;
+        }
+
+        static LegacyCarbonContext getCurrentContext() {
+            return new LegacyCarbonContext(LegacyCarbonContextHolder.currentContextHolder.get());
+        }
+
+        Object getProperty(String name) {
+            return carbonContextHolder.properties.get(name);
+        }
+    }
+
+    /**
+     * The privileged carbon context as it was before the cached views, checking the security on every call.
+     */
+    private static final class LegacyPrivilegedCarbonContext extends LegacyCarbonContext {
+        private LegacyPrivilegedCarbonContext(LegacyCarbonContextHolder carbonContextHolder) {
+            super(carbonContextHolder);
+        }
+
+        static LegacyPrivilegedCarbonContext getCurrentContext() {
+            Utils.checkSecurity();
+            return new LegacyPrivilegedCarbonContext(LegacyCarbonContextHolder.currentContextHolder.get());
+        }
+
+        void setProperty(String name, Object value) {
+            Utils.checkSecurity();
+            carbonContextHolder.properties.put(name, value);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.context;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.security.Principal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the request scoped carbon context.
+ *
+ * @since 5.3.1
+ */
+public class CarbonContextScopeTest {
+
+    @AfterMethod
+    public void clearContext() {
+        PrivilegedCarbonContext.destroyCurrentContext();
+    }
+
+    @Test
+    public void testNestedScopes() throws Exception {
+        Principal outerPrincipal = () -> "outer";
+        Principal innerPrincipal = () -> "inner";
+        PrivilegedCarbonContext.getCurrentContext().setUserPrincipal(outerPrincipal);
+        PrivilegedCarbonContext.getCurrentContext().setProperty("scope", "outer");
+
+        String result = CarbonContextScope.call(() -> {
+            Assert.assertNull(CarbonContext.getCurrentContext().getUserPrincipal());
+            Assert.assertNull(CarbonContext.getCurrentContext().getProperty("scope"));
+            PrivilegedCarbonContext.getCurrentContext().setUserPrincipal(innerPrincipal);
+            PrivilegedCarbonContext.getCurrentContext().setProperty("scope", "inner");
+            CarbonContextScope.run(() ->
+                    Assert.assertNull(CarbonContext.getCurrentContext().getUserPrincipal()));
+            Assert.assertEquals(CarbonContext.getCurrentContext().getUserPrincipal(), innerPrincipal);
+            return (String) CarbonContext.getCurrentContext().getProperty("scope");
+        });
+
+        Assert.assertEquals(result, "inner");
+        Assert.assertEquals(CarbonContext.getCurrentContext().getUserPrincipal(), outerPrincipal);
+        Assert.assertEquals(CarbonContext.getCurrentContext().getProperty("scope"), "outer");
+    }
+
+    @Test
+    public void testScopeWithoutEnclosingContext() throws Exception {
+        CompletableFuture<Void> request = new CompletableFuture<>();
+        new Thread(() -> {
+            try {
+                try (CarbonContextScope ignored = CarbonContextScope.open()) {
+                    PrivilegedCarbonContext.getCurrentContext().setUserPrincipal(() -> "request");
+                    Assert.assertEquals(CarbonContext.getCurrentContext().getUserPrincipal().getName(), "request");
+                }
+                Assert.assertNull(CarbonContext.getCurrentContext().getUserPrincipal());
+                request.complete(null);
+            } catch (Throwable e) {
+                request.completeExceptionally(e);
+            }
+        }).start();
+        request.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testScopeClosedOnFailure() throws Exception {
+        PrivilegedCarbonContext.getCurrentContext().setProperty("scope", "outer");
+        try {
+            CarbonContextScope.run(() -> {
+                PrivilegedCarbonContext.getCurrentContext().setProperty("scope", "inner");
+                throw new IllegalStateException("request failed");
+            });
+            Assert.fail("The failure of the task should be propagated");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(e.getMessage(), "request failed");
+        }
+        Assert.assertEquals(CarbonContext.getCurrentContext().getProperty("scope"), "outer");
+    }
+}
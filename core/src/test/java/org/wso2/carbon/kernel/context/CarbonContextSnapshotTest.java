@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.context;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.security.Principal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the propagation of the carbon context across threads.
+ *
+ * @since 5.3.1
+ */
+public class CarbonContextSnapshotTest {
+    private static final ContextKey<String> MESSAGE_ID = ContextKey.of("test.snapshot.messageId", String.class);
+
+    private ExecutorService executorService;
+
+    @BeforeClass
+    public void init() {
+        executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterClass
+    public void destroy() {
+        executorService.shutdownNow();
+    }
+
+    @AfterMethod
+    public void clearContext() {
+        PrivilegedCarbonContext.destroyCurrentContext();
+    }
+
+    @Test
+    public void testRestoreSnapshot() throws Exception {
+        Principal userPrincipal = () -> "test";
+        PrivilegedCarbonContext privilegedCarbonContext = PrivilegedCarbonContext.getCurrentContext();
+        privilegedCarbonContext.setUserPrincipal(userPrincipal);
+        privilegedCarbonContext.setProperty(MESSAGE_ID, "message-1");
+        privilegedCarbonContext.setProperty("untyped", "value-1");
+        CarbonContextSnapshot snapshot = CarbonContextSnapshot.capture();
+
+        // modifying the context after the capture must not change the snapshot
+        privilegedCarbonContext.setProperty(MESSAGE_ID, "message-2");
+        privilegedCarbonContext.setProperty("untyped", "value-2");
+
+        Future<String> result = executorService.submit(() -> {
+            Assert.assertNull(CarbonContext.getCurrentContext().getUserPrincipal());
+            try (CarbonContextSnapshot.Scope ignored = snapshot.restore()) {
+                CarbonContext carbonContext = CarbonContext.getCurrentContext();
+                Assert.assertEquals(carbonContext.getUserPrincipal(), userPrincipal);
+                Assert.assertEquals(carbonContext.getProperty("untyped"), "value-1");
+                return carbonContext.getProperty(MESSAGE_ID);
+            } finally {
+                Assert.assertNull(CarbonContext.getCurrentContext().getUserPrincipal());
+                Assert.assertNull(CarbonContext.getCurrentContext().getProperty(MESSAGE_ID));
+            }
+        });
+        Assert.assertEquals(result.get(10, TimeUnit.SECONDS), "message-1");
+        Assert.assertEquals(CarbonContext.getCurrentContext().getProperty(MESSAGE_ID), "message-2");
+        Assert.assertEquals(CarbonContext.getCurrentContext().getProperty("untyped"), "value-2");
+    }
+
+    @Test
+    public void testModifyRestoredContext() throws Exception {
+        PrivilegedCarbonContext.getCurrentContext().setProperty(MESSAGE_ID, "message-1");
+        CarbonContextSnapshot snapshot = CarbonContextSnapshot.capture();
+
+        executorService.submit(() -> snapshot.run(() ->
+                PrivilegedCarbonContext.getCurrentContext().setProperty(MESSAGE_ID, "message-2")))
+                .get(10, TimeUnit.SECONDS);
+        String restored = executorService.submit(() -> snapshot.call(() ->
+                CarbonContext.getCurrentContext().getProperty(MESSAGE_ID))).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(restored, "message-1");
+        Assert.assertEquals(CarbonContext.getCurrentContext().getProperty(MESSAGE_ID), "message-1");
+    }
+
+    @Test
+    public void testWrappedExecutorService() throws Exception {
+        ExecutorService wrapped = CarbonContextExecutors.wrap(executorService);
+        PrivilegedCarbonContext.getCurrentContext().setProperty(MESSAGE_ID, "message-1");
+        Future<String> first = wrapped.submit(() -> CarbonContext.getCurrentContext().getProperty(MESSAGE_ID));
+        PrivilegedCarbonContext.getCurrentContext().setProperty(MESSAGE_ID, "message-2");
+        Future<String> second = wrapped.submit(() -> CarbonContext.getCurrentContext().getProperty(MESSAGE_ID));
+
+        Assert.assertEquals(first.get(10, TimeUnit.SECONDS), "message-1");
+        Assert.assertEquals(second.get(10, TimeUnit.SECONDS), "message-2");
+        Assert.assertEquals(executorService.submit(() -> CarbonContext.getCurrentContext().getProperty(MESSAGE_ID))
+                .get(10, TimeUnit.SECONDS), null);
+    }
+
+    @Test
+    public void testCompletableFuture() throws Exception {
+        PrivilegedCarbonContext.getCurrentContext().setProperty(MESSAGE_ID, "message-1");
+        CarbonContextSnapshot snapshot = CarbonContextSnapshot.capture();
+        CompletableFuture<String> future = CarbonContextExecutors
+                .supplyAsync(() -> CarbonContext.getCurrentContext().getProperty(MESSAGE_ID), executorService)
+                .thenApplyAsync(snapshot.wrap((String messageId) ->
+                        messageId + ":" + CarbonContext.getCurrentContext().getProperty(MESSAGE_ID)), executorService);
+        Assert.assertEquals(future.get(10, TimeUnit.SECONDS), "message-1:message-1");
+
+        CompletableFuture<Void> run = CarbonContextExecutors.runAsync(() ->
+                Assert.assertEquals(CarbonContext.getCurrentContext().getProperty(MESSAGE_ID), "message-1"),
+                executorService);
+        run.get(10, TimeUnit.SECONDS);
+    }
+}
@@ -26,6 +26,8 @@ import org.wso2.carbon.kernel.internal.context.CarbonRuntimeFactory;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.IntStream;
 
 /**
@@ -97,6 +99,64 @@ public class CarbonContextTest {
                 );
     }
 
+    @Test(dependsOnMethods = "testMultiThreadedCarbonContextInvocation")
+    public void testCachedCarbonContext() throws Exception {
+        PrivilegedCarbonContext.destroyCurrentContext();
+        CarbonContext carbonContext = CarbonContext.getCurrentContext();
+        PrivilegedCarbonContext privilegedCarbonContext = PrivilegedCarbonContext.getCurrentContext();
+        Assert.assertSame(CarbonContext.getCurrentContext(), carbonContext);
+        Assert.assertSame(PrivilegedCarbonContext.getCurrentContext(), privilegedCarbonContext);
+        PrivilegedCarbonContext.destroyCurrentContext();
+        Assert.assertNotSame(CarbonContext.getCurrentContext(), carbonContext);
+        Assert.assertNotSame(PrivilegedCarbonContext.getCurrentContext(), privilegedCarbonContext);
+    }
+
+    @Test(dependsOnMethods = "testCachedCarbonContext")
+    public void testTypedProperties() throws Exception {
+        ContextKey<String> messageId = ContextKey.of("test.messageId", String.class);
+        ContextKey<Integer> retries = ContextKey.of("test.retries", Integer.class);
+        Assert.assertSame(ContextKey.of("test.messageId", String.class), messageId);
+        Assert.assertNotEquals(messageId.getSlot(), retries.getSlot());
+        try {
+            ContextKey.of("test.messageId", Integer.class);
+            Assert.fail("Context key with a different type should not be created");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("test.messageId"));
+        }
+
+        try {
+            PrivilegedCarbonContext privilegedCarbonContext = PrivilegedCarbonContext.getCurrentContext();
+            Assert.assertNull(CarbonContext.getCurrentContext().getProperty(messageId));
+            privilegedCarbonContext.setProperty(messageId, "message-1");
+            privilegedCarbonContext.setProperty(retries, 3);
+            Assert.assertEquals(CarbonContext.getCurrentContext().getProperty(messageId), "message-1");
+            Assert.assertEquals(CarbonContext.getCurrentContext().getProperty(retries), Integer.valueOf(3));
+            Assert.assertEquals(CarbonContext.getCurrentContext().getProperty("test.messageId"), "message-1");
+
+            privilegedCarbonContext.setProperty("test.messageId", "message-2");
+            Assert.assertEquals(CarbonContext.getCurrentContext().getProperty(messageId), "message-2");
+        } finally {
+            PrivilegedCarbonContext.destroyCurrentContext();
+        }
+        Assert.assertNull(CarbonContext.getCurrentContext().getProperty(messageId));
+    }
+
+    @Test(dependsOnMethods = "testTypedProperties")
+    public void testSetProperties() throws Exception {
+        ContextKey<String> messageId = ContextKey.of("test.messageId", String.class);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("test.messageId", "message-3");
+        properties.put("test.untyped", 10L);
+        try {
+            PrivilegedCarbonContext.getCurrentContext().setProperties(properties);
+            CarbonContext carbonContext = CarbonContext.getCurrentContext();
+            Assert.assertEquals(carbonContext.getProperty(messageId), "message-3");
+            Assert.assertEquals(carbonContext.getProperty("test.untyped"), 10L);
+        } finally {
+            PrivilegedCarbonContext.destroyCurrentContext();
+        }
+    }
+
     private class CarbonContextInvoker extends Thread {
         String carbonContextPropertyKey;
         Object carbonContextPropertyValue;
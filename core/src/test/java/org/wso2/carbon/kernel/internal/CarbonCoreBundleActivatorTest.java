@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.kernel.jmx.MBeanRegistrator;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for org.wso2.carbon.kernel.internal.CarbonCoreBundleActivator class.
+ *
+ * @since 5.3.1
+ */
+public class CarbonCoreBundleActivatorTest {
+
+    @Test
+    public void testMBeansUnregisteredWhenBundleStops() throws Exception {
+        List<BundleListener> listeners = new ArrayList<>();
+        BundleContext bundleContext = (BundleContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{BundleContext.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "addBundleListener":
+                            return listeners.add((BundleListener) args[0]);
+                        case "removeBundleListener":
+                            return listeners.remove((BundleListener) args[0]);
+                        default:
+                            return null;
+                    }
+                });
+        Bundle bundle = (Bundle) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Bundle.class},
+                (proxy, method, args) -> "getBundleId".equals(method.getName()) ? 7L : null);
+
+        CarbonCoreBundleActivator activator = new CarbonCoreBundleActivator();
+        activator.start(bundleContext);
+        try {
+            Assert.assertEquals(listeners.size(), 1);
+            int kernelMBeans = MBeanRegistrator.getMBeanCount();
+            MBeanRegistrator.registerMBean(bundle, new Sample());
+
+            listeners.get(0).bundleChanged(new BundleEvent(BundleEvent.STOPPING, bundle));
+            Assert.assertEquals(MBeanRegistrator.getMBeanCount(), kernelMBeans + 1);
+
+            listeners.get(0).bundleChanged(new BundleEvent(BundleEvent.STOPPED, bundle));
+            Assert.assertEquals(MBeanRegistrator.getMBeanCount(), kernelMBeans);
+        } finally {
+            activator.stop(bundleContext);
+        }
+        Assert.assertTrue(listeners.isEmpty());
+        Assert.assertEquals(MBeanRegistrator.getMBeanCount(), 0);
+    }
+
+    /**
+     * MXBean interface of the test MBean.
+     */
+    public interface SampleMXBean {
+        String getName();
+    }
+
+    /**
+     * Test MBean.
+     */
+    public static class Sample implements SampleMXBean {
+        @Override
+        public String getName() {
+            return "sample";
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.kernel.cache.CacheService;
+import org.wso2.carbon.kernel.internal.context.CarbonConfigProviderImpl;
+import org.wso2.carbon.kernel.jmx.MBeanRegistrator;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for org.wso2.carbon.kernel.internal.CarbonCoreComponent class.
+ *
+ * @since 5.3.1
+ */
+public class CarbonCoreComponentTest {
+
+    @Test
+    public void testReactivation() {
+        List<Object> cacheServices = new ArrayList<>();
+        BundleContext bundleContext = (BundleContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{BundleContext.class}, (proxy, method, args) -> {
+                    if (!"registerService".equals(method.getName())) {
+                        return null;
+                    }
+                    if (args[0] == CacheService.class) {
+                        cacheServices.add(args[1]);
+                    }
+                    return Proxy.newProxyInstance(getClass().getClassLoader(),
+                            new Class[]{ServiceRegistration.class}, (registration, registrationMethod, ignored) -> {
+                                if ("unregister".equals(registrationMethod.getName())) {
+                                    cacheServices.remove(args[1]);
+                                }
+                                return null;
+                            });
+                });
+        DataHolder.getInstance().setBundleContext(bundleContext);
+        DataHolder.getInstance().setConfigProvider(new CarbonConfigProviderImpl());
+        int mBeans = MBeanRegistrator.getMBeanCount();
+
+        CarbonCoreComponent component = new CarbonCoreComponent();
+        try {
+            component.activate();
+            Assert.assertEquals(cacheServices.size(), 1);
+            Assert.assertEquals(MBeanRegistrator.getMBeanCount(), mBeans + 1);
+
+            component.deactivate();
+            Assert.assertTrue(cacheServices.isEmpty());
+            Assert.assertEquals(MBeanRegistrator.getMBeanCount(), mBeans);
+
+            component.activate();
+            Assert.assertEquals(cacheServices.size(), 1);
+            Assert.assertEquals(MBeanRegistrator.getMBeanCount(), mBeans + 1);
+        } finally {
+            component.deactivate();
+            DataHolder.getInstance().setConfigProvider(null);
+            DataHolder.getInstance().setBundleContext(null);
+        }
+        Assert.assertEquals(MBeanRegistrator.getMBeanCount(), mBeans);
+    }
+}
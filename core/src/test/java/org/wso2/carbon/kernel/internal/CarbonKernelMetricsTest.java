@@ -0,0 +1,90 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.kernel.CarbonServerInfo;
+import org.wso2.carbon.kernel.internal.runtime.RuntimeManager;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+/**
+ * Tests the kernel metrics MXBean.
+ *
+ * @since 5.3.1
+ */
+public class CarbonKernelMetricsTest {
+
+    @AfterMethod
+    public void resetDataHolder() {
+        DataHolder.getInstance().setCarbonServerInfo(null);
+        DataHolder.getInstance().setStartupResolverStates(null);
+        DataHolder.getInstance().setRuntimeManager(null);
+    }
+
+    @Test
+    public void testSnapshot() {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        phases.put("launcher", 10L);
+        phases.put("resolver", 20L);
+        DataHolder.getInstance().setCarbonServerInfo(new CarbonServerInfo(phases, 30L));
+        DataHolder.getInstance().setStartupResolverStates(() -> Collections.singletonMap("satisfied", 2));
+        DataHolder.getInstance().setRuntimeManager(new RuntimeManager());
+
+        KernelMetricsSnapshot snapshot = new CarbonKernelMetrics().getSnapshot();
+        Assert.assertEquals(snapshot.getStartupDuration(), 30L);
+        Assert.assertEquals(snapshot.getStartupPhaseDurations(), phases);
+        Assert.assertEquals(snapshot.getStartupComponentStates().get("satisfied"), Integer.valueOf(2));
+        Assert.assertEquals(snapshot.getRuntimeStates().get("ACTIVE"), Integer.valueOf(0));
+        Assert.assertEquals(snapshot.getSchedulerQueueDepths().get("class-preloader"), Integer.valueOf(0));
+    }
+
+    @Test
+    public void testSnapshotBeforeStartup() {
+        KernelMetricsSnapshot snapshot = new CarbonKernelMetrics().getSnapshot();
+        Assert.assertEquals(snapshot.getStartupDuration(), -1L);
+        Assert.assertTrue(snapshot.getStartupPhaseDurations().isEmpty());
+        Assert.assertTrue(snapshot.getStartupComponentStates().isEmpty());
+        Assert.assertTrue(snapshot.getRuntimeStates().isEmpty());
+    }
+
+    @Test
+    public void testCompositeSnapshot() throws Exception {
+        DataHolder.getInstance().setCarbonServerInfo(
+                new CarbonServerInfo(Collections.singletonMap("resolver", 5L), 5L));
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("org.wso2.carbon:type=CarbonKernelMetricsTest");
+        mBeanServer.registerMBean(new CarbonKernelMetrics(), name);
+        try {
+            CompositeData snapshot = (CompositeData) mBeanServer.getAttribute(name, "Snapshot");
+            Assert.assertEquals(snapshot.get("startupDuration"), 5L);
+            Assert.assertEquals(((TabularData) snapshot.get("startupPhaseDurations")).size(), 1);
+            Assert.assertNotNull(snapshot.get("bundleStates"));
+            Assert.assertNotNull(snapshot.get("registeredMBeans"));
+        } finally {
+            mBeanServer.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for org.wso2.carbon.kernel.internal.ClassPreloader class.
+ *
+ * @since 5.3.1
+ */
+public class ClassPreloaderTest {
+    private Path traceFile;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        traceFile = Files.createTempDirectory("class-preloader").resolve(ClassPreloader.TRACE_FILE);
+    }
+
+    @Test
+    public void testReadMissingTrace() {
+        ClassPreloader classPreloader = new ClassPreloader(null, traceFile);
+        Assert.assertTrue(classPreloader.readTrace().isEmpty());
+    }
+
+    @Test(dependsOnMethods = "testReadMissingTrace")
+    public void testReadTrace() throws IOException {
+        List<String> trace = Arrays.asList(
+                "org.wso2.carbon.core\t5.3.1\torg.wso2.carbon.kernel.internal.DataHolder",
+                "org.eclipse.osgi.services\t3.5.100\torg.osgi.service.cm.ConfigurationAdmin",
+                "malformed entry",
+                "org.wso2.carbon.core\t5.3.1\torg.wso2.carbon.kernel.Constants");
+        Files.write(traceFile, trace, StandardCharsets.UTF_8);
+
+        Map<String, List<String>> classesByBundle = new ClassPreloader(null, traceFile).readTrace();
+        Assert.assertEquals(classesByBundle.keySet().toArray(),
+                new String[]{"org.wso2.carbon.core\t5.3.1", "org.eclipse.osgi.services\t3.5.100"});
+        Assert.assertEquals(classesByBundle.get("org.wso2.carbon.core\t5.3.1"),
+                Arrays.asList("org.wso2.carbon.kernel.internal.DataHolder", "org.wso2.carbon.kernel.Constants"));
+        Assert.assertEquals(classesByBundle.get("org.eclipse.osgi.services\t3.5.100"),
+                Collections.singletonList("org.osgi.service.cm.ConfigurationAdmin"));
+    }
+
+    @Test(dependsOnMethods = "testReadTrace")
+    public void testStopRecordingReplacesTrace() {
+        ClassPreloader classPreloader = new ClassPreloader(null, traceFile);
+        classPreloader.stopRecording();
+        Assert.assertTrue(Files.exists(traceFile));
+        Assert.assertTrue(classPreloader.readTrace().isEmpty());
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.kernel.CarbonServerInfo;
+import org.wso2.carbon.kernel.Constants;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Unit tests for org.wso2.carbon.kernel.internal.StartupReport class.
+ *
+ * @since 5.3.1
+ */
+public class StartupReportTest {
+    private String startTime;
+
+    @BeforeMethod
+    public void setup() {
+        startTime = System.getProperty(Constants.START_TIME);
+        System.setProperty(Constants.START_TIME, "1500000000000");
+    }
+
+    @AfterMethod
+    public void cleanup() {
+        System.clearProperty(Constants.STARTUP_TIMELINE);
+        if (startTime == null) {
+            System.clearProperty(Constants.START_TIME);
+        } else {
+            System.setProperty(Constants.START_TIME, startTime);
+        }
+    }
+
+    @Test
+    public void testMissingTimeline() {
+        System.clearProperty(Constants.STARTUP_TIMELINE);
+        StartupReport report = StartupReport.fromSystemProperties();
+
+        Assert.assertTrue(report.getPhaseDurations().isEmpty());
+        Assert.assertEquals(report.getTotalDuration(), -1);
+    }
+
+    @Test
+    public void testPhaseDurations() {
+        System.setProperty(Constants.STARTUP_TIMELINE, "origin=100,cmdline=150,malformed,launch.config=x,"
+                + "framework.load=400");
+        StartupReport report = StartupReport.fromSystemProperties();
+
+        Map<String, Long> durations = report.getPhaseDurations();
+        Assert.assertEquals(new ArrayList<>(durations.keySet()), Arrays.asList("cmdline", "framework.load"));
+        Assert.assertEquals(durations.get("cmdline"), Long.valueOf(50));
+        Assert.assertEquals(durations.get("framework.load"), Long.valueOf(250));
+        Assert.assertEquals(report.getTotalDuration(), 300);
+    }
+
+    @Test
+    public void testOutOfOrderTimeline() {
+        // The start level checkpoint was published before the checkpoints of earlier completed phases.
+        System.setProperty(Constants.STARTUP_TIMELINE, "origin=100,start.level=900,framework.start=300,"
+                + "initial.bundles=600");
+        StartupReport report = StartupReport.fromSystemProperties();
+
+        Map<String, Long> durations = report.getPhaseDurations();
+        Assert.assertEquals(new ArrayList<>(durations.keySet()),
+                Arrays.asList("framework.start", "initial.bundles", "start.level"));
+        Assert.assertEquals(durations.get("framework.start"), Long.valueOf(200));
+        Assert.assertEquals(durations.get("initial.bundles"), Long.valueOf(300));
+        Assert.assertEquals(durations.get("start.level"), Long.valueOf(300));
+        Assert.assertEquals(report.getTotalDuration(), 800);
+    }
+
+    @Test
+    public void testResolverCheckpoint() {
+        System.setProperty(Constants.STARTUP_TIMELINE, "origin=" + System.nanoTime());
+        StartupReport report = StartupReport.fromSystemProperties();
+        report.checkpoint(StartupReport.RESOLVER);
+
+        Assert.assertTrue(System.getProperty(Constants.STARTUP_TIMELINE).contains(",resolver="));
+        CarbonServerInfo carbonServerInfo = report.toCarbonServerInfo();
+        Assert.assertEquals(carbonServerInfo.getStartupPhaseDurations().keySet().toArray(),
+                new String[]{StartupReport.RESOLVER});
+        Assert.assertTrue(carbonServerInfo.getStartupDuration() >= 0);
+    }
+
+    @Test
+    public void testWriteReport() throws IOException {
+        System.setProperty(Constants.STARTUP_TIMELINE, "origin=100,initial.bundles=600,framework.start=300");
+        Path reportFile = Files.createTempDirectory("startup-report").resolve("logs")
+                .resolve(Constants.STARTUP_REPORT_FILE);
+
+        StartupReport.fromSystemProperties().write("Test \"Server\"", reportFile);
+
+        String json = new String(Files.readAllBytes(reportFile), StandardCharsets.UTF_8);
+        Assert.assertEquals(json, "{\n"
+                + "  \"server\": \"Test \\\"Server\\\"\",\n"
+                + "  \"startTime\": 1500000000000,\n"
+                + "  \"totalNanos\": 500,\n"
+                + "  \"phases\": [\n"
+                + "    {\"name\": \"framework.start\", \"offsetNanos\": 200, \"durationNanos\": 200},\n"
+                + "    {\"name\": \"initial.bundles\", \"offsetNanos\": 500, \"durationNanos\": 300}\n"
+                + "  ]\n"
+                + "}\n");
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.cache;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.kernel.cache.Cache;
+import org.wso2.carbon.kernel.config.model.CacheConfig;
+import org.wso2.carbon.kernel.context.CarbonContext;
+import org.wso2.carbon.kernel.context.PrivilegedCarbonContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests the kernel cache service.
+ *
+ * @since 5.3.1
+ */
+public class CarbonCacheServiceTest {
+    private final AtomicLong ticker = new AtomicLong();
+
+    @AfterMethod
+    public void clearContext() {
+        PrivilegedCarbonContext.destroyCurrentContext();
+    }
+
+    @Test
+    public void testTenantPartitions() {
+        CarbonCacheService cacheService = new CarbonCacheService("default", new CacheConfig(), ticker::get);
+        Cache<String, String> cache = cacheService.getCache("users");
+        Assert.assertSame(cacheService.getCache("users"), cache);
+
+        cache.put("admin", "default-admin");
+        setTenant("tenant1");
+        Assert.assertNull(cache.get("admin"));
+        cache.put("admin", "tenant1-admin");
+        Assert.assertEquals(cache.get("admin"), "tenant1-admin");
+        Assert.assertEquals(cache.size(), 1);
+
+        setTenant(null);
+        Assert.assertEquals(cache.get("admin"), "default-admin");
+
+        cacheService.clearTenant("tenant1");
+        setTenant("tenant1");
+        Assert.assertEquals(cache.size(), 0);
+        setTenant(null);
+        Assert.assertEquals(cache.get("admin"), "default-admin");
+    }
+
+    @Test
+    public void testSizeEviction() {
+        CarbonCacheService cacheService = new CarbonCacheService("default", new CacheConfig(), ticker::get);
+        Cache<Integer, String> cache = cacheService.getCache("bounded", 2, 0);
+        cache.put(1, "one");
+        cache.put(2, "two");
+        Assert.assertEquals(cache.get(1), "one");
+        cache.put(3, "three");
+
+        // 2 is the least recently used entry
+        Assert.assertNull(cache.get(2));
+        Assert.assertEquals(cache.get(1), "one");
+        Assert.assertEquals(cache.get(3), "three");
+        Assert.assertEquals(cache.size(), 2);
+    }
+
+    @Test
+    public void testExpiry() {
+        CarbonCacheService cacheService = new CarbonCacheService("default", new CacheConfig(), ticker::get);
+        Cache<String, String> cache = cacheService.getCache("expiring", 10, 1000);
+        cache.put("key", "value");
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        Assert.assertEquals(cache.get("key"), "value");
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        Assert.assertNull(cache.get("key"));
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testLoaderAndStatistics() {
+        CarbonCacheService cacheService = new CarbonCacheService("default", new CacheConfig(), ticker::get);
+        Cache<String, Integer> cache = cacheService.getCache("lengths", 1, 0);
+        Assert.assertEquals(cache.get("carbon", String::length), Integer.valueOf(6));
+        Assert.assertEquals(cache.get("carbon", key -> -1), Integer.valueOf(6));
+        Assert.assertNull(cache.get("kernel", key -> null));
+        cache.put("kernel", 6);
+
+        List<CacheStatistics> statistics = cacheService.getCacheStatistics();
+        Assert.assertEquals(statistics.size(), 1);
+        CacheStatistics lengths = statistics.get(0);
+        Assert.assertEquals(lengths.getName(), "lengths");
+        Assert.assertEquals(lengths.getTenants(), 1);
+        Assert.assertEquals(lengths.getSize(), 1);
+        Assert.assertEquals(lengths.getHits(), 1);
+        Assert.assertEquals(lengths.getMisses(), 2);
+        Assert.assertEquals(lengths.getEvictions(), 1);
+
+        cacheService.clearCache("lengths");
+        Assert.assertEquals(cacheService.getCacheStatistics().get(0).getSize(), 0);
+        cacheService.removeCache("lengths");
+        Assert.assertTrue(cacheService.getCacheStatistics().isEmpty());
+    }
+
+    @Test
+    public void testTenantEviction() {
+        String[] tenant = {"tenant1"};
+        CarbonCache<String, String> cache = new CarbonCache<>("users", 10, 0, 2, () -> tenant[0], ticker::get);
+        cache.put("admin", "tenant1-admin");
+        cache.put("guest", "tenant1-guest");
+        tenant[0] = "tenant2";
+        ticker.incrementAndGet();
+        cache.put("admin", "tenant2-admin");
+        tenant[0] = "tenant1";
+        ticker.incrementAndGet();
+        Assert.assertEquals(cache.get("admin"), "tenant1-admin");
+
+        // tenant2 is the least recently used tenant
+        tenant[0] = "tenant3";
+        ticker.incrementAndGet();
+        cache.put("admin", "tenant3-admin");
+        tenant[0] = "tenant2";
+        Assert.assertNull(cache.get("admin"));
+        tenant[0] = "tenant1";
+        Assert.assertEquals(cache.get("admin"), "tenant1-admin");
+
+        CacheStatistics statistics = cache.getStatistics();
+        Assert.assertEquals(statistics.getMaximumTenants(), 2);
+        Assert.assertEquals(statistics.getTenants(), 2);
+        Assert.assertEquals(statistics.getSize(), 3);
+        Assert.assertEquals(statistics.getEvictions(), 1);
+    }
+
+    @Test
+    public void testClearDuringPut() {
+        AtomicReference<CarbonCache<String, String>> cache = new AtomicReference<>();
+        AtomicBoolean cleared = new AtomicBoolean();
+        // clears the tenant while the put is in progress
+        cache.set(new CarbonCache<>("users", 10, 0, 10, () -> "tenant1", () -> {
+            if (cleared.compareAndSet(false, true)) {
+                cache.get().clearTenant("tenant1");
+            }
+            return ticker.get();
+        }));
+        cache.get().put("admin", "stale");
+        cleared.set(false);
+        cache.get().put("admin", "tenant1-admin");
+        Assert.assertTrue(cleared.get());
+        Assert.assertEquals(cache.get().get("admin"), "tenant1-admin");
+    }
+
+    @Test
+    public void testConcurrentTenants() throws Exception {
+        ThreadLocal<String> tenant = new ThreadLocal<>();
+        CarbonCache<Integer, Integer> cache = new CarbonCache<>("numbers", 100, 0, 4, tenant::get, System::nanoTime);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String name = "tenant" + i;
+                futures.add(executor.submit(() -> {
+                    tenant.set(name);
+                    for (int j = 0; j < 10000; j++) {
+                        cache.put(j % 200, j);
+                        cache.get(j % 100);
+                        if (j % 1000 == 0) {
+                            cache.clearAll();
+                        }
+                    }
+                    cache.put(-1, -1);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CacheStatistics statistics = cache.getStatistics();
+        Assert.assertTrue(statistics.getTenants() <= 4);
+        Assert.assertTrue(statistics.getSize() <= 4 * 100);
+    }
+
+    private void setTenant(String tenant) {
+        PrivilegedCarbonContext.getCurrentContext().setProperty(CarbonContext.TENANT, tenant);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.config;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.kernel.config.ConfigurationChangeEvent;
+import org.wso2.carbon.kernel.config.ConfigurationChangeListener;
+import org.wso2.carbon.kernel.config.model.CarbonConfiguration;
+import org.wso2.carbon.kernel.internal.context.DefaultCarbonRuntime;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the reload of the deployment.yaml.
+ *
+ * @since 5.3.1
+ */
+public class CarbonConfigurationReloaderTest {
+    private Path configFile;
+    private DefaultCarbonRuntime carbonRuntime;
+    private CarbonConfiguration nextConfiguration;
+    private AtomicInteger loads;
+    private List<ConfigurationChangeEvent> events;
+    private CarbonConfigurationReloader reloader;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        configFile = Files.createTempDirectory("carbon").resolve("deployment.yaml");
+        write("wso2.carbon:\n  id: carbon-kernel\n");
+        carbonRuntime = new DefaultCarbonRuntime();
+        carbonRuntime.setCarbonConfiguration(new CarbonConfiguration());
+        nextConfiguration = new CarbonConfiguration();
+        loads = new AtomicInteger();
+        events = new CopyOnWriteArrayList<>();
+        ConfigurationChangeListener listener = events::add;
+        reloader = new CarbonConfigurationReloader(carbonRuntime, configFile, 50, () -> {
+            loads.incrementAndGet();
+            return nextConfiguration;
+        }, () -> Collections.singletonList(listener));
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        reloader.stop();
+        Files.deleteIfExists(configFile);
+        Files.delete(configFile.getParent());
+    }
+
+    @Test
+    public void testDiff() throws Exception {
+        CarbonConfiguration previous = new CarbonConfiguration();
+        CarbonConfiguration current = new CarbonConfiguration();
+        Assert.assertTrue(ConfigurationDiff.diff(previous, current).isEmpty());
+
+        current.getJmxConfiguration().setRmiRegistryPort(9998);
+        set(current.getStartupResolverConfig().getCapabilityListenerTimer(), "period", 100L);
+        current.getStartupConfig().getStandbyRuntimes().add("standby");
+        set(current, "id", "changed");
+        Assert.assertEquals(ConfigurationDiff.diff(previous, current), Arrays.asList("id",
+                "startupResolver.capabilityListenerTimer.period", "jmx.rmiRegistryPort", "startup.standbyRuntimes"));
+    }
+
+    @Test
+    public void testChangedElements() {
+        ConfigurationChangeEvent event = new ConfigurationChangeEvent(new CarbonConfiguration(),
+                new CarbonConfiguration(), Arrays.asList("jmx.rmiRegistryPort", "startupResolver"));
+        Assert.assertTrue(event.isChanged("jmx"));
+        Assert.assertTrue(event.isChanged("jmx.rmiRegistryPort"));
+        Assert.assertTrue(event.isChanged("startupResolver"));
+        Assert.assertFalse(event.isChanged("jm"));
+        Assert.assertFalse(event.isChanged("jmx.rmiServerPort"));
+        Assert.assertFalse(event.isChanged("startupResolver.capabilityListenerTimer"));
+    }
+
+    @Test
+    public void testReload() throws IOException {
+        reloader.start();
+        Assert.assertFalse(reloader.reload());
+        Assert.assertEquals(loads.get(), 0);
+
+        nextConfiguration.getJmxConfiguration().setRmiServerPort(11112);
+        write("wso2.carbon:\n  jmx:\n    rmiServerPort: 11112\n");
+        CarbonConfiguration previousConfiguration = carbonRuntime.getConfiguration();
+        Assert.assertTrue(reloader.reload());
+        Assert.assertEquals(loads.get(), 1);
+        Assert.assertSame(carbonRuntime.getConfiguration(), nextConfiguration);
+        Assert.assertEquals(events.size(), 1);
+        Assert.assertSame(events.get(0).getPreviousConfiguration(), previousConfiguration);
+        Assert.assertSame(events.get(0).getConfiguration(), nextConfiguration);
+        Assert.assertEquals(events.get(0).getChangedElements(), Collections.singletonList("jmx.rmiServerPort"));
+
+        // The same content is not read again.
+        Assert.assertFalse(reloader.reload());
+        Assert.assertEquals(loads.get(), 1);
+    }
+
+    @Test
+    public void testReloadWithoutChangedValues() throws IOException {
+        reloader.start();
+        write("wso2.carbon:\n  # comment\n  id: carbon-kernel\n");
+        Assert.assertFalse(reloader.reload());
+        Assert.assertEquals(loads.get(), 1);
+        Assert.assertNotSame(carbonRuntime.getConfiguration(), nextConfiguration);
+        Assert.assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testReloadFailure() throws IOException {
+        CarbonConfiguration configuration = carbonRuntime.getConfiguration();
+        reloader = new CarbonConfigurationReloader(carbonRuntime, configFile, 50, () -> {
+            throw new IllegalArgumentException("invalid yaml");
+        }, Collections::emptyList);
+        reloader.start();
+        write("wso2.carbon: [\n");
+        Assert.assertFalse(reloader.reload());
+        Assert.assertSame(carbonRuntime.getConfiguration(), configuration);
+    }
+
+    @Test
+    public void testWatch() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        reloader = new CarbonConfigurationReloader(carbonRuntime, configFile, 50, () -> nextConfiguration,
+                () -> Collections.singletonList(event -> latch.countDown()));
+        reloader.start();
+
+        nextConfiguration.getJmxConfiguration().setEnabled(true);
+        write("wso2.carbon:\n  jmx:\n    enabled: true\n");
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertSame(carbonRuntime.getConfiguration(), nextConfiguration);
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(configFile, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void set(Object bean, String name, Object value) throws ReflectiveOperationException {
+        Field field = bean.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(bean, value);
+    }
+}
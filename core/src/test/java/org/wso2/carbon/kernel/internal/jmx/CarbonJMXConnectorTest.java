@@ -0,0 +1,110 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.jmx;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import javax.security.auth.Subject;
+
+/**
+ * Tests the deferred start of the JMX connector.
+ *
+ * @since 5.3.1
+ */
+public class CarbonJMXConnectorTest {
+    private static final String HOST = "127.0.0.1";
+
+    @BeforeClass
+    public void setRmiHostname() {
+        System.setProperty("java.rmi.server.hostname", HOST);
+    }
+
+    @Test
+    public void testStart() throws Exception {
+        int registryPort;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            registryPort = serverSocket.getLocalPort();
+        }
+        CarbonJMXConnector jmxConnector = new CarbonJMXConnector(HOST, registryPort, 0, credentials -> new Subject());
+        jmxConnector.start();
+        try {
+            Assert.assertTrue(jmxConnector.getServiceURL().toString().endsWith(":" + registryPort + "/jmxrmi"));
+            assertConnects(jmxConnector.getServiceURL());
+        } finally {
+            jmxConnector.stop();
+        }
+    }
+
+    @Test
+    public void testStartOnFirstConnection() throws Exception {
+        CarbonJMXConnector jmxConnector = new CarbonJMXConnector(HOST, 0, 0, credentials -> new Subject());
+        CompletableFuture<Boolean> started = CompletableFuture.supplyAsync(() -> {
+            try {
+                return jmxConnector.startOnFirstConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        try {
+            for (int i = 0; i < 100 && jmxConnector.getRmiRegistryPort() == 0; i++) {
+                Thread.sleep(10);
+            }
+            Assert.assertNull(jmxConnector.getServiceURL());
+
+            // The first connection starts the connector, and is served once the connector is bound to the registry.
+            assertConnects(new JMXServiceURL("service:jmx:rmi:///jndi/rmi://" + HOST + ":"
+                    + jmxConnector.getRmiRegistryPort() + "/jmxrmi"));
+            Assert.assertTrue(started.get(10, TimeUnit.SECONDS));
+            Assert.assertNotNull(jmxConnector.getServiceURL());
+        } finally {
+            jmxConnector.stop();
+        }
+    }
+
+    @Test
+    public void testStopBeforeFirstConnection() throws Exception {
+        CarbonJMXConnector jmxConnector = new CarbonJMXConnector(HOST, 0, 0, credentials -> new Subject());
+        CompletableFuture<Boolean> started = CompletableFuture.supplyAsync(() -> {
+            try {
+                return jmxConnector.startOnFirstConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        for (int i = 0; i < 100 && jmxConnector.getRmiRegistryPort() == 0; i++) {
+            Thread.sleep(10);
+        }
+        jmxConnector.stop();
+        Assert.assertFalse(started.get(10, TimeUnit.SECONDS));
+        Assert.assertNull(jmxConnector.getServiceURL());
+    }
+
+    private static void assertConnects(JMXServiceURL jmxServiceURL) throws Exception {
+        try (JMXConnector jmxConnector = JMXConnectorFactory.connect(jmxServiceURL,
+                Collections.singletonMap(JMXConnector.CREDENTIALS, new String[]{"admin", "admin"}))) {
+            Assert.assertTrue(jmxConnector.getMBeanServerConnection().getMBeanCount() > 0);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.kernel.CarbonServerInfo;
+import org.wso2.carbon.kernel.internal.DataHolder;
+import org.wso2.carbon.kernel.internal.runtime.RuntimeManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Tests the memory mapped kernel counters.
+ *
+ * @since 5.3.1
+ */
+public class KernelCountersComponentTest {
+
+    @AfterMethod
+    public void resetDataHolder() {
+        DataHolder.getInstance().setCarbonServerInfo(null);
+        DataHolder.getInstance().setRuntimeManager(null);
+    }
+
+    @Test
+    public void testCounterSegment() throws IOException {
+        Path file = Files.createTempFile("carbon", ".counters");
+        try (CounterSegment counterSegment = CounterSegment.create(file, 2, 1000L)) {
+            Assert.assertTrue(counterSegment.set("first", 1));
+            Assert.assertTrue(counterSegment.set("second", 2));
+            Assert.assertTrue(counterSegment.set("first", 3));
+            Assert.assertFalse(counterSegment.set("third", 4));
+            counterSegment.updated(2000L);
+
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            Assert.assertEquals(buffer.capacity(), CounterSegment.HEADER_LENGTH + 2 * CounterSegment.ENTRY_LENGTH);
+            Assert.assertEquals(buffer.getInt(0), CounterSegment.MAGIC);
+            Assert.assertEquals(buffer.getLong(CounterSegment.START_TIME_OFFSET), 1000L);
+            Assert.assertEquals(buffer.getLong(CounterSegment.UPDATE_TIME_OFFSET), 2000L);
+            Map<String, Long> counters = read(file);
+            Assert.assertEquals(counters.size(), 2);
+            Assert.assertEquals(counters.get("first"), Long.valueOf(3));
+            Assert.assertEquals(counters.get("second"), Long.valueOf(2));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testReplaceMappedSegment() throws IOException {
+        Path directory = Files.createTempDirectory("carbon");
+        Path file = directory.resolve("carbon.counters");
+        try (CounterSegment previous = CounterSegment.create(file, 2, 1000L)) {
+            Assert.assertTrue(previous.set("first", 1));
+            // The previous segment is still mapped, as it is after a restart until the mapping is garbage collected.
+            try (CounterSegment counterSegment = CounterSegment.create(file, 2, 3000L)) {
+                Assert.assertTrue(counterSegment.set("second", 2));
+                ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+                Assert.assertEquals(buffer.getLong(CounterSegment.START_TIME_OFFSET), 3000L);
+                Assert.assertEquals(read(file), Collections.singletonMap("second", 2L));
+            }
+            // Writes to the replaced segment do not reach the file.
+            Assert.assertTrue(previous.set("first", 3));
+            Assert.assertEquals(read(file), Collections.singletonMap("second", 2L));
+            try (Stream<Path> files = Files.list(directory)) {
+                Assert.assertEquals(files.count(), 1L);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testPublishing() throws Exception {
+        DataHolder.getInstance().setCarbonServerInfo(
+                new CarbonServerInfo(Collections.singletonMap("resolver", 20L), 30L));
+        DataHolder.getInstance().setRuntimeManager(new RuntimeManager());
+
+        Path file = Files.createTempDirectory("carbon").resolve("carbon.counters");
+        KernelCountersComponent countersComponent = new KernelCountersComponent();
+        countersComponent.startPublishing(file, 10);
+        try {
+            Map<String, Long> counters = read(file);
+            for (int i = 0; i < 100 && !counters.containsKey("carbon.runtime.active"); i++) {
+                Thread.sleep(10);
+                counters = read(file);
+            }
+            Assert.assertTrue(counters.get("carbon.uptime") > 0);
+            Assert.assertEquals(counters.get("carbon.startup.duration"), Long.valueOf(30));
+            Assert.assertEquals(counters.get("carbon.startup.phase.resolver"), Long.valueOf(20));
+            Assert.assertEquals(counters.get("carbon.runtime.active"), Long.valueOf(0));
+        } finally {
+            countersComponent.stopPublishing();
+        }
+        Assert.assertFalse(Files.exists(file));
+        Files.delete(file.getParent());
+    }
+
+    private static Map<String, Long> read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        Map<String, Long> counters = new HashMap<>();
+        for (int i = 0; i < buffer.getInt(CounterSegment.COUNT_OFFSET); i++) {
+            int offset = CounterSegment.HEADER_LENGTH + i * CounterSegment.ENTRY_LENGTH;
+            int length = 0;
+            while (length < CounterSegment.NAME_LENGTH && buffer.get(offset + length) != 0) {
+                length++;
+            }
+            counters.put(new String(buffer.array(), offset, length, StandardCharsets.UTF_8),
+                    buffer.getLong(offset + CounterSegment.NAME_LENGTH));
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.kernel.internal.DataHolder;
+import org.wso2.carbon.kernel.internal.runtime.CustomRuntime;
+import org.wso2.carbon.kernel.internal.runtime.RuntimeManager;
+import org.wso2.carbon.kernel.runtime.RuntimeMetrics;
+import org.wso2.carbon.kernel.runtime.RuntimeMetricsRecorder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests the Prometheus metrics endpoint.
+ *
+ * @since 5.3.1
+ */
+public class PrometheusMetricsComponentTest {
+    private PrometheusMetricsComponent metricsComponent = new PrometheusMetricsComponent();
+    private String endpoint;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        RuntimeManager runtimeManager = new RuntimeManager();
+        RuntimeMetricsRecorder recorder = new RuntimeMetricsRecorder();
+        recorder.requestCompleted(recorder.requestStarted(), true);
+        recorder.requestCompleted(recorder.requestStarted(), false);
+        runtimeManager.registerRuntime(new CustomRuntime() {
+            @Override
+            public String getName() {
+                return "measured";
+            }
+
+            @Override
+            public RuntimeMetrics getMetrics() {
+                return recorder;
+            }
+        });
+        DataHolder.getInstance().setRuntimeManager(runtimeManager);
+
+        metricsComponent.startServer("127.0.0.1", 0, "/metrics");
+        endpoint = "http://127.0.0.1:" + metricsComponent.getHttpServer().getAddress().getPort() + "/metrics";
+    }
+
+    @AfterClass
+    public void stopServer() {
+        metricsComponent.stopServer();
+        DataHolder.getInstance().setRuntimeManager(null);
+    }
+
+    @Test
+    public void testScrape() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(endpoint).openConnection();
+        try {
+            Assert.assertEquals(connection.getResponseCode(), 200);
+            Assert.assertEquals(connection.getContentType(), PrometheusMetricsHandler.CONTENT_TYPE);
+            String body = read(connection.getInputStream());
+            Assert.assertTrue(body.contains("# TYPE jvm_memory_bytes_used gauge\n"));
+            Assert.assertTrue(body.contains("jvm_memory_bytes_used{area=\"heap\"} "));
+            Assert.assertTrue(body.contains("carbon_mbeans_registered "));
+            Assert.assertTrue(body.contains("carbon_runtime_requests_completed_total{runtime=\"measured\"} 1\n"));
+            Assert.assertTrue(body.contains("carbon_runtime_requests_failed_total{runtime=\"measured\"} 1\n"));
+            Assert.assertTrue(body.contains(
+                    "carbon_runtime_request_duration_seconds_bucket{runtime=\"measured\",le=\"+Inf\"} 2\n"));
+            Assert.assertTrue(body.contains("carbon_runtime_request_duration_seconds_count{runtime=\"measured\"} 2\n"));
+            for (String line : body.split("\n")) {
+                Assert.assertTrue(line.startsWith("#") || line.matches("[a-z_]+(\\{.*\\})? \\S+"), line);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    public void testMethodNotAllowed() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(endpoint).openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            Assert.assertEquals(connection.getResponseCode(), 405);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static String read(InputStream inputStream) throws IOException {
+        try (InputStream in = inputStream) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
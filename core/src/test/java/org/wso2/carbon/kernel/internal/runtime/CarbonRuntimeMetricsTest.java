@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.runtime;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.kernel.runtime.LatencyHistogram;
+import org.wso2.carbon.kernel.runtime.RuntimeMetrics;
+import org.wso2.carbon.kernel.runtime.RuntimeMetricsRecorder;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Test class to test the runtime metrics aggregated by org.wso2.carbon.kernel.internal.runtime.CarbonRuntimeMetrics.
+ *
+ * @since 5.3.1
+ */
+public class CarbonRuntimeMetricsTest {
+
+    @Test
+    public void testLatencyHistogram() {
+        long[] bounds = {1000, 2000, 4000, Long.MAX_VALUE};
+        LatencyHistogram histogram = new LatencyHistogram(bounds, new long[]{50, 40, 9, 1}, 200000, 10000);
+
+        Assert.assertEquals(histogram.getCount(), 100);
+        Assert.assertEquals(histogram.getMeanNanos(), 2000.0);
+        Assert.assertEquals(histogram.getPercentileNanos(50), 1000);
+        Assert.assertEquals(histogram.getPercentileNanos(90), 2000);
+        Assert.assertEquals(histogram.getPercentileNanos(99), 4000);
+        Assert.assertEquals(histogram.getPercentileNanos(100), 10000);
+    }
+
+    @Test
+    public void testRuntimeMetricsRecorder() {
+        RuntimeMetricsRecorder recorder = new RuntimeMetricsRecorder();
+        long startTime = recorder.requestStarted();
+        recorder.requestStarted();
+        Assert.assertEquals(recorder.getInFlightRequests(), 2);
+
+        recorder.requestCompleted(startTime, true);
+        recorder.requestCompleted(startTime - 5000000, false);
+        Assert.assertEquals(recorder.getInFlightRequests(), 0);
+        Assert.assertEquals(recorder.getCompletedRequests(), 1);
+        Assert.assertEquals(recorder.getFailedRequests(), 1);
+
+        LatencyHistogram histogram = recorder.getLatencyHistogram();
+        Assert.assertEquals(histogram.getCount(), 2);
+        Assert.assertTrue(histogram.getMaxNanos() >= 5000000);
+        Assert.assertTrue(histogram.getPercentileNanos(100) >= 5000000);
+    }
+
+    @Test
+    public void testRuntimeMetricsMXBean() throws Exception {
+        RuntimeManager runtimeManager = new RuntimeManager();
+        RuntimeMetricsRecorder recorder = new RuntimeMetricsRecorder();
+        recorder.requestCompleted(recorder.requestStarted(), true);
+        runtimeManager.registerRuntime(new CustomRuntime());
+        runtimeManager.registerRuntime(new CustomRuntime() {
+            @Override
+            public String getName() {
+                return "measured";
+            }
+
+            @Override
+            public RuntimeMetrics getMetrics() {
+                return recorder;
+            }
+        });
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("org.wso2.carbon.test:type=CarbonRuntimeMetrics");
+        mBeanServer.registerMBean(new CarbonRuntimeMetrics(runtimeManager), objectName);
+        try {
+            CompositeData[] runtimeMetrics = (CompositeData[]) mBeanServer.getAttribute(objectName,
+                    "RuntimeMetrics");
+            Assert.assertEquals(runtimeMetrics.length, 1);
+            Assert.assertEquals(runtimeMetrics[0].get("name"), "measured");
+            Assert.assertEquals(runtimeMetrics[0].get("completedRequests"), 1L);
+            Assert.assertEquals(mBeanServer.getAttribute(objectName, "TotalCompletedRequests"), 1L);
+        } finally {
+            mBeanServer.unregisterMBean(objectName);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.internal.runtime;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.kernel.runtime.RuntimeLifecycleResult;
+import org.wso2.carbon.kernel.runtime.RuntimeMetrics;
+import org.wso2.carbon.kernel.runtime.RuntimeMetricsRecorder;
+import org.wso2.carbon.kernel.runtime.RuntimeState;
+import org.wso2.carbon.kernel.runtime.exception.RuntimeLifecycleException;
+import org.wso2.carbon.kernel.runtime.exception.RuntimeServiceException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test class to test the parallel lifecycle of org.wso2.carbon.kernel.internal.runtime.CarbonRuntimeService.
+ *
+ * @since 5.3.1
+ */
+public class CarbonRuntimeServiceTest {
+
+    @Test
+    public void testStopRuntimesInParallel() throws RuntimeServiceException {
+        RuntimeManager runtimeManager = new RuntimeManager();
+        SlowRuntime first = new SlowRuntime(RuntimeState.ACTIVE, 500);
+        SlowRuntime second = new SlowRuntime(RuntimeState.ACTIVE, 500);
+        runtimeManager.registerRuntime(first);
+        runtimeManager.registerRuntime(second);
+
+        long startTime = System.nanoTime();
+        new CarbonRuntimeService(runtimeManager).stopRuntimes(10, TimeUnit.SECONDS);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        Assert.assertEquals(first.getState(), RuntimeState.INACTIVE);
+        Assert.assertEquals(second.getState(), RuntimeState.INACTIVE);
+        Assert.assertTrue(elapsed < 1000, "Runtimes were not stopped in parallel, took " + elapsed + " ms");
+    }
+
+    @Test
+    public void testStopRuntimesSkipsPendingRuntimes() throws RuntimeServiceException {
+        RuntimeManager runtimeManager = new RuntimeManager();
+        SlowRuntime pending = new SlowRuntime(RuntimeState.PENDING, 0);
+        runtimeManager.registerRuntime(pending);
+
+        new CarbonRuntimeService(runtimeManager).stopRuntimes(1, TimeUnit.SECONDS);
+        Assert.assertEquals(pending.getState(), RuntimeState.PENDING);
+    }
+
+    @Test
+    public void testStopRuntimesTimeout() {
+        RuntimeManager runtimeManager = new RuntimeManager();
+        SlowRuntime fast = new SlowRuntime(RuntimeState.ACTIVE, 0);
+        SlowRuntime hanging = new SlowRuntime(RuntimeState.ACTIVE, 60000);
+        runtimeManager.registerRuntime(fast);
+        runtimeManager.registerRuntime(hanging);
+
+        long startTime = System.nanoTime();
+        try {
+            new CarbonRuntimeService(runtimeManager).stopRuntimes(200, TimeUnit.MILLISECONDS);
+            Assert.fail("Expected the stop of the hanging runtime to time out");
+        } catch (RuntimeServiceException e) {
+            Assert.assertTrue(e.getMessage().contains(SlowRuntime.class.getName()));
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        Assert.assertEquals(fast.getState(), RuntimeState.INACTIVE);
+        Assert.assertEquals(hanging.getState(), RuntimeState.ACTIVE);
+        Assert.assertTrue(elapsed < 5000, "Stopping runtimes did not honour the timeout, took " + elapsed + " ms");
+    }
+
+    @Test
+    public void testStartRuntimesInDependencyOrder() throws RuntimeServiceException {
+        List<String> events = new CopyOnWriteArrayList<>();
+        RuntimeManager runtimeManager = new RuntimeManager();
+        runtimeManager.registerRuntime(new NamedRuntime("webapp", events, 0, "database"));
+        runtimeManager.registerRuntime(new NamedRuntime("database", events, 300));
+        runtimeManager.registerRuntime(new NamedRuntime("messaging", events, 300));
+
+        long startTime = System.nanoTime();
+        RuntimeLifecycleResult result = new CarbonRuntimeService(runtimeManager).startRuntimes(10, TimeUnit.SECONDS);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        Assert.assertTrue(result.isSuccessful());
+        Assert.assertEquals(result.getOutcomes().keySet().toArray(), new String[]{"webapp", "database", "messaging"});
+        Assert.assertTrue(events.indexOf("start database") < events.indexOf("start webapp"), events.toString());
+        Assert.assertTrue(elapsed < 550, "Independent runtimes were not started in parallel, took " + elapsed + " ms");
+    }
+
+    @Test
+    public void testStopRuntimesInReverseDependencyOrder() throws RuntimeServiceException {
+        List<String> events = new CopyOnWriteArrayList<>();
+        RuntimeManager runtimeManager = new RuntimeManager();
+        NamedRuntime database = new NamedRuntime("database", events, 0);
+        NamedRuntime webapp = new NamedRuntime("webapp", events, 200, "database");
+        runtimeManager.registerRuntime(database);
+        runtimeManager.registerRuntime(webapp);
+        database.setState(RuntimeState.ACTIVE);
+        webapp.setState(RuntimeState.ACTIVE);
+
+        new CarbonRuntimeService(runtimeManager).stopRuntimes(10, TimeUnit.SECONDS);
+        Assert.assertEquals(events, Arrays.asList("stop webapp", "stop database"));
+    }
+
+    @Test
+    public void testStartRuntimesContinuesAfterFailure() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        RuntimeManager runtimeManager = new RuntimeManager();
+        NamedRuntime failing = new NamedRuntime("database", events, 0);
+        failing.failOnStart = true;
+        runtimeManager.registerRuntime(failing);
+        runtimeManager.registerRuntime(new NamedRuntime("webapp", events, 0, "database"));
+        runtimeManager.registerRuntime(new NamedRuntime("messaging", events, 0));
+
+        try {
+            new CarbonRuntimeService(runtimeManager).startRuntimes();
+            Assert.fail("Expected the start of the failing runtime to be reported");
+        } catch (RuntimeLifecycleException e) {
+            RuntimeLifecycleResult result = e.getResult();
+            Assert.assertEquals(result.getFailedRuntimes(), Collections.singletonList("database"));
+            Assert.assertEquals(result.getOutcomes().get("webapp"), RuntimeLifecycleResult.Outcome.SKIPPED);
+            Assert.assertEquals(result.getOutcomes().get("messaging"), RuntimeLifecycleResult.Outcome.COMPLETED);
+        } catch (RuntimeServiceException e) {
+            Assert.fail("Expected a RuntimeLifecycleException", e);
+        }
+        Assert.assertEquals(events, Collections.singletonList("start messaging"));
+    }
+
+    @Test
+    public void testStartRuntimesWithDependencyCycle() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        RuntimeManager runtimeManager = new RuntimeManager();
+        runtimeManager.registerRuntime(new NamedRuntime("first", events, 0, "second"));
+        runtimeManager.registerRuntime(new NamedRuntime("second", events, 0, "first"));
+
+        try {
+            new CarbonRuntimeService(runtimeManager).startRuntimes(1, TimeUnit.SECONDS);
+            Assert.fail("Expected the dependency cycle to be reported");
+        } catch (RuntimeServiceException e) {
+            Assert.assertTrue(e.getMessage().contains("first") && e.getMessage().contains("second"));
+        }
+        Assert.assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testStandbyRuntimes() throws RuntimeServiceException {
+        List<String> events = new CopyOnWriteArrayList<>();
+        RuntimeManager runtimeManager = new RuntimeManager();
+        NamedRuntime primary = new NamedRuntime("primary", events, 0);
+        NamedRuntime standby = new NamedRuntime("standby", events, 0);
+        runtimeManager.registerRuntime(primary);
+        runtimeManager.registerRuntime(standby);
+        CarbonRuntimeService runtimeService = new CarbonRuntimeService(runtimeManager);
+
+        runtimeService.enterStandby(Collections.singletonList("standby"), 10, TimeUnit.SECONDS);
+        runtimeService.startRuntimes();
+        Assert.assertEquals(primary.getState(), RuntimeState.ACTIVE);
+        Assert.assertEquals(standby.getState(), RuntimeState.STANDBY);
+        Assert.assertEquals(runtimeManager.getRuntimes(RuntimeState.STANDBY), Collections.singletonList(standby));
+        Assert.assertEquals(events, Arrays.asList("warm up standby", "start primary"));
+
+        RuntimeLifecycleResult result = runtimeService.promoteRuntimes(Collections.singletonList("standby"), 10,
+                TimeUnit.SECONDS);
+        Assert.assertEquals(result.getOutcomes().get("standby"), RuntimeLifecycleResult.Outcome.COMPLETED);
+        Assert.assertEquals(standby.getState(), RuntimeState.ACTIVE);
+        Assert.assertEquals(events, Arrays.asList("warm up standby", "start primary", "start standby"));
+    }
+
+    @Test
+    public void testPromoteUnknownRuntime() {
+        RuntimeManager runtimeManager = new RuntimeManager();
+        runtimeManager.registerRuntime(new NamedRuntime("primary", new CopyOnWriteArrayList<>(), 0));
+
+        try {
+            new CarbonRuntimeService(runtimeManager).promoteRuntimes(Arrays.asList("primary", "missing"), 1,
+                    TimeUnit.SECONDS);
+            Assert.fail("Expected the unknown runtime to be reported");
+        } catch (RuntimeServiceException e) {
+            Assert.assertTrue(e.getMessage().contains("missing"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testBeginMaintenanceWaitsForInFlightRequests() throws RuntimeServiceException {
+        RuntimeManager runtimeManager = new RuntimeManager();
+        RuntimeMetricsRecorder metrics = new RuntimeMetricsRecorder();
+        NamedRuntime runtime = new NamedRuntime("webapp", new CopyOnWriteArrayList<>(), 0) {
+            @Override
+            public RuntimeMetrics getMetrics() {
+                return metrics;
+            }
+        };
+        runtimeManager.registerRuntime(runtime);
+
+        long requestStartTime = metrics.requestStarted();
+        Thread request = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            metrics.requestCompleted(requestStartTime, true);
+        });
+        request.start();
+
+        long startTime = System.nanoTime();
+        new CarbonRuntimeService(runtimeManager).beginMaintenance(10, TimeUnit.SECONDS);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        Assert.assertEquals(metrics.getInFlightRequests(), 0);
+        Assert.assertTrue(elapsed >= 250, "Maintenance did not wait for the in flight request, took " + elapsed
+                + " ms");
+    }
+
+    @Test
+    public void testDrainRuntimes() {
+        RuntimeManager runtimeManager = new RuntimeManager();
+        runtimeManager.registerRuntime(new CustomRuntime());
+        runtimeManager.registerRuntime(new CustomRuntime());
+
+        Assert.assertEquals(runtimeManager.drainRuntimes().size(), 2);
+        Assert.assertTrue(runtimeManager.getRuntimeList().isEmpty());
+    }
+
+    /**
+     * Runtime which takes the given time to stop.
+     */
+    private static class SlowRuntime extends CustomRuntime {
+        private final long stopTime;
+        private volatile RuntimeState state;
+
+        SlowRuntime(RuntimeState state, long stopTime) {
+            this.state = state;
+            this.stopTime = stopTime;
+        }
+
+        @Override
+        public void stop() throws RuntimeServiceException {
+            try {
+                Thread.sleep(stopTime);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            state = RuntimeState.INACTIVE;
+        }
+
+        @Override
+        public Enum<RuntimeState> getState() {
+            return state;
+        }
+    }
+
+    /**
+     * Runtime with a name and dependencies, which records its lifecycle events.
+     */
+    private static class NamedRuntime extends CustomRuntime {
+        private final String name;
+        private final Set<String> dependencies;
+        private final List<String> events;
+        private final long delay;
+        private volatile RuntimeState state = RuntimeState.INACTIVE;
+        private boolean failOnStart;
+
+        NamedRuntime(String name, List<String> events, long delay, String... dependencies) {
+            this.name = name;
+            this.events = events;
+            this.delay = delay;
+            this.dependencies = new HashSet<>(Arrays.asList(dependencies));
+        }
+
+        @Override
+        public void start() throws RuntimeServiceException {
+            if (failOnStart) {
+                throw new RuntimeServiceException("Failed to start " + name);
+            }
+            sleep();
+            events.add("start " + name);
+            state = RuntimeState.ACTIVE;
+        }
+
+        @Override
+        public void warmUp() throws RuntimeServiceException {
+            events.add("warm up " + name);
+        }
+
+        @Override
+        public void stop() throws RuntimeServiceException {
+            sleep();
+            events.add("stop " + name);
+            state = RuntimeState.INACTIVE;
+        }
+
+        private void sleep() {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public Enum<RuntimeState> getState() {
+            return state;
+        }
+
+        @Override
+        public void setState(RuntimeState runtimeState) {
+            state = runtimeState;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Set<String> getDependencies() {
+            return dependencies;
+        }
+    }
+}
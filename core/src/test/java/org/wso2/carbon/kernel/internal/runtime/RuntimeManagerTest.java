@@ -19,8 +19,14 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 import org.wso2.carbon.kernel.runtime.Runtime;
+import org.wso2.carbon.kernel.runtime.RuntimeState;
+import org.wso2.carbon.kernel.runtime.exception.RuntimeServiceException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * Test class to test org.wso2.carbon.kernel.internal.runtime.RuntimeManager.
@@ -50,4 +56,119 @@ public class RuntimeManagerTest {
         runtimeManager.unRegisterRuntime(runtime);
         Assert.assertTrue(runtimeManager.getRuntimeList().size() == 0);
     }
+
+    @Test
+    public void testRuntimeListIsSnapshot() throws InterruptedException {
+        RuntimeManager runtimeManager = new RuntimeManager();
+        for (int i = 0; i < 10; i++) {
+            runtimeManager.registerRuntime(new CustomRuntime());
+        }
+
+        CountDownLatch registered = new CountDownLatch(1);
+        Thread registrar = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                runtimeManager.registerRuntime(new CustomRuntime());
+                runtimeManager.unRegisterRuntime(runtimeManager.getRuntimeList().get(0));
+            }
+            registered.countDown();
+        });
+        registrar.start();
+        while (registered.getCount() > 0) {
+            int count = 0;
+            for (Runtime ignored : runtimeManager.getRuntimeList()) {
+                count++;
+            }
+            Assert.assertTrue(count >= 9);
+        }
+        registrar.join();
+
+        Assert.assertEquals(runtimeManager.getRuntimeList().size(), 10);
+    }
+
+    @Test
+    public void testGetRuntimesByType() {
+        RuntimeManager runtimeManager = new RuntimeManager();
+        StatefulRuntime statefulRuntime = new StatefulRuntime();
+        runtimeManager.registerRuntime(new CustomRuntime());
+        runtimeManager.registerRuntime(statefulRuntime);
+
+        Assert.assertEquals(runtimeManager.getRuntimes(StatefulRuntime.class),
+                Collections.singletonList(statefulRuntime));
+        Assert.assertEquals(runtimeManager.getRuntimes(CustomRuntime.class).size(), 2);
+    }
+
+    @Test
+    public void testStateIndexAndListeners() {
+        RuntimeManager runtimeManager = new RuntimeManager();
+        List<String> transitions = new ArrayList<>();
+        runtimeManager.addStateListener((runtime, previousState, newState) ->
+                transitions.add(previousState + "->" + newState));
+
+        StatefulRuntime statefulRuntime = new StatefulRuntime();
+        runtimeManager.registerRuntime(statefulRuntime);
+        Assert.assertEquals(runtimeManager.getRuntimes(RuntimeState.PENDING),
+                Collections.singletonList(statefulRuntime));
+
+        statefulRuntime.setState(RuntimeState.ACTIVE);
+        runtimeManager.refreshState(statefulRuntime);
+        runtimeManager.refreshState(statefulRuntime);
+        Assert.assertTrue(runtimeManager.getRuntimes(RuntimeState.PENDING).isEmpty());
+        Assert.assertEquals(runtimeManager.getRuntimes(RuntimeState.ACTIVE),
+                Collections.singletonList(statefulRuntime));
+        Assert.assertEquals(runtimeManager.getRuntimeState(statefulRuntime), RuntimeState.ACTIVE);
+        Assert.assertEquals(transitions, Arrays.asList("null->PENDING", "PENDING->ACTIVE"));
+
+        runtimeManager.unRegisterRuntime(statefulRuntime);
+        Assert.assertTrue(runtimeManager.getRuntimes(RuntimeState.ACTIVE).isEmpty());
+        Assert.assertNull(runtimeManager.getRuntimeState(statefulRuntime));
+    }
+
+    @Test
+    public void testRefreshStateAfterUnRegister() {
+        RuntimeManager runtimeManager = new RuntimeManager();
+        List<String> transitions = new ArrayList<>();
+        runtimeManager.addStateListener((runtime, previousState, newState) ->
+                transitions.add(previousState + "->" + newState));
+        StatefulRuntime statefulRuntime = new StatefulRuntime() {
+            @Override
+            public Enum<RuntimeState> getState() {
+                // Un-registers the runtime while its state is being refreshed, as a concurrent stop would.
+                if (super.getState() == RuntimeState.ACTIVE) {
+                    runtimeManager.unRegisterRuntime(this);
+                }
+                return super.getState();
+            }
+        };
+        runtimeManager.registerRuntime(statefulRuntime);
+
+        statefulRuntime.setState(RuntimeState.ACTIVE);
+        runtimeManager.refreshState(statefulRuntime);
+        runtimeManager.refreshState(statefulRuntime);
+        Assert.assertNull(runtimeManager.getRuntimeState(statefulRuntime));
+        Assert.assertTrue(runtimeManager.getRuntimes(RuntimeState.ACTIVE).isEmpty());
+        Assert.assertTrue(runtimeManager.getRuntimes(RuntimeState.PENDING).isEmpty());
+        Assert.assertEquals(transitions, Collections.singletonList("null->PENDING"));
+    }
+
+    /**
+     * Runtime which keeps the state set on it.
+     */
+    private static class StatefulRuntime extends CustomRuntime {
+        private volatile RuntimeState state = RuntimeState.PENDING;
+
+        @Override
+        public void init() throws RuntimeServiceException {
+            state = RuntimeState.INACTIVE;
+        }
+
+        @Override
+        public Enum<RuntimeState> getState() {
+            return state;
+        }
+
+        @Override
+        public void setState(RuntimeState runtimeState) {
+            state = runtimeState;
+        }
+    }
 }
@@ -18,6 +18,7 @@ package org.wso2.carbon.kernel.jmx;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.osgi.framework.Bundle;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 import org.wso2.carbon.kernel.CarbonServerInfo;
@@ -25,6 +26,10 @@ import org.wso2.carbon.kernel.Constants;
 import org.wso2.carbon.kernel.internal.runtime.CarbonRuntimeService;
 import org.wso2.carbon.kernel.internal.runtime.RuntimeManager;
 
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+
 import javax.management.InstanceNotFoundException;
 import javax.management.IntrospectionException;
 import javax.management.MBeanServer;
@@ -80,4 +85,86 @@ public class MBeanRegistratorTest {
         MBeanRegistrator.unregisterAllMBeans();
         Assert.assertTrue(mBeanServer.getMBeanCount() == initialMBeanCount);
     }
+
+    @Test(dependsOnMethods = {"testUnregisterAllMBeans"})
+    public void testRegisterMBeans() {
+        MBeanServer mBeanServer = MBeanManagementFactory.getMBeanServer();
+        MBeanRegistrator.registerMBeans(Arrays.asList(new First(), new Second()));
+        Assert.assertEquals(mBeanServer.getMBeanCount().intValue(), initialMBeanCount + 2);
+
+        MBeanRegistrator.unregisterMBean(new First());
+        Assert.assertEquals(mBeanServer.getMBeanCount().intValue(), initialMBeanCount + 1);
+        MBeanRegistrator.unregisterMBeans(Arrays.asList(new First(), new Second()));
+        Assert.assertEquals(mBeanServer.getMBeanCount().intValue(), initialMBeanCount);
+    }
+
+    @Test(dependsOnMethods = {"testRegisterMBeans"})
+    public void testRegisterMBeansRollback() {
+        MBeanServer mBeanServer = MBeanManagementFactory.getMBeanServer();
+        try {
+            MBeanRegistrator.registerMBeans(Arrays.asList(new First(), new CarbonServerInfo(), new Second()));
+            Assert.fail("Registering a non compliant MBean should fail");
+        } catch (RuntimeException e) {
+            Assert.assertEquals(mBeanServer.getMBeanCount().intValue(), initialMBeanCount);
+        }
+        MBeanRegistrator.registerMBean(new First());
+        MBeanRegistrator.unregisterAllMBeans();
+        Assert.assertEquals(mBeanServer.getMBeanCount().intValue(), initialMBeanCount);
+    }
+
+    @Test(dependsOnMethods = {"testRegisterMBeansRollback"})
+    public void testUnregisterMBeansOfBundle() throws MalformedObjectNameException {
+        MBeanServer mBeanServer = MBeanManagementFactory.getMBeanServer();
+        Bundle firstBundle = createBundle(1);
+        Bundle secondBundle = createBundle(2);
+        MBeanRegistrator.registerMBean(firstBundle, new First());
+        MBeanRegistrator.registerMBeans(secondBundle, Collections.singletonList(new Second()));
+        Assert.assertEquals(mBeanServer.getMBeanCount().intValue(), initialMBeanCount + 2);
+
+        MBeanRegistrator.unregisterMBeans(secondBundle);
+        Assert.assertEquals(mBeanServer.getMBeanCount().intValue(), initialMBeanCount + 1);
+        Assert.assertTrue(mBeanServer.isRegistered(
+                new ObjectName(Constants.SERVER_PACKAGE + ":type=MBeanRegistratorTest$First")));
+
+        MBeanRegistrator.unregisterMBeans(firstBundle);
+        Assert.assertEquals(mBeanServer.getMBeanCount().intValue(), initialMBeanCount);
+        Assert.assertEquals(MBeanRegistrator.getMBeanCount(), 0);
+    }
+
+    private static Bundle createBundle(long bundleId) {
+        return (Bundle) Proxy.newProxyInstance(MBeanRegistratorTest.class.getClassLoader(), new Class[]{Bundle.class},
+                (proxy, method, args) -> {
+                    if (!"getBundleId".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return bundleId;
+                });
+    }
+
+    /**
+     * MXBean interface of the test MBeans.
+     */
+    public interface SampleMXBean {
+        String getName();
+    }
+
+    /**
+     * Test MBean.
+     */
+    public static class First implements SampleMXBean {
+        @Override
+        public String getName() {
+            return "first";
+        }
+    }
+
+    /**
+     * Test MBean.
+     */
+    public static class Second implements SampleMXBean {
+        @Override
+        public String getName() {
+            return "second";
+        }
+    }
 }
@@ -0,0 +1,196 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.kernel.jmx.security;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.remote.JMXPrincipal;
+import javax.security.auth.Subject;
+import javax.security.auth.callback.Callback;
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.auth.callback.NameCallback;
+import javax.security.auth.callback.PasswordCallback;
+import javax.security.auth.login.AppConfigurationEntry;
+import javax.security.auth.login.Configuration;
+import javax.security.auth.login.FailedLoginException;
+import javax.security.auth.login.LoginException;
+import javax.security.auth.spi.LoginModule;
+
+/**
+ * Tests the caching of the JMX authentications.
+ *
+ * @since 5.3.1
+ */
+public class CarbonJMXAuthenticatorTest {
+    private static final AtomicInteger logins = new AtomicInteger();
+    private static volatile String password;
+
+    private final AtomicLong ticker = new AtomicLong();
+    private final Configuration loginConfiguration = new Configuration() {
+        @Override
+        public AppConfigurationEntry[] getAppConfigurationEntry(String name) {
+            return new AppConfigurationEntry[]{new AppConfigurationEntry(TestLoginModule.class.getName(),
+                    AppConfigurationEntry.LoginModuleControlFlag.REQUIRED, Collections.emptyMap())};
+        }
+    };
+
+    @BeforeMethod
+    public void reset() {
+        logins.set(0);
+        password = "secret";
+    }
+
+    @Test
+    public void testCachedAuthentication() {
+        CarbonJMXAuthenticator authenticator = new CarbonJMXAuthenticator(10, 1000, loginConfiguration, ticker::get);
+        Subject subject = authenticator.authenticate(new String[]{"admin", "secret"});
+        Assert.assertEquals(subject.getPrincipals(), Collections.singleton(new JMXPrincipal("admin")));
+        Assert.assertSame(authenticator.authenticate(new String[]{"admin", "secret"}), subject);
+        Assert.assertEquals(logins.get(), 1);
+        Assert.assertEquals(authenticator.getCacheHits(), 1);
+        Assert.assertEquals(authenticator.getCacheMisses(), 1);
+        Assert.assertEquals(authenticator.getLogins(), 1);
+        Assert.assertEquals(authenticator.getCachedLogins(), 1);
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        authenticator.authenticate(new String[]{"admin", "secret"});
+        Assert.assertEquals(logins.get(), 2);
+    }
+
+    @Test
+    public void testCredentialChange() {
+        CarbonJMXAuthenticator authenticator = new CarbonJMXAuthenticator(10, 1000, loginConfiguration, ticker::get);
+        authenticator.authenticate(new String[]{"admin", "secret"});
+
+        try {
+            authenticator.authenticate(new String[]{"admin", "guess"});
+            Assert.fail("Authenticated with invalid credentials");
+        } catch (SecurityException e) {
+            Assert.assertEquals(authenticator.getFailedLogins(), 1);
+        }
+
+        password = "changed";
+        authenticator.authenticate(new String[]{"admin", "changed"});
+        Assert.assertEquals(logins.get(), 3);
+        try {
+            authenticator.authenticate(new String[]{"admin", "secret"});
+            Assert.fail("Authenticated with the previous credentials");
+        } catch (SecurityException e) {
+            Assert.assertEquals(authenticator.getFailedLogins(), 2);
+        }
+
+        authenticator.invalidate("admin");
+        Assert.assertEquals(authenticator.getCachedLogins(), 0);
+    }
+
+    @Test
+    public void testPasswordRevoked() {
+        CarbonJMXAuthenticator authenticator = new CarbonJMXAuthenticator(10, 1000, loginConfiguration, ticker::get);
+        CarbonJMXAuthenticator otherAuthenticator =
+                new CarbonJMXAuthenticator(10, 1000, loginConfiguration, ticker::get);
+        authenticator.authenticate(new String[]{"admin", "secret"});
+        otherAuthenticator.authenticate(new String[]{"admin", "secret"});
+        otherAuthenticator.authenticate(new String[]{"monitor", "secret"});
+
+        // Without an invalidation, the revoked password is accepted from the cache until the entry expires.
+        password = "changed";
+        authenticator.authenticate(new String[]{"admin", "secret"});
+        Assert.assertEquals(logins.get(), 3);
+
+        CarbonJMXAuthenticator.invalidateCachedAuthentication("admin");
+        Assert.assertEquals(authenticator.getCachedLogins(), 0);
+        Assert.assertEquals(otherAuthenticator.getCachedLogins(), 1);
+        try {
+            authenticator.authenticate(new String[]{"admin", "secret"});
+            Assert.fail("Authenticated with the revoked credentials");
+        } catch (SecurityException e) {
+            Assert.assertEquals(logins.get(), 4);
+        }
+
+        CarbonJMXAuthenticator.invalidateCachedAuthentications();
+        Assert.assertEquals(otherAuthenticator.getCachedLogins(), 0);
+    }
+
+    @Test
+    public void testCacheSize() {
+        CarbonJMXAuthenticator authenticator = new CarbonJMXAuthenticator(1, 1000, loginConfiguration, ticker::get);
+        authenticator.authenticate(new String[]{"admin", "secret"});
+        authenticator.authenticate(new String[]{"monitor", "secret"});
+        Assert.assertEquals(authenticator.getCachedLogins(), 1);
+        authenticator.authenticate(new String[]{"admin", "secret"});
+        Assert.assertEquals(logins.get(), 3);
+    }
+
+    @Test
+    public void testCacheDisabled() {
+        CarbonJMXAuthenticator authenticator = new CarbonJMXAuthenticator(10, 0, loginConfiguration, ticker::get);
+        authenticator.authenticate(new String[]{"admin", "secret"});
+        authenticator.authenticate(new String[]{"admin", "secret"});
+        Assert.assertEquals(logins.get(), 2);
+        Assert.assertEquals(authenticator.getCachedLogins(), 0);
+    }
+
+    /**
+     * Login module which accepts any user with the current password.
+     */
+    public static class TestLoginModule implements LoginModule {
+        private CallbackHandler callbackHandler;
+
+        @Override
+        public void initialize(Subject subject, CallbackHandler callbackHandler, Map<String, ?> sharedState,
+                               Map<String, ?> options) {
+            this.callbackHandler = callbackHandler;
+        }
+
+        @Override
+        public boolean login() throws LoginException {
+            NameCallback nameCallback = new NameCallback("username");
+            PasswordCallback passwordCallback = new PasswordCallback("password", false);
+            try {
+                callbackHandler.handle(new Callback[]{nameCallback, passwordCallback});
+            } catch (Exception e) {
+                throw new LoginException(e.getMessage());
+            }
+            logins.incrementAndGet();
+            if (!password.equals(new String(passwordCallback.getPassword()))) {
+                throw new FailedLoginException("Invalid password");
+            }
+            return true;
+        }
+
+        @Override
+        public boolean commit() {
+            return true;
+        }
+
+        @Override
+        public boolean abort() {
+            return true;
+        }
+
+        @Override
+        public boolean logout() {
+            return true;
+        }
+    }
+}
@@ -104,6 +104,10 @@ if ""%1""==""debug""    goto commandDebug
 if ""%1""==""-debug""   goto commandDebug
 if ""%1""==""--debug""  goto commandDebug
 
+if ""%1""==""train-cds""   goto commandTrainCds
+if ""%1""==""-train-cds""  goto commandTrainCds
+if ""%1""==""--train-cds"" goto commandTrainCds
+
 if ""%1""==""version""   goto commandVersion
 if ""%1""==""-version""  goto commandVersion
 if ""%1""==""--version"" goto commandVersion
@@ -131,6 +135,11 @@ goto findJdk
 echo Please specify the debug port after the --debug option
 goto end
 
+rem ----- commandTrainCds ------------------------------------------------------
+:commandTrainCds
+set TRAIN_CDS=true
+goto findJdk
+
 rem ----- commandLifecycle -----------------------------------------------------
 :commandLifecycle
 goto findJdk
@@ -176,7 +185,37 @@ set JAVA_ENDORSED="%CARBON_HOME%\bin\bootstrap\endorsed";"%JAVA_HOME%\jre\lib\en
 
 if %jver% LSS 11000 set JAVA_VER_BASED_OPTS="-Djava.endorsed.dirs=%JAVA_ENDORSED_DIRS%"
 
-set CMD_LINE_ARGS=-Xbootclasspath/a:%CARBON_XBOOTCLASSPATH% -Xms256m -Xmx1024m -XX:+HeapDumpOnOutOfMemoryError -XX:HeapDumpPath="%RUNTIME_HOME%\logs\heap-dump.hprof" -Dcom.sun.management.jmxremote -classpath %CARBON_CLASSPATH% %JAVA_OPTS% %JAVA_VER_BASED_OPTS% -Dcarbon.home="%CARBON_HOME%" -Dwso2.runtime.path="%RUNTIME_HOME%" -Dwso2.runtime="%RUNTIME%" -Djava.command="%JAVA_HOME%\bin\java" -Djava.opts="%JAVA_OPTS%" -Djava.io.tmpdir="%CARBON_HOME%\tmp" -Dcarbon.classpath=%CARBON_CLASSPATH% -Dfile.encoding=UTF8
+rem Lets the framework leak detector of the in-process restart inspect the JVM wide URL factories.
+for /f tokens^=2^ delims^=.-_+^" %%j in ('java -fullversion 2^>^&1') do set "jmajor=%%j"
+if not "%jmajor%"=="1" set JAVA_VER_BASED_OPTS=%JAVA_VER_BASED_OPTS% --add-opens=java.base/java.net=ALL-UNNAMED
+
+rem Application class data sharing archive. Run the server once with the train-cds option to create it, later runs use
+rem it until the launcher detects a change in the installation and removes it.
+set CDS_ARCHIVE=%RUNTIME_HOME%\cds\carbon.jsa
+set CDS_OPTS=
+if "%jmajor%"=="1" goto noCds
+if %jmajor% LSS 13 goto noCds
+if "%TRAIN_CDS%"=="true" goto trainCds
+if exist "%CDS_ARCHIVE%" set CDS_OPTS=-XX:SharedArchiveFile="%CDS_ARCHIVE%" -Xshare:auto
+goto setCdsArchive
+
+:trainCds
+if not exist "%RUNTIME_HOME%\cds" mkdir "%RUNTIME_HOME%\cds"
+del /q "%CDS_ARCHIVE%" "%CDS_ARCHIVE%.fingerprint" "%CDS_ARCHIVE%.stamp" 2>NUL
+set CDS_OPTS=-XX:ArchiveClassesAtExit="%CDS_ARCHIVE%" -Dcarbon.cds.train=true
+
+:setCdsArchive
+set CDS_OPTS=%CDS_OPTS% -Dcarbon.cds.archive="%CDS_ARCHIVE%"
+goto cdsDone
+
+:noCds
+if not "%TRAIN_CDS%"=="true" goto cdsDone
+echo [ERROR] Class data sharing archives can only be created with JDK 13 or later
+goto end
+
+:cdsDone
+
+set CMD_LINE_ARGS=-Xbootclasspath/a:%CARBON_XBOOTCLASSPATH% -Xms256m -Xmx1024m -XX:+HeapDumpOnOutOfMemoryError -XX:HeapDumpPath="%RUNTIME_HOME%\logs\heap-dump.hprof" -Dcom.sun.management.jmxremote -classpath %CARBON_CLASSPATH% %JAVA_OPTS% %CDS_OPTS% %JAVA_VER_BASED_OPTS% -Dcarbon.home="%CARBON_HOME%" -Dwso2.runtime.path="%RUNTIME_HOME%" -Dwso2.runtime="%RUNTIME%" -Djava.command="%JAVA_HOME%\bin\java" -Djava.opts="%JAVA_OPTS%" -Djava.io.tmpdir="%CARBON_HOME%\tmp" -Dcarbon.classpath=%CARBON_CLASSPATH% -Dfile.encoding=UTF8
 
 :runJava
 echo JAVA_HOME environment variable is set to %JAVA_HOME%
@@ -158,6 +158,8 @@ do
           CMD="restart"
     elif [ "$c" = "--test" ] || [ "$c" = "-test" ] || [ "$c" = "test" ]; then
           CMD="test"
+    elif [ "$c" = "--train-cds" ] || [ "$c" = "-train-cds" ] || [ "$c" = "train-cds" ]; then
+          CMD="train-cds"
     else
         args="$args $c"
     fi
@@ -219,6 +221,24 @@ if [ $java_version_formatted -lt 0108 ] || [ $java_version_formatted -gt 1700 ];
    echo " [ERROR] CARBON is supported only between JDK 1.8 and 17"
 fi
 
+# Application class data sharing archive. Run the server once with the train-cds option to create it, later runs use it
+# until the launcher detects a change in the installation and removes it.
+CDS_ARCHIVE="$RUNTIME_HOME/cds/carbon.jsa"
+CDS_OPTS=""
+if [ $java_version_formatted -ge 1300 ]; then
+    if [ "$CMD" = "train-cds" ]; then
+        mkdir -p "$RUNTIME_HOME/cds"
+        rm -f "$CDS_ARCHIVE" "$CDS_ARCHIVE.fingerprint" "$CDS_ARCHIVE.stamp"
+        CDS_OPTS="-XX:ArchiveClassesAtExit=$CDS_ARCHIVE -Dcarbon.cds.train=true"
+    elif [ -f "$CDS_ARCHIVE" ]; then
+        CDS_OPTS="-XX:SharedArchiveFile=$CDS_ARCHIVE -Xshare:auto"
+    fi
+    CDS_OPTS="$CDS_OPTS -Dcarbon.cds.archive=$CDS_ARCHIVE"
+elif [ "$CMD" = "train-cds" ]; then
+    echo " [ERROR] Class data sharing archives can only be created with JDK 13 or later"
+    exit 1
+fi
+
 CARBON_XBOOTCLASSPATH=""
 for f in "$CARBON_HOME"/bin/bootstrap/xboot/*.jar
 do
@@ -287,6 +307,10 @@ fi
 if [ $java_version_formatted -eq 0900 ] || [ $java_version_formatted -eq 1000 ]; then
     JAVA_VER_BASED_OPTS="--add-modules=java.activation,java.xml.bind"
 fi
+if [ $java_version_formatted -ge 0900 ]; then
+    # Lets the framework leak detector of the in-process restart inspect the JVM wide URL factories.
+    JAVA_VER_BASED_OPTS="$JAVA_VER_BASED_OPTS --add-opens=java.base/java.net=ALL-UNNAMED"
+fi
 
 while [ "$status" = "$START_EXIT_STATUS" ]
 do
@@ -296,6 +320,7 @@ do
     -XX:+HeapDumpOnOutOfMemoryError \
     -XX:HeapDumpPath="$RUNTIME_HOME/logs/heap-dump.hprof" \
     $JAVA_OPTS \
+    $CDS_OPTS \
     -classpath "$CARBON_CLASSPATH" \
     $JAVA_VER_BASED_OPTS \
     -Djava.io.tmpdir="$CARBON_HOME/tmp" \
@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.SynchronousBundleListener;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the time taken by each bundle to stop while the OSGi framework shuts down.
+ * <p>
+ * The framework stops the bundles in the reverse order of their start levels and fires a synchronous
+ * {@link BundleEvent#STOPPING} event before calling the bundle activator and deactivating its components, followed by
+ * a {@link BundleEvent#STOPPED} event. The time between the two events is the stop time of the bundle.
+ *
+ * @since 5.3.1
+ */
+class BundleStopTracker implements SynchronousBundleListener {
+
+    private static final Logger logger = Logger.getLogger(BundleStopTracker.class.getName());
+    private static final int SLOWEST_BUNDLES_TO_REPORT = 5;
+
+    private final long slowBundleThresholdNanos;
+    private final Map<Bundle, Long> stoppingBundles = new ConcurrentHashMap<>();
+    private final Map<Bundle, Long> stopDurations = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param slowBundleThresholdMillis bundles taking longer than this to stop are logged as warnings
+     */
+    BundleStopTracker(long slowBundleThresholdMillis) {
+        this.slowBundleThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowBundleThresholdMillis);
+    }
+
+    @Override
+    public void bundleChanged(BundleEvent event) {
+        Bundle bundle = event.getBundle();
+        if (event.getType() == BundleEvent.STOPPING) {
+            stoppingBundles.put(bundle, System.nanoTime());
+        } else if (event.getType() == BundleEvent.STOPPED) {
+            Long stopping = stoppingBundles.remove(bundle);
+            if (stopping == null) {
+                return;
+            }
+            long duration = System.nanoTime() - stopping;
+            stopDurations.put(bundle, duration);
+
+            if (duration > slowBundleThresholdNanos) {
+                logger.log(Level.WARNING, "Bundle " + describe(bundle) + " took " + toMillis(duration)
+                        + " ms to stop.");
+            } else if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "Bundle " + describe(bundle) + " stopped in " + toMillis(duration) + " ms.");
+            }
+        }
+    }
+
+    /**
+     * Returns the bundles which have started stopping but have not stopped yet.
+     *
+     * @return descriptions of the bundles which are still stopping
+     */
+    List<String> getStoppingBundles() {
+        return stoppingBundles.keySet().stream()
+                .map(BundleStopTracker::describe)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the stop time of the bundles which took the longest to stop, slowest first.
+     *
+     * @param limit maximum number of bundles to return
+     * @return descriptions of the stopped bundles mapped to their stop times in milliseconds
+     */
+    List<Map.Entry<String, Long>> getSlowestBundles(int limit) {
+        List<Map.Entry<Bundle, Long>> durations = new ArrayList<>(stopDurations.entrySet());
+        durations.sort(Map.Entry.<Bundle, Long>comparingByValue().reversed());
+        return durations.stream()
+                .limit(limit)
+                .map(entry -> new AbstractMap.SimpleImmutableEntry<>(describe(entry.getKey()),
+                        toMillis(entry.getValue())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Logs the bundles which took the longest to stop.
+     */
+    void logSummary() {
+        if (!logger.isLoggable(Level.FINE) || stopDurations.isEmpty()) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder("Stopped " + stopDurations.size() + " bundles. Slowest bundles:");
+        getSlowestBundles(SLOWEST_BUNDLES_TO_REPORT).forEach(entry ->
+                summary.append(System.lineSeparator()).append("  ").append(entry.getKey()).append(": ")
+                        .append(entry.getValue()).append(" ms"));
+        logger.log(Level.FINE, summary.toString());
+    }
+
+    private static String describe(Bundle bundle) {
+        return bundle.getSymbolicName() + " [" + bundle.getBundleId() + "]";
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -19,18 +19,37 @@ import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.BundleException;
 import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
 import org.osgi.framework.launch.Framework;
 import org.osgi.framework.launch.FrameworkFactory;
-import org.wso2.carbon.launcher.config.CarbonInitialBundle;
 import org.wso2.carbon.launcher.config.CarbonLaunchConfig;
+import org.wso2.carbon.launcher.utils.Utils;
 
+import java.io.IOException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import static org.wso2.carbon.launcher.Constants.CARBON_INITIAL_BUNDLES_INSTALL_THREADS;
+import static org.wso2.carbon.launcher.Constants.CARBON_OSGI_WARM_START;
+import static org.wso2.carbon.launcher.Constants.CARBON_SHUTDOWN_DEADLINE;
+import static org.wso2.carbon.launcher.Constants.CARBON_SHUTDOWN_SLOW_BUNDLE_THRESHOLD;
+import static org.wso2.carbon.launcher.Constants.CARBON_SHUTDOWN_TIMEOUT;
 import static org.wso2.carbon.launcher.Constants.CARBON_START_TIME;
+import static org.wso2.carbon.launcher.Constants.EQUINOX_START_LEVEL_THREAD_COUNT;
+import static org.wso2.carbon.launcher.Constants.OSGI_CLEAN;
 
 /**
  * Launches a Carbon instance.
@@ -40,17 +59,39 @@ import static org.wso2.carbon.launcher.Constants.CARBON_START_TIME;
 public class CarbonServer {
 
     private static final Logger logger = Logger.getLogger(CarbonServer.class.getName());
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT_SECONDS = 180;
+    private static final long DEFAULT_SLOW_BUNDLE_THRESHOLD_MILLIS = 1000;
+    private static final long FRAMEWORK_RELEASE_TIMEOUT_MILLIS = 10000;
+    private static final long CDS_TRAINING_TIMEOUT_MINUTES = 5;
 
     private CarbonLaunchConfig config;
     private Framework framework;
+    private URLClassLoader fwkClassLoader;
+    private final ClassDataSharingArchive cdsArchive;
     private ServerStatus serverStatus;
+    private StartupTimeline startupTimeline;
+    private FrameworkStorageFingerprint storageFingerprint;
+    private CountDownLatch beginningStartLevel;
+
     /**
      * Constructor.
      *
      * @param config Carbon launcher configuration
      */
     public CarbonServer(CarbonLaunchConfig config) {
+        this(config, new StartupTimeline());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param config          Carbon launcher configuration
+     * @param startupTimeline timeline to which the startup phases of this server are recorded
+     */
+    public CarbonServer(CarbonLaunchConfig config, StartupTimeline startupTimeline) {
         this.config = config;
+        this.startupTimeline = startupTimeline;
+        this.cdsArchive = ClassDataSharingArchive.fromSystemProperties();
     }
 
     /**
@@ -65,22 +106,35 @@ public class CarbonServer {
 
         // Sets the server start time.
         System.setProperty(CARBON_START_TIME, Long.toString(System.currentTimeMillis()));
+        // Clears the deadline of a previous shutdown, in case this server instance is restarted.
+        System.clearProperty(CARBON_SHUTDOWN_DEADLINE);
 
         try {
             // Creates an OSGi framework instance.
-            ClassLoader fwkClassLoader = createOSGiFwkClassLoader();
+            fwkClassLoader = createOSGiFwkClassLoader();
             FrameworkFactory fwkFactory = loadOSGiFwkFactory(fwkClassLoader);
-            framework = fwkFactory.newFramework(config.getProperties());
+            framework = fwkFactory.newFramework(getOSGiFwkProperties());
+            startupTimeline.checkpoint(StartupTimeline.FRAMEWORK_LOAD);
 
             setServerCurrentStatus(ServerStatus.STARTING);
             // Notify Carbon server start.
             dispatchEvent(CarbonServerEvent.STARTING);
+            startupTimeline.checkpoint(StartupTimeline.SERVER_LISTENERS);
+            validateCdsArchive();
 
             // Initialize and start OSGi framework.
             initAndStartOSGiFramework(framework);
+            startupTimeline.checkpoint(StartupTimeline.FRAMEWORK_START);
 
             // Loads initial bundles listed in the launch.properties file.
             loadInitialBundles(framework.getBundleContext());
+            startupTimeline.checkpoint(StartupTimeline.INITIAL_BUNDLES);
+            // The framework moves to its beginning start level asynchronously, while the initial bundles are loaded,
+            //  so the start level phase is recorded after the initial bundles phase, once both have completed.
+            if (awaitBeginningStartLevel(framework)) {
+                startupTimeline.checkpoint(StartupTimeline.START_LEVEL);
+            }
+            storeStorageFingerprint();
 
             setServerCurrentStatus(ServerStatus.STARTED);
             // This thread waits until the OSGi framework comes to a complete shutdown.
@@ -96,7 +150,77 @@ public class CarbonServer {
     }
 
     /**
-     * Stop this Carbon server instance.
+     * Restarts this Carbon server instance in the same JVM. This method returns only after the restarted server
+     * instance stops completely.
+     * <p>
+     * The current OSGi framework is stopped and a new framework instance is created with a new class loader, so the
+     * JIT compiled code and the class data of the launcher and the JDK are kept. Before the new framework is
+     * started, the class loader of the stopped framework must be garbage collected. Otherwise the server is not
+     * restarted, and a report of the objects which may keep the class loader reachable is logged and written to the
+     * {@value Constants#FRAMEWORK_LEAK_REPORT_FILE} file, so that the caller can fall back to a JVM restart.
+     *
+     * @param config Carbon launcher configuration used to start the new framework
+     * @return true if the server was restarted, false if the stopped framework could not be released
+     * @throws Exception if error occurred
+     */
+    public boolean restart(CarbonLaunchConfig config) throws Exception {
+        logger.log(Level.INFO, "Restarting the Carbon server instance in the same JVM.");
+        stop();
+        if (!releaseFramework()) {
+            return false;
+        }
+
+        this.config = config;
+        this.startupTimeline = new StartupTimeline();
+        start();
+        return true;
+    }
+
+    /**
+     * Drops the references to the stopped OSGi framework and waits until its class loader is garbage collected.
+     *
+     * @return true if the class loader of the framework was garbage collected
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private boolean releaseFramework() throws InterruptedException {
+        if (fwkClassLoader == null) {
+            return true;
+        }
+
+        FrameworkLeakDetector leakDetector = new FrameworkLeakDetector(fwkClassLoader);
+        try {
+            fwkClassLoader.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to close the OSGi framework class loader.", e);
+        }
+        framework = null;
+        fwkClassLoader = null;
+
+        if (leakDetector.awaitCollection(FRAMEWORK_RELEASE_TIMEOUT_MILLIS)) {
+            if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "Released the class loader of the stopped OSGi framework.");
+            }
+            return true;
+        }
+
+        String report = leakDetector.createReport();
+        logger.log(Level.WARNING, "Unable to restart the server in the same JVM. " + report);
+        String runtimePath = System.getProperty(Constants.RUNTIME_PATH);
+        if (runtimePath != null) {
+            Path reportFile = Paths.get(runtimePath, "logs", Constants.FRAMEWORK_LEAK_REPORT_FILE);
+            try {
+                Files.createDirectories(reportFile.getParent());
+                Files.write(reportFile, report.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Unable to write the framework leak report to " + reportFile, e);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stop this Carbon server instance. This method returns after the OSGi framework stops completely or the shutdown
+     * timeout configured with the {@value Constants#CARBON_SHUTDOWN_TIMEOUT} launch property elapses.
      */
     public void stop() {
         if (!isFrameworkActive()) {
@@ -107,48 +231,119 @@ public class CarbonServer {
             logger.log(Level.FINE, "Stopping the OSGi framework.");
         }
 
+        // The deadline is published so that the Carbon kernel can bound the time it spends on stopping the
+        //  runtimes, leaving the remainder for the bundles.
+        long shutdownTimeout = getLongProperty(CARBON_SHUTDOWN_TIMEOUT, DEFAULT_SHUTDOWN_TIMEOUT_SECONDS);
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(shutdownTimeout);
+        System.setProperty(CARBON_SHUTDOWN_DEADLINE, Long.toString(deadline));
+
+        // The framework stops the bundles in the reverse order of their start levels. The tracker records how long
+        //  each of them takes to stop.
+        BundleStopTracker stopTracker = new BundleStopTracker(
+                getLongProperty(CARBON_SHUTDOWN_SLOW_BUNDLE_THRESHOLD, DEFAULT_SLOW_BUNDLE_THRESHOLD_MILLIS));
+        framework.getBundleContext().addBundleListener(stopTracker);
+
         // Framework.stop() method returns before the framework shutdown. But this.stop() method should only return
-        //  after framework stops completely. Therefore we invokes the framework.stop() method in a new
-        //  thread and this thread waits till the framework stops completely using the framework.waitForStop() method.
-        new Thread() {
-            public void run() {
-                try {
-                    framework.stop();
-                } catch (BundleException e) {
-                    logger.log(Level.SEVERE, e.getMessage(), e);
-                    throw new RuntimeException(e);
-                }
+        //  after framework stops completely or the shutdown deadline is reached. Therefore we invokes the
+        //  framework.stop() method in a new thread and this thread waits till the framework stops completely using
+        //  the framework.waitForStop() method.
+        Thread shutdownThread = new Thread(() -> {
+            try {
+                framework.stop();
+            } catch (BundleException e) {
+                logger.log(Level.SEVERE, e.getMessage(), e);
+                throw new RuntimeException(e);
             }
-        }.start();
-
+        }, "carbon-shutdown");
+        shutdownThread.setDaemon(true);
+        shutdownThread.start();
 
         try {
-            FrameworkEvent event = framework.waitForStop(1000 * 60 * 3);
+            FrameworkEvent event = framework.waitForStop(Math.max(1, deadline - System.currentTimeMillis()));
             if (event.getType() == FrameworkEvent.WAIT_TIMEDOUT) {
-                if (logger.isLoggable(Level.FINE)) {
-                    logger.log(Level.FINE, "OSGi framework did not stop during the given time.");
-                }
+                logger.log(Level.WARNING, "OSGi framework did not stop within " + shutdownTimeout
+                        + " seconds. Bundles still stopping: " + stopTracker.getStoppingBundles());
             }
         } catch (InterruptedException e) {
             logger.log(Level.SEVERE, e.getMessage(), e);
             throw new RuntimeException(e);
+        } finally {
+            stopTracker.logSummary();
+        }
+    }
+
+    /**
+     * Returns the value of the given launch property as a long.
+     *
+     * @param key          launch property key
+     * @param defaultValue value returned if the property is not set
+     * @return property value
+     */
+    private long getLongProperty(String key, long defaultValue) {
+        String value = config.getProperties().get(key);
+        if (Utils.isNullOrEmpty(value)) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "Invalid value " + value + " for " + key + ", using " + defaultValue + ".");
+            return defaultValue;
         }
     }
 
+    /**
+     * Returns the value of the given launch property as a positive int.
+     *
+     * @param key          launch property key
+     * @param defaultValue value returned if the property is not set, or is not a positive int
+     * @return property value
+     */
+    private int getPositiveIntProperty(String key, int defaultValue) {
+        String value = config.getProperties().get(key);
+        if (Utils.isNullOrEmpty(value)) {
+            return defaultValue;
+        }
+        try {
+            int intValue = Integer.parseInt(value.trim());
+            if (intValue > 0) {
+                return intValue;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below along with the non-positive values.
+        }
+        logger.log(Level.WARNING, "Invalid value " + value + " for " + key + ", using " + defaultValue + ".");
+        return defaultValue;
+    }
+
     /**
      * Initializes and start framework. Framework will try to resolve all the bundles if their requirements
      * can be satisfied.
      *
      * @param framework osgiFramework
      * @throws BundleException
+     * @throws InvalidSyntaxException
      */
-    private void initAndStartOSGiFramework(Framework framework) throws BundleException {
+    private void initAndStartOSGiFramework(Framework framework) throws BundleException, InvalidSyntaxException {
         if (logger.isLoggable(Level.FINE)) {
             logger.log(Level.FINE, "Initializing the OSGi framework.");
         }
 
         framework.init();
 
+        if (cdsArchive != null && cdsArchive.isTraining()) {
+            completeCdsTrainingOnStartup(framework.getBundleContext());
+        }
+
+        // Signals when the framework reaches its beginning start level.
+        CountDownLatch startLevelReached = new CountDownLatch(1);
+        beginningStartLevel = startLevelReached;
+        framework.getBundleContext().addFrameworkListener(event -> {
+            if (event.getType() == FrameworkEvent.STARTED) {
+                startLevelReached.countDown();
+            }
+        });
+
         // Starts the framework.
         if (logger.isLoggable(Level.FINE)) {
             logger.log(Level.FINE, "Starting the OSGi framework.");
@@ -161,6 +356,159 @@ public class CarbonServer {
         }
     }
 
+    /**
+     * Waits until the OSGi framework reaches its beginning start level.
+     *
+     * @param framework osgiFramework
+     * @return true if the beginning start level was reached, false if the framework stopped before reaching it
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private boolean awaitBeginningStartLevel(Framework framework) throws InterruptedException {
+        while (!beginningStartLevel.await(1, TimeUnit.SECONDS)) {
+            if ((framework.getState() & (Bundle.STARTING | Bundle.ACTIVE)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the properties used to create the OSGi framework.
+     * <p>
+     * Unless configured in the launch properties, the number of threads the framework uses to activate bundles in
+     * parallel when changing start levels is set to the number of available processors. If warm start is enabled via
+     * the {@value Constants#CARBON_OSGI_WARM_START} launch property and the installation has not changed since the
+     * last successful startup, the persisted framework storage is reused instead of cleaning it.
+     *
+     * @return OSGi framework properties
+     */
+    private Map<String, String> getOSGiFwkProperties() {
+        Map<String, String> fwkProperties = new HashMap<>(config.getProperties());
+        fwkProperties.putIfAbsent(EQUINOX_START_LEVEL_THREAD_COUNT,
+                Integer.toString(Runtime.getRuntime().availableProcessors()));
+
+        if (!Boolean.parseBoolean(fwkProperties.get(CARBON_OSGI_WARM_START))) {
+            return fwkProperties;
+        }
+
+        try {
+            storageFingerprint = FrameworkStorageFingerprint.compute(config);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to fingerprint the Carbon installation, performing a clean start.", e);
+            return fwkProperties;
+        }
+
+        boolean warmStart = storageFingerprint.matchesStored();
+        // The stored fingerprint is only restored once this startup completes, so that a failed or interrupted
+        // startup always falls back to a clean start.
+        storageFingerprint.invalidate();
+
+        fwkProperties.put(OSGI_CLEAN, Boolean.toString(!warmStart));
+        if (warmStart) {
+            logger.log(Level.INFO, "No changes detected in the Carbon installation, reusing the OSGi framework "
+                    + "storage.");
+        } else if (logger.isLoggable(Level.FINE)) {
+            logger.log(Level.FINE, "Changes detected in the Carbon installation, cleaning the OSGi framework "
+                    + "storage.");
+        }
+        return fwkProperties;
+    }
+
+    /**
+     * Removes the class data sharing archive if it was created for a different installation. The JVM has already
+     * mapped the archive at this point, and verifies the class path itself, so only the following startups are
+     * affected.
+     * <p>
+     * The fingerprint of the installation is only computed if the cheap stamp of the installation has changed since
+     * the archive was last validated, and the fingerprint computed for the warm start is reused if there is one.
+     */
+    private void validateCdsArchive() {
+        if (cdsArchive == null || cdsArchive.isTraining() || !cdsArchive.exists()) {
+            return;
+        }
+
+        try {
+            String stamp = FrameworkStorageFingerprint.computeStamp(config);
+            if (cdsArchive.matchesStamp(stamp)) {
+                return;
+            }
+            String fingerprint = storageFingerprint != null ? storageFingerprint.getValue()
+                    : FrameworkStorageFingerprint.compute(config).getValue();
+            if (cdsArchive.validate(fingerprint)) {
+                cdsArchive.storeStamp(stamp);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to fingerprint the Carbon installation, skipping the validation of the "
+                    + "class data sharing archive.", e);
+        }
+    }
+
+    /**
+     * Stops the server once the Carbon kernel completes its startup, which is signalled by the registration of the
+     * {@value Constants#CARBON_SERVER_INFO_SERVICE} service, so that the JVM archives the classes loaded during the
+     * startup when it exits. If the startup does not complete in time, the classes loaded so far are archived.
+     *
+     * @param bundleContext system bundle context
+     * @throws InvalidSyntaxException if the service filter is invalid
+     */
+    private void completeCdsTrainingOnStartup(BundleContext bundleContext) throws InvalidSyntaxException {
+        AtomicBoolean completed = new AtomicBoolean();
+        Runnable completeTraining = () -> {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                cdsArchive.storeFingerprint(FrameworkStorageFingerprint.compute(config).getValue());
+                cdsArchive.storeStamp(FrameworkStorageFingerprint.computeStamp(config));
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Unable to fingerprint the Carbon installation, the class data sharing "
+                        + "archive will be removed at the next startup.", e);
+            }
+            logger.log(Level.INFO, "Class data sharing training completed, stopping the server.");
+            stop();
+        };
+
+        // The server is stopped from a new thread, since it cannot be stopped from the framework event dispatcher.
+        bundleContext.addServiceListener(event -> {
+            if (event.getType() == ServiceEvent.REGISTERED) {
+                new Thread(completeTraining, "carbon-cds-training").start();
+            }
+        }, "(" + org.osgi.framework.Constants.OBJECTCLASS + "=" + Constants.CARBON_SERVER_INFO_SERVICE + ")");
+
+        Thread trainingTimeout = new Thread(() -> {
+            try {
+                TimeUnit.MINUTES.sleep(CDS_TRAINING_TIMEOUT_MINUTES);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (!completed.get()) {
+                logger.log(Level.WARNING, "Carbon server did not start within " + CDS_TRAINING_TIMEOUT_MINUTES
+                        + " minutes, archiving the classes loaded so far.");
+                completeTraining.run();
+            }
+        }, "carbon-cds-training-timeout");
+        trainingTimeout.setDaemon(true);
+        trainingTimeout.start();
+    }
+
+    /**
+     * Stores the fingerprint of the installation after the server has started successfully. The fingerprint is
+     * computed again, since the server listeners may have updated the installation during the startup.
+     */
+    private void storeStorageFingerprint() {
+        if (storageFingerprint == null) {
+            return;
+        }
+
+        try {
+            storageFingerprint = FrameworkStorageFingerprint.compute(config);
+            storageFingerprint.store();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to fingerprint the Carbon installation, the next startup will be a "
+                    + "clean start.", e);
+        }
+    }
+
     /**
      * Wait until this Framework has completely stopped.
      *
@@ -191,7 +539,7 @@ public class CarbonServer {
      *
      * @return new OSGi class loader
      */
-    private ClassLoader createOSGiFwkClassLoader() {
+    private URLClassLoader createOSGiFwkClassLoader() {
         if (logger.isLoggable(Level.FINE)) {
             logger.log(Level.FINE, "Creating OSGi framework class loader.");
         }
@@ -221,7 +569,9 @@ public class CarbonServer {
     }
 
     /**
-     * Installs a bundle from the specified locations.
+     * Installs the initial bundles concurrently and starts them in the order of their start levels. The number of
+     * install threads defaults to the number of available processors and can be changed using the
+     * {@value Constants#CARBON_INITIAL_BUNDLES_INSTALL_THREADS} launch property.
      *
      * @param bundleContext bundle's execution context within the Framework
      * @throws BundleException
@@ -231,17 +581,9 @@ public class CarbonServer {
         //which are loaded from initial bundle list.
         System.setProperty(Constants.EQUINOX_SIMPLE_CONFIGURATOR_EXCLUSIVE_INSTALLATION, "false");
 
-        for (CarbonInitialBundle initialBundleInfo : config.getInitialBundles()) {
-            if (logger.isLoggable(Level.FINE)) {
-                logger.log(Level.FINE, "Loading initial bundle: " + initialBundleInfo.getLocation().toExternalForm() +
-                        " with startlevel " + initialBundleInfo.getLevel());
-            }
-
-            Bundle bundle = bundleContext.installBundle(initialBundleInfo.getLocation().toString());
-            if (initialBundleInfo.shouldStart()) {
-                bundle.start();
-            }
-        }
+        int installThreads = getPositiveIntProperty(CARBON_INITIAL_BUNDLES_INSTALL_THREADS,
+                Runtime.getRuntime().availableProcessors());
+        new InitialBundleLoader(installThreads).load(bundleContext, config.getInitialBundles());
     }
 
     /**
@@ -270,13 +612,22 @@ public class CarbonServer {
         return serverStatus;
     }
 
+    /**
+     * Returns the startup timeline of this Carbon server.
+     *
+     * @return startup timeline
+     */
+    public StartupTimeline getStartupTimeline() {
+        return startupTimeline;
+    }
+
     /**
      * Notify Carbon server listeners about the given event.
      *
      * @param event number to notify
      */
     private void dispatchEvent(int event) {
-        CarbonServerEvent carbonServerEvent = new CarbonServerEvent(event, config);
+        CarbonServerEvent carbonServerEvent = new CarbonServerEvent(event, config, startupTimeline);
         config.getCarbonServerListeners().forEach(listener -> {
             if (logger.isLoggable(Level.FINE)) {
                 String eventName = (event == CarbonServerEvent.STARTING) ? "STARTING" : "STOPPING";
@@ -48,6 +48,11 @@ public class CarbonServerEvent {
      */
     private final CarbonLaunchConfig config;
 
+    /**
+     * Startup timeline of the server which fired this event.
+     */
+    private final StartupTimeline startupTimeline;
+
     /**
      * Constructor.
      *
@@ -55,8 +60,20 @@ public class CarbonServerEvent {
      * @param config Carbon Launch Configuration
      */
     public CarbonServerEvent(int type, CarbonLaunchConfig config) {
+        this(type, config, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param type            event type
+     * @param config          Carbon Launch Configuration
+     * @param startupTimeline startup timeline of the server
+     */
+    public CarbonServerEvent(int type, CarbonLaunchConfig config, StartupTimeline startupTimeline) {
         this.type = type;
         this.config = config;
+        this.startupTimeline = startupTimeline;
     }
 
     /**
@@ -76,4 +93,13 @@ public class CarbonServerEvent {
     public CarbonLaunchConfig getConfig() {
         return config;
     }
+
+    /**
+     * Returns the startup timeline of the server which fired this event.
+     *
+     * @return startup timeline, or null if this event is not fired by a CarbonServer
+     */
+    public StartupTimeline getStartupTimeline() {
+        return startupTimeline;
+    }
 }
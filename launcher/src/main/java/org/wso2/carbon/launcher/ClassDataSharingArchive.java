@@ -0,0 +1,189 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.wso2.carbon.launcher.Constants.CARBON_CDS_ARCHIVE;
+import static org.wso2.carbon.launcher.Constants.CARBON_CDS_TRAIN;
+
+/**
+ * Application class data sharing (AppCDS) archive of the Carbon server.
+ * <p>
+ * The archive itself is created and mapped by the JVM. The Carbon startup script starts a training run with
+ * {@code -XX:ArchiveClassesAtExit}, in which the launcher boots the server and stops it as soon as the startup
+ * completes, so that the JVM archives the classes loaded during the startup when it exits. Later runs start with
+ * {@code -XX:SharedArchiveFile} whenever the archive exists.
+ * <p>
+ * The launcher owns the validity of the archive. At the end of a training run it stores the
+ * {@link FrameworkStorageFingerprint fingerprint} of the installation next to the archive. At every other startup the
+ * fingerprint is computed again and, if the installation has changed, the stale archive is deleted so that the
+ * following runs start without it until the server is trained again. Since computing the fingerprint reads the whole
+ * installation, a cheap {@link FrameworkStorageFingerprint#computeStamp stamp} of the installation is stored along
+ * with it, and the fingerprint is only computed again once the stamp changes.
+ *
+ * @since 5.3.1
+ */
+public class ClassDataSharingArchive {
+
+    private static final Logger logger = Logger.getLogger(ClassDataSharingArchive.class.getName());
+
+    static final String FINGERPRINT_FILE_SUFFIX = ".fingerprint";
+    static final String STAMP_FILE_SUFFIX = ".stamp";
+
+    private final Path archiveFile;
+    private final Path fingerprintFile;
+    private final Path stampFile;
+    private final boolean training;
+
+    /**
+     * Constructor.
+     *
+     * @param archiveFile path of the archive file
+     * @param training    whether this is a training run, which creates the archive
+     */
+    public ClassDataSharingArchive(Path archiveFile, boolean training) {
+        this.archiveFile = archiveFile;
+        this.fingerprintFile = Paths.get(archiveFile.toString() + FINGERPRINT_FILE_SUFFIX);
+        this.stampFile = Paths.get(archiveFile.toString() + STAMP_FILE_SUFFIX);
+        this.training = training;
+    }
+
+    /**
+     * Returns the archive configured by the startup script through the {@value Constants#CARBON_CDS_ARCHIVE} and
+     * {@value Constants#CARBON_CDS_TRAIN} system properties.
+     *
+     * @return the archive, or null if class data sharing is not configured
+     */
+    public static ClassDataSharingArchive fromSystemProperties() {
+        String archiveFile = System.getProperty(CARBON_CDS_ARCHIVE);
+        if (archiveFile == null || archiveFile.trim().isEmpty()) {
+            return null;
+        }
+        return new ClassDataSharingArchive(Paths.get(archiveFile.trim()),
+                Boolean.parseBoolean(System.getProperty(CARBON_CDS_TRAIN)));
+    }
+
+    /**
+     * @return true if this is a training run
+     */
+    public boolean isTraining() {
+        return training;
+    }
+
+    /**
+     * @return true if the archive exists
+     */
+    public boolean exists() {
+        return Files.exists(archiveFile);
+    }
+
+    /**
+     * Checks whether the archive was validated for an installation with the given stamp.
+     *
+     * @param stamp stamp of the current installation
+     * @return true if the archive exists and the stamp has not changed since the archive was last validated
+     */
+    public boolean matchesStamp(String stamp) {
+        if (!Files.exists(archiveFile) || !Files.exists(stampFile)) {
+            return false;
+        }
+        try {
+            return stamp.equals(new String(Files.readAllBytes(stampFile), StandardCharsets.UTF_8).trim());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to read the class data sharing archive stamp " + stampFile, e);
+            return false;
+        }
+    }
+
+    /**
+     * Stores the stamp of the installation the archive was validated for.
+     *
+     * @param stamp stamp of the current installation
+     */
+    public void storeStamp(String stamp) {
+        try {
+            Files.createDirectories(stampFile.toAbsolutePath().getParent());
+            Files.write(stampFile, stamp.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to store the class data sharing archive stamp " + stampFile, e);
+        }
+    }
+
+    /**
+     * Checks whether the archive was created for the installation with the given fingerprint. The archive is deleted
+     * if it is stale, or if it was not created by a completed training run.
+     *
+     * @param fingerprint fingerprint of the current installation
+     * @return true if the archive exists and is valid
+     */
+    public boolean validate(String fingerprint) {
+        if (!Files.exists(archiveFile)) {
+            return false;
+        }
+
+        String storedFingerprint = null;
+        if (Files.exists(fingerprintFile)) {
+            try {
+                storedFingerprint = new String(Files.readAllBytes(fingerprintFile), StandardCharsets.UTF_8).trim();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Unable to read the class data sharing archive fingerprint "
+                        + fingerprintFile, e);
+            }
+        }
+        if (fingerprint.equals(storedFingerprint)) {
+            return true;
+        }
+
+        logger.log(Level.WARNING, "The Carbon installation has changed since the class data sharing archive "
+                + archiveFile + " was created. The archive is removed and will not be used by the next startups "
+                + "until the server is trained again.");
+        delete();
+        return false;
+    }
+
+    /**
+     * Stores the fingerprint of the installation the archive is being created for. This is done at the end of a
+     * training run, before the JVM writes the archive.
+     *
+     * @param fingerprint fingerprint of the current installation
+     */
+    public void storeFingerprint(String fingerprint) {
+        try {
+            Files.createDirectories(fingerprintFile.toAbsolutePath().getParent());
+            Files.write(fingerprintFile, fingerprint.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to store the class data sharing archive fingerprint "
+                    + fingerprintFile, e);
+        }
+    }
+
+    private void delete() {
+        try {
+            Files.deleteIfExists(archiveFile);
+            Files.deleteIfExists(fingerprintFile);
+            Files.deleteIfExists(stampFile);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to delete the class data sharing archive " + archiveFile, e);
+        }
+    }
+}
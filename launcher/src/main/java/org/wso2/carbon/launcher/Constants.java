@@ -27,6 +27,7 @@ public class Constants {
     public static final String RUNTIME_PATH = "wso2.runtime.path";
     public static final String RUNTIME = "wso2.runtime";
     static final String CARBON_START_TIME = "carbon.start.time";
+    public static final String CARBON_SHUTDOWN_DEADLINE = "carbon.shutdown.deadline";
 
     public static final String OSGI_REPOSITORY = "wso2/lib";
     public static final String LAUNCH_CONF_DIRECTORY = "conf/osgi";
@@ -38,17 +39,29 @@ public class Constants {
     public static final String OSGI_LIB = "lib";
     public static final String PLUGINS = "plugins";
     public static final String BUNDLES_INFO = "bundles.info";
+    public static final String OSGI_LIB_INDEX = "osgi-lib.index";
 
     public static final String CARBON_OSGI_REPOSITORY = "carbon.osgi.repository";
     public static final String CARBON_PROFILE_REPOSITORY = "carbon.runtime.repository";
     public static final String CARBON_OSGI_FRAMEWORK = "carbon.osgi.framework";
     public static final String CARBON_INITIAL_OSGI_BUNDLES = "carbon.initial.osgi.bundles";
     public static final String CARBON_SERVER_LISTENERS = "carbon.server.listeners";
+    public static final String CARBON_OSGI_WARM_START = "carbon.osgi.warm.start";
+    public static final String CARBON_INITIAL_BUNDLES_INSTALL_THREADS = "carbon.initial.osgi.bundles.install.threads";
+    public static final String CARBON_SHUTDOWN_TIMEOUT = "carbon.shutdown.timeout";
+    public static final String CARBON_SHUTDOWN_SLOW_BUNDLE_THRESHOLD = "carbon.shutdown.slow.bundle.threshold";
+    public static final String CARBON_SERVER_RESTART = "carbon.server.restart";
+    public static final String CARBON_IN_PROCESS_RESTART = "carbon.server.restart.in.process";
+    public static final String FRAMEWORK_LEAK_REPORT_FILE = "framework-leak-report.txt";
+    public static final String CARBON_CDS_ARCHIVE = "carbon.cds.archive";
+    public static final String CARBON_CDS_TRAIN = "carbon.cds.train";
+    public static final String CARBON_SERVER_INFO_SERVICE = "org.wso2.carbon.kernel.CarbonServerInfo";
 
     public static final String OSGI_INSTALL_AREA = "osgi.install.area";
     public static final String OSGI_CONFIG_AREA = "osgi.configuration.area";
     public static final String OSGI_INSTANCE_AREA = "osgi.instance.area";
     public static final String ECLIPSE_P2_DATA_AREA = "eclipse.p2.data.area";
+    public static final String OSGI_CLEAN = "osgi.clean";
 
     public static final String PAX_LOGGING_PROPERTY_FILE_KEY = "org.ops4j.pax.logging.property.file";
     public static final String PAX_LOGGING_PROPERTIES_FILE = "pax-logging.properties";
@@ -57,8 +70,10 @@ public class Constants {
 
     static final String EQUINOX_SIMPLE_CONFIGURATOR_EXCLUSIVE_INSTALLATION =
             "org.eclipse.equinox.simpleconfigurator.exclusiveInstallation";
+    public static final String EQUINOX_START_LEVEL_THREAD_COUNT = "equinox.start.level.thread.count";
 
     static final String START_TIME = "carbon.start.time";
+    public static final String STARTUP_TIMELINE = "carbon.startup.timeline";
 
     //  Constants relevant to log level.
     public static final String LOG_LEVEL_WARN = "WARN";
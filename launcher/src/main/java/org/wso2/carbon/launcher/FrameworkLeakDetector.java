@@ -0,0 +1,214 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.Provider;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Checks whether the class loader of a stopped OSGi framework can be garbage collected.
+ * <p>
+ * The framework class loader loads the framework implementation, which in turn loads the class loaders of all the
+ * bundles. If anything outside the framework still references one of these class loaders after the framework has
+ * stopped, none of the classes loaded by the framework can be unloaded, and starting a new framework in the same JVM
+ * would leak them. The detector only holds a weak reference to the framework class loader, so that it does not keep
+ * the class loader reachable itself.
+ * <p>
+ * If the class loader is not collected, {@link #createReport()} lists the usual suspects: live threads, JVM wide URL
+ * factories, security providers and platform MBeans whose classes or context class loaders belong to the framework.
+ * On JDK 9 and later, the URL factories can only be inspected if the {@code java.net} package is opened to the
+ * launcher with {@code --add-opens=java.base/java.net=ALL-UNNAMED}. Otherwise the report states that they were not
+ * checked.
+ *
+ * @since 5.3.1
+ */
+public class FrameworkLeakDetector {
+
+    private static final long GC_INTERVAL_MILLIS = 100;
+    private static final int MAX_STACK_FRAMES = 5;
+
+    private final WeakReference<ClassLoader> fwkClassLoaderRef;
+    private final String fwkClassLoaderName;
+
+    /**
+     * Constructor.
+     *
+     * @param fwkClassLoader class loader of the stopped OSGi framework
+     */
+    public FrameworkLeakDetector(ClassLoader fwkClassLoader) {
+        this.fwkClassLoaderRef = new WeakReference<>(fwkClassLoader);
+        this.fwkClassLoaderName = fwkClassLoader.toString();
+    }
+
+    /**
+     * Requests garbage collections until the framework class loader is collected or the given time elapses.
+     *
+     * @param timeoutMillis maximum time to wait in milliseconds
+     * @return true if the framework class loader was collected, false if it is still reachable
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitCollection(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (true) {
+            System.gc();
+            if (fwkClassLoaderRef.get() == null) {
+                return true;
+            }
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(GC_INTERVAL_MILLIS);
+        }
+    }
+
+    /**
+     * Returns whether the framework class loader has been collected.
+     *
+     * @return true if the framework class loader was collected
+     */
+    public boolean isCollected() {
+        return fwkClassLoaderRef.get() == null;
+    }
+
+    /**
+     * Creates a report of the objects outside the framework which are known to commonly keep the framework class
+     * loader reachable.
+     *
+     * @return leak report
+     */
+    public String createReport() {
+        ClassLoader fwkClassLoader = fwkClassLoaderRef.get();
+        if (fwkClassLoader == null) {
+            return "The OSGi framework class loader " + fwkClassLoaderName + " has been garbage collected.";
+        }
+
+        List<String> suspects = new ArrayList<>();
+        List<String> skippedChecks = new ArrayList<>();
+        findThreads(fwkClassLoader, suspects);
+        findUrlFactories(fwkClassLoader, suspects, skippedChecks);
+        findSecurityProviders(fwkClassLoader, suspects);
+        findMBeans(fwkClassLoader, suspects);
+
+        StringBuilder report = new StringBuilder();
+        String newLine = System.lineSeparator();
+        report.append("The OSGi framework class loader ").append(fwkClassLoaderName)
+                .append(" is still reachable after the framework has stopped.").append(newLine);
+        if (suspects.isEmpty()) {
+            report.append("No known suspects were found. Take a heap dump and look for the paths from the garbage "
+                    + "collection roots to the class loader.").append(newLine);
+        } else {
+            report.append("Suspects:").append(newLine);
+            suspects.forEach(suspect -> report.append("  - ").append(suspect).append(newLine));
+        }
+        if (!skippedChecks.isEmpty()) {
+            report.append("Not checked:").append(newLine);
+            skippedChecks.forEach(skipped -> report.append("  - ").append(skipped).append(newLine));
+        }
+        return report.toString();
+    }
+
+    private static void findThreads(ClassLoader fwkClassLoader, List<String> suspects) {
+        Thread.getAllStackTraces().forEach((thread, stackTrace) -> {
+            String reason = null;
+            if (isFrameworkClassLoader(thread.getClass().getClassLoader(), fwkClassLoader)) {
+                reason = "is an instance of " + thread.getClass().getName() + " loaded by the framework";
+            } else if (isFrameworkClassLoader(thread.getContextClassLoader(), fwkClassLoader)) {
+                reason = "has the context class loader " + thread.getContextClassLoader();
+            }
+            if (reason == null) {
+                return;
+            }
+
+            StringBuilder suspect = new StringBuilder("Thread '").append(thread.getName()).append("' (")
+                    .append(thread.getState()).append(thread.isDaemon() ? ", daemon" : "").append(") ")
+                    .append(reason);
+            for (int i = 0; i < stackTrace.length && i < MAX_STACK_FRAMES; i++) {
+                suspect.append(System.lineSeparator()).append("      at ").append(stackTrace[i]);
+            }
+            suspects.add(suspect.toString());
+        });
+    }
+
+    private static void findUrlFactories(ClassLoader fwkClassLoader, List<String> suspects,
+                                         List<String> skippedChecks) {
+        // OSGi frameworks commonly register JVM wide URL factories, which can be set only once per JVM.
+        checkStaticField(URL.class, "factory", fwkClassLoader, suspects, skippedChecks);
+        checkStaticField(URLConnection.class, "factory", fwkClassLoader, suspects, skippedChecks);
+    }
+
+    private static void checkStaticField(Class<?> type, String fieldName, ClassLoader fwkClassLoader,
+                                         List<String> suspects, List<String> skippedChecks) {
+        try {
+            Field field = type.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            Object value = field.get(null);
+            if (value != null && isFrameworkClassLoader(value.getClass().getClassLoader(), fwkClassLoader)) {
+                suspects.add(type.getName() + "." + fieldName + " refers to " + value.getClass().getName()
+                        + ", which cannot be unregistered");
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Since JDK 9, the field is accessible only if java.base/java.net is opened to the launcher.
+            skippedChecks.add(type.getName() + "." + fieldName + " is not accessible in this JVM (" + e
+                    + "). Start the JVM with --add-opens=java.base/java.net=ALL-UNNAMED to check it");
+        }
+    }
+
+    private static void findSecurityProviders(ClassLoader fwkClassLoader, List<String> suspects) {
+        for (Provider provider : Security.getProviders()) {
+            if (isFrameworkClassLoader(provider.getClass().getClassLoader(), fwkClassLoader)) {
+                suspects.add("Security provider " + provider.getName() + " (" + provider.getClass().getName()
+                        + ") is still registered");
+            }
+        }
+    }
+
+    private static void findMBeans(ClassLoader fwkClassLoader, List<String> suspects) {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : mBeanServer.queryNames(null, null)) {
+            try {
+                if (isFrameworkClassLoader(mBeanServer.getClassLoaderFor(objectName), fwkClassLoader)) {
+                    suspects.add("MBean " + objectName + " is still registered with the platform MBean server");
+                }
+            } catch (InstanceNotFoundException e) {
+                // The MBean was unregistered while iterating.
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given class loader is the framework class loader, a class loader created by the framework,
+     * such as a bundle class loader, or a descendant of one of them.
+     */
+    private static boolean isFrameworkClassLoader(ClassLoader classLoader, ClassLoader fwkClassLoader) {
+        for (ClassLoader current = classLoader; current != null; current = current.getParent()) {
+            if (current == fwkClassLoader || current.getClass().getClassLoader() == fwkClassLoader) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
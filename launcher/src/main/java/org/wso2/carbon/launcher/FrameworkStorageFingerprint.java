@@ -0,0 +1,221 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher;
+
+import org.wso2.carbon.launcher.config.CarbonLaunchConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.wso2.carbon.launcher.Constants.BUNDLES_INFO;
+import static org.wso2.carbon.launcher.Constants.OSGI_LIB;
+import static org.wso2.carbon.launcher.Constants.PLUGINS;
+
+/**
+ * Fingerprint of everything that determines the persisted state of the OSGi framework storage.
+ * <p>
+ * The fingerprint covers the effective launch properties, the bundles.info file of the Carbon runtime, the contents
+ * of the CARBON_HOME/{@value Constants#OSGI_LIB} and the OSGi repository {@value Constants#PLUGINS} directories and
+ * the Java runtime version. Directory contents are fingerprinted using the relative path, size and last modified time
+ * of each file, so that computing the fingerprint does not require reading every bundle.
+ * <p>
+ * The fingerprint of the last successful startup is stored in the OSGi configuration area. A Carbon server may reuse
+ * the framework storage only if the current fingerprint matches the stored one.
+ *
+ * @since 5.3.1
+ */
+public class FrameworkStorageFingerprint {
+
+    private static final Logger logger = Logger.getLogger(FrameworkStorageFingerprint.class.getName());
+
+    static final String FINGERPRINT_FILE = "carbon-warm-start.fingerprint";
+    private static final String SIMPLE_CONFIGURATOR_DIRECTORY = "org.eclipse.equinox.simpleconfigurator";
+
+    private final String value;
+    private final Path fingerprintFile;
+
+    private FrameworkStorageFingerprint(String value, Path fingerprintFile) {
+        this.value = value;
+        this.fingerprintFile = fingerprintFile;
+    }
+
+    /**
+     * Computes the fingerprint of the current Carbon installation.
+     *
+     * @param config Carbon launcher configuration
+     * @return fingerprint of the current installation
+     * @throws IOException if the installation cannot be read
+     */
+    public static FrameworkStorageFingerprint compute(CarbonLaunchConfig config) throws IOException {
+        Path configurationArea = Paths.get(config.getOSGiConfigurationArea().getPath());
+        Path osgiRepository = Paths.get(config.getCarbonOSGiRepository().getPath());
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Unable to compute the OSGi framework storage fingerprint", e);
+        }
+
+        update(digest, "java.version=" + System.getProperty("java.version"));
+        update(digest, "java.vendor=" + System.getProperty("java.vendor"));
+
+        // Launch properties are sorted to make the fingerprint independent of the map iteration order.
+        new TreeMap<>(config.getProperties()).forEach((key, value) -> update(digest, key + "=" + value));
+
+        Path bundlesInfo = configurationArea.resolve(SIMPLE_CONFIGURATOR_DIRECTORY).resolve(BUNDLES_INFO);
+        if (Files.exists(bundlesInfo)) {
+            update(digest, BUNDLES_INFO);
+            digest.update(Files.readAllBytes(bundlesInfo));
+        }
+
+        updateDirectory(digest, Paths.get(config.getCarbonHome(), OSGI_LIB));
+        updateDirectory(digest, osgiRepository.resolve(PLUGINS));
+
+        return new FrameworkStorageFingerprint(toHex(digest.digest()), configurationArea.resolve(FINGERPRINT_FILE));
+    }
+
+    /**
+     * Computes a stamp of the current Carbon installation, which is much cheaper than the fingerprint since it only
+     * reads the attributes of the bundles.info file and of the {@value Constants#OSGI_LIB} and
+     * {@value Constants#PLUGINS} directories, without listing them. The stamp changes whenever a bundle is added to,
+     * removed from or renamed in these directories, but not when a bundle is overwritten in place. An unchanged stamp
+     * therefore only allows to skip a check which is also done by other means.
+     *
+     * @param config Carbon launcher configuration
+     * @return stamp of the current installation
+     * @throws IOException if the installation cannot be read
+     */
+    public static String computeStamp(CarbonLaunchConfig config) throws IOException {
+        Path configurationArea = Paths.get(config.getOSGiConfigurationArea().getPath());
+        Path osgiRepository = Paths.get(config.getCarbonOSGiRepository().getPath());
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Unable to compute the Carbon installation stamp", e);
+        }
+
+        update(digest, "java.version=" + System.getProperty("java.version"));
+        update(digest, "java.vendor=" + System.getProperty("java.vendor"));
+        new TreeMap<>(config.getProperties()).forEach((key, value) -> update(digest, key + "=" + value));
+
+        updateAttributes(digest, configurationArea.resolve(SIMPLE_CONFIGURATOR_DIRECTORY).resolve(BUNDLES_INFO));
+        updateAttributes(digest, Paths.get(config.getCarbonHome(), OSGI_LIB));
+        updateAttributes(digest, osgiRepository.resolve(PLUGINS));
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Checks whether this fingerprint matches the one stored during the last successful startup.
+     *
+     * @return true if the framework storage can be reused, false otherwise
+     */
+    public boolean matchesStored() {
+        if (!Files.exists(fingerprintFile)) {
+            return false;
+        }
+        try {
+            return value.equals(new String(Files.readAllBytes(fingerprintFile), StandardCharsets.UTF_8).trim());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to read the OSGi framework storage fingerprint " + fingerprintFile, e);
+            return false;
+        }
+    }
+
+    /**
+     * Removes the stored fingerprint, so that an interrupted startup is never followed by a warm start.
+     */
+    public void invalidate() {
+        try {
+            Files.deleteIfExists(fingerprintFile);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to delete the OSGi framework storage fingerprint " + fingerprintFile, e);
+        }
+    }
+
+    /**
+     * Stores this fingerprint as the fingerprint of the last successful startup.
+     */
+    public void store() {
+        try {
+            Files.createDirectories(fingerprintFile.getParent());
+            Files.write(fingerprintFile, value.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to store the OSGi framework storage fingerprint " + fingerprintFile, e);
+        }
+    }
+
+    /**
+     * @return hex encoded fingerprint value
+     */
+    public String getValue() {
+        return value;
+    }
+
+    private static void updateDirectory(MessageDigest digest, Path directory) throws IOException {
+        update(digest, directory.getFileName().toString());
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(directory)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            update(digest, directory.relativize(file) + ":" + attributes.size() + ":" +
+                    attributes.lastModifiedTime().toMillis());
+        }
+    }
+
+    private static void updateAttributes(MessageDigest digest, Path file) throws IOException {
+        if (!Files.exists(file)) {
+            update(digest, file.getFileName().toString());
+            return;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        update(digest, file.getFileName() + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis());
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    private static void update(MessageDigest digest, String entry) {
+        digest.update(entry.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+}
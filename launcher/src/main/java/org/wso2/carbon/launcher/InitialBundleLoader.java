@@ -0,0 +1,135 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
+import org.wso2.carbon.launcher.config.CarbonInitialBundle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Installs and starts the initial bundles listed in the launch configuration.
+ * <p>
+ * Installing a bundle opens the bundle jar and parses its manifest, so bundles are installed concurrently using the
+ * given number of threads. Once all the bundles are installed, they are started one by one in the order of their
+ * declared start levels. Bundles with the same start level are started in the order they are declared.
+ *
+ * @since 5.3.1
+ */
+public class InitialBundleLoader {
+
+    private static final Logger logger = Logger.getLogger(InitialBundleLoader.class.getName());
+
+    private final int installThreads;
+
+    /**
+     * Constructor.
+     *
+     * @param installThreads maximum number of threads used to install the bundles
+     */
+    public InitialBundleLoader(int installThreads) {
+        this.installThreads = installThreads;
+    }
+
+    /**
+     * Installs and starts the given initial bundles.
+     *
+     * @param bundleContext  bundle's execution context within the Framework
+     * @param initialBundles initial bundles in the declared order
+     * @return installed bundles in the declared order
+     * @throws BundleException if a bundle cannot be installed or started
+     */
+    public List<Bundle> load(BundleContext bundleContext, List<CarbonInitialBundle> initialBundles)
+            throws BundleException {
+        List<Bundle> bundles = install(bundleContext, initialBundles);
+
+        List<Integer> startOrder = new ArrayList<>();
+        for (int i = 0; i < initialBundles.size(); i++) {
+            if (initialBundles.get(i).shouldStart()) {
+                startOrder.add(i);
+            }
+        }
+        // List.sort is stable, hence the declared order is kept within a start level.
+        startOrder.sort(Comparator.comparingInt(index -> initialBundles.get(index).getLevel()));
+
+        for (int index : startOrder) {
+            if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "Starting initial bundle: " + bundles.get(index).getLocation() +
+                        " with startlevel " + initialBundles.get(index).getLevel());
+            }
+            bundles.get(index).start();
+        }
+        return bundles;
+    }
+
+    private List<Bundle> install(BundleContext bundleContext, List<CarbonInitialBundle> initialBundles)
+            throws BundleException {
+        int threads = Math.min(installThreads, initialBundles.size());
+        List<Bundle> bundles = new ArrayList<>(initialBundles.size());
+        if (threads <= 1) {
+            for (CarbonInitialBundle initialBundle : initialBundles) {
+                bundles.add(install(bundleContext, initialBundle));
+            }
+            return bundles;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "carbon-bundle-installer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Bundle>> futures = new ArrayList<>(initialBundles.size());
+            for (CarbonInitialBundle initialBundle : initialBundles) {
+                futures.add(executorService.submit(() -> install(bundleContext, initialBundle)));
+            }
+            for (Future<Bundle> future : futures) {
+                bundles.add(future.get());
+            }
+            return bundles;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BundleException("Interrupted while installing the initial bundles", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BundleException) {
+                throw (BundleException) e.getCause();
+            }
+            throw new BundleException("Failed to install the initial bundles", e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private Bundle install(BundleContext bundleContext, CarbonInitialBundle initialBundle) throws BundleException {
+        if (logger.isLoggable(Level.FINE)) {
+            logger.log(Level.FINE, "Loading initial bundle: " + initialBundle.getLocation().toExternalForm() +
+                    " with startlevel " + initialBundle.getLevel());
+        }
+        return bundleContext.installBundle(initialBundle.getLocation().toString());
+    }
+}
@@ -30,6 +30,8 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static org.wso2.carbon.launcher.Constants.CARBON_HOME;
+import static org.wso2.carbon.launcher.Constants.CARBON_IN_PROCESS_RESTART;
+import static org.wso2.carbon.launcher.Constants.CARBON_SERVER_RESTART;
 import static org.wso2.carbon.launcher.Constants.DEFAULT_PROFILE;
 import static org.wso2.carbon.launcher.Constants.ExitCodes;
 import static org.wso2.carbon.launcher.Constants.LAUNCH_PROPERTIES_FILE;
@@ -60,17 +62,20 @@ public class Main {
         if (System.getProperty(Constants.START_TIME) == null) {
             System.setProperty(Constants.START_TIME, System.currentTimeMillis() + "");
         }
+        StartupTimeline startupTimeline = new StartupTimeline();
 
         // 1) Process command line arguments.
         processCmdLineArgs(args);
 
         // 2) Initialize and/or verify System properties
         initAndVerifySysProps();
+        startupTimeline.checkpoint(StartupTimeline.COMMAND_LINE);
 
         // 3) Load the Carbon start configuration
         CarbonLaunchConfig config = loadCarbonLaunchConfig();
+        startupTimeline.checkpoint(StartupTimeline.LAUNCH_CONFIG);
 
-        CarbonServer carbonServer = new CarbonServer(config);
+        CarbonServer carbonServer = new CarbonServer(config, startupTimeline);
 
         // 4) Register a shutdown hook to stop the server
         registerShutdownHook(carbonServer);
@@ -84,15 +89,20 @@ public class Main {
             carbonServer.start();
 
             // Checking whether a server restart is required.
-            boolean restart = Boolean.parseBoolean(System.getProperty("carbon.server.restart"));
-            if (restart) {
-                // Here in this implementation we do not simply restart the OSGi framework. This could lead up to
-                //  memory leaks. Hence we do a complete JVM level restart. Exit state 121 is a special value.
-                //  Once the startup script receives this value, it restarts the JVM with the same arguments.
-                System.exit(ExitCodes.RESTART_ACTION);
-            } else {
-                System.exit(ExitCodes.SUCCESSFUL_TERMINATION);
+            while (Boolean.parseBoolean(System.clearProperty(CARBON_SERVER_RESTART))) {
+                // The launch configuration is reloaded, so that changes to it are picked up by the restart.
+                config = loadCarbonLaunchConfig();
+
+                // By default we do not simply restart the OSGi framework. This could lead up to memory leaks. Hence
+                //  we do a complete JVM level restart. Exit state 121 is a special value. Once the startup script
+                //  receives this value, it restarts the JVM with the same arguments. If the in-process restart is
+                //  enabled, the server is restarted in this JVM, unless the stopped framework could not be released.
+                if (!Boolean.parseBoolean(config.getProperties().get(CARBON_IN_PROCESS_RESTART))
+                        || !carbonServer.restart(config)) {
+                    System.exit(ExitCodes.RESTART_ACTION);
+                }
             }
+            System.exit(ExitCodes.SUCCESSFUL_TERMINATION);
         } catch (Throwable e) {
             // We need to invoke the stop method of the CarbonServer to allow the server to cleanup itself.
             carbonServer.stop();
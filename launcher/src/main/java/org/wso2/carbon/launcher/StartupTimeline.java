@@ -0,0 +1,128 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.wso2.carbon.launcher.Constants.STARTUP_TIMELINE;
+
+/**
+ * Records {@link System#nanoTime()} checkpoints for each phase of the Carbon server startup.
+ * <p>
+ * Each checkpoint marks the end of a phase, so the duration of a phase is the difference between its checkpoint and
+ * the previous one. The timeline is published to the {@value Constants#STARTUP_TIMELINE} system property every time a
+ * checkpoint is recorded, so that the Carbon kernel, which is loaded by the OSGi framework, can append its own phases
+ * and produce the final startup report.
+ * <p>
+ * The property value has the format {@code origin=<nanos>,<phase>=<nanos>,...}.
+ *
+ * @since 5.3.1
+ */
+public class StartupTimeline {
+
+    public static final String ORIGIN = "origin";
+    public static final String COMMAND_LINE = "cmdline";
+    public static final String LAUNCH_CONFIG = "launch.config";
+    public static final String FRAMEWORK_LOAD = "framework.load";
+    public static final String SERVER_LISTENERS = "server.listeners";
+    public static final String FRAMEWORK_START = "framework.start";
+    public static final String INITIAL_BUNDLES = "initial.bundles";
+    public static final String START_LEVEL = "start.level";
+
+    private final Map<String, Long> checkpoints = new LinkedHashMap<>();
+
+    /**
+     * Creates a timeline which starts now.
+     */
+    public StartupTimeline() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * Creates a timeline which starts at the given {@link System#nanoTime()} value.
+     *
+     * @param originNanos the origin of this timeline
+     */
+    public StartupTimeline(long originNanos) {
+        checkpoints.put(ORIGIN, originNanos);
+        publish();
+    }
+
+    /**
+     * Records the end of the given phase. If the phase is already recorded, the previous checkpoint is replaced.
+     *
+     * @param phase name of the completed phase
+     */
+    public synchronized void checkpoint(String phase) {
+        long now = System.nanoTime();
+        checkpoints.remove(phase);
+        checkpoints.put(phase, now);
+        publish();
+    }
+
+    /**
+     * Returns the origin of this timeline.
+     *
+     * @return origin as a {@link System#nanoTime()} value
+     */
+    public synchronized long getOrigin() {
+        return checkpoints.get(ORIGIN);
+    }
+
+    /**
+     * Returns the recorded checkpoints in the order they were recorded, including the origin.
+     *
+     * @return an unmodifiable map of phase names to {@link System#nanoTime()} values
+     */
+    public synchronized Map<String, Long> getCheckpoints() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(checkpoints));
+    }
+
+    /**
+     * Returns the duration of each recorded phase, in the order they were recorded.
+     *
+     * @return an unmodifiable map of phase names to durations in nanoseconds
+     */
+    public synchronized Map<String, Long> getPhaseDurations() {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        Long previous = null;
+        for (Map.Entry<String, Long> checkpoint : checkpoints.entrySet()) {
+            if (previous != null) {
+                durations.put(checkpoint.getKey(), checkpoint.getValue() - previous);
+            }
+            previous = checkpoint.getValue();
+        }
+        return Collections.unmodifiableMap(durations);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder();
+        checkpoints.forEach((phase, nanos) -> {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(phase).append('=').append(nanos);
+        });
+        return builder.toString();
+    }
+
+    private void publish() {
+        System.setProperty(STARTUP_TIMELINE, toString());
+    }
+}
@@ -54,7 +54,9 @@ public class OSGiLibBundleDeployer implements CarbonServerListener {
             try {
                 logger.log(Level.FINE,
                         "Loading the new OSGi bundle information from " + Constants.OSGI_LIB + " folder...");
-                List<BundleInfo> newBundlesInfo = OSGiLibBundleDeployerUtils.getBundlesInfo(libDirectoryPath);
+                Path indexFile = Paths.get(carbonHome.toString(), Constants.OSGI_REPOSITORY, Constants.OSGI_LIB_INDEX);
+                List<BundleInfo> newBundlesInfo = OSGiLibBundleDeployerUtils.getBundlesInfo(libDirectoryPath,
+                        indexFile);
                 logger.log(Level.FINE, "Successfully loaded the new OSGi bundle information from " +
                         Constants.OSGI_LIB + " folder");
 
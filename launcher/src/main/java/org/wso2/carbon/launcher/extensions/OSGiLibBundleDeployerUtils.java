@@ -21,15 +21,22 @@ import org.wso2.carbon.launcher.extensions.model.BundleInstallStatus;
 import org.wso2.carbon.launcher.extensions.model.BundleLocation;
 
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 import java.util.logging.Level;
@@ -44,6 +51,7 @@ import java.util.stream.Stream;
  */
 public class OSGiLibBundleDeployerUtils {
     private static final Logger logger = Logger.getLogger(OSGiLibBundleDeployerUtils.class.getName());
+    private static final Map<Path, Object> BUNDLES_INFO_LOCKS = new ConcurrentHashMap<>();
 
     /**
      * Updates the bundles.info file of the specified Carbon Runtime based on the OSGi bundles deployed in the
@@ -66,8 +74,8 @@ public class OSGiLibBundleDeployerUtils {
      * @param newBundlesInfo the new OSGi bundle information
      * @throws IOException if an I/O error occurs
      */
-    public static synchronized void updateOSGiLib(String carbonHome, String carbonProfile,
-            List<BundleInfo> newBundlesInfo) throws IOException {
+    public static void updateOSGiLib(String carbonHome, String carbonProfile, List<BundleInfo> newBundlesInfo)
+            throws IOException {
         //  validates the arguments provided
         if ((carbonHome == null) || (carbonHome.isEmpty())) {
             throw new IllegalArgumentException("Carbon home specified is invalid");
@@ -84,6 +92,55 @@ public class OSGiLibBundleDeployerUtils {
 
         Path bundlesInfoFile = Paths.get(carbonHome, Constants.PROFILE_REPOSITORY, carbonProfile, "configuration",
                 "org.eclipse.equinox.simpleconfigurator", Constants.BUNDLES_INFO);
+        //  updates of different Carbon Runtimes may run concurrently, while updates of a single runtime are serialized
+        synchronized (BUNDLES_INFO_LOCKS.computeIfAbsent(bundlesInfoFile.toAbsolutePath().normalize(),
+                path -> new Object())) {
+            updateBundlesInfo(bundlesInfoFile, carbonProfile, newBundlesInfo);
+        }
+    }
+
+    /**
+     * Updates the bundles.info files of the specified Carbon Runtimes in parallel, based on the OSGi bundles deployed
+     * in the {@value org.wso2.carbon.launcher.Constants#OSGI_LIB} directory.
+     * <p>
+     * The same new OSGi bundle information is used for every Carbon Runtime, hence the
+     * {@value org.wso2.carbon.launcher.Constants#OSGI_LIB} directory needs to be scanned only once. A failure in
+     * updating one Carbon Runtime does not prevent the others from being updated.
+     *
+     * @param carbonHome     the {@link String} representation of carbon.home
+     * @param carbonProfiles the names of the Carbon Runtimes of which the bundles.info is to be updated
+     * @param newBundlesInfo the new OSGi bundle information
+     * @throws IOException if an I/O error occurs when updating any of the Carbon Runtimes, with the errors of each
+     *                     failed Carbon Runtime added as suppressed exceptions
+     * @see #updateOSGiLib(String, String, List)
+     */
+    public static void updateOSGiLibForProfiles(String carbonHome, List<String> carbonProfiles,
+            List<BundleInfo> newBundlesInfo) throws IOException {
+        if (carbonProfiles == null) {
+            throw new IllegalArgumentException("Carbon Runtimes specified are invalid");
+        }
+
+        Map<String, IOException> failures = new ConcurrentHashMap<>();
+        carbonProfiles
+                .parallelStream()
+                .forEach(carbonProfile -> {
+                    try {
+                        updateOSGiLib(carbonHome, carbonProfile, newBundlesInfo);
+                    } catch (IOException e) {
+                        failures.put(carbonProfile, e);
+                    }
+                });
+
+        if (!failures.isEmpty()) {
+            IOException exception = new IOException("Failed to update the OSGi bundle information of Carbon "
+                    + "Runtimes: " + String.join(", ", new TreeSet<>(failures.keySet())));
+            failures.values().forEach(exception::addSuppressed);
+            throw exception;
+        }
+    }
+
+    private static void updateBundlesInfo(Path bundlesInfoFile, String carbonProfile, List<BundleInfo> newBundlesInfo)
+            throws IOException {
         //  retrieves the OSGi bundle information defined in the existing bundles.info file
         Map<BundleLocation, List<BundleInfo>> existingBundlesInfo = Files.readAllLines(bundlesInfoFile)
                 .stream()
@@ -143,6 +200,92 @@ public class OSGiLibBundleDeployerUtils {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Scans through the specified directory and constructs corresponding {@code BundleInfo} instances, using the
+     * specified index to avoid reading the manifests of the OSGi bundles which have not changed since the last scan.
+     * <p>
+     * If none of the jars in the directory has changed, the OSGi bundle information is loaded from the index without
+     * opening any jar. Otherwise only the added or modified jars are read and the index is updated. A jar is considered
+     * modified if its size or last modified time has changed.
+     * <p>
+     * A jar which could not be read, as opposed to a jar known not to be an OSGi bundle, is left out of the index and
+     * the fingerprint of the directory is not stored, so that the jar is read again by the next scan.
+     * <p>
+     * No duplicated OSGi bundles are returned.
+     *
+     * @param sourceDirectory the source folder in which the OSGi bundles reside
+     * @param indexFile       the file in which the OSGi bundle information of the source folder is indexed
+     * @return the constructed {@link BundleInfo} instances list
+     * @throws IOException if an I/O error occurs or if the {@code sourceDirectory} is invalid
+     */
+    public static List<BundleInfo> getBundlesInfo(Path sourceDirectory, Path indexFile) throws IOException {
+        if ((sourceDirectory == null) || (!Files.exists(sourceDirectory))) {
+            throw new IOException("Invalid OSGi bundle source directory. The specified path may not exist or " +
+                    "user may not have required file permissions for the specified path: " + sourceDirectory);
+        }
+
+        List<OSGiLibIndex.IndexedFile> jars = new ArrayList<>();
+        try (Stream<Path> children = Files.list(sourceDirectory)) {
+            for (Path child : children.sorted().collect(Collectors.toList())) {
+                if (Files.isRegularFile(child) && child.toString().endsWith(".jar")) {
+                    BasicFileAttributes attributes = Files.readAttributes(child, BasicFileAttributes.class);
+                    jars.add(new OSGiLibIndex.IndexedFile(child, attributes.size(),
+                            attributes.lastModifiedTime().toMillis()));
+                }
+            }
+        }
+
+        OSGiLibIndex index = OSGiLibIndex.load(indexFile);
+        String fingerprint = OSGiLibIndex.fingerprint(jars);
+        if (fingerprint.equals(index.getFingerprint())) {
+            logger.log(Level.FINE, "No changes detected in " + sourceDirectory + ", loaded the OSGi bundle "
+                    + "information from the index");
+            return index.getBundlesInfo().stream().distinct().collect(Collectors.toList());
+        }
+
+        Set<OSGiLibIndex.IndexedFile> unreadableJars = ConcurrentHashMap.newKeySet();
+        List<BundleInfo> bundlesInfo = jars
+                .parallelStream()
+                .map(jar -> {
+                    Optional<OSGiLibIndex.Entry> entry = index.lookup(jar);
+                    if (entry.isPresent()) {
+                        // An entry without bundle information is an unchanged jar already known not to be a bundle.
+                        return entry.get().getBundleInfo().orElse(null);
+                    }
+                    try {
+                        return getBundleInfo(jar.getPath()).orElse(null);
+                    } catch (IOException e) {
+                        logger.log(Level.WARNING,
+                                "Error when loading the OSGi bundle information from " + jar.getPath(), e);
+                        if (!(e instanceof InvalidBundleException)) {
+                            unreadableJars.add(jar);
+                        }
+                        return null;
+                    }
+                })
+                .collect(Collectors.toList());
+
+        List<OSGiLibIndex.IndexedFile> indexedJars = new ArrayList<>();
+        List<BundleInfo> indexedBundlesInfo = new ArrayList<>();
+        for (int i = 0; i < jars.size(); i++) {
+            if (!unreadableJars.contains(jars.get(i))) {
+                indexedJars.add(jars.get(i));
+                indexedBundlesInfo.add(bundlesInfo.get(i));
+            }
+        }
+        try {
+            index.store(unreadableJars.isEmpty() ? fingerprint : null, indexedJars, indexedBundlesInfo);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to update the OSGi-lib index " + indexFile, e);
+        }
+
+        return bundlesInfo
+                .stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
     /**
      * Constructs a {@code BundleInfo} instance out of the OSGi bundle file path specified.
      * <p>
@@ -151,7 +294,8 @@ public class OSGiLibBundleDeployerUtils {
      *
      * @param bundlePath path to the OSGi bundle from which the {@link BundleInfo} is to be generated
      * @return a {@link BundleInfo} instance
-     * @throws IOException if an I/O error occurs or if an invalid {@code bundlePath} is found
+     * @throws InvalidBundleException if the file is a jar without the manifest headers of an OSGi bundle
+     * @throws IOException            if an I/O error occurs or if an invalid {@code bundlePath} is found
      */
     private static Optional<BundleInfo> getBundleInfo(Path bundlePath) throws IOException {
         if ((bundlePath == null) || (!Files.exists(bundlePath))) {
@@ -173,14 +317,14 @@ public class OSGiLibBundleDeployerUtils {
             Manifest manifest = jarFile.getManifest();
 
             if ((manifest == null) || (manifest.getMainAttributes() == null)) {
-                throw new IOException("Invalid OSGi bundle found in the " + Constants.OSGI_LIB + " folder");
+                throw new InvalidBundleException("Invalid OSGi bundle found in the " + Constants.OSGI_LIB + " folder");
             }
 
             String bundleSymbolicName = manifest.getMainAttributes().getValue("Bundle-SymbolicName");
             String bundleVersion = manifest.getMainAttributes().getValue("Bundle-Version");
 
             if (bundleSymbolicName == null || bundleVersion == null) {
-                throw new IOException("Required bundle manifest headers do not exist");
+                throw new InvalidBundleException("Required bundle manifest headers do not exist");
             }
 
             logger.log(Level.FINE,
@@ -214,20 +358,22 @@ public class OSGiLibBundleDeployerUtils {
             List<BundleInfo> existingBundleInfo) {
         Map<BundleInstallStatus, List<BundleInfo>> updatableBundles = new HashMap<>();
 
+        List<BundleInfo> newBundles = Optional.ofNullable(newBundlesInfo).orElse(new ArrayList<>());
+        List<BundleInfo> existingBundles = Optional.ofNullable(existingBundleInfo).orElse(new ArrayList<>());
+        //  bundles are looked up by symbolic name and version, see BundleInfo#equals
+        Set<BundleInfo> newBundleKeys = new HashSet<>(newBundles);
+        Set<BundleInfo> existingBundleKeys = new HashSet<>(existingBundles);
+
         //  retrieves the newly installable OSGi bundle information
-        List<BundleInfo> bundlesToBeInstalled = Optional.ofNullable(newBundlesInfo)
-                .orElse(new ArrayList<>())
+        List<BundleInfo> bundlesToBeInstalled = newBundles
                 .stream()
-                .filter(bundleInfo -> !Optional.ofNullable(existingBundleInfo)
-                        .orElse(new ArrayList<>()).contains(bundleInfo))
+                .filter(bundleInfo -> !existingBundleKeys.contains(bundleInfo))
                 .collect(Collectors.toList());
 
         //  retrieves the OSGi bundle information to be uninstalled
-        List<BundleInfo> bundlesToBeRemoved = Optional.ofNullable(existingBundleInfo)
-                .orElse(new ArrayList<>())
+        List<BundleInfo> bundlesToBeRemoved = existingBundles
                 .stream()
-                .filter(bundleInfo -> !Optional.ofNullable(newBundlesInfo)
-                        .orElse(new ArrayList<>()).contains(bundleInfo))
+                .filter(bundleInfo -> !newBundleKeys.contains(bundleInfo))
                 .collect(Collectors.toList());
 
         //  sets the list for newly installable OSGi bundles
@@ -280,8 +426,12 @@ public class OSGiLibBundleDeployerUtils {
                 if (parent != null) {
                     Path newBundlesInfoFile = Paths.get(parent.toString(), "new.info");
                     Files.write(newBundlesInfoFile, bundleInfoLines);
-                    Files.deleteIfExists(bundlesInfoFilePath);
-                    Files.move(newBundlesInfoFile, newBundlesInfoFile.resolveSibling("bundles.info"));
+                    try {
+                        Files.move(newBundlesInfoFile, bundlesInfoFilePath, StandardCopyOption.REPLACE_EXISTING,
+                                StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(newBundlesInfoFile, bundlesInfoFilePath, StandardCopyOption.REPLACE_EXISTING);
+                    }
                 }
             }
         } else {
@@ -350,4 +500,15 @@ public class OSGiLibBundleDeployerUtils {
 
         return message.toString();
     }
+
+    /**
+     * Thrown when a jar has been read but does not have the manifest headers required of an OSGi bundle.
+     */
+    private static class InvalidBundleException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        InvalidBundleException(String message) {
+            super(message);
+        }
+    }
 }
@@ -0,0 +1,247 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher.extensions;
+
+import org.wso2.carbon.launcher.extensions.model.BundleInfo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A persisted index of the OSGi bundle information of the jars in an OSGi-lib directory.
+ * <p>
+ * Each entry is keyed by the jar file name, size and last modified time, so that the manifest of a jar is only read
+ * again when the jar changes. The index also holds a fingerprint of the whole directory, which allows an unchanged
+ * directory to be loaded from the index without looking up the entries one by one.
+ * <p>
+ * Each line of the index file has the format {@code <file name>\t<size>\t<last modified>\t<bundles.info line>}. The
+ * bundles.info line is empty for jars which are not valid OSGi bundles.
+ *
+ * @since 5.3.1
+ */
+class OSGiLibIndex {
+    private static final Logger logger = Logger.getLogger(OSGiLibIndex.class.getName());
+
+    private static final String VERSION_HEADER = "#version=1";
+    private static final String FINGERPRINT_HEADER = "#fingerprint=";
+    private static final String SEPARATOR = "\t";
+
+    private final Path indexFile;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private String fingerprint;
+
+    private OSGiLibIndex(Path indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Loads the index from the given file. An empty index is returned if the file does not exist or is not readable.
+     *
+     * @param indexFile the index file
+     * @return the loaded index
+     */
+    static OSGiLibIndex load(Path indexFile) {
+        OSGiLibIndex index = new OSGiLibIndex(indexFile);
+        if (!Files.exists(indexFile)) {
+            return index;
+        }
+
+        try {
+            List<String> lines = Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !VERSION_HEADER.equals(lines.get(0))) {
+                return index;
+            }
+            for (String line : lines.subList(1, lines.size())) {
+                if (line.startsWith(FINGERPRINT_HEADER)) {
+                    index.fingerprint = line.substring(FINGERPRINT_HEADER.length());
+                    continue;
+                }
+                String[] parts = line.split(SEPARATOR, -1);
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException("Invalid OSGi-lib index entry: " + line);
+                }
+                BundleInfo bundleInfo = parts[3].isEmpty() ? null : BundleInfo.getInstance(parts[3]);
+                index.entries.put(parts[0],
+                        new Entry(Long.parseLong(parts[1]), Long.parseLong(parts[2]), bundleInfo));
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.FINE, "Ignoring the unreadable OSGi-lib index " + indexFile, e);
+            index.entries.clear();
+            index.fingerprint = null;
+        }
+        return index;
+    }
+
+    /**
+     * Computes the fingerprint of a directory from the name, size and last modified time of its files.
+     *
+     * @param files the files in the directory, in a stable order
+     * @return hex encoded fingerprint
+     */
+    static String fingerprint(List<IndexedFile> files) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (IndexedFile file : files) {
+            digest.update((file.getName() + SEPARATOR + file.getSize() + SEPARATOR + file.getLastModified() + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (byte b : digest.digest()) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the fingerprint of the indexed directory, or null if the index is empty or incomplete
+     */
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns the bundle information of the given file, if the file has not changed since it was indexed.
+     *
+     * @param file the file to look up
+     * @return the cached entry, or an empty {@link Optional} if the file is not indexed or has changed
+     */
+    Optional<Entry> lookup(IndexedFile file) {
+        Entry entry = entries.get(file.getName());
+        if (entry == null || entry.size != file.getSize() || entry.lastModified != file.getLastModified()) {
+            return Optional.empty();
+        }
+        return Optional.of(entry);
+    }
+
+    /**
+     * @return the bundle information of all the indexed files which are valid OSGi bundles, in the indexed order
+     */
+    List<BundleInfo> getBundlesInfo() {
+        List<BundleInfo> bundlesInfo = new ArrayList<>();
+        entries.values().forEach(entry -> entry.getBundleInfo().ifPresent(bundlesInfo::add));
+        return bundlesInfo;
+    }
+
+    /**
+     * Replaces the content of this index and writes it to the index file.
+     *
+     * @param fingerprint the fingerprint of the indexed directory, or null if some of its files are not indexed
+     * @param files       the indexed files
+     * @param bundlesInfo the bundle information of each file, null for files which are not valid OSGi bundles
+     * @throws IOException if an I/O error occurs
+     */
+    void store(String fingerprint, List<IndexedFile> files, List<BundleInfo> bundlesInfo) throws IOException {
+        this.fingerprint = fingerprint;
+        entries.clear();
+
+        List<String> lines = new ArrayList<>();
+        lines.add(VERSION_HEADER);
+        if (fingerprint != null) {
+            lines.add(FINGERPRINT_HEADER + fingerprint);
+        }
+        for (int i = 0; i < files.size(); i++) {
+            IndexedFile file = files.get(i);
+            BundleInfo bundleInfo = bundlesInfo.get(i);
+            entries.put(file.getName(), new Entry(file.getSize(), file.getLastModified(), bundleInfo));
+            lines.add(file.getName() + SEPARATOR + file.getSize() + SEPARATOR + file.getLastModified() + SEPARATOR +
+                    (bundleInfo == null ? "" : bundleInfo.toString()));
+        }
+
+        Path parent = indexFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        // Each writer uses its own temporary file, so that concurrent scans do not write to the same file.
+        Path temporaryFile = Files.createTempFile(parent, String.valueOf(indexFile.getFileName()), ".tmp");
+        try {
+            Files.write(temporaryFile, lines, StandardCharsets.UTF_8);
+            try {
+                Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * A file of the indexed directory along with the attributes used to detect changes.
+     */
+    static class IndexedFile {
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+
+        IndexedFile(Path path, long size, long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        Path getPath() {
+            return path;
+        }
+
+        String getName() {
+            return String.valueOf(path.getFileName());
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    /**
+     * An index entry.
+     */
+    static class Entry {
+        private final long size;
+        private final long lastModified;
+        private final BundleInfo bundleInfo;
+
+        Entry(long size, long lastModified, BundleInfo bundleInfo) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.bundleInfo = bundleInfo;
+        }
+
+        Optional<BundleInfo> getBundleInfo() {
+            return Optional.ofNullable(bundleInfo);
+        }
+    }
+}
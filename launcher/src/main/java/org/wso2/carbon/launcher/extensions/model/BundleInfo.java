@@ -17,6 +17,8 @@ package org.wso2.carbon.launcher.extensions.model;
 
 import org.wso2.carbon.launcher.Constants;
 
+import java.util.Objects;
+
 /**
  * A Java class which models a holder for information of an OSGi bundle.
  *
@@ -108,6 +110,6 @@ public class BundleInfo {
 
     @Override
     public int hashCode() {
-        return (bundleSymbolicName.hashCode() * bundleVersion.hashCode());
+        return Objects.hash(bundleSymbolicName, bundleVersion);
     }
 }
@@ -0,0 +1,97 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher.test;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.launcher.ClassDataSharingArchive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Test the validation of the class data sharing archive.
+ *
+ * @since 5.3.1
+ */
+public class ClassDataSharingArchiveTest {
+
+    @Test
+    public void testArchiveOfUnchangedInstallationIsKept() throws IOException {
+        Path archiveFile = Files.createTempFile("carbon", ".jsa");
+        try {
+            new ClassDataSharingArchive(archiveFile, true).storeFingerprint("fingerprint");
+            Assert.assertTrue(new ClassDataSharingArchive(archiveFile, false).validate("fingerprint"));
+            Assert.assertTrue(Files.exists(archiveFile));
+        } finally {
+            Files.deleteIfExists(archiveFile);
+            Files.deleteIfExists(archiveFile.resolveSibling(archiveFile.getFileName() + ".fingerprint"));
+        }
+    }
+
+    @Test
+    public void testArchiveOfChangedInstallationIsRemoved() throws IOException {
+        Path archiveFile = Files.createTempFile("carbon", ".jsa");
+        Path fingerprintFile = archiveFile.resolveSibling(archiveFile.getFileName() + ".fingerprint");
+        try {
+            new ClassDataSharingArchive(archiveFile, true).storeFingerprint("fingerprint");
+            Assert.assertFalse(new ClassDataSharingArchive(archiveFile, false).validate("changed"));
+            Assert.assertFalse(Files.exists(archiveFile));
+            Assert.assertFalse(Files.exists(fingerprintFile));
+        } finally {
+            Files.deleteIfExists(archiveFile);
+            Files.deleteIfExists(fingerprintFile);
+        }
+    }
+
+    @Test
+    public void testStampOfValidatedArchive() throws IOException {
+        Path archiveFile = Files.createTempFile("carbon", ".jsa");
+        Path fingerprintFile = archiveFile.resolveSibling(archiveFile.getFileName() + ".fingerprint");
+        Path stampFile = archiveFile.resolveSibling(archiveFile.getFileName() + ".stamp");
+        try {
+            ClassDataSharingArchive archive = new ClassDataSharingArchive(archiveFile, false);
+            Assert.assertTrue(archive.exists());
+            Assert.assertFalse(archive.matchesStamp("stamp"));
+
+            archive.storeStamp("stamp");
+            Assert.assertTrue(archive.matchesStamp("stamp"));
+            Assert.assertFalse(archive.matchesStamp("changed"));
+
+            // A stale archive is removed together with its stamp.
+            Assert.assertFalse(archive.validate("fingerprint"));
+            Assert.assertFalse(archive.exists());
+            Assert.assertFalse(Files.exists(stampFile));
+            Assert.assertFalse(archive.matchesStamp("stamp"));
+        } finally {
+            Files.deleteIfExists(archiveFile);
+            Files.deleteIfExists(fingerprintFile);
+            Files.deleteIfExists(stampFile);
+        }
+    }
+
+    @Test
+    public void testArchiveOfIncompleteTrainingIsRemoved() throws IOException {
+        Path archiveFile = Files.createTempFile("carbon", ".jsa");
+        try {
+            Assert.assertFalse(new ClassDataSharingArchive(archiveFile, false).validate("fingerprint"));
+            Assert.assertFalse(Files.exists(archiveFile));
+        } finally {
+            Files.deleteIfExists(archiveFile);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher.test;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.launcher.FrameworkLeakDetector;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Test the leak detector used by the in-process restart.
+ *
+ * @since 5.3.1
+ */
+public class FrameworkLeakDetectorTest {
+
+    @Test
+    public void testReleasedClassLoaderIsCollected() throws InterruptedException {
+        FrameworkLeakDetector leakDetector = new FrameworkLeakDetector(new URLClassLoader(new URL[0], null));
+        Assert.assertTrue(leakDetector.awaitCollection(10000));
+        Assert.assertTrue(leakDetector.isCollected());
+    }
+
+    @Test
+    public void testLeakedClassLoaderIsReported() throws InterruptedException {
+        URLClassLoader fwkClassLoader = new URLClassLoader(new URL[0], null);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread leakingThread = new Thread(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "leak-detector-test-thread");
+        leakingThread.setContextClassLoader(fwkClassLoader);
+        leakingThread.start();
+
+        try {
+            FrameworkLeakDetector leakDetector = new FrameworkLeakDetector(fwkClassLoader);
+            fwkClassLoader = null;
+            Assert.assertFalse(leakDetector.awaitCollection(200));
+            String report = leakDetector.createReport();
+            Assert.assertTrue(report.contains("leak-detector-test-thread"));
+            // The URL factories are either checked, or reported as not checked.
+            Assert.assertEquals(report.contains("java.net.URL.factory is not accessible"),
+                    !isAccessible(URL.class, "factory"));
+        } finally {
+            release.countDown();
+            leakingThread.join();
+        }
+    }
+
+    private static boolean isAccessible(Class<?> type, String fieldName) {
+        try {
+            type.getDeclaredField(fieldName).setAccessible(true);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher.test;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.launcher.Constants;
+import org.wso2.carbon.launcher.FrameworkStorageFingerprint;
+import org.wso2.carbon.launcher.config.CarbonLaunchConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Test the OSGi framework storage fingerprint used by the warm start mode.
+ *
+ * @since 5.3.1
+ */
+public class FrameworkStorageFingerprintTest extends BaseTest {
+    private CarbonLaunchConfig launchConfig;
+
+    @BeforeClass
+    public void init() {
+        setupCarbonHome();
+        System.setProperty(Constants.PROFILE, Constants.DEFAULT_PROFILE);
+        launchConfig = new CarbonLaunchConfig();
+    }
+
+    @Test
+    public void testUnchangedInstallationMatchesStoredFingerprint() throws IOException {
+        FrameworkStorageFingerprint fingerprint = FrameworkStorageFingerprint.compute(launchConfig);
+        fingerprint.invalidate();
+        Assert.assertFalse(FrameworkStorageFingerprint.compute(launchConfig).matchesStored());
+
+        fingerprint.store();
+        FrameworkStorageFingerprint recomputed = FrameworkStorageFingerprint.compute(launchConfig);
+        Assert.assertEquals(recomputed.getValue(), fingerprint.getValue());
+        Assert.assertTrue(recomputed.matchesStored());
+        fingerprint.invalidate();
+    }
+
+    @Test
+    public void testChangedInstallationDoesNotMatchStoredFingerprint() throws IOException {
+        FrameworkStorageFingerprint fingerprint = FrameworkStorageFingerprint.compute(launchConfig);
+        fingerprint.store();
+
+        Path libDirectory = Paths.get(launchConfig.getCarbonHome(), Constants.OSGI_LIB);
+        Files.createDirectories(libDirectory);
+        Path newBundle = libDirectory.resolve("fingerprint-test-bundle.jar");
+        Files.write(newBundle, new byte[] { 1, 2, 3 });
+        try {
+            Assert.assertFalse(FrameworkStorageFingerprint.compute(launchConfig).matchesStored());
+        } finally {
+            Files.delete(newBundle);
+            fingerprint.invalidate();
+        }
+    }
+
+    @Test
+    public void testStampChangesWhenBundleIsAdded() throws IOException {
+        Path libDirectory = Paths.get(launchConfig.getCarbonHome(), Constants.OSGI_LIB);
+        Files.createDirectories(libDirectory);
+        Files.setLastModifiedTime(libDirectory, FileTime.fromMillis(1000000000000L));
+
+        String stamp = FrameworkStorageFingerprint.computeStamp(launchConfig);
+        Assert.assertEquals(FrameworkStorageFingerprint.computeStamp(launchConfig), stamp);
+
+        Path newBundle = libDirectory.resolve("stamp-test-bundle.jar");
+        Files.write(newBundle, new byte[] { 1, 2, 3 });
+        try {
+            Assert.assertNotEquals(FrameworkStorageFingerprint.computeStamp(launchConfig), stamp);
+        } finally {
+            Files.delete(newBundle);
+        }
+    }
+}
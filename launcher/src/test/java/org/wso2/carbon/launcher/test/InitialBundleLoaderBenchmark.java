@@ -0,0 +1,176 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher.test;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+import org.osgi.framework.launch.Framework;
+import org.osgi.framework.launch.FrameworkFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.launcher.InitialBundleLoader;
+import org.wso2.carbon.launcher.config.CarbonInitialBundle;
+import org.wso2.carbon.launcher.config.CarbonLaunchConfig;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import static org.wso2.carbon.launcher.Constants.CARBON_INITIAL_OSGI_BUNDLES;
+import static org.wso2.carbon.launcher.Constants.DEFAULT_PROFILE;
+import static org.wso2.carbon.launcher.Constants.PROFILE;
+
+/**
+ * Compares the boot time of an OSGi framework with hundreds of initial bundles when the bundles are installed
+ * serially and concurrently.
+ * <p>
+ * This benchmark is not part of the default test suite. Run it with
+ * {@code mvn test -Dtest=InitialBundleLoaderBenchmark -Dcarbon.benchmark.bundles=500}.
+ *
+ * @since 5.3.1
+ */
+public class InitialBundleLoaderBenchmark extends BaseTest {
+    private static final Logger logger = Logger.getLogger(InitialBundleLoaderBenchmark.class.getName());
+
+    private static final int BUNDLE_COUNT = Integer.getInteger("carbon.benchmark.bundles", 300);
+    private static final int ITERATIONS = Integer.getInteger("carbon.benchmark.iterations", 5);
+    private static final int RESOURCES_PER_BUNDLE = 50;
+    private static final int START_LEVELS = 5;
+
+    private Path benchmarkDirectory;
+    private List<CarbonInitialBundle> initialBundles;
+
+    @BeforeClass
+    public void init() throws IOException {
+        setupCarbonHome();
+        System.setProperty(PROFILE, DEFAULT_PROFILE);
+
+        benchmarkDirectory = Paths.get(basedir, "target", "initial-bundle-benchmark");
+        Path plugins = Files.createDirectories(benchmarkDirectory.resolve("plugins"));
+        StringBuilder bundleList = new StringBuilder();
+        for (int i = 0; i < BUNDLE_COUNT; i++) {
+            Path bundle = createBundle(plugins, i);
+            if (i > 0) {
+                bundleList.append(',');
+            }
+            bundleList.append("file:").append(bundle.toAbsolutePath()).append('@').append(i % START_LEVELS + 1)
+                    .append(":true");
+        }
+
+        Path launchProperties = benchmarkDirectory.resolve("launch.properties");
+        Files.write(launchProperties,
+                (CARBON_INITIAL_OSGI_BUNDLES + "=" + bundleList).getBytes(StandardCharsets.UTF_8));
+        String pluginsLocation = plugins.toAbsolutePath().toString();
+        // Only the generated bundles are benchmarked, the default initial bundles are left out.
+        initialBundles = new CarbonLaunchConfig(launchProperties.toFile()).getInitialBundles().stream()
+                .filter(bundle -> bundle.getLocation().getPath().startsWith(pluginsLocation))
+                .collect(Collectors.toList());
+        Assert.assertEquals(initialBundles.size(), BUNDLE_COUNT);
+    }
+
+    @Test
+    public void compareSerialAndConcurrentInstallation() throws Exception {
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        // The first boot of each mode warms up the JVM and the file system cache.
+        boot(1, "serial-warmup");
+        boot(processors, "concurrent-warmup");
+
+        long serial = 0;
+        long concurrent = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            serial += boot(1, "serial-" + i);
+            concurrent += boot(processors, "concurrent-" + i);
+        }
+
+        logger.info(String.format("Average boot time with %d initial bundles: serial %.1f ms, concurrent "
+                        + "(%d threads) %.1f ms", BUNDLE_COUNT, serial / 1e6 / ITERATIONS, processors,
+                concurrent / 1e6 / ITERATIONS));
+    }
+
+    private long boot(int installThreads, String storage) throws Exception {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(Constants.FRAMEWORK_STORAGE, benchmarkDirectory.resolve("storage").resolve(storage).toString());
+        properties.put(Constants.FRAMEWORK_STORAGE_CLEAN, Constants.FRAMEWORK_STORAGE_CLEAN_ONFIRSTINIT);
+        properties.put(Constants.FRAMEWORK_BEGINNING_STARTLEVEL, Integer.toString(START_LEVELS));
+
+        FrameworkFactory factory = ServiceLoader.load(FrameworkFactory.class).iterator().next();
+        long start = System.nanoTime();
+        Framework framework = factory.newFramework(properties);
+        try {
+            framework.init();
+            framework.start();
+            List<Bundle> bundles = new InitialBundleLoader(installThreads)
+                    .load(framework.getBundleContext(), initialBundles);
+            long elapsed = System.nanoTime() - start;
+
+            Assert.assertEquals(bundles.size(), BUNDLE_COUNT);
+            bundles.forEach(bundle -> Assert.assertEquals(bundle.getState(), Bundle.ACTIVE,
+                    bundle.getSymbolicName() + " is not active"));
+            return elapsed;
+        } finally {
+            framework.stop();
+            framework.waitForStop(0);
+        }
+    }
+
+    /**
+     * Creates a bundle which exports a package and imports the package exported by the previous bundle, so that
+     * resolving the bundles is part of the measured boot time.
+     */
+    private static Path createBundle(Path directory, int index) throws IOException {
+        Path bundle = directory.resolve("benchmark.bundle." + index + "_1.0.0.jar");
+        if (Files.exists(bundle)) {
+            return bundle;
+        }
+
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.putValue(Constants.BUNDLE_MANIFESTVERSION, "2");
+        attributes.putValue(Constants.BUNDLE_SYMBOLICNAME, "benchmark.bundle." + index);
+        attributes.putValue(Constants.BUNDLE_VERSION, "1.0.0");
+        attributes.putValue(Constants.EXPORT_PACKAGE, "benchmark.bundle" + index + ";version=\"1.0.0\"");
+        if (index > 0) {
+            attributes.putValue(Constants.IMPORT_PACKAGE, "benchmark.bundle" + (index - 1) + ";version=\"[1.0,2.0)\"");
+        }
+
+        byte[] content = new byte[1024];
+        try (OutputStream outputStream = Files.newOutputStream(bundle);
+             JarOutputStream jarOutputStream = new JarOutputStream(outputStream, manifest)) {
+            for (int i = 0; i < RESOURCES_PER_BUNDLE; i++) {
+                jarOutputStream.putNextEntry(new JarEntry("benchmark/bundle" + index + "/resource" + i + ".bin"));
+                jarOutputStream.write(content);
+                jarOutputStream.closeEntry();
+            }
+        }
+        return bundle;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher.test;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.launcher.InitialBundleLoader;
+import org.wso2.carbon.launcher.config.CarbonInitialBundle;
+import org.wso2.carbon.launcher.config.CarbonLaunchConfig;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.wso2.carbon.launcher.Constants.CARBON_INITIAL_OSGI_BUNDLES;
+import static org.wso2.carbon.launcher.Constants.DEFAULT_PROFILE;
+import static org.wso2.carbon.launcher.Constants.PROFILE;
+
+/**
+ * Tests the concurrent installation of the initial bundles and their start order.
+ *
+ * @since 5.3.1
+ */
+public class InitialBundleLoaderTest extends BaseTest {
+    private static final int[] START_LEVELS = {3, 1, 2, 1, 3, 2};
+    private static final boolean[] START = {true, true, true, false, true, true};
+
+    private List<CarbonInitialBundle> initialBundles;
+
+    @BeforeClass
+    public void init() throws IOException {
+        setupCarbonHome();
+        System.setProperty(PROFILE, DEFAULT_PROFILE);
+
+        Path directory = Files.createDirectories(Paths.get(basedir, "target", "initial-bundle-loader-test"));
+        String location = directory.toAbsolutePath().toString();
+        List<String> bundleList = new ArrayList<>();
+        for (int i = 0; i < START_LEVELS.length; i++) {
+            bundleList.add("file:" + location + "/bundle" + i + ".jar@" + START_LEVELS[i] + ":" + START[i]);
+        }
+        Path launchProperties = directory.resolve("launch.properties");
+        Files.write(launchProperties, (CARBON_INITIAL_OSGI_BUNDLES + "=" + String.join(",", bundleList))
+                .getBytes(StandardCharsets.UTF_8));
+        // Only the listed bundles are loaded, the default initial bundles are left out.
+        initialBundles = new CarbonLaunchConfig(launchProperties.toFile()).getInitialBundles().stream()
+                .filter(bundle -> bundle.getLocation().getPath().startsWith(location))
+                .collect(Collectors.toList());
+        Assert.assertEquals(initialBundles.size(), START_LEVELS.length);
+        // The launch configuration orders the bundles by start level, so the order is reversed to check that the
+        // loader orders them itself.
+        Collections.reverse(initialBundles);
+    }
+
+    @Test
+    public void testConcurrentInstallAndOrderedStart() throws Exception {
+        int installThreads = 3;
+        // Each installation waits until as many installations as there are threads are in progress.
+        CountDownLatch concurrentInstalls = new CountDownLatch(installThreads);
+        Set<String> installerThreads = ConcurrentHashMap.newKeySet();
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+        BundleContext bundleContext = (BundleContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{BundleContext.class}, (proxy, method, args) -> {
+                    if (!"installBundle".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    String name = bundleName((String) args[0]);
+                    installerThreads.add(Thread.currentThread().getName());
+                    concurrentInstalls.countDown();
+                    Assert.assertTrue(concurrentInstalls.await(10, TimeUnit.SECONDS), "bundles are not installed "
+                            + "concurrently");
+                    events.add("install:" + name);
+                    return createBundle(name, events);
+                });
+
+        List<Bundle> bundles = new InitialBundleLoader(installThreads).load(bundleContext, initialBundles);
+
+        // Bundles are returned in the declared order.
+        for (int i = 0; i < bundles.size(); i++) {
+            Assert.assertEquals(bundles.get(i).getSymbolicName(),
+                    bundleName(initialBundles.get(i).getLocation().toString()));
+        }
+        Assert.assertTrue(installerThreads.size() > 1);
+
+        // All the bundles are installed before any is started.
+        List<String> installs = events.subList(0, START_LEVELS.length);
+        Assert.assertTrue(installs.stream().allMatch(event -> event.startsWith("install:")), events.toString());
+        // Bundles are started by start level, in the declared order within a level.
+        Assert.assertEquals(events.subList(START_LEVELS.length, events.size()),
+                Arrays.asList("start:bundle1", "start:bundle5", "start:bundle2", "start:bundle4", "start:bundle0"));
+    }
+
+    @Test
+    public void testSerialInstall() throws Exception {
+        Thread testThread = Thread.currentThread();
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        BundleContext bundleContext = (BundleContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{BundleContext.class}, (proxy, method, args) -> {
+                    // A single install thread installs the bundles on the calling thread, in the declared order.
+                    Assert.assertEquals(Thread.currentThread(), testThread);
+                    String name = bundleName((String) args[0]);
+                    events.add("install:" + name);
+                    return createBundle(name, events);
+                });
+
+        new InitialBundleLoader(1).load(bundleContext, initialBundles);
+        List<String> expected = initialBundles.stream()
+                .map(bundle -> "install:" + bundleName(bundle.getLocation().toString()))
+                .collect(Collectors.toList());
+        expected.addAll(Arrays.asList("start:bundle1", "start:bundle5", "start:bundle2", "start:bundle4",
+                "start:bundle0"));
+        Assert.assertEquals(events, expected);
+    }
+
+    private static String bundleName(String location) {
+        String fileName = location.substring(location.lastIndexOf('/') + 1);
+        return fileName.substring(0, fileName.length() - ".jar".length());
+    }
+
+    private static Bundle createBundle(String name, List<String> events) {
+        return (Bundle) Proxy.newProxyInstance(InitialBundleLoaderTest.class.getClassLoader(),
+                new Class[]{Bundle.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getSymbolicName":
+                        case "getLocation":
+                            return name;
+                        case "start":
+                            events.add("start:" + name);
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher.test;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.launcher.Constants;
+import org.wso2.carbon.launcher.extensions.OSGiLibBundleDeployerUtils;
+import org.wso2.carbon.launcher.extensions.model.BundleInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for updating the bundles.info files of Carbon Runtimes from the OSGi-lib bundle information.
+ *
+ * @since 5.3.1
+ */
+public class OSGiLibBundleUpdateTest extends BaseTest {
+    private static final String PLUGIN = "org.eclipse.osgi,3.10.2,../../plugins/org.eclipse.osgi_3.10.2.jar,-1,true";
+    private static final String BUNDLE_A = "bundle.a,1.0.0,../../lib/bundle.a_1.0.0.jar,4,true";
+    private static final String BUNDLE_B = "bundle.b,1.0.0,../../lib/bundle.b_1.0.0.jar,4,false";
+    private static final String BUNDLE_C = "bundle.c,2.0.0,../../lib/bundle.c_2.0.0.jar,4,true";
+    private static final List<String> PROFILES = Arrays.asList("default", "mss", "analytics", "broker", "gateway");
+    private static final FileTime LAST_MODIFIED = FileTime.fromMillis(1000000000000L);
+
+    private String carbonHome;
+
+    @BeforeMethod
+    public void init() throws IOException {
+        Path root = Paths.get(basedir, "target", "osgi-lib-update-test");
+        if (Files.exists(root)) {
+            try (Stream<Path> paths = Files.walk(root)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+        carbonHome = root.toString();
+
+        for (String profile : PROFILES) {
+            Path bundlesInfo = getBundlesInfoFile(profile);
+            Files.createDirectories(bundlesInfo.getParent());
+            Files.write(bundlesInfo, Arrays.asList("#version=1", PLUGIN, BUNDLE_A, BUNDLE_B));
+            Files.setLastModifiedTime(bundlesInfo, LAST_MODIFIED);
+        }
+    }
+
+    @Test(description = "Attempts to update a Carbon Runtime with unchanged OSGi bundle information")
+    public void testUnchangedBundlesInfoIsNotWritten() throws IOException {
+        Path bundlesInfo = getBundlesInfoFile("default");
+        List<String> expected = Files.readAllLines(bundlesInfo);
+
+        OSGiLibBundleDeployerUtils.updateOSGiLib(carbonHome, "default", getBundlesInfo(BUNDLE_B, BUNDLE_A));
+
+        Assert.assertEquals(Files.readAllLines(bundlesInfo), expected);
+        Assert.assertEquals(Files.getLastModifiedTime(bundlesInfo), LAST_MODIFIED);
+    }
+
+    @Test(description = "Attempts to update a Carbon Runtime with added and removed OSGi-lib bundles")
+    public void testAddedAndRemovedBundlesAreWritten() throws IOException {
+        Path bundlesInfo = getBundlesInfoFile("default");
+
+        OSGiLibBundleDeployerUtils.updateOSGiLib(carbonHome, "default", getBundlesInfo(BUNDLE_A, BUNDLE_C));
+
+        Assert.assertEquals(Files.readAllLines(bundlesInfo), Arrays.asList(PLUGIN, BUNDLE_A, BUNDLE_C));
+        Assert.assertFalse(Files.exists(bundlesInfo.resolveSibling("new.info")));
+    }
+
+    @Test(description = "Attempts to update a Carbon Runtime after all OSGi-lib bundles have been removed")
+    public void testAllBundlesRemoved() throws IOException {
+        OSGiLibBundleDeployerUtils.updateOSGiLib(carbonHome, "default", new ArrayList<>());
+
+        Assert.assertEquals(Files.readAllLines(getBundlesInfoFile("default")), Arrays.asList(PLUGIN));
+    }
+
+    @Test(description = "Attempts to update several Carbon Runtimes concurrently")
+    public void testConcurrentProfileUpdates() throws IOException {
+        OSGiLibBundleDeployerUtils.updateOSGiLibForProfiles(carbonHome, PROFILES, getBundlesInfo(BUNDLE_C, BUNDLE_B));
+
+        for (String profile : PROFILES) {
+            Path bundlesInfo = getBundlesInfoFile(profile);
+            Assert.assertEquals(Files.readAllLines(bundlesInfo), Arrays.asList(PLUGIN, BUNDLE_C, BUNDLE_B), profile);
+            Assert.assertFalse(Files.exists(bundlesInfo.resolveSibling("new.info")), profile);
+        }
+    }
+
+    @Test(description = "Attempts to update the same Carbon Runtime from several threads at once")
+    public void testConcurrentUpdatesOfSameProfile() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    OSGiLibBundleDeployerUtils.updateOSGiLib(carbonHome, "mss", getBundlesInfo(BUNDLE_A, BUNDLE_C));
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(failures, new ArrayList<>());
+        Assert.assertEquals(Files.readAllLines(getBundlesInfoFile("mss")), Arrays.asList(PLUGIN, BUNDLE_A, BUNDLE_C));
+    }
+
+    @Test(description = "Attempts to update Carbon Runtimes of which one has no bundles.info file")
+    public void testFailedProfileDoesNotStopOthers() throws IOException {
+        Files.delete(getBundlesInfoFile("broker"));
+
+        try {
+            OSGiLibBundleDeployerUtils.updateOSGiLibForProfiles(carbonHome, PROFILES, getBundlesInfo(BUNDLE_C));
+            Assert.fail("Expected the update of the broker runtime to fail");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().endsWith(": broker"), e.getMessage());
+            Assert.assertEquals(e.getSuppressed().length, 1);
+        }
+
+        for (String profile : PROFILES) {
+            if (!profile.equals("broker")) {
+                Assert.assertEquals(Files.readAllLines(getBundlesInfoFile(profile)), Arrays.asList(PLUGIN, BUNDLE_C),
+                        profile);
+            }
+        }
+    }
+
+    private Path getBundlesInfoFile(String profile) {
+        return Paths.get(carbonHome, Constants.PROFILE_REPOSITORY, profile, "configuration",
+                "org.eclipse.equinox.simpleconfigurator", Constants.BUNDLES_INFO);
+    }
+
+    private static List<BundleInfo> getBundlesInfo(String... lines) {
+        return Stream.of(lines).map(BundleInfo::getInstance).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher.test;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.launcher.Constants;
+import org.wso2.carbon.launcher.extensions.OSGiLibBundleDeployerUtils;
+import org.wso2.carbon.launcher.extensions.model.BundleInfo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Measures the time taken to update the bundles.info files of dozens of Carbon Runtimes with thousands of OSGi-lib
+ * bundles, updating the Carbon Runtimes one after the other and in parallel.
+ * <p>
+ * This benchmark is not part of the default test suite. Run it with
+ * {@code mvn test -Dtest=OSGiLibDeployerBenchmark -Dcarbon.benchmark.bundles=5000 -Dcarbon.benchmark.profiles=50}.
+ *
+ * @since 5.3.1
+ */
+public class OSGiLibDeployerBenchmark extends BaseTest {
+    private static final Logger logger = Logger.getLogger(OSGiLibDeployerBenchmark.class.getName());
+
+    private static final int BUNDLE_COUNT = Integer.getInteger("carbon.benchmark.bundles", 3000);
+    private static final int PROFILE_COUNT = Integer.getInteger("carbon.benchmark.profiles", 30);
+    private static final int ITERATIONS = Integer.getInteger("carbon.benchmark.iterations", 5);
+
+    private String carbonHome;
+    private List<String> profiles = new ArrayList<>();
+    private List<String> existingBundlesInfo = new ArrayList<>();
+    private List<BundleInfo> newBundlesInfo = new ArrayList<>();
+
+    @BeforeClass
+    public void init() {
+        carbonHome = Paths.get(basedir, "target", "osgi-lib-deployer-benchmark").toString();
+        for (int i = 0; i < PROFILE_COUNT; i++) {
+            profiles.add("profile" + i);
+        }
+
+        for (int i = 0; i < BUNDLE_COUNT; i++) {
+            // Every runtime carries bundles from the plugins folder along with the OSGi-lib bundles.
+            existingBundlesInfo.add("plugin.bundle" + i + ",1.0.0,../plugins/plugin.bundle" + i + "_1.0.0.jar,4,true");
+            // Half of the OSGi-lib bundles have been upgraded since the last update.
+            String libVersion = (i % 2 == 0) ? "1.0.0" : "0.9.0";
+            existingBundlesInfo.add(bundleInfo(i, libVersion).toString());
+            newBundlesInfo.add(bundleInfo(i, "1.0.0"));
+        }
+    }
+
+    @Test
+    public void compareSerialAndParallelProfileUpdates() throws IOException {
+        // The first run of each mode warms up the JVM and the file system cache.
+        updateSerially();
+        updateInParallel();
+
+        long serial = 0;
+        long parallel = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            serial += updateSerially();
+            parallel += updateInParallel();
+        }
+
+        logger.info(String.format("Average time to update %d Carbon Runtimes with %d OSGi-lib bundles: serial "
+                        + "%.1f ms, parallel %.1f ms", PROFILE_COUNT, BUNDLE_COUNT, serial / 1e6 / ITERATIONS,
+                parallel / 1e6 / ITERATIONS));
+    }
+
+    private long updateSerially() throws IOException {
+        resetProfiles();
+        long start = System.nanoTime();
+        for (String profile : profiles) {
+            OSGiLibBundleDeployerUtils.updateOSGiLib(carbonHome, profile, newBundlesInfo);
+        }
+        long elapsed = System.nanoTime() - start;
+        verifyProfiles();
+        return elapsed;
+    }
+
+    private long updateInParallel() throws IOException {
+        resetProfiles();
+        long start = System.nanoTime();
+        OSGiLibBundleDeployerUtils.updateOSGiLibForProfiles(carbonHome, profiles, newBundlesInfo);
+        long elapsed = System.nanoTime() - start;
+        verifyProfiles();
+        return elapsed;
+    }
+
+    private void resetProfiles() throws IOException {
+        for (String profile : profiles) {
+            Path bundlesInfo = getBundlesInfoFile(profile);
+            Files.createDirectories(bundlesInfo.getParent());
+            Files.write(bundlesInfo, existingBundlesInfo);
+        }
+    }
+
+    private void verifyProfiles() throws IOException {
+        for (String profile : profiles) {
+            List<String> lines = Files.readAllLines(getBundlesInfoFile(profile));
+            Assert.assertEquals(lines.size(), BUNDLE_COUNT * 2);
+            Assert.assertEquals(new HashSet<>(lines).size(), BUNDLE_COUNT * 2);
+        }
+    }
+
+    private Path getBundlesInfoFile(String profile) {
+        return Paths.get(carbonHome, Constants.PROFILE_REPOSITORY, profile, "configuration",
+                "org.eclipse.equinox.simpleconfigurator", Constants.BUNDLES_INFO);
+    }
+
+    private static BundleInfo bundleInfo(int index, String version) {
+        return new BundleInfo("lib.bundle" + index, version,
+                "../../" + Constants.OSGI_LIB + "/lib.bundle" + index + "_" + version + ".jar", 4, false);
+    }
+}
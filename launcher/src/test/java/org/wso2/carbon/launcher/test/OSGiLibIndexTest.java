@@ -0,0 +1,191 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher.test;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.launcher.extensions.OSGiLibBundleDeployerUtils;
+import org.wso2.carbon.launcher.extensions.model.BundleInfo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * Unit tests for the indexed OSGi-lib scan.
+ *
+ * @since 5.3.1
+ */
+public class OSGiLibIndexTest extends BaseTest {
+    private Path lib;
+    private Path indexFile;
+
+    @BeforeClass
+    public void init() throws IOException {
+        Path root = Paths.get(basedir, "target", "osgi-lib-index-test");
+        lib = Files.createDirectories(root.resolve("lib"));
+        indexFile = root.resolve("osgi-lib.index");
+        Files.deleteIfExists(indexFile);
+
+        createBundle(lib.resolve("bundle.a_1.0.0.jar"), "bundle.a", "1.0.0", false);
+        createBundle(lib.resolve("bundle.b_1.0.0.jar"), "bundle.b", "1.0.0", true);
+    }
+
+    @Test(description = "Attempts to load the OSGi bundle information for the first time, creating the index")
+    public void testInitialScan() throws IOException {
+        List<BundleInfo> actual = OSGiLibBundleDeployerUtils.getBundlesInfo(lib, indexFile);
+
+        Assert.assertTrue(Files.exists(indexFile));
+        Assert.assertEquals(new HashSet<>(actual), new HashSet<>(OSGiLibBundleDeployerUtils.getBundlesInfo(lib)));
+        Assert.assertEquals(actual, Arrays.asList(
+                BundleInfo.getInstance("bundle.a,1.0.0,../../lib/bundle.a_1.0.0.jar,4,true"),
+                BundleInfo.getInstance("bundle.b,1.0.0,../../lib/bundle.b_1.0.0.jar,4,false")));
+    }
+
+    @Test(description = "Attempts to load the OSGi bundle information of unchanged jars without reading them",
+            dependsOnMethods = "testInitialScan")
+    public void testUnchangedJarsAreNotRead() throws IOException {
+        // Overwrite a jar with unreadable content of the same size and last modified time.
+        Path jar = lib.resolve("bundle.a_1.0.0.jar");
+        FileTime lastModified = Files.getLastModifiedTime(jar);
+        Files.write(jar, new byte[(int) Files.size(jar)]);
+        Files.setLastModifiedTime(jar, lastModified);
+
+        List<BundleInfo> actual = OSGiLibBundleDeployerUtils.getBundlesInfo(lib, indexFile);
+        Assert.assertEquals(actual.size(), 2);
+        Assert.assertEquals(actual.get(0).getBundleSymbolicName(), "bundle.a");
+    }
+
+    @Test(description = "Attempts to load the OSGi bundle information after adding and modifying jars",
+            dependsOnMethods = "testUnchangedJarsAreNotRead")
+    public void testChangedJarsAreRead() throws IOException {
+        Path jar = lib.resolve("bundle.a_1.0.0.jar");
+        createBundle(jar, "bundle.a", "1.1.0", false);
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 1000));
+        createBundle(lib.resolve("bundle.c_1.0.0.jar"), "bundle.c", "1.0.0", false);
+
+        List<BundleInfo> actual = OSGiLibBundleDeployerUtils.getBundlesInfo(lib, indexFile);
+        Assert.assertEquals(actual, Arrays.asList(
+                BundleInfo.getInstance("bundle.a,1.1.0,../../lib/bundle.a_1.0.0.jar,4,true"),
+                BundleInfo.getInstance("bundle.b,1.0.0,../../lib/bundle.b_1.0.0.jar,4,false"),
+                BundleInfo.getInstance("bundle.c,1.0.0,../../lib/bundle.c_1.0.0.jar,4,true")));
+    }
+
+    @Test(description = "Attempts to load the OSGi bundle information of an unchanged jar which is not a bundle",
+            dependsOnMethods = "testChangedJarsAreRead")
+    public void testUnchangedNonBundleJarsAreNotRead() throws IOException {
+        // Index a jar which is not a valid bundle, with the size of a valid bundle.
+        Path jar = lib.resolve("bundle.d_1.0.0.jar");
+        createStoredJar(jar, "bundle.d", "Bundle-Comment");
+        FileTime lastModified = Files.getLastModifiedTime(jar);
+        Assert.assertEquals(OSGiLibBundleDeployerUtils.getBundlesInfo(lib, indexFile).size(), 3);
+
+        // Replace it with a valid bundle without changing the attributes, and change another jar so that the
+        // directory fingerprint no longer matches.
+        long size = Files.size(jar);
+        createStoredJar(jar, "bundle.d", "Bundle-Version");
+        Assert.assertEquals(Files.size(jar), size);
+        Files.setLastModifiedTime(jar, lastModified);
+        Files.delete(lib.resolve("bundle.c_1.0.0.jar"));
+
+        List<BundleInfo> actual = OSGiLibBundleDeployerUtils.getBundlesInfo(lib, indexFile);
+        Assert.assertEquals(actual, Arrays.asList(
+                BundleInfo.getInstance("bundle.a,1.1.0,../../lib/bundle.a_1.0.0.jar,4,true"),
+                BundleInfo.getInstance("bundle.b,1.0.0,../../lib/bundle.b_1.0.0.jar,4,false")));
+        try (Stream<Path> files = Files.list(indexFile.getParent())) {
+            Assert.assertFalse(files.anyMatch(file -> file.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test(description = "Attempts to load the OSGi bundle information of a jar which could not be read earlier",
+            dependsOnMethods = "testUnchangedNonBundleJarsAreNotRead")
+    public void testUnreadableJarsAreReadAgain() throws IOException {
+        Files.delete(lib.resolve("bundle.d_1.0.0.jar"));
+        Path jar = lib.resolve("bundle.e_1.0.0.jar");
+        createBundle(jar, "bundle.e", "1.0.0", false);
+        byte[] content = Files.readAllBytes(jar);
+        FileTime lastModified = Files.getLastModifiedTime(jar);
+
+        // Fail the read of the jar, as a transient error would.
+        Files.write(jar, new byte[content.length]);
+        Files.setLastModifiedTime(jar, lastModified);
+        Assert.assertEquals(OSGiLibBundleDeployerUtils.getBundlesInfo(lib, indexFile).size(), 2);
+
+        // The jar is readable again with the same attributes, so the directory fingerprint is unchanged.
+        Files.write(jar, content);
+        Files.setLastModifiedTime(jar, lastModified);
+
+        List<BundleInfo> actual = OSGiLibBundleDeployerUtils.getBundlesInfo(lib, indexFile);
+        Assert.assertEquals(actual, Arrays.asList(
+                BundleInfo.getInstance("bundle.a,1.1.0,../../lib/bundle.a_1.0.0.jar,4,true"),
+                BundleInfo.getInstance("bundle.b,1.0.0,../../lib/bundle.b_1.0.0.jar,4,false"),
+                BundleInfo.getInstance("bundle.e,1.0.0,../../lib/bundle.e_1.0.0.jar,4,true")));
+        Assert.assertEquals(OSGiLibBundleDeployerUtils.getBundlesInfo(lib, indexFile), actual);
+    }
+
+    private static void createBundle(Path jar, String symbolicName, String version, boolean fragment)
+            throws IOException {
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.putValue("Bundle-ManifestVersion", "2");
+        attributes.putValue("Bundle-SymbolicName", symbolicName);
+        attributes.putValue("Bundle-Version", version);
+        if (fragment) {
+            attributes.putValue("Fragment-Host", "bundle.a");
+        }
+        try (OutputStream outputStream = Files.newOutputStream(jar);
+             JarOutputStream jarOutputStream = new JarOutputStream(outputStream, manifest)) {
+            jarOutputStream.flush();
+        }
+    }
+
+    /**
+     * Creates a jar with an uncompressed manifest, so that jars with manifest headers of the same length have the
+     * same size.
+     */
+    private static void createStoredJar(Path jar, String symbolicName, String versionHeader) throws IOException {
+        byte[] manifest = ("Manifest-Version: 1.0\r\nBundle-ManifestVersion: 2\r\nBundle-SymbolicName: " + symbolicName
+                + "\r\n" + versionHeader + ": 1.0.0\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(manifest);
+        ZipEntry entry = new ZipEntry(JarFile.MANIFEST_NAME);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(manifest.length);
+        entry.setCrc(crc.getValue());
+        try (OutputStream outputStream = Files.newOutputStream(jar);
+             JarOutputStream jarOutputStream = new JarOutputStream(outputStream)) {
+            jarOutputStream.putNextEntry(entry);
+            jarOutputStream.write(manifest);
+            jarOutputStream.closeEntry();
+        }
+    }
+}
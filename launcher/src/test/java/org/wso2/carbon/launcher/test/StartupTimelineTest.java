@@ -0,0 +1,58 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.launcher.test;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.launcher.Constants;
+import org.wso2.carbon.launcher.StartupTimeline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Startup timeline test class.
+ *
+ * @since 5.3.1
+ */
+@Test(groups = "timeline")
+public class StartupTimelineTest {
+
+    public void checkpointOrderTest() {
+        StartupTimeline timeline = new StartupTimeline();
+        timeline.checkpoint(StartupTimeline.COMMAND_LINE);
+        timeline.checkpoint(StartupTimeline.LAUNCH_CONFIG);
+        timeline.checkpoint(StartupTimeline.FRAMEWORK_LOAD);
+
+        Map<String, Long> durations = timeline.getPhaseDurations();
+        Assert.assertEquals(new ArrayList<>(durations.keySet()), Arrays.asList(StartupTimeline.COMMAND_LINE,
+                StartupTimeline.LAUNCH_CONFIG, StartupTimeline.FRAMEWORK_LOAD));
+        durations.values().forEach(duration -> Assert.assertTrue(duration >= 0));
+    }
+
+    public void publishedTimelineTest() {
+        StartupTimeline timeline = new StartupTimeline(100L);
+        Assert.assertEquals(System.getProperty(Constants.STARTUP_TIMELINE), StartupTimeline.ORIGIN + "=100");
+
+        timeline.checkpoint(StartupTimeline.COMMAND_LINE);
+        long commandLine = timeline.getCheckpoints().get(StartupTimeline.COMMAND_LINE);
+        Assert.assertEquals(System.getProperty(Constants.STARTUP_TIMELINE),
+                StartupTimeline.ORIGIN + "=100," + StartupTimeline.COMMAND_LINE + "=" + commandLine);
+        Assert.assertEquals(timeline.getPhaseDurations().get(StartupTimeline.COMMAND_LINE),
+                Long.valueOf(commandLine - 100L));
+    }
+}
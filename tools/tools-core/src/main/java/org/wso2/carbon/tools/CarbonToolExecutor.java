@@ -16,6 +16,7 @@
 package org.wso2.carbon.tools;
 
 import org.wso2.carbon.tools.converter.BundleGeneratorTool;
+import org.wso2.carbon.tools.counters.KernelCountersTool;
 import org.wso2.carbon.tools.exception.CarbonToolException;
 import org.wso2.carbon.tools.osgilib.OSGiLibDeployerTool;
 import org.wso2.carbon.tools.spi.ICFProviderTool;
@@ -88,6 +89,9 @@ public class CarbonToolExecutor {
             case "install-jars":
                 carbonTool = new InstallJarsTool();
                 break;
+            case "kernel-counters":
+                carbonTool = new KernelCountersTool();
+                break;
             default:
                 carbonTool = null;
         }
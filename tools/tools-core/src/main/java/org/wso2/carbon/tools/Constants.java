@@ -43,6 +43,7 @@ public class Constants {
     public static final String P2_INF_FILE_EXTENSION = ".inf";
     public static final String JAR_FILE_EXTENSION = ".jar";
     public static final String ZIP_FILE_EXTENSION = ".zip";
+    public static final String KERNEL_COUNTERS_FILE_NAME = "carbon.counters";
 
     public static final String ECLIPSE_OSGI_VERSION = "org.eclipse.osgi_3.14.0.v20190517-1309.jar";
 
@@ -0,0 +1,158 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.tools.counters;
+
+import org.wso2.carbon.tools.exception.CarbonToolException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads the memory mapped counters file published by the Carbon kernel in the runtime directory.
+ * <p>
+ * The file has a fixed, big endian layout. A 32 byte header holds the magic number, the layout version, the number of
+ * counters, the size of a counter entry, the JVM start time and the time of the last update in epoch milliseconds.
+ * The counter entries follow the header. Each entry holds the zero padded UTF-8 counter name followed by the 8 byte
+ * value.
+ * <p>
+ * The kernel replaces the file on every start, so a reader which outlives a server restart has to {@link #refresh()}
+ * its mapping.
+ *
+ * @since 5.3.1
+ */
+public class KernelCountersReader {
+    static final int MAGIC = 0x43524E43;
+    static final int VERSION = 1;
+    static final int HEADER_LENGTH = 32;
+    static final int START_TIME_OFFSET = 16;
+
+    private final Path file;
+    private MappedByteBuffer buffer;
+    private Object fileIdentity;
+
+    /**
+     * Maps the counters file for reading.
+     *
+     * @param file counters file
+     * @throws CarbonToolException if the file cannot be mapped or is not a kernel counters file
+     */
+    public KernelCountersReader(Path file) throws CarbonToolException {
+        this.file = file;
+        map();
+    }
+
+    /**
+     * Maps the counters file again if it was replaced since it was mapped, that is if the identity of the file or
+     * the JVM start time in its header has changed.
+     *
+     * @return true if the file was mapped again
+     * @throws CarbonToolException if the file cannot be read, or the replacing file is not a kernel counters file
+     */
+    public boolean refresh() throws CarbonToolException {
+        try {
+            if (getFileIdentity(file).equals(fileIdentity) && readStartTime(file) == getStartTime()) {
+                return false;
+            }
+        } catch (IOException e) {
+            throw new CarbonToolException("Unable to read the kernel counters file " + file, e);
+        }
+        map();
+        return true;
+    }
+
+    private void map() throws CarbonToolException {
+        MappedByteBuffer mappedBuffer;
+        Object mappedFileIdentity;
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mappedFileIdentity = getFileIdentity(file);
+            mappedBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+        } catch (IOException e) {
+            throw new CarbonToolException("Unable to read the kernel counters file " + file, e);
+        }
+        if (mappedBuffer.capacity() < HEADER_LENGTH || mappedBuffer.getInt(0) != MAGIC) {
+            throw new CarbonToolException(file + " is not a kernel counters file");
+        }
+        if (mappedBuffer.getInt(4) != VERSION) {
+            throw new CarbonToolException("Unsupported kernel counters file version " + mappedBuffer.getInt(4));
+        }
+        buffer = mappedBuffer;
+        fileIdentity = mappedFileIdentity;
+    }
+
+    private static Object getFileIdentity(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        // File systems without file keys, such as NTFS, tell a replaced file apart by its creation time.
+        return attributes.fileKey() != null ? attributes.fileKey() : attributes.creationTime();
+    }
+
+    private static long readStartTime(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int read = 0;
+            while (header.hasRemaining() && read >= 0) {
+                read = fileChannel.read(header);
+            }
+        }
+        return header.hasRemaining() ? -1 : header.getLong(START_TIME_OFFSET);
+    }
+
+    /**
+     * @return JVM start time in epoch milliseconds
+     */
+    public long getStartTime() {
+        return buffer.getLong(START_TIME_OFFSET);
+    }
+
+    /**
+     * @return time of the last update of the counters in epoch milliseconds
+     */
+    public long getUpdateTime() {
+        return buffer.getLong(24);
+    }
+
+    /**
+     * Reads the current value of each counter.
+     *
+     * @return counter values by name, in the order the counters were published
+     */
+    public Map<String, Long> getCounters() {
+        int entryLength = buffer.getInt(12);
+        int count = Math.min(buffer.getInt(8), (buffer.capacity() - HEADER_LENGTH) / entryLength);
+        int nameLength = entryLength - 8;
+        byte[] name = new byte[nameLength];
+
+        Map<String, Long> counters = new LinkedHashMap<>();
+        for (int entry = 0; entry < count; entry++) {
+            int offset = HEADER_LENGTH + entry * entryLength;
+            int length = 0;
+            while (length < nameLength && buffer.get(offset + length) != 0) {
+                name[length] = buffer.get(offset + length);
+                length++;
+            }
+            counters.put(new String(name, 0, length, StandardCharsets.UTF_8), buffer.getLong(offset + nameLength));
+        }
+        return counters;
+    }
+}
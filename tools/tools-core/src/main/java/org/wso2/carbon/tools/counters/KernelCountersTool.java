@@ -0,0 +1,114 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.tools.counters;
+
+import org.wso2.carbon.tools.CarbonTool;
+import org.wso2.carbon.tools.Constants;
+import org.wso2.carbon.tools.exception.CarbonToolException;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class defines a tool which prints the counters the Carbon kernel publishes to its runtime directory, without
+ * attaching to the JVM or connecting through JMX.
+ * <p>
+ * The counters are printed as name=value lines, once or at a given interval. At an interval, the tool follows the
+ * counters file across server restarts, and skips the samples taken while the file is missing.
+ *
+ * @since 5.3.1
+ */
+public class KernelCountersTool implements CarbonTool {
+    private static final Logger logger = Logger.getLogger(KernelCountersTool.class.getName());
+    private static final String HELP_MESSAGE = "Incorrect usage of the kernel counters tool.\n\n" +
+            "Usage: kernel-counters.sh|bat [runtime directory or counters file] [interval in milliseconds] " +
+            "[number of samples]\n";
+
+    private final PrintStream out;
+
+    public KernelCountersTool() {
+        this(System.out);
+    }
+
+    KernelCountersTool(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Executes the WSO2 Carbon kernel counters tool based on the specified arguments.
+     *
+     * @param toolArgs the runtime directory or the counters file, followed by the optional interval and
+     *                 number of samples
+     */
+    @Override
+    public void execute(String... toolArgs) {
+        if (toolArgs == null || toolArgs.length < 1 || toolArgs.length > 3 || toolArgs[0].isEmpty()) {
+            logger.log(Level.INFO, HELP_MESSAGE);
+            return;
+        }
+
+        long interval;
+        long samples;
+        try {
+            interval = toolArgs.length > 1 ? Long.parseLong(toolArgs[1]) : 0;
+            samples = toolArgs.length > 2 ? Long.parseLong(toolArgs[2]) : (interval > 0 ? Long.MAX_VALUE : 1);
+        } catch (NumberFormatException e) {
+            logger.log(Level.INFO, HELP_MESSAGE);
+            return;
+        }
+
+        Path file = Paths.get(toolArgs[0]);
+        if (Files.isDirectory(file)) {
+            file = file.resolve(Constants.KERNEL_COUNTERS_FILE_NAME);
+        }
+        try {
+            KernelCountersReader reader = new KernelCountersReader(file);
+            for (long sample = 0; sample < samples; sample++) {
+                if (sample > 0) {
+                    Thread.sleep(interval);
+                    try {
+                        reader.refresh();
+                    } catch (CarbonToolException e) {
+                        logger.log(Level.WARNING, "Error when reading the kernel counters, retrying", e);
+                        continue;
+                    }
+                    out.println();
+                }
+                print(reader);
+            }
+        } catch (CarbonToolException e) {
+            logger.log(Level.SEVERE, "Error when reading the kernel counters", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void print(KernelCountersReader reader) {
+        StringBuilder output = new StringBuilder();
+        output.append("carbon.counters.startTime=").append(reader.getStartTime()).append('\n');
+        output.append("carbon.counters.updateTime=").append(reader.getUpdateTime()).append('\n');
+        for (Map.Entry<String, Long> counter : reader.getCounters().entrySet()) {
+            output.append(counter.getKey()).append('=').append(counter.getValue()).append('\n');
+        }
+        out.print(output);
+        out.flush();
+    }
+}
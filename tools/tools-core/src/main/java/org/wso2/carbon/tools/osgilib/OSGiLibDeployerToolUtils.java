@@ -52,21 +52,20 @@ class OSGiLibDeployerToolUtils {
             Path osgiLibDirectoryPath = Paths.get(carbonHome, Constants.OSGI_LIB);
             logger.log(Level.FINE,
                     "Loading the new OSGi bundle information from " + Constants.OSGI_LIB + " folder...");
-            List<BundleInfo> newBundlesInfo = OSGiLibBundleDeployerUtils.getBundlesInfo(osgiLibDirectoryPath);
+            Path indexFile = Paths.get(carbonHome, Constants.OSGI_REPOSITORY, Constants.OSGI_LIB_INDEX);
+            List<BundleInfo> newBundlesInfo = OSGiLibBundleDeployerUtils.getBundlesInfo(osgiLibDirectoryPath,
+                    indexFile);
             logger.log(Level.FINE, "Successfully loaded the new OSGi bundle information from " + Constants.OSGI_LIB +
                     " folder");
 
             if (profile.equals("ALL")) {
-                OSGiLibBundleDeployerUtils.getCarbonProfiles(carbonHome)
-                        .forEach(carbonProfile -> {
-                            try {
-                                OSGiLibBundleDeployerUtils.updateOSGiLib(carbonHome, carbonProfile, newBundlesInfo);
-                            } catch (IOException e) {
-                                logger.log(Level.SEVERE,
-                                        "Failed to update the OSGi bundle information of Carbon Runtime: "
-                                                + carbonProfile, e);
-                            }
-                        });
+                //  the OSGi-lib folder is scanned once and the Carbon Runtimes are updated in parallel
+                List<String> carbonProfiles = OSGiLibBundleDeployerUtils.getCarbonProfiles(carbonHome);
+                try {
+                    OSGiLibBundleDeployerUtils.updateOSGiLibForProfiles(carbonHome, carbonProfiles, newBundlesInfo);
+                } catch (IOException e) {
+                    logger.log(Level.SEVERE, e.getMessage(), e);
+                }
             } else {
                 try {
                     OSGiLibBundleDeployerUtils.updateOSGiLib(carbonHome, profile, newBundlesInfo);
@@ -0,0 +1,145 @@
+/*
+ *  Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.tools.counters;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.tools.Constants;
+import org.wso2.carbon.tools.exception.CarbonToolException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Test class for {@link KernelCountersTool}.
+ *
+ * @since 5.3.1
+ */
+public class KernelCountersToolTest {
+    private static final int NAME_LENGTH = 56;
+    private static final int ENTRY_LENGTH = NAME_LENGTH + 8;
+
+    @Test
+    public void testReadCounters() throws IOException, CarbonToolException {
+        Path file = Files.createTempFile("carbon", ".counters");
+        try {
+            writeCounters(file, KernelCountersReader.MAGIC, "carbon.uptime", "carbon.runtime.active");
+            KernelCountersReader reader = new KernelCountersReader(file);
+            assertEquals(1000L, reader.getStartTime());
+            assertEquals(2000L, reader.getUpdateTime());
+            Map<String, Long> counters = reader.getCounters();
+            assertEquals(2, counters.size());
+            assertEquals(Long.valueOf(0), counters.get("carbon.uptime"));
+            assertEquals(Long.valueOf(1), counters.get("carbon.runtime.active"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(expectedExceptions = CarbonToolException.class)
+    public void testReadOtherFile() throws IOException, CarbonToolException {
+        Path file = Files.createTempFile("carbon", ".counters");
+        try {
+            writeCounters(file, 0, "carbon.uptime");
+            new KernelCountersReader(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testRefreshReplacedFile() throws IOException, CarbonToolException {
+        Path runtimeDirectory = Files.createTempDirectory("runtime");
+        Path file = runtimeDirectory.resolve(Constants.KERNEL_COUNTERS_FILE_NAME);
+        try {
+            writeCounters(file, KernelCountersReader.MAGIC, "carbon.uptime");
+            KernelCountersReader reader = new KernelCountersReader(file);
+            assertFalse(reader.refresh());
+
+            // A restarted server replaces the file, with a new JVM start time.
+            replaceCounters(file, 3000L, "carbon.uptime", "carbon.runtime.active");
+            assertTrue(reader.refresh());
+            assertEquals(3000L, reader.getStartTime());
+            assertEquals(2, reader.getCounters().size());
+            assertFalse(reader.refresh());
+
+            // A server restarted in the same JVM replaces the file with the same start time.
+            replaceCounters(file, 3000L, "carbon.uptime", "carbon.runtime.active", "carbon.runtime.inactive");
+            assertTrue(reader.refresh());
+            assertEquals(3, reader.getCounters().size());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(runtimeDirectory);
+        }
+    }
+
+    @Test(expectedExceptions = CarbonToolException.class)
+    public void testRefreshRemovedFile() throws IOException, CarbonToolException {
+        Path file = Files.createTempFile("carbon", ".counters");
+        writeCounters(file, KernelCountersReader.MAGIC, "carbon.uptime");
+        KernelCountersReader reader = new KernelCountersReader(file);
+        Files.delete(file);
+        reader.refresh();
+    }
+
+    @Test
+    public void testPrintCounters() throws IOException {
+        Path runtimeDirectory = Files.createTempDirectory("runtime");
+        Path file = runtimeDirectory.resolve(Constants.KERNEL_COUNTERS_FILE_NAME);
+        try {
+            writeCounters(file, KernelCountersReader.MAGIC, "carbon.uptime");
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            new KernelCountersTool(new PrintStream(output, true, "UTF-8")).execute(runtimeDirectory.toString(), "1",
+                    "2");
+            String sample = "carbon.counters.startTime=1000\ncarbon.counters.updateTime=2000\ncarbon.uptime=0\n";
+            assertEquals(sample + "\n" + sample, new String(output.toByteArray(), StandardCharsets.UTF_8));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(runtimeDirectory);
+        }
+    }
+
+    private static void replaceCounters(Path file, long startTime, String... names) throws IOException {
+        Path temporaryFile = Files.createTempFile(file.getParent(), "carbon", ".tmp");
+        writeCounters(temporaryFile, KernelCountersReader.MAGIC, startTime, names);
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeCounters(Path file, int magic, String... names) throws IOException {
+        writeCounters(file, magic, 1000L, names);
+    }
+
+    private static void writeCounters(Path file, int magic, long startTime, String... names) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(KernelCountersReader.HEADER_LENGTH + names.length * ENTRY_LENGTH);
+        buffer.putInt(magic).putInt(KernelCountersReader.VERSION).putInt(names.length).putInt(ENTRY_LENGTH)
+                .putLong(startTime).putLong(2000L);
+        for (int i = 0; i < names.length; i++) {
+            byte[] name = names[i].getBytes(StandardCharsets.UTF_8);
+            buffer.put(name).put(new byte[NAME_LENGTH - name.length]).putLong(i);
+        }
+        Files.write(file, buffer.array());
+    }
+}